@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.benchmarks;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.PrintWriter;
+
+import org.junit.Test;
+
+import ch.ethz.eventb.utils.EventBUtils;
+import ch.ethz.eventb.utils.benchmarks.FlightRecorder;
+import ch.ethz.eventb.utils.benchmarks.RecordingSummary;
+import ch.ethz.eventb.utils.tests.AbstractEventBTests;
+import ch.ethz.eventb.utils.tests.ChannelSetup;
+import ch.ethz.eventb.utils.tests.ModelGenerator;
+
+/**
+ * <p>
+ * Profiles a bulk generation workload with Java Flight Recorder and reports
+ * the top allocation sites and hot methods within the Event-B utilities. The
+ * workload builds the content of the <code>Channel</code> project in a number
+ * of projects (given by the system property <code>profile.channels</code>, by
+ * default <code>20</code>), then generates a model at scale <em>s</em> (given
+ * by the system property <code>profile.scale</code>, by default
+ * <code>8</code>, see {@link EventBSCUtilsBenchmarks}).
+ * </p>
+ * <p>
+ * Run with <code>mvn verify -Pjfr</code>. The recording and the report (with
+ * at most <code>profile.top</code> entries per section) are written in the
+ * <code>profile</code> sub-directory of the directory given by the system
+ * property <code>benchmark.output</code>.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see FlightRecorder
+ * @see RecordingSummary
+ * @since 0.2.5
+ */
+public class BulkGenerationProfile extends AbstractEventBTests {
+
+	// The name of the recording.
+	private static final String RECORDING = "BulkGeneration";
+
+	// The seed of the generated model.
+	private static final long SEED = 0;
+
+	/**
+	 * Profiles the bulk generation workload.
+	 */
+	@Test
+	public void testBulkGeneration() throws Exception {
+		assertTrue("Java Flight Recorder is not available in this JVM",
+				FlightRecorder.isAvailable());
+		File directory = new File(System.getProperty("benchmark.output",
+				"benchmarks"), "profile");
+		assertTrue("Cannot create directory " + directory,
+				directory.isDirectory() || directory.mkdirs());
+		File recording = new File(directory, RECORDING + ".jfr");
+
+		int channels = Integer.getInteger("profile.channels", 20);
+		int scale = Integer.getInteger("profile.scale", 8);
+		long start = System.nanoTime();
+		FlightRecorder.start(RECORDING);
+		try {
+			for (int i = 0; i < channels; i++) {
+				ChannelSetup.setup(EventBUtils.createEventBProject("Channel"
+						+ i, nullMonitor));
+			}
+			new ModelGenerator(SEED).setContexts(scale).setConstants(scale)
+					.setMachines(1).setRefinementDepth(scale - 1)
+					.setVariables(scale).setInvariants(scale).setEvents(scale)
+					.setGuards(2).setActions(2).setSeesLastContext(true)
+					.generate("Generated", nullMonitor);
+		} finally {
+			FlightRecorder.stop(RECORDING, recording);
+		}
+		long elapsed = System.nanoTime() - start;
+
+		RecordingSummary summary = new RecordingSummary();
+		summary.read(recording);
+		File report = new File(directory, RECORDING + ".txt");
+		PrintWriter writer = new PrintWriter(new FileWriter(report));
+		try {
+			summary.write(writer, String.format(
+					"%s: %d Channel projects, model scale %d, %,d ms",
+					RECORDING, channels, scale, elapsed / 1000000),
+					Integer.getInteger("profile.top", 20));
+		} finally {
+			writer.close();
+		}
+		System.out.println("Profile report written to " + report);
+	}
+
+}
@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.benchmarks;
+
+import org.eventb.core.IEventBProject;
+import org.junit.Test;
+
+import ch.ethz.eventb.utils.EventBUtils;
+import ch.ethz.eventb.utils.benchmarks.AbstractBenchmarks;
+import ch.ethz.eventb.utils.benchmarks.BenchmarkOperation;
+import ch.ethz.eventb.utils.benchmarks.BenchmarkResult;
+import ch.ethz.eventb.utils.tests.ChannelSetup;
+import ch.ethz.eventb.utils.tests.FixtureSnapshot;
+import ch.ethz.eventb.utils.tests.InMemoryRodinDatabase;
+
+/**
+ * <p>
+ * Benchmarks for the set up of the <code>Channel</code> fixture used by the
+ * tests of Event-B Utilities. The following set ups are measured:
+ * <ul>
+ * <li><code>setup(snapshot)</code>: {@link ChannelSetup#setup()}, i.e. the
+ * restore of the {@link FixtureSnapshot} of the project in the workspace, as
+ * done before each test of <code>EventBUtilsTests</code>.</li>
+ * <li><code>setup(workspace)</code>: building the fixture from scratch in a
+ * new project of the workspace.</li>
+ * <li><code>setup(InMemoryRodinDatabase)</code>: building the fixture from
+ * scratch in a new {@link InMemoryRodinDatabase}, as done before each test of
+ * <code>InMemoryEventBUtilsTests</code>.</li>
+ * </ul>
+ * The result of the in-memory set up records the metrics
+ * <code>speedup.snapshot</code> and <code>speedup.workspace</code>, i.e. the
+ * ratio of the mean time of the other set ups to its own mean time. The size
+ * of the benchmarks is meaningless since the fixture is fixed.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see ChannelSetup
+ * @see InMemoryRodinDatabase
+ * @since 0.2.5
+ */
+public class ChannelSetupBenchmarks extends AbstractBenchmarks {
+
+	// The sizes of the benchmarks.
+	private static final int[] SIZES = { 1 };
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see AbstractBenchmarks#getSizes()
+	 */
+	@Override
+	protected int[] getSizes() {
+		return SIZES;
+	}
+
+	/**
+	 * Benchmark for the set ups of the <code>Channel</code> fixture.
+	 */
+	@Test
+	public void testSetup() throws Exception {
+		BenchmarkResult snapshot = runner.run("setup(snapshot)", SIZES[0],
+				new WorkspaceOperation() {
+
+					@Override
+					public void setUp(int size) throws Exception {
+						super.setUp(size);
+						// Take the snapshot if needed.
+						ChannelSetup.setup();
+					}
+
+					@Override
+					public void run(int index) throws Exception {
+						ChannelSetup.setup();
+					}
+
+				});
+		report(snapshot);
+
+		BenchmarkResult workspace = runner.run("setup(workspace)", SIZES[0],
+				new WorkspaceOperation() {
+
+					@Override
+					public void run(int index) throws Exception {
+						IEventBProject prj = EventBUtils.createEventBProject(
+								"Channel" + index, nullMonitor);
+						ChannelSetup.setup(prj);
+					}
+
+				});
+		report(workspace);
+
+		BenchmarkResult inMemory = runner.run("setup(InMemoryRodinDatabase)",
+				SIZES[0], new BenchmarkOperation() {
+
+					@Override
+					public void run(int index) throws Exception {
+						ChannelSetup.setup(new InMemoryRodinDatabase()
+								.createEventBProject("Channel"));
+					}
+
+				});
+		inMemory.addMetric("speedup.snapshot",
+				snapshot.getNanosPerOperation()
+						/ inMemory.getNanosPerOperation());
+		inMemory.addMetric("speedup.workspace",
+				workspace.getNanosPerOperation()
+						/ inMemory.getNanosPerOperation());
+		report(inMemory);
+	}
+
+	/**
+	 * An operation on the workspace, which is cleaned before and after each
+	 * iteration.
+	 */
+	private abstract class WorkspaceOperation extends BenchmarkOperation {
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see BenchmarkOperation#setUp(int)
+		 */
+		@Override
+		public void setUp(int size) throws Exception {
+			cleanWorkspace();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see BenchmarkOperation#tearDown()
+		 */
+		@Override
+		public void tearDown() throws Exception {
+			cleanWorkspace();
+		}
+
+	}
+
+}
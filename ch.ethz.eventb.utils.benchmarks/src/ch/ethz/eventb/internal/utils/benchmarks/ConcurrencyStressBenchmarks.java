@@ -0,0 +1,386 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eventb.core.IAxiom;
+import org.eventb.core.IContextRoot;
+import org.eventb.core.IConvergenceElement.Convergence;
+import org.eventb.core.IEvent;
+import org.eventb.core.IEventBProject;
+import org.eventb.core.IInvariant;
+import org.eventb.core.IMachineRoot;
+import org.eventb.core.IVariable;
+import org.junit.Test;
+import org.rodinp.core.IRodinFile;
+
+import ch.ethz.eventb.utils.EventBSCUtils;
+import ch.ethz.eventb.utils.EventBUtils;
+import ch.ethz.eventb.utils.benchmarks.AbstractBenchmarks;
+import ch.ethz.eventb.utils.benchmarks.BenchmarkResult;
+import ch.ethz.eventb.utils.tests.ModelGenerator;
+
+/**
+ * <p>
+ * Stress test of concurrent calls to the Event-B utilities against the same
+ * project. For each thread count (given by the system property
+ * <code>benchmark.stress.threads</code>, by default <code>1,2,4,8</code>), a
+ * statically checked project is generated (see
+ * {@link EventBSCUtilsBenchmarks}) and every thread runs
+ * <code>benchmark.operations</code> randomised operations on its most
+ * concrete machine and the context it sees, started simultaneously:
+ * <ul>
+ * <li>creating an event with a guard and an action,</li>
+ * <li>creating an axiom,</li>
+ * <li>creating a variable and its typing invariant,</li>
+ * <li>querying the statically checked machine with {@link EventBSCUtils} and
+ * looking up an event created earlier by the thread.</li>
+ * </ul>
+ * The random seeds are fixed, so that the operations of each thread are
+ * reproducible (their interleaving is not).
+ * </p>
+ * <p>
+ * Afterwards, the files are saved and reloaded, and the following invariants
+ * are checked: no operation failed, every created element exists exactly
+ * once (no lost elements), the labels and identifiers of each component are
+ * unique, and every created event has exactly one guard and one action. The
+ * throughput (over all threads) is reported for each thread count, with the
+ * number of violations as the <code>errors</code> metric; the test fails if
+ * some invariant is violated.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBUtils
+ * @see EventBSCUtils
+ * @since 0.2.5
+ */
+public class ConcurrencyStressBenchmarks extends AbstractBenchmarks {
+
+	// The name of the project used for stress testing.
+	private static final String PROJECT_NAME = "Stress";
+
+	// The default thread counts.
+	private static final String DEFAULT_THREADS = "1,2,4,8";
+
+	// The scale of the generated project.
+	private static final int SCALE = 4;
+
+	// The seed of the generated model and of the threads.
+	private static final long SEED = 0;
+
+	// The number of kinds of operations.
+	private static final int KINDS = 4;
+
+	// The generated project.
+	private IEventBProject prj;
+
+	// The machine under stress.
+	private IMachineRoot mch;
+
+	// The context under stress.
+	private IContextRoot ctx;
+
+	// The failures and invariant violations of the current round.
+	private final List<String> violations = Collections
+			.synchronizedList(new ArrayList<String>());
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see AbstractBenchmarks#getSizes()
+	 */
+	@Override
+	protected int[] getSizes() {
+		return getSizes("benchmark.stress.threads", DEFAULT_THREADS);
+	}
+
+	/**
+	 * Stress test of concurrent creations and queries.
+	 */
+	@Test
+	public void testConcurrentCreateAndQuery() throws Exception {
+		int operations = Integer.getInteger("benchmark.operations", 100);
+		int rounds = Integer.getInteger("benchmark.iterations", 5);
+		List<String> failures = new ArrayList<String>();
+		for (int threads : getSizes()) {
+			long[] nanos = new long[rounds];
+			long[] bytes = new long[rounds];
+			Arrays.fill(bytes, -1);
+			int errors = 0;
+			for (int round = 0; round < rounds; round++) {
+				violations.clear();
+				generate();
+				nanos[round] = runRound(threads, operations);
+				errors += violations.size();
+				for (String violation : violations) {
+					failures.add(threads + " threads, round " + round + ": "
+							+ violation);
+				}
+			}
+			BenchmarkResult result = new BenchmarkResult("createAndQuery",
+					threads, threads * operations, nanos, bytes);
+			result.addMetric("errors", errors);
+			report(result);
+		}
+		if (!failures.isEmpty()) {
+			StringBuilder message = new StringBuilder(
+					"Concurrency invariants violated:");
+			for (String failure : failures.subList(0,
+					Math.min(20, failures.size()))) {
+				message.append("\n  ").append(failure);
+			}
+			fail(message.toString());
+		}
+	}
+
+	/**
+	 * Utility method to run a round of concurrent operations and check the
+	 * invariants afterwards. Failures and violations are recorded in
+	 * {@link #violations}.
+	 * 
+	 * @param threads
+	 *            the number of threads.
+	 * @param operations
+	 *            the number of operations per thread.
+	 * @return the elapsed time in nanoseconds.
+	 * @throws Exception
+	 *             if some unexpected error occurs while checking the
+	 *             invariants.
+	 */
+	private long runRound(int threads, int operations) throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		Worker[] workers = new Worker[threads];
+		for (int i = 0; i < threads; i++) {
+			workers[i] = new Worker(i, operations, start);
+			workers[i].start();
+		}
+		long begin = System.nanoTime();
+		start.countDown();
+		for (Worker worker : workers) {
+			worker.join();
+		}
+		long elapsed = System.nanoTime() - begin;
+
+		// Save and reload the files, then check the invariants.
+		for (IRodinFile file : prj.getRodinProject().getRodinFiles()) {
+			if (file.hasUnsavedChanges())
+				file.save(nullMonitor, false);
+			file.close();
+		}
+		Map<String, Integer> events = count(mch.getEvents());
+		Map<String, Integer> invariants = count(mch.getInvariants());
+		Map<String, Integer> axioms = count(ctx.getAxioms());
+		Map<String, Integer> variables = new HashMap<String, Integer>();
+		for (IVariable var : mch.getVariables()) {
+			increment(variables, var.getIdentifierString());
+		}
+		checkUnique("event", events);
+		checkUnique("invariant", invariants);
+		checkUnique("axiom", axioms);
+		checkUnique("variable", variables);
+		for (Worker worker : workers) {
+			checkCreated("event", events, worker.events);
+			checkCreated("invariant", invariants, worker.invariants);
+			checkCreated("axiom", axioms, worker.axioms);
+			checkCreated("variable", variables, worker.variables);
+			for (String label : worker.events) {
+				IEvent evt = EventBUtils.getEvent(mch, label);
+				if (evt == null)
+					continue;
+				if (evt.getGuards().length != 1 || evt.getActions().length != 1)
+					violations.add("event " + label + " has "
+							+ evt.getGuards().length + " guards and "
+							+ evt.getActions().length + " actions");
+			}
+		}
+		return elapsed;
+	}
+
+	/**
+	 * Utility method to generate and statically check the project.
+	 * 
+	 * @throws Exception
+	 *             if some unexpected error occurs.
+	 */
+	private void generate() throws Exception {
+		if (prj != null)
+			prj.getRodinProject().getProject().delete(true, nullMonitor);
+		prj = new ModelGenerator(SEED).setContexts(SCALE).setConstants(SCALE)
+				.setMachines(1).setRefinementDepth(SCALE - 1)
+				.setVariables(SCALE).setInvariants(SCALE).setEvents(SCALE)
+				.setGuards(2).setActions(2).setSeesLastContext(true)
+				.generate(PROJECT_NAME, nullMonitor);
+		workspace.build(IncrementalProjectBuilder.FULL_BUILD, nullMonitor);
+		mch = prj.getMachineRoot(ModelGenerator.getMachineName(0, SCALE - 1));
+		ctx = prj.getContextRoot(ModelGenerator.getContextName(SCALE - 1));
+	}
+
+	/**
+	 * Utility method to count the labels of some axioms, invariants or
+	 * events.
+	 */
+	private static Map<String, Integer> count(Object[] elements)
+			throws Exception {
+		Map<String, Integer> result = new HashMap<String, Integer>();
+		for (Object element : elements) {
+			if (element instanceof IAxiom)
+				increment(result, ((IAxiom) element).getLabel());
+			else if (element instanceof IInvariant)
+				increment(result, ((IInvariant) element).getLabel());
+			else
+				increment(result, ((IEvent) element).getLabel());
+		}
+		return result;
+	}
+
+	/**
+	 * Utility method to increment the count of a label.
+	 */
+	private static void increment(Map<String, Integer> counts, String label) {
+		Integer old = counts.get(label);
+		counts.put(label, old == null ? 1 : old + 1);
+	}
+
+	/**
+	 * Utility method to check that labels are unique.
+	 */
+	private void checkUnique(String kind, Map<String, Integer> counts) {
+		for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+			if (entry.getValue() > 1)
+				violations.add(kind + " " + entry.getKey() + " occurs "
+						+ entry.getValue() + " times");
+		}
+	}
+
+	/**
+	 * Utility method to check that created elements exist.
+	 */
+	private void checkCreated(String kind, Map<String, Integer> counts,
+			List<String> created) {
+		for (String label : created) {
+			if (!counts.containsKey(label))
+				violations.add(kind + " " + label + " is lost");
+		}
+	}
+
+	/**
+	 * <p>
+	 * A thread running randomised operations, and recording the labels and
+	 * identifiers of the elements it created successfully.
+	 * </p>
+	 */
+	private class Worker extends Thread {
+
+		// The index of the thread.
+		private final int index;
+
+		// The number of operations.
+		private final int operations;
+
+		// The latch starting all threads at once.
+		private final CountDownLatch latch;
+
+		// The random generator of the operations.
+		private final Random random;
+
+		// The created elements.
+		final List<String> events = new ArrayList<String>();
+		final List<String> invariants = new ArrayList<String>();
+		final List<String> axioms = new ArrayList<String>();
+		final List<String> variables = new ArrayList<String>();
+
+		Worker(int index, int operations, CountDownLatch latch) {
+			super("Stress-" + index);
+			this.index = index;
+			this.operations = operations;
+			this.latch = latch;
+			this.random = new Random(SEED + index);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see Thread#run()
+		 */
+		@Override
+		public void run() {
+			try {
+				latch.await();
+			} catch (InterruptedException e) {
+				return;
+			}
+			for (int i = 0; i < operations; i++) {
+				try {
+					operate(i);
+				} catch (Throwable e) {
+					violations.add("operation " + i + " of thread " + index
+							+ " failed: " + e);
+				}
+			}
+		}
+
+		/**
+		 * Runs a random operation.
+		 */
+		private void operate(int i) throws Exception {
+			String suffix = "t" + index + "_" + i;
+			switch (random.nextInt(KINDS)) {
+			case 0:
+				IEvent evt = EventBUtils.createEvent(mch, "evt_" + suffix,
+						Convergence.ORDINARY, false, null, nullMonitor);
+				EventBUtils.createGuard(evt, "grd1", "⊤", false, null,
+						nullMonitor);
+				EventBUtils.createAction(evt, "act1", "v0_0 ≔ v0_0", null,
+						nullMonitor);
+				events.add("evt_" + suffix);
+				break;
+			case 1:
+				EventBUtils.createAxiom(ctx, "axm_" + suffix, "⊤", false,
+						null, nullMonitor);
+				axioms.add("axm_" + suffix);
+				break;
+			case 2:
+				EventBUtils.createVariable(mch, "v_" + suffix, null,
+						nullMonitor);
+				variables.add("v_" + suffix);
+				EventBUtils.createInvariant(mch, "typ_" + suffix, "v_"
+						+ suffix + " ∈ ℤ", false, null, nullMonitor);
+				invariants.add("typ_" + suffix);
+				break;
+			default:
+				EventBSCUtils.getSCInvariants(mch, false);
+				EventBSCUtils.getSCSeenAxioms(mch, false);
+				if (!events.isEmpty()) {
+					String label = events.get(random.nextInt(events.size()));
+					if (EventBUtils.getEvent(mch, label) == null)
+						violations.add("event " + label
+								+ " not found by thread " + index);
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,349 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.benchmarks;
+
+import java.util.Map;
+
+import org.eventb.core.IAction;
+import org.eventb.core.IContextRoot;
+import org.eventb.core.IEvent;
+import org.eventb.core.IEventBProject;
+import org.eventb.core.IGuard;
+import org.eventb.core.IMachineRoot;
+import org.junit.After;
+import org.junit.Test;
+import org.rodinp.core.IRodinFile;
+
+import ch.ethz.eventb.ui.utils.EventBContentProvider;
+import ch.ethz.eventb.ui.utils.EventBLabelProvider;
+import ch.ethz.eventb.ui.utils.EventBSearchFilter;
+import ch.ethz.eventb.ui.utils.EventBSearchIndex;
+import ch.ethz.eventb.ui.utils.EventBViewerFilter;
+import ch.ethz.eventb.utils.benchmarks.AbstractBenchmarks;
+import ch.ethz.eventb.utils.benchmarks.BenchmarkOperation;
+import ch.ethz.eventb.utils.benchmarks.BenchmarkResult;
+import ch.ethz.eventb.utils.benchmarks.ProviderHarness;
+import ch.ethz.eventb.utils.tests.ModelGenerator;
+
+/**
+ * <p>
+ * Benchmarks for the UI providers, driven headlessly by a
+ * {@link ProviderHarness}. For a scale <em>s</em> (given by the system
+ * property <code>benchmark.ui.sizes</code>, by default <code>10,50,250</code>
+ * ), a project is generated with two contexts having <em>s</em> constants and
+ * axioms each, and two refinement chains of two machines, each machine
+ * introducing <em>s</em> variables, <em>s</em> invariants and <em>s</em>
+ * events. The project is the input of the tree.
+ * </p>
+ * <p>
+ * Besides throughput and allocation, the following metrics are recorded for
+ * each interaction:
+ * <ul>
+ * <li><code>nodes</code>: the number of nodes visited by the interaction.</li>
+ * <li><code>nanosPerNode</code>: the mean time per visited node.</li>
+ * <li><code>calls.</code><em>method</em>: the number of calls to each
+ * provider method by the interaction.</li>
+ * <li><code>filesLoaded</code>: the number of files of the project opened by
+ * the interaction when all files are closed beforehand.</li>
+ * </ul>
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see ProviderHarness
+ * @since 0.2.5
+ */
+public class EventBProviderBenchmarks extends AbstractBenchmarks {
+
+	// The name of the project used for benchmarking.
+	private static final String PROJECT_NAME = "UIBenchmark";
+
+	// The default scales.
+	private static final String DEFAULT_SIZES = "10,50,250";
+
+	// The seed of the generated models.
+	private static final long SEED = 0;
+
+	// The generated project, or null.
+	private IEventBProject prj;
+
+	// The scale of the generated project.
+	private int generatedSize = -1;
+
+	// The search index of the generated project, or null.
+	private EventBSearchIndex searchIndex;
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see AbstractBenchmarks#getSizes()
+	 */
+	@Override
+	protected int[] getSizes() {
+		return getSizes("benchmark.ui.sizes", DEFAULT_SIZES);
+	}
+
+	/**
+	 * <ol>
+	 * <li>Dispose the search index, if any.</li>
+	 * <li>Super method.</li>
+	 * </ol>
+	 * 
+	 * @see AbstractBenchmarks#tearDown()
+	 */
+	@After
+	@Override
+	protected void tearDown() throws Exception {
+		disposeIndex();
+		super.tearDown();
+	}
+
+	/**
+	 * Benchmark for the full expansion of a tree using
+	 * {@link EventBContentProvider}.
+	 */
+	@Test
+	public void testExpandAll() throws Exception {
+		benchmark("expandAll", new HarnessOperation() {
+
+			@Override
+			protected ProviderHarness createHarness() {
+				return new ProviderHarness(new EventBContentProvider(), null);
+			}
+
+			@Override
+			protected int interact(int index) {
+				harness.setInput(prj.getRodinProject());
+				return harness.expandAll();
+			}
+
+		});
+	}
+
+	/**
+	 * Benchmark for the full expansion of a tree using
+	 * {@link EventBContentProvider} and an {@link EventBViewerFilter}
+	 * accepting components, events, guards and actions.
+	 */
+	@Test
+	public void testExpandAllWithTypeFilter() throws Exception {
+		benchmark("expandAll(EventBViewerFilter)", new HarnessOperation() {
+
+			@Override
+			protected ProviderHarness createHarness() {
+				return new ProviderHarness(new EventBContentProvider(), null,
+						new EventBViewerFilter(IContextRoot.ELEMENT_TYPE,
+								IMachineRoot.ELEMENT_TYPE, IEvent.ELEMENT_TYPE,
+								IGuard.ELEMENT_TYPE, IAction.ELEMENT_TYPE));
+			}
+
+			@Override
+			protected int interact(int index) {
+				harness.setInput(prj.getRodinProject());
+				return harness.expandAll();
+			}
+
+		});
+	}
+
+	/**
+	 * Benchmark for the painting of a fully expanded tree using
+	 * {@link EventBLabelProvider}.
+	 */
+	@Test
+	public void testRepaint() throws Exception {
+		benchmark("repaint", new HarnessOperation() {
+
+			@Override
+			protected ProviderHarness createHarness() {
+				ProviderHarness result = new ProviderHarness(
+						new EventBContentProvider(), new EventBLabelProvider());
+				result.setInput(prj.getRodinProject());
+				result.expandAll();
+				return result;
+			}
+
+			@Override
+			protected int interact(int index) {
+				return harness.repaint();
+			}
+
+		});
+	}
+
+	/**
+	 * Benchmark for the filtering of a fully expanded tree using an
+	 * {@link EventBSearchFilter}, changing the search text for each
+	 * operation.
+	 */
+	@Test
+	public void testSearchFilter() throws Exception {
+		benchmark("refilter(EventBSearchFilter)", new HarnessOperation() {
+
+			// The search texts, used in turn.
+			private final String[] texts = { "grd", "evt1", "v0_", "inv1_1" };
+
+			// The search filter.
+			private EventBSearchFilter filter;
+
+			@Override
+			protected ProviderHarness createHarness() throws Exception {
+				if (searchIndex == null) {
+					searchIndex = new EventBSearchIndex(prj.getRodinProject());
+					searchIndex.waitUntilReady();
+				}
+				filter = new EventBSearchFilter(searchIndex, -1);
+				ProviderHarness result = new ProviderHarness(
+						new EventBContentProvider(), null, filter);
+				result.setInput(prj.getRodinProject());
+				result.expandAll();
+				return result;
+			}
+
+			@Override
+			protected int interact(int index) {
+				filter.setSearchText(texts[index % texts.length]);
+				harness.refilter();
+				return harness.getNodes().size();
+			}
+
+		});
+	}
+
+	/**
+	 * Utility method to generate the project of the given scale, unless it is
+	 * already generated.
+	 * 
+	 * @param size
+	 *            the scale of the project.
+	 * @throws Exception
+	 *             if some unexpected error occurs.
+	 */
+	private void generate(int size) throws Exception {
+		if (size == generatedSize)
+			return;
+		disposeIndex();
+		if (prj != null)
+			prj.getRodinProject().getProject().delete(true, nullMonitor);
+		prj = new ModelGenerator(SEED).setContexts(2).setConstants(size)
+				.setAxioms(size).setMachines(2).setRefinementDepth(1)
+				.setVariables(size).setInvariants(size).setEvents(size)
+				.setGuards(2).setActions(2)
+				.generate(PROJECT_NAME, nullMonitor);
+		generatedSize = size;
+	}
+
+	/**
+	 * Utility method to dispose the search index, if any.
+	 */
+	private void disposeIndex() {
+		if (searchIndex != null) {
+			searchIndex.dispose();
+			searchIndex = null;
+		}
+	}
+
+	/**
+	 * <p>
+	 * The base class of the benchmarked interactions. For each iteration, a
+	 * new harness is created on the generated project.
+	 * </p>
+	 */
+	private abstract class HarnessOperation extends BenchmarkOperation {
+
+		/**
+		 * The harness of the current iteration.
+		 */
+		protected ProviderHarness harness;
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see BenchmarkOperation#setUp(int)
+		 */
+		@Override
+		public void setUp(int size) throws Exception {
+			generate(size);
+			harness = createHarness();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see BenchmarkOperation#run(int)
+		 */
+		@Override
+		public void run(int index) throws Exception {
+			interact(index);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see BenchmarkOperation#collectMetrics(BenchmarkResult)
+		 */
+		@Override
+		public void collectMetrics(BenchmarkResult result) throws Exception {
+			for (IRodinFile file : prj.getRodinProject().getRodinFiles()) {
+				file.close();
+			}
+			harness.resetCalls();
+			int nodes = interact(0);
+			int filesLoaded = 0;
+			for (IRodinFile file : prj.getRodinProject().getRodinFiles()) {
+				if (file.isOpen())
+					filesLoaded++;
+			}
+			result.addMetric("nodes", nodes);
+			result.addMetric("nanosPerNode", nodes == 0 ? 0
+					: result.getNanosPerOperation() / nodes);
+			for (Map.Entry<String, Integer> call : harness.getCalls()
+					.entrySet()) {
+				result.addMetric("calls." + call.getKey(), call.getValue());
+			}
+			result.addMetric("filesLoaded", filesLoaded);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see BenchmarkOperation#tearDown()
+		 */
+		@Override
+		public void tearDown() throws Exception {
+			harness.dispose();
+		}
+
+		/**
+		 * Creates the harness of an iteration.
+		 * 
+		 * @return the harness.
+		 * @throws Exception
+		 *             if some unexpected error occurs.
+		 */
+		protected abstract ProviderHarness createHarness() throws Exception;
+
+		/**
+		 * Runs the interaction.
+		 * 
+		 * @param index
+		 *            the index of the operation within the iteration.
+		 * @return the number of nodes visited by the interaction.
+		 */
+		protected abstract int interact(int index);
+
+	}
+
+}
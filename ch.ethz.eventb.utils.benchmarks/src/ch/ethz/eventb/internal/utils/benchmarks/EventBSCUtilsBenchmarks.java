@@ -0,0 +1,283 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.benchmarks;
+
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eventb.core.IEventBProject;
+import org.eventb.core.IMachineRoot;
+import org.eventb.core.ISCVariable;
+import org.junit.Test;
+import org.rodinp.core.IRodinFile;
+
+import ch.ethz.eventb.utils.EventBSCUtils;
+import ch.ethz.eventb.utils.benchmarks.AbstractBenchmarks;
+import ch.ethz.eventb.utils.benchmarks.BenchmarkOperation;
+import ch.ethz.eventb.utils.benchmarks.BenchmarkResult;
+import ch.ethz.eventb.utils.tests.ModelGenerator;
+
+/**
+ * <p>
+ * Benchmarks for EventB SC Utilities. For a scale <em>s</em> (given by the
+ * system property <code>benchmark.sc.sizes</code>, by default
+ * <code>2,4,8,16</code>), a project is generated with a chain of <em>s</em>
+ * contexts, each having <em>s</em> constants, and a refinement chain of
+ * <em>s</em> machines, each introducing <em>s</em> variables, <em>s</em>
+ * invariants and <em>s</em> events. The project is statically checked, and
+ * the queries are applied to the most concrete machine, which therefore sees
+ * <em>s</em> contexts, <em>s</em>&#178; constants and has <em>s</em>&#178;
+ * variables and invariants.
+ * </p>
+ * <p>
+ * Besides throughput and allocation (with the files already loaded), the
+ * following metrics are recorded for each query:
+ * <ul>
+ * <li><code>filesLoaded</code>: the number of files of the project opened by
+ * the query when all files are closed beforehand.</li>
+ * <li><code>coldNanos</code>: the latency of the query, in nanoseconds, when
+ * all files are closed beforehand.</li>
+ * </ul>
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBSCUtils
+ * @see ModelGenerator
+ * @since 0.2.5
+ */
+public class EventBSCUtilsBenchmarks extends AbstractBenchmarks {
+
+	// The name of the project used for benchmarking.
+	private static final String PROJECT_NAME = "SCBenchmark";
+
+	// The default scales.
+	private static final String DEFAULT_SIZES = "2,4,8,16";
+
+	// The seed of the generated models.
+	private static final long SEED = 0;
+
+	// The generated project, or null.
+	private IEventBProject prj;
+
+	// The scale of the generated project.
+	private int generatedSize = -1;
+
+	// The most concrete machine of the generated project.
+	private IMachineRoot mch;
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see AbstractBenchmarks#getSizes()
+	 */
+	@Override
+	protected int[] getSizes() {
+		return getSizes("benchmark.sc.sizes", DEFAULT_SIZES);
+	}
+
+	/**
+	 * Benchmark for {@link EventBSCUtils#getSCSeenAxioms(IMachineRoot, boolean)}.
+	 */
+	@Test
+	public void testGetSCSeenAxioms() throws Exception {
+		benchmark("getSCSeenAxioms", new QueryOperation() {
+
+			@Override
+			protected void query() throws Exception {
+				EventBSCUtils.getSCSeenAxioms(mch, false);
+			}
+
+		});
+	}
+
+	/**
+	 * Benchmark for {@link EventBSCUtils#getSCInvariants(IMachineRoot, boolean)}.
+	 */
+	@Test
+	public void testGetSCInvariants() throws Exception {
+		benchmark("getSCInvariants", new QueryOperation() {
+
+			@Override
+			protected void query() throws Exception {
+				EventBSCUtils.getSCInvariants(mch, false);
+			}
+
+		});
+	}
+
+	/**
+	 * Benchmark for
+	 * {@link EventBSCUtils#getSCSeenCarrierSetIdentifierStrings(IMachineRoot)}.
+	 */
+	@Test
+	public void testGetSCSeenCarrierSetIdentifierStrings() throws Exception {
+		benchmark("getSCSeenCarrierSetIdentifierStrings",
+				new QueryOperation() {
+
+					@Override
+					protected void query() throws Exception {
+						EventBSCUtils.getSCSeenCarrierSetIdentifierStrings(mch);
+					}
+
+				});
+	}
+
+	/**
+	 * Benchmark for
+	 * {@link EventBSCUtils#getSCSeenConstantIdentifierStrings(IMachineRoot)}.
+	 */
+	@Test
+	public void testGetSCSeenConstantIdentifierStrings() throws Exception {
+		benchmark("getSCSeenConstantIdentifierStrings", new QueryOperation() {
+
+			@Override
+			protected void query() throws Exception {
+				EventBSCUtils.getSCSeenConstantIdentifierStrings(mch);
+			}
+
+		});
+	}
+
+	/**
+	 * Benchmark for {@link EventBSCUtils#getVariableType(IMachineRoot, String)}.
+	 * Each operation looks up the types of all variables of the machine, as
+	 * clients typically do, which shows the cost of the linear search.
+	 */
+	@Test
+	public void testGetVariableType() throws Exception {
+		benchmark("getVariableType(all)", new QueryOperation() {
+
+			// The identifiers of the variables of the machine.
+			private String[] identifiers;
+
+			@Override
+			public void setUp(int size) throws Exception {
+				super.setUp(size);
+				ISCVariable[] variables = mch.getSCMachineRoot()
+						.getSCVariables();
+				identifiers = new String[variables.length];
+				for (int i = 0; i < variables.length; i++) {
+					identifiers[i] = variables[i].getIdentifierString();
+				}
+			}
+
+			@Override
+			protected void query() throws Exception {
+				for (String identifier : identifiers) {
+					EventBSCUtils.getVariableType(mch, identifier);
+				}
+			}
+
+		});
+	}
+
+	/**
+	 * Utility method to generate and statically check the project of the
+	 * given scale, unless it is already generated.
+	 * 
+	 * @param size
+	 *            the scale of the project.
+	 * @throws Exception
+	 *             if some unexpected error occurs.
+	 */
+	private void generate(int size) throws Exception {
+		if (size == generatedSize)
+			return;
+		if (prj != null)
+			prj.getRodinProject().getProject().delete(true, nullMonitor);
+		prj = new ModelGenerator(SEED).setContexts(size).setConstants(size)
+				.setMachines(1).setRefinementDepth(size - 1)
+				.setVariables(size).setInvariants(size).setEvents(size)
+				.setGuards(2).setActions(2).setSeesLastContext(true)
+				.generate(PROJECT_NAME, nullMonitor);
+		workspace.build(IncrementalProjectBuilder.FULL_BUILD, nullMonitor);
+		mch = prj.getMachineRoot(ModelGenerator.getMachineName(0, size - 1));
+		generatedSize = size;
+	}
+
+	/**
+	 * Utility method to close all files of the generated project.
+	 */
+	private void closeFiles() throws Exception {
+		for (IRodinFile file : prj.getRodinProject().getRodinFiles()) {
+			file.close();
+		}
+	}
+
+	/**
+	 * Utility method to count the open files of the generated project.
+	 */
+	private int countOpenFiles() throws Exception {
+		int count = 0;
+		for (IRodinFile file : prj.getRodinProject().getRodinFiles()) {
+			if (file.isOpen())
+				count++;
+		}
+		return count;
+	}
+
+	/**
+	 * <p>
+	 * The base class of the benchmarked queries, on the most concrete machine
+	 * of the generated project.
+	 * </p>
+	 */
+	private abstract class QueryOperation extends BenchmarkOperation {
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see BenchmarkOperation#setUp(int)
+		 */
+		@Override
+		public void setUp(int size) throws Exception {
+			generate(size);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see BenchmarkOperation#run(int)
+		 */
+		@Override
+		public void run(int index) throws Exception {
+			query();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see BenchmarkOperation#collectMetrics(BenchmarkResult)
+		 */
+		@Override
+		public void collectMetrics(BenchmarkResult result) throws Exception {
+			closeFiles();
+			long start = System.nanoTime();
+			query();
+			long end = System.nanoTime();
+			result.addMetric("filesLoaded", countOpenFiles());
+			result.addMetric("coldNanos", end - start);
+		}
+
+		/**
+		 * Runs the query.
+		 * 
+		 * @throws Exception
+		 *             if some unexpected error occurs.
+		 */
+		protected abstract void query() throws Exception;
+
+	}
+
+}
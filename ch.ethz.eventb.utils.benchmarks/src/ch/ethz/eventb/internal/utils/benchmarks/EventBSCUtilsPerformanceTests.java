@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+
+import ch.ethz.eventb.utils.EventBSCUtils;
+import ch.ethz.eventb.utils.benchmarks.BenchmarkOperation;
+import ch.ethz.eventb.utils.benchmarks.BenchmarkResult;
+import ch.ethz.eventb.utils.benchmarks.BenchmarkRunner;
+import ch.ethz.eventb.utils.benchmarks.PerformanceGate;
+
+/**
+ * <p>
+ * Performance regression tests for the queries of {@link EventBSCUtils}. The
+ * workloads of {@link EventBSCUtilsBenchmarks} are run with fixed settings at a
+ * fixed scale, and each result is checked against the performance
+ * baseline (see {@link PerformanceGate}). These tests are run by the default
+ * build, the baseline only containing the machine-independent numbers of
+ * files loaded by the queries.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBSCUtils
+ * @since 0.2.5
+ */
+public class EventBSCUtilsPerformanceTests extends EventBSCUtilsBenchmarks {
+
+	// The scale of the workloads.
+	private static final int SIZE = 4;
+
+	// The runner with the fixed settings of the regression tests.
+	private final BenchmarkRunner gateRunner = new BenchmarkRunner(2, 3, 20);
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see AbstractBenchmarks#getSizes()
+	 */
+	@Override
+	protected int[] getSizes() {
+		return new int[] { SIZE };
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see AbstractBenchmarks#benchmark(String, BenchmarkOperation)
+	 */
+	@Override
+	protected List<BenchmarkResult> benchmark(String name,
+			BenchmarkOperation operation) throws Exception {
+		BenchmarkResult result = gateRunner.run(name, SIZE, operation);
+		report(result);
+		checkRegressions(result);
+		return Collections.singletonList(result);
+	}
+
+}
@@ -0,0 +1,479 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.benchmarks;
+
+import org.eventb.core.IContextRoot;
+import org.eventb.core.IConvergenceElement.Convergence;
+import org.eventb.core.IEvent;
+import org.eventb.core.IEventBProject;
+import org.eventb.core.IMachineRoot;
+import org.junit.Test;
+
+import ch.ethz.eventb.utils.EventBUtils;
+import ch.ethz.eventb.utils.benchmarks.AbstractBenchmarks;
+import ch.ethz.eventb.utils.benchmarks.ModelOperation;
+
+/**
+ * <p>
+ * Benchmarks for Event-B Utilities. Each benchmark measures an operation of
+ * {@link EventBUtils} applied to a model where the container of the created
+ * (or looked up) elements already has <em>size</em> children of the same
+ * kind, e.g. creating a guard in an event with <em>size</em> guards. The
+ * number of database operations per operation is also recorded (see
+ * {@link ModelOperation}).
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBUtils
+ * @since 0.2.5
+ */
+public class EventBUtilsBenchmarks extends AbstractBenchmarks {
+
+	/**
+	 * Benchmark for
+	 * {@link EventBUtils#createContext(IEventBProject, String, org.eclipse.core.runtime.IProgressMonitor)}
+	 * .
+	 */
+	@Test
+	public void testCreateContext() throws Exception {
+		benchmark("createContext", new ModelOperation() {
+
+			@Override
+			protected void populate(int size) throws Exception {
+				for (int i = 0; i < size; i++) {
+					EventBUtils.createContext(prj, "c" + i, nullMonitor);
+				}
+			}
+
+			@Override
+			public void run(int index) throws Exception {
+				EventBUtils.createContext(prj, "new" + index, nullMonitor);
+			}
+
+		});
+	}
+
+	/**
+	 * Benchmark for
+	 * {@link EventBUtils#createMachine(IEventBProject, String, org.eclipse.core.runtime.IProgressMonitor)}
+	 * .
+	 */
+	@Test
+	public void testCreateMachine() throws Exception {
+		benchmark("createMachine", new ModelOperation() {
+
+			@Override
+			protected void populate(int size) throws Exception {
+				for (int i = 0; i < size; i++) {
+					EventBUtils.createMachine(prj, "m" + i, nullMonitor);
+				}
+			}
+
+			@Override
+			public void run(int index) throws Exception {
+				EventBUtils.createMachine(prj, "new" + index, nullMonitor);
+			}
+
+		});
+	}
+
+	/**
+	 * Benchmark for
+	 * {@link EventBUtils#createExtendsContextClause(IContextRoot, String, org.rodinp.core.IInternalElement, org.eclipse.core.runtime.IProgressMonitor)}
+	 * .
+	 */
+	@Test
+	public void testCreateExtendsContextClause() throws Exception {
+		benchmark("createExtendsContextClause", new ModelOperation() {
+
+			@Override
+			protected void populate(int size) throws Exception {
+				for (int i = 0; i < size; i++) {
+					EventBUtils.createExtendsContextClause(ctx, "c" + i, null,
+							nullMonitor);
+				}
+			}
+
+			@Override
+			public void run(int index) throws Exception {
+				EventBUtils.createExtendsContextClause(ctx, "new" + index,
+						null, nullMonitor);
+			}
+
+		});
+	}
+
+	/**
+	 * Benchmark for
+	 * {@link EventBUtils#createCarrierSet(IContextRoot, String, org.rodinp.core.IInternalElement, org.eclipse.core.runtime.IProgressMonitor)}
+	 * .
+	 */
+	@Test
+	public void testCreateCarrierSet() throws Exception {
+		benchmark("createCarrierSet", new ModelOperation() {
+
+			@Override
+			protected void populate(int size) throws Exception {
+				for (int i = 0; i < size; i++) {
+					EventBUtils.createCarrierSet(ctx, "S" + i, null,
+							nullMonitor);
+				}
+			}
+
+			@Override
+			public void run(int index) throws Exception {
+				EventBUtils.createCarrierSet(ctx, "T" + index, null,
+						nullMonitor);
+			}
+
+		});
+	}
+
+	/**
+	 * Benchmark for
+	 * {@link EventBUtils#createConstant(IContextRoot, String, org.rodinp.core.IInternalElement, org.eclipse.core.runtime.IProgressMonitor)}
+	 * .
+	 */
+	@Test
+	public void testCreateConstant() throws Exception {
+		benchmark("createConstant", new ModelOperation() {
+
+			@Override
+			protected void populate(int size) throws Exception {
+				for (int i = 0; i < size; i++) {
+					EventBUtils.createConstant(ctx, "c" + i, null, nullMonitor);
+				}
+			}
+
+			@Override
+			public void run(int index) throws Exception {
+				EventBUtils.createConstant(ctx, "d" + index, null,
+						nullMonitor);
+			}
+
+		});
+	}
+
+	/**
+	 * Benchmark for
+	 * {@link EventBUtils#createAxiom(IContextRoot, String, String, boolean, org.rodinp.core.IInternalElement, org.eclipse.core.runtime.IProgressMonitor)}
+	 * .
+	 */
+	@Test
+	public void testCreateAxiom() throws Exception {
+		benchmark("createAxiom", new ModelOperation() {
+
+			@Override
+			protected void populate(int size) throws Exception {
+				for (int i = 0; i < size; i++) {
+					EventBUtils.createAxiom(ctx, "axm" + i, "c" + i + " ∈ ℕ",
+							false, null, nullMonitor);
+				}
+			}
+
+			@Override
+			public void run(int index) throws Exception {
+				EventBUtils.createAxiom(ctx, "new" + index, "d" + index
+						+ " ∈ ℕ", false, null, nullMonitor);
+			}
+
+		});
+	}
+
+	/**
+	 * Benchmark for
+	 * {@link EventBUtils#createRefinesMachineClause(IMachineRoot, String, org.rodinp.core.IInternalElement, org.eclipse.core.runtime.IProgressMonitor)}
+	 * .
+	 */
+	@Test
+	public void testCreateRefinesMachineClause() throws Exception {
+		benchmark("createRefinesMachineClause", new ModelOperation() {
+
+			@Override
+			protected void populate(int size) throws Exception {
+				for (int i = 0; i < size; i++) {
+					EventBUtils.createRefinesMachineClause(mch, "m" + i, null,
+							nullMonitor);
+				}
+			}
+
+			@Override
+			public void run(int index) throws Exception {
+				EventBUtils.createRefinesMachineClause(mch, "new" + index,
+						null, nullMonitor);
+			}
+
+		});
+	}
+
+	/**
+	 * Benchmark for
+	 * {@link EventBUtils#createSeesContextClause(IMachineRoot, String, org.rodinp.core.IInternalElement, org.eclipse.core.runtime.IProgressMonitor)}
+	 * .
+	 */
+	@Test
+	public void testCreateSeesContextClause() throws Exception {
+		benchmark("createSeesContextClause", new ModelOperation() {
+
+			@Override
+			protected void populate(int size) throws Exception {
+				for (int i = 0; i < size; i++) {
+					EventBUtils.createSeesContextClause(mch, "c" + i, null,
+							nullMonitor);
+				}
+			}
+
+			@Override
+			public void run(int index) throws Exception {
+				EventBUtils.createSeesContextClause(mch, "new" + index, null,
+						nullMonitor);
+			}
+
+		});
+	}
+
+	/**
+	 * Benchmark for
+	 * {@link EventBUtils#createVariable(IMachineRoot, String, org.rodinp.core.IInternalElement, org.eclipse.core.runtime.IProgressMonitor)}
+	 * .
+	 */
+	@Test
+	public void testCreateVariable() throws Exception {
+		benchmark("createVariable", new ModelOperation() {
+
+			@Override
+			protected void populate(int size) throws Exception {
+				for (int i = 0; i < size; i++) {
+					EventBUtils.createVariable(mch, "v" + i, null, nullMonitor);
+				}
+			}
+
+			@Override
+			public void run(int index) throws Exception {
+				EventBUtils.createVariable(mch, "w" + index, null,
+						nullMonitor);
+			}
+
+		});
+	}
+
+	/**
+	 * Benchmark for
+	 * {@link EventBUtils#createInvariant(IMachineRoot, String, String, boolean, org.rodinp.core.IInternalElement, org.eclipse.core.runtime.IProgressMonitor)}
+	 * .
+	 */
+	@Test
+	public void testCreateInvariant() throws Exception {
+		benchmark("createInvariant", new ModelOperation() {
+
+			@Override
+			protected void populate(int size) throws Exception {
+				for (int i = 0; i < size; i++) {
+					EventBUtils.createInvariant(mch, "inv" + i, "v" + i
+							+ " ∈ ℕ", false, null, nullMonitor);
+				}
+			}
+
+			@Override
+			public void run(int index) throws Exception {
+				EventBUtils.createInvariant(mch, "new" + index, "w" + index
+						+ " ∈ ℕ", false, null, nullMonitor);
+			}
+
+		});
+	}
+
+	/**
+	 * Benchmark for
+	 * {@link EventBUtils#createEvent(IMachineRoot, String, Convergence, boolean, org.rodinp.core.IInternalElement, org.eclipse.core.runtime.IProgressMonitor)}
+	 * .
+	 */
+	@Test
+	public void testCreateEvent() throws Exception {
+		benchmark("createEvent", new ModelOperation() {
+
+			@Override
+			protected void populate(int size) throws Exception {
+				createEvents(size);
+			}
+
+			@Override
+			public void run(int index) throws Exception {
+				EventBUtils.createEvent(mch, "new" + index,
+						Convergence.ORDINARY, false, null, nullMonitor);
+			}
+
+		});
+	}
+
+	/**
+	 * Benchmark for
+	 * {@link EventBUtils#createRefinesEventClause(IEvent, String, org.rodinp.core.IInternalElement, org.eclipse.core.runtime.IProgressMonitor)}
+	 * .
+	 */
+	@Test
+	public void testCreateRefinesEventClause() throws Exception {
+		benchmark("createRefinesEventClause", new ModelOperation() {
+
+			@Override
+			protected void populate(int size) throws Exception {
+				for (int i = 0; i < size; i++) {
+					EventBUtils.createRefinesEventClause(evt, "evt" + i, null,
+							nullMonitor);
+				}
+			}
+
+			@Override
+			public void run(int index) throws Exception {
+				EventBUtils.createRefinesEventClause(evt, "new" + index, null,
+						nullMonitor);
+			}
+
+		});
+	}
+
+	/**
+	 * Benchmark for
+	 * {@link EventBUtils#createParameter(IEvent, String, org.rodinp.core.IInternalElement, org.eclipse.core.runtime.IProgressMonitor)}
+	 * .
+	 */
+	@Test
+	public void testCreateParameter() throws Exception {
+		benchmark("createParameter", new ModelOperation() {
+
+			@Override
+			protected void populate(int size) throws Exception {
+				for (int i = 0; i < size; i++) {
+					EventBUtils.createParameter(evt, "p" + i, null,
+							nullMonitor);
+				}
+			}
+
+			@Override
+			public void run(int index) throws Exception {
+				EventBUtils.createParameter(evt, "q" + index, null,
+						nullMonitor);
+			}
+
+		});
+	}
+
+	/**
+	 * Benchmark for
+	 * {@link EventBUtils#createGuard(IEvent, String, String, boolean, org.rodinp.core.IInternalElement, org.eclipse.core.runtime.IProgressMonitor)}
+	 * .
+	 */
+	@Test
+	public void testCreateGuard() throws Exception {
+		benchmark("createGuard", new ModelOperation() {
+
+			@Override
+			protected void populate(int size) throws Exception {
+				for (int i = 0; i < size; i++) {
+					EventBUtils.createGuard(evt, "grd" + i, "p" + i + " ∈ ℕ",
+							false, null, nullMonitor);
+				}
+			}
+
+			@Override
+			public void run(int index) throws Exception {
+				EventBUtils.createGuard(evt, "new" + index, "q" + index
+						+ " ∈ ℕ", false, null, nullMonitor);
+			}
+
+		});
+	}
+
+	/**
+	 * Benchmark for
+	 * {@link EventBUtils#createWitness(IEvent, String, String, org.rodinp.core.IInternalElement, org.eclipse.core.runtime.IProgressMonitor)}
+	 * .
+	 */
+	@Test
+	public void testCreateWitness() throws Exception {
+		benchmark("createWitness", new ModelOperation() {
+
+			@Override
+			protected void populate(int size) throws Exception {
+				for (int i = 0; i < size; i++) {
+					EventBUtils.createWitness(evt, "p" + i, "p" + i + " = 0",
+							null, nullMonitor);
+				}
+			}
+
+			@Override
+			public void run(int index) throws Exception {
+				EventBUtils.createWitness(evt, "q" + index, "q" + index
+						+ " = 0", null, nullMonitor);
+			}
+
+		});
+	}
+
+	/**
+	 * Benchmark for
+	 * {@link EventBUtils#createAction(IEvent, String, String, org.rodinp.core.IInternalElement, org.eclipse.core.runtime.IProgressMonitor)}
+	 * .
+	 */
+	@Test
+	public void testCreateAction() throws Exception {
+		benchmark("createAction", new ModelOperation() {
+
+			@Override
+			protected void populate(int size) throws Exception {
+				for (int i = 0; i < size; i++) {
+					EventBUtils.createAction(evt, "act" + i, "v" + i
+							+ " ≔ 0", null, nullMonitor);
+				}
+			}
+
+			@Override
+			public void run(int index) throws Exception {
+				EventBUtils.createAction(evt, "new" + index, "w" + index
+						+ " ≔ 0", null, nullMonitor);
+			}
+
+		});
+	}
+
+	/**
+	 * Benchmark for {@link EventBUtils#getEvent(IMachineRoot, String)}. The
+	 * looked up events are spread over the events of the machine.
+	 */
+	@Test
+	public void testGetEvent() throws Exception {
+		benchmark("getEvent", new ModelOperation() {
+
+			// The number of events of the machine.
+			private int count;
+
+			@Override
+			protected void populate(int size) throws Exception {
+				count = Math.max(size, 1);
+				createEvents(count);
+			}
+
+			@Override
+			public void run(int index) throws Exception {
+				IEvent event = EventBUtils.getEvent(mch, "evt" + (index
+						* 31 % count));
+				assertNotNull("The event should be found", event);
+			}
+
+		});
+	}
+
+}
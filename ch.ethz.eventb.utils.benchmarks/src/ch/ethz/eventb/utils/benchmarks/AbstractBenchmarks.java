@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.utils.benchmarks;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import ch.ethz.eventb.utils.tests.AbstractEventBTests;
+
+/**
+ * <p>
+ * Abstract class for benchmarking Event-B utilities against a headless Rodin
+ * workspace. Each benchmark is run for every model size given by the system
+ * property <code>benchmark.sizes</code> (a comma-separated list, by default
+ * <code>10,100,1000</code>). The results are printed on the standard output
+ * and appended to report files named after the benchmark class in the
+ * directory given by the system property <code>benchmark.output</code>: a
+ * human-readable <code>.txt</code> file and a <code>.json</code> file with
+ * one JSON object per line (see {@link BenchmarkResult#toJSON(String, long)}).
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see BenchmarkRunner
+ * @since 0.2.5
+ */
+public abstract class AbstractBenchmarks extends AbstractEventBTests {
+
+	// The default model sizes.
+	private static final String DEFAULT_SIZES = "10,100,1000";
+
+	/**
+	 * The runner of the benchmarks.
+	 */
+	protected final BenchmarkRunner runner = new BenchmarkRunner();
+
+	// The performance regression gate, loaded lazily.
+	private PerformanceGate gate;
+
+	/**
+	 * Constructor: Create a benchmark case.
+	 */
+	public AbstractBenchmarks() {
+		super();
+	}
+
+	/**
+	 * Constructor: Create a benchmark case with the given name.
+	 * 
+	 * @param name
+	 *            the name of the benchmark.
+	 */
+	public AbstractBenchmarks(String name) {
+		super(name);
+	}
+
+	/**
+	 * Returns the model sizes of the benchmarks. Subclasses may override this
+	 * method if their model sizes have a different meaning.
+	 * 
+	 * @return the model sizes.
+	 */
+	protected int[] getSizes() {
+		return getSizes("benchmark.sizes", DEFAULT_SIZES);
+	}
+
+	/**
+	 * Utility method to get model sizes from a system property.
+	 * 
+	 * @param property
+	 *            the name of the system property.
+	 * @param defaultSizes
+	 *            the comma-separated default sizes.
+	 * @return the model sizes.
+	 */
+	protected static int[] getSizes(String property, String defaultSizes) {
+		String[] values = System.getProperty(property, defaultSizes)
+				.split(",");
+		int[] sizes = new int[values.length];
+		for (int i = 0; i < values.length; i++) {
+			sizes[i] = Integer.parseInt(values[i].trim());
+		}
+		return sizes;
+	}
+
+	/**
+	 * Runs a benchmark for every model size and reports the results.
+	 * 
+	 * @param name
+	 *            the name of the benchmark.
+	 * @param operation
+	 *            the measured operation.
+	 * @return the results of the benchmark, one for each model size.
+	 * @throws Exception
+	 *             if the operation throws some exception.
+	 */
+	protected List<BenchmarkResult> benchmark(String name,
+			BenchmarkOperation operation) throws Exception {
+		List<BenchmarkResult> results = new ArrayList<BenchmarkResult>();
+		for (int size : getSizes()) {
+			BenchmarkResult result = runner.run(name, size, operation);
+			report(result);
+			results.add(result);
+		}
+		return results;
+	}
+
+	/**
+	 * Checks a result against the performance baseline, and fails if some
+	 * metric regressed.
+	 * 
+	 * @param result
+	 *            the result of a benchmark.
+	 * @throws IOException
+	 *             if the baseline cannot be read, or the candidate baseline
+	 *             cannot be written.
+	 * @see PerformanceGate
+	 */
+	protected void checkRegressions(BenchmarkResult result) throws IOException {
+		if (gate == null)
+			gate = PerformanceGate.load();
+		List<String> regressions = gate.check(result);
+		if (regressions.isEmpty())
+			return;
+		StringBuilder message = new StringBuilder("Performance regressions:");
+		for (String regression : regressions) {
+			message.append("\n  ").append(regression);
+		}
+		fail(message.toString());
+	}
+
+	/**
+	 * Reports a result on the standard output and in the report file.
+	 * 
+	 * @param result
+	 *            the result of a benchmark.
+	 * @throws IOException
+	 *             if the report file cannot be written.
+	 */
+	protected void report(BenchmarkResult result) throws IOException {
+		System.out.println(result);
+		File directory = new File(System.getProperty("benchmark.output",
+				"benchmarks"));
+		if (!directory.isDirectory() && !directory.mkdirs())
+			throw new IOException("Cannot create directory " + directory);
+		String suite = getClass().getSimpleName();
+		append(new File(directory, suite + ".txt"), result.toString());
+		append(new File(directory, suite + ".json"),
+				result.toJSON(suite, System.currentTimeMillis()));
+	}
+
+	/**
+	 * Utility method to append a line to a file.
+	 */
+	private static void append(File file, String line) throws IOException {
+		PrintWriter writer = new PrintWriter(new FileWriter(file, true));
+		try {
+			writer.println(line);
+		} finally {
+			writer.close();
+		}
+	}
+
+}
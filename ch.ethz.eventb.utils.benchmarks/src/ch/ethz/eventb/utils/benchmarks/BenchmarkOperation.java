@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.utils.benchmarks;
+
+/**
+ * <p>
+ * An operation to be measured by a {@link BenchmarkRunner}. For each
+ * iteration, the runner calls {@link #setUp(int)}, then {@link #run(int)} a
+ * number of times, and finally {@link #tearDown()}. Only the calls to
+ * {@link #run(int)} are measured. After the measurement iterations, the
+ * runner gives the operation the opportunity to record additional metrics
+ * within a last set up iteration (see {@link #collectMetrics(BenchmarkResult)}).
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see BenchmarkRunner
+ * @since 0.2.5
+ */
+public abstract class BenchmarkOperation {
+
+	/**
+	 * Prepares an iteration, e.g. creates a model of the given size. This is
+	 * not measured. By default, does nothing.
+	 * 
+	 * @param size
+	 *            the model size of the benchmark.
+	 * @throws Exception
+	 *             if some unexpected error occurs.
+	 */
+	public void setUp(int size) throws Exception {
+		// Do nothing by default.
+	}
+
+	/**
+	 * Runs the measured operation once.
+	 * 
+	 * @param index
+	 *            the index of the operation within the current iteration,
+	 *            starting from 0. This can be used to create fresh names.
+	 * @throws Exception
+	 *             if some unexpected error occurs.
+	 */
+	public abstract void run(int index) throws Exception;
+
+	/**
+	 * Records additional metrics of the operation in the result of the
+	 * benchmark, e.g. by running the operation once in some particular state.
+	 * This is called after {@link #setUp(int)} and is not measured. By
+	 * default, does nothing.
+	 * 
+	 * @param result
+	 *            the result of the benchmark.
+	 * @throws Exception
+	 *             if some unexpected error occurs.
+	 */
+	public void collectMetrics(BenchmarkResult result) throws Exception {
+		// Do nothing by default.
+	}
+
+	/**
+	 * Cleans up after an iteration. This is not measured. By default, does
+	 * nothing.
+	 * 
+	 * @throws Exception
+	 *             if some unexpected error occurs.
+	 */
+	public void tearDown() throws Exception {
+		// Do nothing by default.
+	}
+
+}
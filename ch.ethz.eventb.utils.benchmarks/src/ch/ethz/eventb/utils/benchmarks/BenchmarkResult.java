@@ -0,0 +1,296 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.utils.benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * <p>
+ * The result of a benchmark, i.e. the time and the allocated memory measured
+ * for each measurement iteration of an operation at a given model size, and
+ * possibly some additional metrics (see
+ * {@link BenchmarkOperation#collectMetrics(BenchmarkResult)}). Results can be
+ * reported in a human-readable form ({@link #toString()}) or as JSON objects
+ * ({@link #toJSON(String, long)}) for tracking trends.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see BenchmarkRunner
+ * @since 0.2.5
+ */
+public class BenchmarkResult {
+
+	// The name of the benchmark.
+	private final String name;
+
+	// The model size of the benchmark.
+	private final int size;
+
+	// The number of operations per iteration.
+	private final int operations;
+
+	// The elapsed time of each iteration, in nanoseconds.
+	private final long[] nanos;
+
+	// The allocated bytes of each iteration, or -1 if unknown.
+	private final long[] bytes;
+
+	// Additional metrics of the benchmark, in insertion order.
+	private final Map<String, Double> metrics = new LinkedHashMap<String, Double>();
+
+	/**
+	 * Constructor: Create a benchmark result.
+	 * 
+	 * @param name
+	 *            the name of the benchmark.
+	 * @param size
+	 *            the model size of the benchmark.
+	 * @param operations
+	 *            the number of operations per iteration.
+	 * @param nanos
+	 *            the elapsed time of each iteration, in nanoseconds.
+	 * @param bytes
+	 *            the allocated bytes of each iteration, or -1 if unknown.
+	 */
+	public BenchmarkResult(String name, int size, int operations,
+			long[] nanos, long[] bytes) {
+		this.name = name;
+		this.size = size;
+		this.operations = operations;
+		this.nanos = nanos;
+		this.bytes = bytes;
+	}
+
+	/**
+	 * Returns the name of the benchmark.
+	 * 
+	 * @return the name of the benchmark.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the model size of the benchmark.
+	 * 
+	 * @return the model size of the benchmark.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of measurement iterations.
+	 * 
+	 * @return the number of measurement iterations.
+	 */
+	public int getIterations() {
+		return nanos.length;
+	}
+
+	/**
+	 * Returns the number of operations per iteration.
+	 * 
+	 * @return the number of operations per iteration.
+	 */
+	public int getOperations() {
+		return operations;
+	}
+
+	/**
+	 * Returns the mean throughput over the measurement iterations.
+	 * 
+	 * @return the mean throughput, in operations per second.
+	 */
+	public double getThroughput() {
+		double sum = 0;
+		for (long time : nanos) {
+			sum += throughput(time);
+		}
+		return sum / nanos.length;
+	}
+
+	/**
+	 * Returns the standard deviation of the throughput over the measurement
+	 * iterations.
+	 * 
+	 * @return the standard deviation of the throughput, in operations per
+	 *         second.
+	 */
+	public double getThroughputDeviation() {
+		if (nanos.length < 2)
+			return 0;
+		double mean = getThroughput();
+		double sum = 0;
+		for (long time : nanos) {
+			double delta = throughput(time) - mean;
+			sum += delta * delta;
+		}
+		return Math.sqrt(sum / (nanos.length - 1));
+	}
+
+	/**
+	 * Returns the mean time per operation over the measurement iterations.
+	 * 
+	 * @return the mean time per operation, in nanoseconds.
+	 */
+	public double getNanosPerOperation() {
+		long total = 0;
+		for (long time : nanos) {
+			total += time;
+		}
+		return (double) total / (nanos.length * (long) operations);
+	}
+
+	/**
+	 * Returns the mean allocated memory per operation over the measurement
+	 * iterations.
+	 * 
+	 * @return the mean allocated memory per operation, in bytes, or -1 if the
+	 *         allocated memory could not be measured.
+	 */
+	public double getBytesPerOperation() {
+		long total = 0;
+		for (long allocated : bytes) {
+			if (allocated < 0)
+				return -1;
+			total += allocated;
+		}
+		return (double) total / (bytes.length * (long) operations);
+	}
+
+	/**
+	 * Records an additional metric of the benchmark, e.g. the number of files
+	 * loaded by the operation.
+	 * 
+	 * @param metric
+	 *            the name of the metric.
+	 * @param value
+	 *            the value of the metric.
+	 */
+	public void addMetric(String metric, double value) {
+		metrics.put(metric, value);
+	}
+
+	/**
+	 * Returns the additional metrics of the benchmark.
+	 * 
+	 * @return a map from metric names to values, in the order they were
+	 *         recorded.
+	 */
+	public Map<String, Double> getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Returns the result as a JSON object on a single line.
+	 * 
+	 * @param suite
+	 *            the name of the benchmark suite.
+	 * @param timestamp
+	 *            the time of the benchmark run, in milliseconds since the
+	 *            epoch.
+	 * @return the JSON representation of the result.
+	 */
+	public String toJSON(String suite, long timestamp) {
+		StringBuilder json = new StringBuilder("{");
+		appendField(json, "suite", quote(suite));
+		appendField(json, "name", quote(name));
+		appendField(json, "timestamp", String.valueOf(timestamp));
+		appendField(json, "size", String.valueOf(size));
+		appendField(json, "iterations", String.valueOf(getIterations()));
+		appendField(json, "operations", String.valueOf(operations));
+		appendField(json, "opsPerSecond", number(getThroughput()));
+		appendField(json, "opsPerSecondDeviation",
+				number(getThroughputDeviation()));
+		appendField(json, "nanosPerOperation", number(getNanosPerOperation()));
+		appendField(json, "bytesPerOperation", number(getBytesPerOperation()));
+		StringBuilder values = new StringBuilder("{");
+		for (Map.Entry<String, Double> metric : metrics.entrySet()) {
+			appendField(values, metric.getKey(), number(metric.getValue()));
+		}
+		values.append('}');
+		appendField(json, "metrics", values.toString());
+		return json.append('}').toString();
+	}
+
+	/**
+	 * Utility method to append a field to a JSON object being built.
+	 */
+	private static void appendField(StringBuilder json, String key,
+			String value) {
+		if (json.length() > 1)
+			json.append(',');
+		json.append(quote(key)).append(':').append(value);
+	}
+
+	/**
+	 * Utility method to format a number in JSON.
+	 */
+	private static String number(double value) {
+		if (Double.isNaN(value) || Double.isInfinite(value))
+			return "null";
+		return String.format(Locale.ROOT, "%.3f", value);
+	}
+
+	/**
+	 * Utility method to quote a string in JSON.
+	 */
+	private static String quote(String value) {
+		StringBuilder result = new StringBuilder("\"");
+		for (char c : value.toCharArray()) {
+			if (c == '"' || c == '\\')
+				result.append('\\').append(c);
+			else if (c < ' ')
+				result.append(String.format("\\u%04x", (int) c));
+			else
+				result.append(c);
+		}
+		return result.append('"').toString();
+	}
+
+	/**
+	 * Utility method to compute the throughput of an iteration.
+	 * 
+	 * @param time
+	 *            the elapsed time of the iteration, in nanoseconds.
+	 * @return the throughput, in operations per second.
+	 */
+	private double throughput(long time) {
+		return operations * 1e9 / Math.max(time, 1);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder(String.format(Locale.ROOT,
+				"%-40s %8d %14.1f ± %10.1f ops/s %14.1f ns/op %12.1f B/op",
+				name, size, getThroughput(), getThroughputDeviation(),
+				getNanosPerOperation(), getBytesPerOperation()));
+		for (Map.Entry<String, Double> metric : metrics.entrySet()) {
+			result.append(String.format(Locale.ROOT, " %s=%.1f",
+					metric.getKey(), metric.getValue()));
+		}
+		return result.toString();
+	}
+
+}
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.utils.benchmarks;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * <p>
+ * A minimal micro-benchmark runner in the spirit of JMH, running within the
+ * OSGi test runtime. Each benchmark consists of a number of warm-up
+ * iterations, whose results are discarded, followed by a number of measurement
+ * iterations. Each iteration runs a {@link BenchmarkOperation} a fixed number
+ * of times and measures the elapsed time as well as the memory allocated by
+ * the current thread (when supported by the JVM).
+ * </p>
+ * <p>
+ * The default settings can be overridden with the system properties
+ * <code>benchmark.warmup</code>, <code>benchmark.iterations</code> and
+ * <code>benchmark.operations</code>.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see BenchmarkOperation
+ * @see BenchmarkResult
+ * @since 0.2.5
+ */
+public class BenchmarkRunner {
+
+	// The operation of the platform threading MBean returning the memory
+	// allocated by a thread (HotSpot specific).
+	private static final String ALLOCATED_BYTES = "getThreadAllocatedBytes";
+
+	// The number of warm-up iterations.
+	private final int warmup;
+
+	// The number of measurement iterations.
+	private final int iterations;
+
+	// The number of operations per iteration.
+	private final int operations;
+
+	/**
+	 * Constructor: Create a runner with the given settings.
+	 * 
+	 * @param warmup
+	 *            the number of warm-up iterations.
+	 * @param iterations
+	 *            the number of measurement iterations. This must be positive.
+	 * @param operations
+	 *            the number of operations per iteration. This must be
+	 *            positive.
+	 */
+	public BenchmarkRunner(int warmup, int iterations, int operations) {
+		this.warmup = warmup;
+		this.iterations = iterations;
+		this.operations = operations;
+	}
+
+	/**
+	 * Constructor: Create a runner with the settings given by the system
+	 * properties, or default settings.
+	 */
+	public BenchmarkRunner() {
+		this(Integer.getInteger("benchmark.warmup", 3),
+				Integer.getInteger("benchmark.iterations", 5),
+				Integer.getInteger("benchmark.operations", 100));
+	}
+
+	/**
+	 * Runs a benchmark.
+	 * 
+	 * @param name
+	 *            the name of the benchmark.
+	 * @param size
+	 *            the model size of the benchmark.
+	 * @param operation
+	 *            the measured operation.
+	 * @return the result of the benchmark.
+	 * @throws Exception
+	 *             if the operation throws some exception.
+	 */
+	public BenchmarkResult run(String name, int size,
+			BenchmarkOperation operation) throws Exception {
+		for (int i = 0; i < warmup; i++) {
+			runIteration(size, operation, null, null, 0);
+		}
+		long[] nanos = new long[iterations];
+		long[] bytes = new long[iterations];
+		for (int i = 0; i < iterations; i++) {
+			runIteration(size, operation, nanos, bytes, i);
+		}
+		BenchmarkResult result = new BenchmarkResult(name, size, operations,
+				nanos, bytes);
+		operation.setUp(size);
+		try {
+			operation.collectMetrics(result);
+		} finally {
+			operation.tearDown();
+		}
+		return result;
+	}
+
+	/**
+	 * Utility method to run an iteration.
+	 * 
+	 * @param size
+	 *            the model size of the benchmark.
+	 * @param operation
+	 *            the measured operation.
+	 * @param nanos
+	 *            the array recording the elapsed times, or <code>null</code>
+	 *            for a warm-up iteration.
+	 * @param bytes
+	 *            the array recording the allocated bytes, or
+	 *            <code>null</code> for a warm-up iteration.
+	 * @param iteration
+	 *            the index of the measurement iteration.
+	 * @throws Exception
+	 *             if the operation throws some exception.
+	 */
+	private void runIteration(int size, BenchmarkOperation operation,
+			long[] nanos, long[] bytes, int iteration) throws Exception {
+		operation.setUp(size);
+		try {
+			long allocatedBefore = getAllocatedBytes();
+			long start = System.nanoTime();
+			for (int i = 0; i < operations; i++) {
+				operation.run(i);
+			}
+			long end = System.nanoTime();
+			long allocatedAfter = getAllocatedBytes();
+			if (nanos != null) {
+				nanos[iteration] = end - start;
+				bytes[iteration] = (allocatedBefore < 0 || allocatedAfter < 0) ? -1
+						: allocatedAfter - allocatedBefore;
+			}
+		} finally {
+			operation.tearDown();
+		}
+	}
+
+	/**
+	 * Returns the memory allocated so far by the current thread. The platform
+	 * MBean server is used so that no JVM specific class is referenced.
+	 * 
+	 * @return the allocated memory in bytes, or -1 if it is not supported.
+	 */
+	public static long getAllocatedBytes() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			Object result = server.invoke(new ObjectName(
+					ManagementFactory.THREAD_MXBEAN_NAME), ALLOCATED_BYTES,
+					new Object[] { Thread.currentThread().getId() },
+					new String[] { long.class.getName() });
+			return (result instanceof Long) ? (Long) result : -1;
+		} catch (JMException e) {
+			return -1;
+		} catch (UnsupportedOperationException e) {
+			return -1;
+		}
+	}
+
+}
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.utils.benchmarks;
+
+import org.rodinp.core.ElementChangedEvent;
+import org.rodinp.core.IElementChangedListener;
+import org.rodinp.core.RodinCore;
+
+/**
+ * <p>
+ * Counts the operations modifying the Rodin database, i.e. the
+ * {@link ElementChangedEvent#POST_CHANGE} events fired while the counter is
+ * started. Each database operation run outside of a batch (see
+ * {@link RodinCore#run(org.eclipse.core.resources.IWorkspaceRunnable, org.eclipse.core.runtime.IProgressMonitor)}
+ * ) fires exactly one such event, in the thread running the operation. Only
+ * the events fired in the thread which started the counter are counted, so
+ * that the changes made meanwhile by background jobs (e.g. the builder) are
+ * ignored, and the count is independent of the machine running the
+ * benchmark.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @since 0.2.5
+ */
+public class DatabaseOperationCounter implements IElementChangedListener {
+
+	// The number of events received so far.
+	private int count;
+
+	// The thread running the counted operations, or null.
+	private volatile Thread thread;
+
+	/**
+	 * Starts counting the database operations run by the current thread.
+	 */
+	public void start() {
+		thread = Thread.currentThread();
+		RodinCore.addElementChangedListener(this,
+				ElementChangedEvent.POST_CHANGE);
+	}
+
+	/**
+	 * Stops counting the database operations.
+	 */
+	public void stop() {
+		RodinCore.removeElementChangedListener(this);
+	}
+
+	/**
+	 * Returns the number of database operations counted so far.
+	 * 
+	 * @return the number of database operations.
+	 */
+	public synchronized int getCount() {
+		return count;
+	}
+
+	/**
+	 * Resets the number of database operations.
+	 */
+	public synchronized void reset() {
+		count = 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see IElementChangedListener#elementChanged(ElementChangedEvent)
+	 */
+	@Override
+	public synchronized void elementChanged(ElementChangedEvent event) {
+		if (Thread.currentThread() == thread)
+			count++;
+	}
+
+}
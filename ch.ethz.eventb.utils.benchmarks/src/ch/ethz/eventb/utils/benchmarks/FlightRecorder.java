@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.utils.benchmarks;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * <p>
+ * Utility class to control Java Flight Recorder from within the test runtime.
+ * Recordings are started and stopped with the <code>JFR.start</code> and
+ * <code>JFR.stop</code> diagnostic commands of the platform MBean server, so
+ * that no JVM specific class is referenced and no command line option is
+ * required. The recordings use the <code>profile</code> settings, which
+ * enable the allocation and execution samples.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see RecordingSummary
+ * @since 0.2.5
+ */
+public final class FlightRecorder {
+
+	// The name of the diagnostic command MBean (HotSpot specific).
+	private static final String DIAGNOSTIC_COMMAND = "com.sun.management:type=DiagnosticCommand";
+
+	// The operation starting a recording.
+	private static final String JFR_START = "jfrStart";
+
+	// The operation stopping a recording.
+	private static final String JFR_STOP = "jfrStop";
+
+	private FlightRecorder() {
+		// Utility classes shall not have a public or default constructor.
+	}
+
+	/**
+	 * Returns whether Java Flight Recorder can be controlled in the running
+	 * JVM.
+	 * 
+	 * @return <code>true</code> if recordings can be started,
+	 *         <code>false</code> otherwise.
+	 */
+	public static boolean isAvailable() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			for (MBeanOperationInfo operation : server.getMBeanInfo(
+					new ObjectName(DIAGNOSTIC_COMMAND)).getOperations()) {
+				if (operation.getName().equals(JFR_START))
+					return true;
+			}
+			return false;
+		} catch (JMException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Starts a recording with the <code>profile</code> settings.
+	 * 
+	 * @param name
+	 *            the name of the recording.
+	 * @return the output of the diagnostic command.
+	 * @throws JMException
+	 *             if the recording cannot be started.
+	 */
+	public static String start(String name) throws JMException {
+		return execute(JFR_START, "name=" + name, "settings=profile");
+	}
+
+	/**
+	 * Stops a recording and dumps it to a file.
+	 * 
+	 * @param name
+	 *            the name of the recording.
+	 * @param file
+	 *            the file to which the recording is dumped.
+	 * @return the output of the diagnostic command.
+	 * @throws JMException
+	 *             if the recording cannot be stopped.
+	 */
+	public static String stop(String name, File file) throws JMException {
+		return execute(JFR_STOP, "name=" + name,
+				"filename=" + file.getAbsolutePath());
+	}
+
+	/**
+	 * Utility method to execute a diagnostic command.
+	 */
+	private static String execute(String operation, String... arguments)
+			throws JMException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		Object result = server.invoke(new ObjectName(DIAGNOSTIC_COMMAND),
+				operation, new Object[] { arguments },
+				new String[] { String[].class.getName() });
+		return String.valueOf(result);
+	}
+
+}
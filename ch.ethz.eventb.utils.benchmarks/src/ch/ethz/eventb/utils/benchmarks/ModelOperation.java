@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.utils.benchmarks;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eventb.core.IContextRoot;
+import org.eventb.core.IConvergenceElement.Convergence;
+import org.eventb.core.IEvent;
+import org.eventb.core.IEventBProject;
+import org.eventb.core.IMachineRoot;
+
+import ch.ethz.eventb.utils.EventBMetrics;
+import ch.ethz.eventb.utils.EventBUtils;
+import ch.ethz.eventb.utils.OperationStatistics;
+
+/**
+ * <p>
+ * The base class of operations benchmarked against a small Event-B model. For
+ * each iteration, a new project is created containing a context
+ * <code>ctx</code> and a machine <code>mch</code> with an event
+ * <code>evt</code>, which are then populated according to the model size. The
+ * project is deleted at the end of the iteration.
+ * </p>
+ * <p>
+ * The number of database operations per operation is recorded as the metric
+ * {@link #DB_OPERATIONS} (see {@link DatabaseOperationCounter}). If the
+ * benchmark is named after an operation of {@link EventBUtils}, the number of
+ * accesses to the database per call accounted by {@link EventBMetrics} (see
+ * {@link OperationStatistics#getDatabaseOperationsPerCall()}) is recorded as
+ * the metric {@link #DB_ACCESSES}. Both metrics are independent of the
+ * machine running the benchmark.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @since 0.2.5
+ */
+public abstract class ModelOperation extends BenchmarkOperation {
+
+	/**
+	 * The name of the metric recording the number of database operations per
+	 * operation.
+	 */
+	public static final String DB_OPERATIONS = "dbOperationsPerOp";
+
+	/**
+	 * The name of the metric recording the number of accesses to the
+	 * database per operation.
+	 */
+	public static final String DB_ACCESSES = "dbAccessesPerOp";
+
+	// The name of the project used for benchmarking.
+	private static final String PROJECT_NAME = "Benchmark";
+
+	// The number of operations run for counting the database operations.
+	private static final int COUNTED_OPERATIONS = 10;
+
+	/**
+	 * The progress monitor used for creating the model.
+	 */
+	protected final IProgressMonitor monitor = new NullProgressMonitor();
+
+	/**
+	 * The project of the current iteration.
+	 */
+	protected IEventBProject prj;
+
+	/**
+	 * The context of the current iteration.
+	 */
+	protected IContextRoot ctx;
+
+	/**
+	 * The machine of the current iteration.
+	 */
+	protected IMachineRoot mch;
+
+	/**
+	 * The event of the machine of the current iteration.
+	 */
+	protected IEvent evt;
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see BenchmarkOperation#setUp(int)
+	 */
+	@Override
+	public void setUp(int size) throws Exception {
+		prj = EventBUtils.createEventBProject(PROJECT_NAME, monitor);
+		ctx = EventBUtils.createContext(prj, "ctx", monitor);
+		mch = EventBUtils.createMachine(prj, "mch", monitor);
+		evt = EventBUtils.createEvent(mch, "evt", Convergence.ORDINARY, false,
+				null, monitor);
+		populate(size);
+	}
+
+	/**
+	 * Populates the model according to the model size.
+	 * 
+	 * @param size
+	 *            the model size.
+	 * @throws Exception
+	 *             if some unexpected error occurs.
+	 */
+	protected abstract void populate(int size) throws Exception;
+
+	/**
+	 * Utility method to create events <code>evt0</code>, ...,
+	 * <code>evt(n-1)</code> in the machine.
+	 * 
+	 * @param n
+	 *            the number of events.
+	 * @throws Exception
+	 *             if some unexpected error occurs.
+	 */
+	protected void createEvents(int n) throws Exception {
+		for (int i = 0; i < n; i++) {
+			EventBUtils.createEvent(mch, "evt" + i, Convergence.ORDINARY,
+					false, null, monitor);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see BenchmarkOperation#collectMetrics(BenchmarkResult)
+	 */
+	@Override
+	public void collectMetrics(BenchmarkResult result) throws Exception {
+		DatabaseOperationCounter counter = new DatabaseOperationCounter();
+		boolean enabled = EventBMetrics.isEnabled();
+		EventBMetrics.reset();
+		EventBMetrics.setEnabled(true);
+		counter.start();
+		try {
+			for (int i = 0; i < COUNTED_OPERATIONS; i++) {
+				run(i);
+			}
+		} finally {
+			counter.stop();
+			EventBMetrics.setEnabled(enabled);
+		}
+		result.addMetric(DB_OPERATIONS, (double) counter.getCount()
+				/ COUNTED_OPERATIONS);
+		OperationStatistics statistics = EventBMetrics.getStatistics(result
+				.getName());
+		if (statistics != null)
+			result.addMetric(DB_ACCESSES, statistics
+					.getDatabaseOperationsPerCall());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see BenchmarkOperation#tearDown()
+	 */
+	@Override
+	public void tearDown() throws Exception {
+		prj.getRodinProject().getProject().delete(true, monitor);
+	}
+
+}
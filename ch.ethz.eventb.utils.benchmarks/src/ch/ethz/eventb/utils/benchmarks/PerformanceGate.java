@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.utils.benchmarks;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * <p>
+ * A performance regression gate comparing benchmark results with a baseline.
+ * The baseline is a properties file mapping keys of the form
+ * <em>benchmark</em><code>.</code><em>metric</em> to values, and keys of the
+ * form <code>tolerance.</code><em>metric</em> to relative tolerances (e.g.
+ * <code>0.25</code> for 25%). The following metrics are supported:
+ * <ul>
+ * <li><code>opsPerSecond</code>: the throughput, which must not drop.</li>
+ * <li><code>bytesPerOperation</code>: the allocation per operation, which
+ * must not grow.</li>
+ * <li>any additional metric of the result (e.g.
+ * {@link ModelOperation#DB_OPERATIONS}), which must not grow.</li>
+ * </ul>
+ * Metrics without baseline value are not checked. Absolute metrics such as
+ * throughput depend on the machine and should only be part of the baseline
+ * of a dedicated build machine, whereas relative metrics such as the number of
+ * database operations per operation are stable across machines.
+ * </p>
+ * <p>
+ * The baseline is read from the file given by the system property
+ * <code>perf.baseline</code>, or else from <code>baseline/performance.properties</code>
+ * in this plug-in. All measured values are written to
+ * <code>performance-candidate.properties</code> in the directory given by the
+ * system property <code>benchmark.output</code>, from which the baseline can
+ * be updated. The candidate baseline is rewritten after each check with the
+ * values measured so far by the current run, so that it never contains
+ * values of previous runs.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see BenchmarkResult
+ * @since 0.2.5
+ */
+public class PerformanceGate {
+
+	/**
+	 * The name of the throughput metric.
+	 */
+	public static final String OPS_PER_SECOND = "opsPerSecond";
+
+	/**
+	 * The name of the allocation metric.
+	 */
+	public static final String BYTES_PER_OPERATION = "bytesPerOperation";
+
+	// The resource containing the committed baseline.
+	private static final String BASELINE_RESOURCE = "/baseline/performance.properties";
+
+	// The prefix of the tolerance keys.
+	private static final String TOLERANCE_PREFIX = "tolerance.";
+
+	// The values measured by the current run, shared by all gates and sorted
+	// by key.
+	private static final Map<String, String> candidate = new TreeMap<String, String>();
+
+	// The baseline.
+	private final Properties baseline;
+
+	/**
+	 * Constructor: Create a gate for the given baseline.
+	 * 
+	 * @param baseline
+	 *            the baseline.
+	 */
+	public PerformanceGate(Properties baseline) {
+		this.baseline = baseline;
+	}
+
+	/**
+	 * Creates a gate for the baseline given by the system property
+	 * <code>perf.baseline</code>, or else the committed baseline.
+	 * 
+	 * @return the performance gate.
+	 * @throws IOException
+	 *             if the baseline cannot be read.
+	 */
+	public static PerformanceGate load() throws IOException {
+		Properties baseline = new Properties();
+		String path = System.getProperty("perf.baseline");
+		InputStream in = path == null ? PerformanceGate.class
+				.getResourceAsStream(BASELINE_RESOURCE) : new FileInputStream(
+				path);
+		if (in == null)
+			throw new IOException("Cannot find " + BASELINE_RESOURCE);
+		try {
+			baseline.load(in);
+		} finally {
+			in.close();
+		}
+		return new PerformanceGate(baseline);
+	}
+
+	/**
+	 * Checks a benchmark result against the baseline, and records the
+	 * measured values in the candidate baseline.
+	 * 
+	 * @param result
+	 *            the result of a benchmark.
+	 * @return the descriptions of the regressions, empty if there are none.
+	 * @throws IOException
+	 *             if the candidate baseline cannot be written.
+	 */
+	public List<String> check(BenchmarkResult result) throws IOException {
+		Map<String, Double> values = new LinkedHashMap<String, Double>();
+		values.put(OPS_PER_SECOND, result.getThroughput());
+		values.put(BYTES_PER_OPERATION, result.getBytesPerOperation());
+		values.putAll(result.getMetrics());
+
+		List<String> regressions = new ArrayList<String>();
+		for (Map.Entry<String, Double> entry : values.entrySet()) {
+			String metric = entry.getKey();
+			double actual = entry.getValue();
+			String key = result.getName() + "." + metric;
+			String expected = baseline.getProperty(key);
+			if (expected == null || actual < 0)
+				continue;
+			double reference = Double.parseDouble(expected);
+			double tolerance = getTolerance(metric);
+			boolean regressed;
+			if (OPS_PER_SECOND.equals(metric))
+				regressed = actual < reference * (1 - tolerance);
+			else
+				regressed = actual > reference * (1 + tolerance);
+			if (regressed) {
+				regressions.add(String.format(Locale.ROOT,
+						"%s: %.3f (baseline %.3f, tolerance %.0f%%)", key,
+						actual, reference, tolerance * 100));
+			}
+		}
+		recordCandidate(result.getName(), values);
+		return regressions;
+	}
+
+	/**
+	 * Returns the relative tolerance of a metric.
+	 * 
+	 * @param metric
+	 *            the name of a metric.
+	 * @return the relative tolerance, 0 by default.
+	 */
+	public double getTolerance(String metric) {
+		return Double.parseDouble(baseline.getProperty(TOLERANCE_PREFIX
+				+ metric, "0"));
+	}
+
+	/**
+	 * Utility method to add the measured values to the candidate baseline,
+	 * and to rewrite the candidate baseline file.
+	 */
+	private static void recordCandidate(String name, Map<String, Double> values)
+			throws IOException {
+		File directory = new File(System.getProperty("benchmark.output",
+				"benchmarks"));
+		if (!directory.isDirectory() && !directory.mkdirs())
+			throw new IOException("Cannot create directory " + directory);
+		synchronized (candidate) {
+			for (Map.Entry<String, Double> value : values.entrySet()) {
+				candidate.put(name + "." + value.getKey(), String.format(
+						Locale.ROOT, "%.3f", value.getValue()));
+			}
+			PrintWriter writer = new PrintWriter(new FileWriter(new File(
+					directory, "performance-candidate.properties")));
+			try {
+				for (Map.Entry<String, String> value : candidate.entrySet()) {
+					writer.println(value.getKey() + "=" + value.getValue());
+				}
+			} finally {
+				writer.close();
+			}
+		}
+	}
+
+}
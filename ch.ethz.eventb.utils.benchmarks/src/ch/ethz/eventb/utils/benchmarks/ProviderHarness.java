@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.utils.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jface.viewers.ILabelProvider;
+import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.ViewerFilter;
+
+/**
+ * <p>
+ * A headless stand-in for a tree viewer, driving a content provider, a label
+ * provider and viewer filters the way a tree viewer does, without requiring a
+ * display. This allows measuring the providers in the Tycho test runtime.
+ * </p>
+ * <p>
+ * The harness supports three interactions:
+ * <ul>
+ * <li>{@link #expandAll()}: the full expansion of the tree, i.e. for each
+ * visible node, asking whether it has children, getting its children and
+ * filtering them.</li>
+ * <li>{@link #repaint()}: the painting of all visible nodes, i.e. getting the
+ * text of each node. Images are not requested since their creation requires a
+ * display.</li>
+ * <li>{@link #refilter()}: the re-application of the filters to the expanded
+ * tree, e.g. after the search text of a filter has changed.</li>
+ * </ul>
+ * The number of calls made to each provider method is recorded (see
+ * {@link #getCalls()}). The providers are not attached to any viewer, i.e.
+ * {@link ITreeContentProvider#inputChanged(org.eclipse.jface.viewers.Viewer, Object, Object)}
+ * is called with a <code>null</code> viewer.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @since 0.2.5
+ */
+public class ProviderHarness {
+
+	// The content provider.
+	private final ITreeContentProvider contentProvider;
+
+	// The label provider, or null.
+	private final ILabelProvider labelProvider;
+
+	// The filters applied to the children.
+	private final List<ViewerFilter> filters;
+
+	// The input of the tree.
+	private Object input;
+
+	// The visible nodes after the last expansion, in pre-order.
+	private final List<Object> nodes = new ArrayList<Object>();
+
+	// The parents of the visible nodes (input for the top-level nodes).
+	private final List<Object> parents = new ArrayList<Object>();
+
+	// The number of calls per provider method.
+	private final Map<String, Integer> calls = new LinkedHashMap<String, Integer>();
+
+	/**
+	 * Constructor: Create a harness for the given providers.
+	 * 
+	 * @param contentProvider
+	 *            the content provider.
+	 * @param labelProvider
+	 *            the label provider, or <code>null</code> if painting is not
+	 *            simulated.
+	 * @param filters
+	 *            the filters applied to the children of each node.
+	 */
+	public ProviderHarness(ITreeContentProvider contentProvider,
+			ILabelProvider labelProvider, ViewerFilter... filters) {
+		this.contentProvider = contentProvider;
+		this.labelProvider = labelProvider;
+		this.filters = Arrays.asList(filters);
+	}
+
+	/**
+	 * Sets the input of the tree. The expanded tree is discarded.
+	 * 
+	 * @param newInput
+	 *            the new input.
+	 */
+	public void setInput(Object newInput) {
+		count("inputChanged");
+		contentProvider.inputChanged(null, input, newInput);
+		input = newInput;
+		nodes.clear();
+		parents.clear();
+	}
+
+	/**
+	 * Fully expands the tree.
+	 * 
+	 * @return the number of visible nodes.
+	 */
+	public int expandAll() {
+		nodes.clear();
+		parents.clear();
+		count("getElements");
+		Object[] elements = contentProvider.getElements(input);
+		for (Object element : elements) {
+			if (select(input, element))
+				expand(input, element);
+		}
+		return nodes.size();
+	}
+
+	/**
+	 * Paints all the visible nodes of the expanded tree.
+	 * 
+	 * @return the number of painted nodes.
+	 */
+	public int repaint() {
+		if (labelProvider == null)
+			return 0;
+		for (Object node : nodes) {
+			count("getText");
+			labelProvider.getText(node);
+		}
+		return nodes.size();
+	}
+
+	/**
+	 * Re-applies the filters to the nodes of the expanded tree.
+	 * 
+	 * @return the number of nodes still selected by the filters.
+	 */
+	public int refilter() {
+		int selected = 0;
+		for (int i = 0; i < nodes.size(); i++) {
+			if (select(parents.get(i), nodes.get(i)))
+				selected++;
+		}
+		return selected;
+	}
+
+	/**
+	 * Returns the visible nodes after the last expansion.
+	 * 
+	 * @return the visible nodes, in pre-order.
+	 */
+	public List<Object> getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Returns the number of calls made to each provider method since the last
+	 * reset.
+	 * 
+	 * @return a map from method names to numbers of calls.
+	 */
+	public Map<String, Integer> getCalls() {
+		return calls;
+	}
+
+	/**
+	 * Resets the numbers of calls.
+	 */
+	public void resetCalls() {
+		calls.clear();
+	}
+
+	/**
+	 * Disposes the providers.
+	 */
+	public void dispose() {
+		contentProvider.dispose();
+		if (labelProvider != null)
+			labelProvider.dispose();
+	}
+
+	/**
+	 * Utility method to expand a visible node recursively.
+	 */
+	private void expand(Object parent, Object node) {
+		nodes.add(node);
+		parents.add(parent);
+		count("hasChildren");
+		if (!contentProvider.hasChildren(node))
+			return;
+		count("getChildren");
+		for (Object child : contentProvider.getChildren(node)) {
+			if (select(node, child))
+				expand(node, child);
+		}
+	}
+
+	/**
+	 * Utility method to apply the filters to an element.
+	 */
+	private boolean select(Object parent, Object element) {
+		for (ViewerFilter filter : filters) {
+			count("select");
+			if (!filter.select(null, parent, element))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Utility method to count a call.
+	 */
+	private void count(String method) {
+		Integer previous = calls.get(method);
+		calls.put(method, previous == null ? 1 : previous + 1);
+	}
+
+}
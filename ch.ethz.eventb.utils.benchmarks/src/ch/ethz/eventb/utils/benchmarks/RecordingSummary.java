@@ -0,0 +1,298 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.utils.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * A summary of a Java Flight Recorder recording, listing the top allocation
+ * sites and the hot methods within some packages. Each allocation or
+ * execution sample is attributed to the innermost frame of its stack trace
+ * belonging to the packages of interest, i.e. a site or method accounts for
+ * the allocations and the time of its callees outside these packages (e.g.
+ * in the Rodin database). Samples without such a frame are only counted in
+ * the totals.
+ * </p>
+ * <p>
+ * The recording is read with the <code>jdk.jfr.consumer</code> API, which is
+ * looked up reflectively from the system class loader since it is neither
+ * part of the Java 8 API nor exported to the OSGi runtime.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see FlightRecorder
+ * @since 0.2.5
+ */
+public class RecordingSummary {
+
+	// The default packages of interest.
+	private static final String DEFAULT_PACKAGES = "ch.ethz.eventb.utils.,ch.ethz.eventb.internal.utils.,ch.ethz.eventb.ui.utils.";
+
+	// The execution sample event.
+	private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+
+	// Map from the allocation events to their field giving the allocated size.
+	private static final Map<String, String> ALLOCATION_EVENTS = new HashMap<String, String>();
+	static {
+		ALLOCATION_EVENTS.put("jdk.ObjectAllocationSample", "weight");
+		ALLOCATION_EVENTS.put("jdk.ObjectAllocationInNewTLAB", "tlabSize");
+		ALLOCATION_EVENTS.put("jdk.ObjectAllocationOutsideTLAB",
+				"allocationSize");
+	}
+
+	// The prefixes of the packages of interest.
+	private final String[] packages;
+
+	// Map from the allocation sites to the allocated bytes.
+	private final Map<String, Long> allocations = new HashMap<String, Long>();
+
+	// Map from the methods to their number of execution samples.
+	private final Map<String, Long> samples = new HashMap<String, Long>();
+
+	// The total number of allocated bytes.
+	private long totalBytes;
+
+	// The total number of execution samples.
+	private long totalSamples;
+
+	/**
+	 * Constructor: Create an empty summary for the packages given by the
+	 * system property <code>profile.packages</code> (a comma-separated list of
+	 * prefixes), by default the packages of the Event-B utilities. The test
+	 * and benchmark packages are always excluded.
+	 */
+	public RecordingSummary() {
+		packages = System.getProperty("profile.packages", DEFAULT_PACKAGES)
+				.split(",");
+	}
+
+	/**
+	 * Reads a recording and adds its samples to this summary.
+	 * 
+	 * @param file
+	 *            a recording file.
+	 * @throws IOException
+	 *             if the recording cannot be read, or the JVM does not
+	 *             provide the <code>jdk.jfr.consumer</code> API.
+	 */
+	public void read(File file) throws IOException {
+		try {
+			Class<?> recordingFile = ClassLoader.getSystemClassLoader()
+					.loadClass("jdk.jfr.consumer.RecordingFile");
+			List<?> events = (List<?>) recordingFile.getMethod(
+					"readAllEvents", Path.class).invoke(null, file.toPath());
+			for (Object event : events) {
+				add(event);
+			}
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Recordings cannot be read by this JVM", e);
+		} catch (InvocationTargetException e) {
+			throw new IOException("Cannot read " + file, e.getCause());
+		} catch (ReflectiveOperationException e) {
+			throw new IOException("Cannot read " + file, e);
+		}
+	}
+
+	/**
+	 * Utility method to add a recorded event to this summary.
+	 */
+	private void add(Object event) throws ReflectiveOperationException {
+		String type = (String) invoke(invoke(event, "getEventType"),
+				"getName");
+		if (type.equals(EXECUTION_SAMPLE)) {
+			totalSamples++;
+			String method = getFrame(event, false);
+			if (method != null)
+				increment(samples, method, 1);
+		} else if (ALLOCATION_EVENTS.containsKey(type)) {
+			long bytes = (Long) event.getClass()
+					.getMethod("getLong", String.class)
+					.invoke(event, ALLOCATION_EVENTS.get(type));
+			totalBytes += bytes;
+			String site = getFrame(event, true);
+			if (site != null)
+				increment(allocations, site, bytes);
+		}
+	}
+
+	/**
+	 * Utility method to get the innermost frame of the stack trace of an
+	 * event belonging to the packages of interest.
+	 * 
+	 * @param event
+	 *            a recorded event.
+	 * @param line
+	 *            <code>true</code> to append the line number.
+	 * @return the frame, as the qualified method name, or <code>null</code>
+	 *         if there is no such frame.
+	 */
+	private String getFrame(Object event, boolean line)
+			throws ReflectiveOperationException {
+		Object stackTrace = invoke(event, "getStackTrace");
+		if (stackTrace == null)
+			return null;
+		for (Object frame : (List<?>) invoke(stackTrace, "getFrames")) {
+			Object method = invoke(frame, "getMethod");
+			String type = (String) invoke(invoke(method, "getType"), "getName");
+			if (!isIncluded(type))
+				continue;
+			String name = type + "." + invoke(method, "getName");
+			return line ? name + ":" + invoke(frame, "getLineNumber") : name;
+		}
+		return null;
+	}
+
+	/**
+	 * Utility method to check if a class belongs to the packages of interest.
+	 */
+	private boolean isIncluded(String type) {
+		if (type.contains(".tests.") || type.contains(".benchmarks."))
+			return false;
+		for (String prefix : packages) {
+			if (type.startsWith(prefix.trim()))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the total number of bytes of the allocation samples.
+	 * 
+	 * @return the total number of allocated bytes.
+	 */
+	public long getTotalBytes() {
+		return totalBytes;
+	}
+
+	/**
+	 * Returns the total number of execution samples.
+	 * 
+	 * @return the total number of execution samples.
+	 */
+	public long getTotalSamples() {
+		return totalSamples;
+	}
+
+	/**
+	 * Returns the top allocation sites, sorted by decreasing allocated bytes.
+	 * 
+	 * @param count
+	 *            the maximum number of sites.
+	 * @return the top allocation sites with their allocated bytes.
+	 */
+	public List<Map.Entry<String, Long>> getTopAllocationSites(int count) {
+		return getTop(allocations, count);
+	}
+
+	/**
+	 * Returns the hot methods, sorted by decreasing number of execution
+	 * samples.
+	 * 
+	 * @param count
+	 *            the maximum number of methods.
+	 * @return the hot methods with their number of execution samples.
+	 */
+	public List<Map.Entry<String, Long>> getHotMethods(int count) {
+		return getTop(samples, count);
+	}
+
+	/**
+	 * Writes a human-readable report of this summary.
+	 * 
+	 * @param writer
+	 *            the writer of the report.
+	 * @param title
+	 *            the title of the report.
+	 * @param count
+	 *            the maximum number of entries of each section.
+	 */
+	public void write(PrintWriter writer, String title, int count) {
+		writer.println(title);
+		writer.println();
+		writer.println(String.format("Top allocation sites (%,d bytes sampled)",
+				totalBytes));
+		for (Map.Entry<String, Long> entry : getTopAllocationSites(count)) {
+			writer.println(String.format("  %6.2f%%  %,16d  %s",
+					percentage(entry.getValue(), totalBytes),
+					entry.getValue(), entry.getKey()));
+		}
+		writer.println();
+		writer.println(String.format("Hot methods (%,d execution samples)",
+				totalSamples));
+		for (Map.Entry<String, Long> entry : getHotMethods(count)) {
+			writer.println(String.format("  %6.2f%%  %,16d  %s",
+					percentage(entry.getValue(), totalSamples),
+					entry.getValue(), entry.getKey()));
+		}
+	}
+
+	/**
+	 * Utility method to compute a percentage.
+	 */
+	private static double percentage(long value, long total) {
+		return total == 0 ? 0 : 100.0 * value / total;
+	}
+
+	/**
+	 * Utility method to increment the value of a key of a map.
+	 */
+	private static void increment(Map<String, Long> map, String key,
+			long value) {
+		Long old = map.get(key);
+		map.put(key, old == null ? value : old + value);
+	}
+
+	/**
+	 * Utility method to get the entries of a map with the greatest values.
+	 */
+	private static List<Map.Entry<String, Long>> getTop(Map<String, Long> map,
+			int count) {
+		List<Map.Entry<String, Long>> entries = new ArrayList<Map.Entry<String, Long>>(
+				map.entrySet());
+		Collections.sort(entries, new Comparator<Map.Entry<String, Long>>() {
+
+			@Override
+			public int compare(Map.Entry<String, Long> o1,
+					Map.Entry<String, Long> o2) {
+				return o2.getValue().compareTo(o1.getValue());
+			}
+
+		});
+		return entries.subList(0, Math.min(count, entries.size()));
+	}
+
+	/**
+	 * Utility method to invoke a public method without arguments.
+	 */
+	private static Object invoke(Object target, String method)
+			throws ReflectiveOperationException {
+		Method m = target.getClass().getMethod(method);
+		return m.invoke(target);
+	}
+
+}
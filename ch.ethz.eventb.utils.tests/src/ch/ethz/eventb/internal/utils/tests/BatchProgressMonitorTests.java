@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.tests;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eventb.core.IContextRoot;
+import org.junit.Test;
+
+import ch.ethz.eventb.utils.BatchProgressMonitor;
+import ch.ethz.eventb.utils.EventBUtils;
+import ch.ethz.eventb.utils.tests.AbstractIsolatedEventBTests;
+
+/**
+ * <p>
+ * Tests for the aggregated progress reporting of bulk operations.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see BatchProgressMonitor
+ * @since 0.2.5
+ */
+public class BatchProgressMonitorTests extends AbstractIsolatedEventBTests {
+
+	/**
+	 * A progress monitor counting the calls made to it.
+	 */
+	private static class CountingMonitor extends NullProgressMonitor {
+
+		int beginTask;
+
+		int worked;
+
+		int work;
+
+		int subTask;
+
+		int done;
+
+		@Override
+		public void beginTask(String name, int totalWork) {
+			beginTask++;
+		}
+
+		@Override
+		public void worked(int work) {
+			worked++;
+			this.work += work;
+		}
+
+		@Override
+		public void subTask(String name) {
+			subTask++;
+		}
+
+		@Override
+		public void done() {
+			done++;
+		}
+
+	}
+
+	/**
+	 * Test that the progress is only reported every some number of
+	 * operations.
+	 */
+	@Test
+	public void testGranularity() throws Exception {
+		IContextRoot ctx = EventBUtils.createContext(getTestProject(), "c0",
+				nullMonitor);
+		CountingMonitor counting = new CountingMonitor();
+		BatchProgressMonitor batch = new BatchProgressMonitor(counting,
+				"batch", 250, 100, Long.MAX_VALUE / 1000000L);
+		for (int i = 0; i < 250; i++) {
+			EventBUtils.createConstant(ctx, "c" + i, null, batch);
+		}
+		assertEquals("Incorrect number of operations", 250, batch
+				.getPerformed());
+		assertEquals("The task should begin once", 1, counting.beginTask);
+		assertEquals("Incorrect number of reports", 2, counting.worked);
+		assertEquals("Incorrect number of sub-tasks", 2, counting.subTask);
+		assertEquals("The task should not be done", 0, counting.done);
+
+		batch.finish();
+		assertEquals("Incorrect number of reports", 3, counting.worked);
+		assertEquals("Incorrect reported work", 250, counting.work);
+		assertEquals("The task should be done", 1, counting.done);
+		assertEquals("Incorrect number of constants", 250,
+				ctx.getConstants().length);
+	}
+
+	/**
+	 * Test that the progress is reported when the interval elapses.
+	 */
+	@Test
+	public void testInterval() throws Exception {
+		IContextRoot ctx = EventBUtils.createContext(getTestProject(), "c0",
+				nullMonitor);
+		CountingMonitor counting = new CountingMonitor();
+		BatchProgressMonitor batch = new BatchProgressMonitor(counting,
+				"batch", 10, Integer.MAX_VALUE, 0);
+		for (int i = 0; i < 10; i++) {
+			EventBUtils.createCarrierSet(ctx, "S" + i, null, batch);
+		}
+		assertEquals("Each operation should be reported", 10, counting.worked);
+	}
+
+	/**
+	 * Test that the operations are cancelled when the wrapped monitor is
+	 * cancelled, before changing the database.
+	 */
+	@Test
+	public void testCancel() throws Exception {
+		IContextRoot ctx = EventBUtils.createContext(getTestProject(), "c0",
+				nullMonitor);
+		CountingMonitor counting = new CountingMonitor();
+		BatchProgressMonitor batch = new BatchProgressMonitor(counting,
+				"batch", 10, 2, Long.MAX_VALUE / 1000000L);
+		EventBUtils.createConstant(ctx, "c0", null, batch);
+		counting.setCanceled(true);
+		assertFalse("The cancellation should be noticed at the next report",
+				batch.isCanceled());
+		try {
+			// The second operation triggers a report.
+			EventBUtils.createConstant(ctx, "c1", null, batch);
+			fail("The batch should be cancelled");
+		} catch (OperationCanceledException e) {
+			// Expected.
+		}
+		assertTrue("The batch should be cancelled", batch.isCanceled());
+		assertEquals("Incorrect number of constants", 1,
+				ctx.getConstants().length);
+	}
+
+}
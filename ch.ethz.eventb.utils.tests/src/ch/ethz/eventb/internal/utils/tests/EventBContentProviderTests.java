@@ -0,0 +1,438 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.tests;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.management.JMX;
+import javax.management.ObjectName;
+
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.swt.SWTError;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.TreeItem;
+import org.eventb.core.IConvergenceElement.Convergence;
+import org.eventb.core.IEventBProject;
+import org.eventb.core.IMachineRoot;
+import org.junit.Test;
+import org.rodinp.core.IInternalElement;
+import org.rodinp.core.IRodinElement;
+import org.rodinp.core.IRodinProject;
+import org.rodinp.core.RodinCore;
+
+import ch.ethz.eventb.ui.utils.EventBContentProvider;
+import ch.ethz.eventb.utils.EventBManagement;
+import ch.ethz.eventb.utils.EventBUtils;
+import ch.ethz.eventb.utils.EventBUtilsMXBean;
+import ch.ethz.eventb.utils.tests.AbstractIsolatedEventBTests;
+
+/**
+ * <p>
+ * Tests for the translation of the changes of the Rodin database into
+ * changes of a tree viewer by the content provider. The viewer records the
+ * changes applied to it. The changes are applied in the UI thread, i.e. the
+ * thread running the tests, only when the tests run the event loop: the
+ * changes made before are coalesced. The cached roots of the projects are
+ * observed through the management interface. The tests require a display,
+ * and do nothing when none is available.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBContentProvider
+ * @since 0.2.5
+ */
+public class EventBContentProviderTests extends AbstractIsolatedEventBTests {
+
+	// The maximal time to wait for the changes to be applied.
+	private static final long TIMEOUT = 60000;
+
+	// The display, or null if none is available.
+	private Display display;
+
+	// The shell of the viewer.
+	private Shell shell;
+
+	// The viewer.
+	private RecordingTreeViewer viewer;
+
+	// The content provider of the viewer.
+	private EventBContentProvider provider;
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see AbstractIsolatedEventBTests#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		display = getDisplay();
+		if (display == null)
+			return;
+		shell = new Shell(display);
+		viewer = new RecordingTreeViewer(shell);
+		provider = new EventBContentProvider();
+		viewer.setContentProvider(provider);
+		EventBManagement.register();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see AbstractIsolatedEventBTests#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		if (shell != null)
+			shell.dispose();
+		EventBManagement.unregister();
+		super.tearDown();
+	}
+
+	/**
+	 * Test that the changes made before the viewer is updated are applied
+	 * together, the added elements of a parent in a single call.
+	 */
+	@Test
+	public void testCoalescing() throws Exception {
+		if (display == null)
+			return;
+		IEventBProject prj = getTestProject();
+		IMachineRoot mch = EventBUtils.createMachine(prj, "m0", nullMonitor);
+		show(prj.getRodinProject());
+
+		for (int i = 0; i < 3; i++) {
+			EventBUtils.createEvent(mch, "evt" + i, Convergence.ORDINARY,
+					false, null, nullMonitor);
+		}
+		waitFor("add m0.bum 3");
+		assertFalse("The viewer should not be fully refreshed", viewer.calls
+				.contains("refresh"));
+	}
+
+	/**
+	 * Test that the viewer is fully refreshed rather than updated when there
+	 * are too many changes.
+	 */
+	@Test
+	public void testFullRefresh() throws Exception {
+		if (display == null)
+			return;
+		IEventBProject prj = getTestProject();
+		final IMachineRoot mch = EventBUtils.createMachine(prj, "m0",
+				nullMonitor);
+		show(prj.getRodinProject());
+
+		RodinCore.run(new IWorkspaceRunnable() {
+
+			@Override
+			public void run(IProgressMonitor monitor) throws CoreException {
+				for (int i = 0; i < 501; i++) {
+					EventBUtils.createEvent(mch, "evt" + i,
+							Convergence.ORDINARY, false, null, monitor);
+				}
+			}
+
+		}, nullMonitor);
+		waitFor("refresh");
+		assertEquals("The viewer should only be refreshed", "[refresh]",
+				viewer.calls.toString());
+		viewer.expandToLevel(mch, 1);
+		assertEquals("Incorrect number of events", 501, viewer.getTree()
+				.getItem(0).getItemCount());
+	}
+
+	/**
+	 * Test that an added component is inserted at its sorted position,
+	 * without refreshing its project.
+	 */
+	@Test
+	public void testSortedInsertion() throws Exception {
+		if (display == null)
+			return;
+		IEventBProject prj = getTestProject();
+		EventBUtils.createMachine(prj, "m3", nullMonitor);
+		EventBUtils.createMachine(prj, "m1", nullMonitor);
+		EventBUtils.createContext(prj, "c0", nullMonitor);
+		show(prj.getRodinProject());
+
+		EventBUtils.createMachine(prj, "m2", nullMonitor);
+		waitFor("insert m2.bum 2");
+		String project = prj.getRodinProject().getElementName();
+		assertFalse("The project should not be refreshed", viewer.calls
+				.contains("refresh " + project));
+		assertEquals("Incorrect components",
+				"[c0.buc, m1.bum, m2.bum, m3.bum]", getItemNames().toString());
+	}
+
+	/**
+	 * Test that the cached roots of a project are maintained from the
+	 * changes, instead of being computed again.
+	 */
+	@Test
+	public void testRootsCache() throws Exception {
+		if (display == null)
+			return;
+		IEventBProject prj = getTestProject();
+		IRodinProject project = prj.getRodinProject();
+		EventBUtils.createContext(prj, "c0", nullMonitor);
+		IMachineRoot m1 = EventBUtils.createMachine(prj, "m1", nullMonitor);
+		show(project);
+		assertEquals("The roots of the project should be cached", 1,
+				getRootsCacheSize());
+
+		double hitRate = getRootsHitRate();
+		assertEquals("Incorrect roots", "[c0.buc, m1.bum]",
+				getNames(provider.getChildren(project)));
+		hitRate = assertHit(hitRate);
+
+		EventBUtils.createMachine(prj, "m0", nullMonitor);
+		waitFor("insert m0.bum 1");
+		assertEquals("Incorrect roots", "[c0.buc, m0.bum, m1.bum]",
+				getNames(provider.getChildren(project)));
+		hitRate = assertHit(hitRate);
+
+		m1.getRodinFile().delete(true, nullMonitor);
+		waitFor("remove 1");
+		assertEquals("Incorrect roots", "[c0.buc, m0.bum]",
+				getNames(provider.getChildren(project)));
+		hitRate = assertHit(hitRate);
+
+		getManagementProxy().clearCaches();
+		assertEquals("The roots should no longer be cached", 0,
+				getRootsCacheSize());
+		assertEquals("Incorrect roots", "[c0.buc, m0.bum]",
+				getNames(provider.getChildren(project)));
+		assertTrue("The roots should be computed again",
+				getRootsHitRate() < hitRate);
+		assertEquals("The roots should be cached again", 1,
+				getRootsCacheSize());
+	}
+
+	/**
+	 * Test that roots computed before the change adding a component are
+	 * presented once: the project is then refreshed rather than updated.
+	 */
+	@Test
+	public void testRootsComputedBeforeChange() throws Exception {
+		if (display == null)
+			return;
+		final IEventBProject prj = getTestProject();
+		final IRodinProject project = prj.getRodinProject();
+		EventBUtils.createMachine(prj, "m0", nullMonitor);
+		show(project);
+		getManagementProxy().clearCaches();
+
+		// The change is notified when the runnable completes, after the
+		// roots have been computed and cached.
+		RodinCore.run(new IWorkspaceRunnable() {
+
+			@Override
+			public void run(IProgressMonitor monitor) throws CoreException {
+				EventBUtils.createMachine(prj, "m1", monitor);
+				provider.getChildren(project);
+			}
+
+		}, nullMonitor);
+		waitFor("refresh " + project.getElementName());
+		assertEquals("Incorrect roots", "[m0.bum, m1.bum]",
+				getNames(provider.getChildren(project)));
+		assertEquals("Incorrect components", "[m0.bum, m1.bum]",
+				getItemNames().toString());
+	}
+
+	/**
+	 * Utility method to check that the last lookup of the cached roots found
+	 * them, i.e. that the hit rate increased.
+	 */
+	private double assertHit(double previousHitRate) throws Exception {
+		double hitRate = getRootsHitRate();
+		assertTrue("The roots should be cached", hitRate > previousHitRate);
+		return hitRate;
+	}
+
+	/**
+	 * Utility method to get the number of projects whose roots are cached by
+	 * the content provider, or -1 if the cache is not registered.
+	 */
+	private int getRootsCacheSize() throws Exception {
+		Integer size = getManagementProxy().getCacheSizes().get(
+				getRootsCacheName());
+		return size == null ? -1 : size;
+	}
+
+	/**
+	 * Utility method to get the hit rate of the cached roots.
+	 */
+	private double getRootsHitRate() throws Exception {
+		return getManagementProxy().getCacheHitRates().get(
+				getRootsCacheName());
+	}
+
+	/**
+	 * Utility method to get the name of the cached roots of the content
+	 * provider.
+	 */
+	private String getRootsCacheName() {
+		return "EventBContentProvider@"
+				+ Integer.toHexString(System.identityHashCode(provider))
+				+ ".roots";
+	}
+
+	/**
+	 * Utility method to get a proxy of the management interface.
+	 */
+	private EventBUtilsMXBean getManagementProxy() throws Exception {
+		return JMX.newMXBeanProxy(ManagementFactory.getPlatformMBeanServer(),
+				new ObjectName(EventBManagement.OBJECT_NAME),
+				EventBUtilsMXBean.class);
+	}
+
+	/**
+	 * Utility method to get the names of some elements.
+	 */
+	private static String getNames(Object[] elements) {
+		String[] names = new String[elements.length];
+		for (int i = 0; i < elements.length; i++) {
+			names[i] = getName(elements[i]);
+		}
+		return Arrays.toString(names);
+	}
+
+	/**
+	 * Utility method to show the components of a project, fully expanded,
+	 * and to forget the changes applied so far.
+	 */
+	private void show(IRodinProject project) {
+		viewer.setInput(project);
+		viewer.expandAll();
+		while (display.readAndDispatch()) {
+			// Apply the pending changes.
+		}
+		viewer.calls.clear();
+	}
+
+	/**
+	 * Utility method to run the event loop until a change is applied to the
+	 * viewer.
+	 */
+	private void waitFor(String change) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (!viewer.calls.contains(change)) {
+			assertTrue("The change should be applied: " + change,
+					System.currentTimeMillis() < deadline);
+			if (!display.readAndDispatch())
+				Thread.sleep(10);
+		}
+	}
+
+	/**
+	 * Utility method to get the names of the top-level items of the viewer.
+	 */
+	private List<String> getItemNames() {
+		List<String> result = new ArrayList<String>();
+		for (TreeItem item : viewer.getTree().getItems()) {
+			result.add(getName(item.getData()));
+		}
+		return result;
+	}
+
+	/**
+	 * Utility method to get the display, or <code>null</code> if none is
+	 * available, e.g. when the tests run headless.
+	 */
+	static Display getDisplay() {
+		try {
+			return Display.getDefault();
+		} catch (SWTError e) {
+			return null;
+		} catch (LinkageError e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Utility method to get the name of an element as recorded: the name of
+	 * the file of the roots, and the name of the other elements.
+	 */
+	private static String getName(Object element) {
+		if (element instanceof IInternalElement
+				&& ((IInternalElement) element).isRoot())
+			return ((IInternalElement) element).getRodinFile()
+					.getElementName();
+		if (element instanceof IRodinElement)
+			return ((IRodinElement) element).getElementName();
+		return String.valueOf(element);
+	}
+
+	/**
+	 * <p>
+	 * A tree viewer recording the changes applied to it.
+	 * </p>
+	 */
+	private static class RecordingTreeViewer extends TreeViewer {
+
+		// The recorded changes, e.g. "add m0.bum 3" or "refresh".
+		final List<String> calls = new ArrayList<String>();
+
+		RecordingTreeViewer(Composite parent) {
+			super(parent);
+		}
+
+		@Override
+		public void add(Object parentElementOrTreePath,
+				Object... childElements) {
+			calls.add("add " + getName(parentElementOrTreePath) + " "
+					+ childElements.length);
+			super.add(parentElementOrTreePath, childElements);
+		}
+
+		@Override
+		public void insert(Object parentElementOrTreePath, Object element,
+				int position) {
+			calls.add("insert " + getName(element) + " " + position);
+			super.insert(parentElementOrTreePath, element, position);
+		}
+
+		@Override
+		public void remove(Object... elementsOrTreePaths) {
+			calls.add("remove " + elementsOrTreePaths.length);
+			super.remove(elementsOrTreePaths);
+		}
+
+		@Override
+		public void refresh() {
+			calls.add("refresh");
+			super.refresh();
+		}
+
+		@Override
+		public void refresh(Object element, boolean updateLabels) {
+			calls.add("refresh " + getName(element));
+			super.refresh(element, updateLabels);
+		}
+
+	}
+
+}
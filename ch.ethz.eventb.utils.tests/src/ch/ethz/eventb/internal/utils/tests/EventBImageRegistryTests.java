@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.tests;
+
+import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Display;
+import org.eventb.core.IGuard;
+import org.junit.Test;
+
+import ch.ethz.eventb.ui.utils.EventBImageRegistry;
+import ch.ethz.eventb.utils.tests.AbstractIsolatedEventBTests;
+
+/**
+ * <p>
+ * Tests for the shared registry of the images of the element types. The
+ * images are created from descriptors registered by the tests, so that they
+ * do not depend on the Event-B UI plug-in. The tests require a display, and
+ * do nothing when none is available.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBImageRegistry
+ * @since 0.2.5
+ */
+public class EventBImageRegistryTests extends AbstractIsolatedEventBTests {
+
+	// The display, or null if none is available.
+	private Display display;
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see AbstractIsolatedEventBTests#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		display = EventBContentProviderTests.getDisplay();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see AbstractIsolatedEventBTests#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		EventBImageRegistry.registerImageDescriptor(IGuard.ELEMENT_TYPE, null);
+		super.tearDown();
+	}
+
+	/**
+	 * Test that the images are shared by the connected clients, and disposed
+	 * when the last client disconnects.
+	 */
+	@Test
+	public void testReferenceCounting() throws Exception {
+		if (display == null)
+			return;
+		assertNull("No image should be provided to disconnected clients",
+				EventBImageRegistry.getImage(IGuard.ELEMENT_TYPE));
+
+		EventBImageRegistry.registerImageDescriptor(IGuard.ELEMENT_TYPE,
+				newDescriptor(255));
+		int count = EventBImageRegistry.getImageCount();
+		EventBImageRegistry.connect();
+		EventBImageRegistry.connect();
+		Image image = EventBImageRegistry.getImage(IGuard.ELEMENT_TYPE);
+		assertNotNull("The image should be created", image);
+		assertSame("The image should be shared", image, EventBImageRegistry
+				.getImage(IGuard.ELEMENT_TYPE));
+		assertEquals("A single image should be allocated", count + 1,
+				EventBImageRegistry.getImageCount());
+
+		EventBImageRegistry.disconnect();
+		assertFalse("The image should be kept for the connected client",
+				image.isDisposed());
+		EventBImageRegistry.disconnect();
+		assertTrue("The image should be disposed with the last client", image
+				.isDisposed());
+		assertEquals("No image should be allocated", 0, EventBImageRegistry
+				.getImageCount());
+
+		// Unbalanced disconnections are ignored.
+		EventBImageRegistry.disconnect();
+		EventBImageRegistry.connect();
+		try {
+			Image newImage = EventBImageRegistry
+					.getImage(IGuard.ELEMENT_TYPE);
+			assertNotSame("A new image should be created", image, newImage);
+			assertFalse("The new image should not be disposed", newImage
+					.isDisposed());
+		} finally {
+			EventBImageRegistry.disconnect();
+		}
+	}
+
+	/**
+	 * Test that a replaced image is kept until the last client disconnects,
+	 * since viewers may still show it.
+	 */
+	@Test
+	public void testReplacedImage() throws Exception {
+		if (display == null)
+			return;
+		EventBImageRegistry.registerImageDescriptor(IGuard.ELEMENT_TYPE,
+				newDescriptor(255));
+		EventBImageRegistry.connect();
+		Image replaced;
+		try {
+			replaced = EventBImageRegistry.getImage(IGuard.ELEMENT_TYPE);
+			int count = EventBImageRegistry.getImageCount();
+
+			EventBImageRegistry.registerImageDescriptor(IGuard.ELEMENT_TYPE,
+					newDescriptor(0));
+			assertFalse("The replaced image should be kept", replaced
+					.isDisposed());
+			Image image = EventBImageRegistry.getImage(IGuard.ELEMENT_TYPE);
+			assertNotSame("A new image should be created", replaced, image);
+			assertEquals("Both images should be allocated", count + 1,
+					EventBImageRegistry.getImageCount());
+		} finally {
+			EventBImageRegistry.disconnect();
+		}
+		assertTrue("The replaced image should be disposed with the last "
+				+ "client", replaced.isDisposed());
+		assertEquals("No image should be allocated", 0, EventBImageRegistry
+				.getImageCount());
+	}
+
+	/**
+	 * Utility method to create the descriptor of a 16x16 image filled with a
+	 * shade of red.
+	 */
+	private static ImageDescriptor newDescriptor(int red) {
+		PaletteData palette = new PaletteData(new RGB[] { new RGB(red, 0, 0) });
+		return ImageDescriptor.createFromImageData(new ImageData(16, 16, 1,
+				palette));
+	}
+
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.tests;
+
+import java.io.ByteArrayOutputStream;
+
+import org.eclipse.core.runtime.AssertionFailedException;
+import org.eventb.core.IContextRoot;
+import org.eventb.core.IConvergenceElement.Convergence;
+import org.eventb.core.IEvent;
+import org.eventb.core.IEventBProject;
+import org.eventb.core.IGuard;
+import org.eventb.core.IMachineRoot;
+import org.junit.Test;
+import org.rodinp.core.IRodinFile;
+
+import ch.ethz.eventb.utils.EventBJsonExport;
+import ch.ethz.eventb.utils.EventBUtils;
+import ch.ethz.eventb.utils.tests.AbstractIsolatedEventBTests;
+
+/**
+ * <p>
+ * Tests for the export of Event-B projects as newline-delimited JSON.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBJsonExport
+ * @since 0.2.5
+ */
+public class EventBJsonExportTests extends AbstractIsolatedEventBTests {
+
+	/**
+	 * Test that each element is exported as one record, in document order.
+	 */
+	@Test
+	public void testProject() throws Exception {
+		IEventBProject prj = getTestProject();
+		IContextRoot ctx = EventBUtils.createContext(prj, "c0", nullMonitor);
+		EventBUtils.createCarrierSet(ctx, "S", null, nullMonitor);
+		IMachineRoot mch = EventBUtils.createMachine(prj, "m0", nullMonitor);
+		IEvent evt = EventBUtils.createEvent(mch, "evt", Convergence.ORDINARY,
+				false, null, nullMonitor);
+		IGuard grd = EventBUtils.createGuard(evt, "grd1", "x > 0", true, null,
+				nullMonitor);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		int exported = EventBJsonExport.export(prj, out, nullMonitor);
+		assertEquals("Incorrect number of exported elements", 5, exported);
+		String[] records = out.toString("UTF-8").split("\n");
+		assertEquals("Incorrect number of records", 5, records.length);
+
+		assertTrue("Incorrect context record: " + records[0], records[0]
+				.startsWith("{\"file\":\"c0.buc\",\"parent\":[],\"name\":\""
+						+ ctx.getElementName() + "\",\"type\":\""
+						+ IContextRoot.ELEMENT_TYPE.getId() + "\","));
+		assertTrue("Incorrect machine record: " + records[2], records[2]
+				.startsWith("{\"file\":\"m0.bum\",\"parent\":[],"));
+		String guard = records[4];
+		assertTrue("Incorrect guard record: " + guard, guard
+				.startsWith("{\"file\":\"m0.bum\",\"parent\":[\""
+						+ mch.getElementName() + "\",\""
+						+ evt.getElementName() + "\"],\"name\":\""
+						+ grd.getElementName() + "\",\"type\":\""
+						+ IGuard.ELEMENT_TYPE.getId() + "\",\"attributes\":{"));
+		assertTrue("Incorrect label: " + guard, guard
+				.contains("\"org.eventb.core.label\":\"grd1\""));
+		assertTrue("Incorrect predicate: " + guard, guard
+				.contains("\"org.eventb.core.predicate\":\"x > 0\""));
+		assertTrue("Incorrect theorem attribute: " + guard, guard
+				.contains("\"org.eventb.core.theorem\":true"));
+		assertTrue("Incorrect end of record: " + guard, guard.endsWith("}}"));
+	}
+
+	/**
+	 * Test the export of a single component, the escaping of the strings and
+	 * that closed components are closed again after the export.
+	 */
+	@Test
+	public void testComponent() throws Exception {
+		IMachineRoot mch = EventBUtils.createMachine(getTestProject(), "m0",
+				nullMonitor);
+		EventBUtils.createVariable(mch, "x", null, nullMonitor);
+		EventBUtils.createInvariant(mch, "a\"b\\c\td", "x ∈ ℕ", false, null,
+				nullMonitor);
+		IRodinFile file = mch.getRodinFile();
+		file.save(nullMonitor, false);
+		file.close();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		int exported = EventBJsonExport.export(mch, out, nullMonitor);
+		assertEquals("Incorrect number of exported elements", 3, exported);
+		String[] records = out.toString("UTF-8").split("\n");
+		assertTrue("Incorrect variable record: " + records[1], records[1]
+				.contains("\"org.eventb.core.identifier\":\"x\""));
+		assertTrue("Incorrect escaping: " + records[2], records[2]
+				.contains("\"org.eventb.core.label\":\"a\\\"b\\\\c\\td\""));
+		assertTrue("Incorrect encoding: " + records[2], records[2]
+				.contains("\"org.eventb.core.predicate\":\"x ∈ ℕ\""));
+		assertFalse("The component should be closed again", file.isOpen());
+	}
+
+	/**
+	 * Test that only existing components can be exported.
+	 */
+	@Test
+	public void testNonExistingComponent() throws Exception {
+		IMachineRoot mch = getTestProject().getMachineRoot("m0");
+		try {
+			EventBJsonExport.export(mch, new ByteArrayOutputStream(),
+					nullMonitor);
+			fail("Non-existing components should not be exported");
+		} catch (AssertionFailedException e) {
+			// Expected.
+		}
+	}
+
+}
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.tests;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.eventb.core.IConvergenceElement.Convergence;
+import org.eventb.core.IMachineRoot;
+import org.junit.Test;
+
+import ch.ethz.eventb.utils.EventBManagement;
+import ch.ethz.eventb.utils.EventBMetrics;
+import ch.ethz.eventb.utils.EventBTracing;
+import ch.ethz.eventb.utils.EventBUtils;
+import ch.ethz.eventb.utils.EventBUtilsMXBean;
+import ch.ethz.eventb.utils.tests.AbstractIsolatedEventBTests;
+
+/**
+ * <p>
+ * Tests for the management interface of the utilities, accessed through the
+ * platform MBean server.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBManagement
+ * @since 0.2.5
+ */
+public class EventBManagementTests extends AbstractIsolatedEventBTests {
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see AbstractIsolatedEventBTests#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		EventBMetrics.reset();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see AbstractIsolatedEventBTests#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		EventBManagement.unregister();
+		EventBMetrics.setEnabled(false);
+		EventBMetrics.reset();
+		EventBTracing.setSlowOperationThreshold(-1);
+		super.tearDown();
+	}
+
+	/**
+	 * Test the registration of the management interface.
+	 */
+	@Test
+	public void testRegistration() throws Exception {
+		assertFalse("The interface should not be registered by default",
+				EventBManagement.isRegistered());
+		EventBManagement.register();
+		assertTrue("The interface should be registered", EventBManagement
+				.isRegistered());
+		// Registering twice does nothing.
+		EventBManagement.register();
+		EventBManagement.unregister();
+		assertFalse("The interface should be unregistered", EventBManagement
+				.isRegistered());
+	}
+
+	/**
+	 * Test the metrics of the operations exposed by the management
+	 * interface.
+	 */
+	@Test
+	public void testMetrics() throws Exception {
+		EventBManagement.register();
+		EventBUtilsMXBean bean = getProxy();
+		bean.setMetricsEnabled(true);
+		assertTrue("The metrics should be enabled", EventBMetrics.isEnabled());
+		IMachineRoot mch = EventBUtils.createMachine(getTestProject(), "m0",
+				nullMonitor);
+		for (int i = 0; i < 2; i++) {
+			EventBUtils.createEvent(mch, "evt" + i, Convergence.ORDINARY,
+					false, null, nullMonitor);
+		}
+
+		Map<String, Long> counts = bean.getOperationCounts();
+		assertEquals("Incorrect counts", "{createEvent=2, createMachine=1}",
+				counts.toString());
+		long median = bean.getMedianLatencies().get("createEvent");
+		long p99 = bean.getP99Latencies().get("createEvent");
+		long max = bean.getMaxLatencies().get("createEvent");
+		assertTrue("The median should not exceed the 99th percentile",
+				median <= p99);
+		assertTrue("The 99th percentile should bound the maximum", p99 >= max);
+		assertEquals("Incorrect percentile", median, bean
+				.getLatencyPercentile("createEvent", 50));
+		assertEquals("Unknown operations have no percentile", -1, bean
+				.getLatencyPercentile("unknown", 50));
+		assertTrue("Incorrect database operations", bean
+				.getDatabaseOperationsPerCall().get("createEvent") > 0);
+
+		bean.resetMetrics();
+		assertTrue("The metrics should be reset", bean.getOperationCounts()
+				.isEmpty());
+	}
+
+	/**
+	 * Test the tracing and the caches exposed by the management interface.
+	 */
+	@Test
+	public void testTracingAndCaches() throws Exception {
+		EventBManagement.register();
+		EventBUtilsMXBean bean = getProxy();
+		bean.setSlowOperationThreshold(20);
+		assertEquals("Incorrect threshold", 20, EventBTracing
+				.getSlowOperationThreshold());
+		assertEquals("Incorrect threshold", 20, bean
+				.getSlowOperationThreshold());
+
+		// No viewers are attached, hence no caches are in use.
+		assertTrue("There should be no caches", bean.getCacheSizes()
+				.isEmpty());
+		assertTrue("There should be no caches", bean.getCacheHitRates()
+				.isEmpty());
+		bean.clearCaches();
+	}
+
+	/**
+	 * Utility method to get a proxy of the registered management interface.
+	 */
+	private EventBUtilsMXBean getProxy() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		return JMX.newMXBeanProxy(server, new ObjectName(
+				EventBManagement.OBJECT_NAME), EventBUtilsMXBean.class);
+	}
+
+}
@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.tests;
+
+import java.util.Map;
+
+import org.eclipse.core.runtime.AssertionFailedException;
+import org.eventb.core.IConvergenceElement.Convergence;
+import org.eventb.core.IEvent;
+import org.eventb.core.IMachineRoot;
+import org.junit.Test;
+
+import ch.ethz.eventb.utils.EventBMetrics;
+import ch.ethz.eventb.utils.EventBUtils;
+import ch.ethz.eventb.utils.OperationStatistics;
+import ch.ethz.eventb.utils.tests.AbstractIsolatedEventBTests;
+
+/**
+ * <p>
+ * Tests for the metrics of the utility operations.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBMetrics
+ * @since 0.2.5
+ */
+public class EventBMetricsTests extends AbstractIsolatedEventBTests {
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see AbstractIsolatedEventBTests#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		EventBMetrics.reset();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see AbstractIsolatedEventBTests#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		EventBMetrics.setEnabled(false);
+		EventBMetrics.reset();
+		super.tearDown();
+	}
+
+	/**
+	 * Test that the calls are counted when the metrics are enabled.
+	 */
+	@Test
+	public void testEnabled() throws Exception {
+		IMachineRoot mch = EventBUtils.createMachine(getTestProject(), "m0",
+				nullMonitor);
+		EventBMetrics.setEnabled(true);
+		assertTrue("The metrics should be enabled", EventBMetrics.isEnabled());
+		for (int i = 0; i < 3; i++) {
+			IEvent evt = EventBUtils.createEvent(mch, "evt" + i,
+					Convergence.ORDINARY, false, null, nullMonitor);
+			EventBUtils.createGuard(evt, "grd", "1 < 2", false, null,
+					nullMonitor);
+		}
+		EventBUtils.getEvent(mch, "evt2");
+
+		OperationStatistics createEvent = EventBMetrics
+				.getStatistics("createEvent");
+		assertEquals("Incorrect number of calls", 3, createEvent.getCount());
+		assertEquals("Incorrect number of created elements", 3, createEvent
+				.getElementsCreated());
+		assertTrue("The duration should be recorded", createEvent
+				.getMaxNanos() > 0);
+		assertTrue("The mean should not exceed the maximum", createEvent
+				.getMeanNanos() <= createEvent.getMaxNanos());
+
+		OperationStatistics getEvent = EventBMetrics.getStatistics("getEvent");
+		assertEquals("Incorrect number of calls", 1, getEvent.getCount());
+		assertEquals("Incorrect number of read elements", 3, getEvent
+				.getElementsRead());
+
+		Map<String, OperationStatistics> snapshot = EventBMetrics
+				.getSnapshot();
+		assertEquals("Incorrect operations in the snapshot", "[createEvent, "
+				+ "createGuard, getEvent]", snapshot.keySet().toString());
+	}
+
+	/**
+	 * Test the accounting of the accesses to the database.
+	 */
+	@Test
+	public void testDatabaseAccesses() throws Exception {
+		IMachineRoot mch = EventBUtils.createMachine(getTestProject(), "m0",
+				nullMonitor);
+		EventBMetrics.setEnabled(true);
+		IEvent evt = EventBUtils.createEvent(mch, "evt", Convergence.ORDINARY,
+				false, null, nullMonitor);
+		EventBUtils.createGuard(evt, "grd", "1 < 2", false, null, nullMonitor);
+		mch.getRodinFile().save(nullMonitor, false);
+		mch.getRodinFile().close();
+		EventBUtils.getEvent(mch, "evt");
+
+		OperationStatistics createEvent = EventBMetrics
+				.getStatistics("createEvent");
+		assertEquals("Incorrect elements opened", 1, createEvent
+				.getElementsOpened());
+		assertEquals("Incorrect attribute reads", 0, createEvent
+				.getAttributeReads());
+		assertEquals("Incorrect attribute writes", 3, createEvent
+				.getAttributeWrites());
+		assertEquals("Incorrect files loaded", 0, createEvent
+				.getFilesLoaded());
+
+		OperationStatistics createGuard = EventBMetrics
+				.getStatistics("createGuard");
+		assertEquals("The label of the event should be read", 1, createGuard
+				.getAttributeReads());
+		assertEquals("Incorrect attribute writes", 3, createGuard
+				.getAttributeWrites());
+
+		OperationStatistics getEvent = EventBMetrics.getStatistics("getEvent");
+		assertEquals("The machine should be accounted for once", 1,
+				getEvent.getElementsOpened());
+		assertEquals("Incorrect attribute reads", 1, getEvent
+				.getAttributeReads());
+		assertEquals("The closed file should be loaded", 1, getEvent
+				.getFilesLoaded());
+		assertEquals("Incorrect operations per call", 3.0, getEvent
+				.getDatabaseOperationsPerCall(), 0.0);
+	}
+
+	/**
+	 * Test that a call failing a precondition is recorded, without any
+	 * created element.
+	 */
+	@Test
+	public void testFailedCall() throws Exception {
+		EventBMetrics.setEnabled(true);
+		try {
+			EventBUtils.createMachine(EventBUtils.getEventBProject("Dummy"),
+					"m0", nullMonitor);
+			fail("Machines should not be created in missing projects");
+		} catch (AssertionFailedException e) {
+			// Expected.
+		}
+		OperationStatistics createMachine = EventBMetrics
+				.getStatistics("createMachine");
+		assertEquals("The failed call should be recorded", 1, createMachine
+				.getCount());
+		assertEquals("Incorrect number of created elements", 0,
+				createMachine.getElementsCreated());
+		assertEquals("Incorrect elements opened", 1, createMachine
+				.getElementsOpened());
+	}
+
+	/**
+	 * Test that nothing is recorded when the metrics are disabled.
+	 */
+	@Test
+	public void testDisabled() throws Exception {
+		assertFalse("The metrics should be disabled by default",
+				EventBMetrics.isEnabled());
+		IMachineRoot mch = EventBUtils.createMachine(getTestProject(), "m0",
+				nullMonitor);
+		EventBUtils.createEvent(mch, "evt", Convergence.ORDINARY, false, null,
+				nullMonitor);
+		assertTrue("Nothing should be recorded", EventBMetrics.getSnapshot()
+				.isEmpty());
+	}
+
+	/**
+	 * Test the reset of the metrics and the percentiles of the durations.
+	 */
+	@Test
+	public void testResetAndPercentiles() throws Exception {
+		EventBMetrics.setEnabled(true);
+		IMachineRoot mch = EventBUtils.createMachine(getTestProject(), "m0",
+				nullMonitor);
+		OperationStatistics createMachine = EventBMetrics
+				.getStatistics("createMachine");
+		assertEquals("Incorrect number of calls", 1, createMachine.getCount());
+		assertTrue("The median should bound the duration", createMachine
+				.getPercentileNanos(50) >= createMachine.getMaxNanos());
+		assertNull("Unknown operations have no statistics", EventBMetrics
+				.getStatistics("unknown"));
+
+		EventBMetrics.reset();
+		assertTrue("The metrics should be reset", EventBMetrics.getSnapshot()
+				.isEmpty());
+		EventBUtils.getEvent(mch, "evt");
+		assertEquals("Incorrect number of calls after reset", 1, EventBMetrics
+				.getStatistics("getEvent").getCount());
+	}
+
+}
@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.tests;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.runtime.AssertionFailedException;
+import org.eventb.core.IConvergenceElement.Convergence;
+import org.eventb.core.IMachineRoot;
+import org.eventb.core.ISCVariable;
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.ethz.eventb.utils.EventBModelIndex;
+import ch.ethz.eventb.utils.EventBSCUtils;
+import ch.ethz.eventb.utils.IndexedEvent;
+import ch.ethz.eventb.utils.tests.AbstractEventBTests;
+import ch.ethz.eventb.utils.tests.ChannelSetup;
+
+/**
+ * <p>
+ * Tests for the memory-mapped indexes of Event-B projects, checked against
+ * the queries of the Rodin database.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBModelIndex
+ * @since 0.2.5
+ */
+public class EventBModelIndexTests extends AbstractEventBTests {
+
+	// The file of the index of the Channel project.
+	private File file;
+
+	// The index of the Channel project.
+	private EventBModelIndex index;
+
+	/**
+	 * <ol>
+	 * <li>Setup the <code>Channel</code> project.</li>
+	 * <li>Build the workspace.</li>
+	 * <li>Export and open the index of the project.</li>
+	 * </ol>
+	 * 
+	 * @see AbstractEventBTests#setUp()
+	 */
+	@Before
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		ChannelSetup.setup();
+		workspace.build(IncrementalProjectBuilder.FULL_BUILD, nullMonitor);
+		file = File.createTempFile("channel", ".index");
+		EventBModelIndex.export(ChannelSetup.getChannelProject(),
+				file.toPath(), nullMonitor);
+		index = EventBModelIndex.open(file.toPath());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see AbstractEventBTests#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		index = null;
+		file.delete();
+		super.tearDown();
+	}
+
+	/**
+	 * Test the components of the index.
+	 */
+	@Test
+	public void testComponents() throws Exception {
+		assertEquals("Incorrect machines", "[EO, EOIO, channel]", index
+				.getMachineNames().toString());
+		assertEquals("Incorrect contexts", "[message_ctx, size_ctx]", index
+				.getContextNames().toString());
+	}
+
+	/**
+	 * Test method for {@link EventBModelIndex#getEvent(String, String)}.
+	 */
+	@Test
+	public void testGetEvent() throws Exception {
+		IndexedEvent sends = index.getEvent("channel", "sends");
+		assertEquals("Incorrect event", "sends:ORDINARY:false", sends
+				.toString());
+		assertEquals("Incorrect parameters", "[msg]", sends.getParameters()
+				.toString());
+		assertEquals("Incorrect guards", "{grd1=msg ∈ MESSAGE}", sends
+				.getGuards(false).toString());
+		assertEquals("Incorrect actions", "{act1=s_count ≔ s_count + 1}",
+				sends.getActions().toString());
+
+		IndexedEvent eoSends = index.getEvent("EO", "sends");
+		assertEquals("Incorrect convergence", Convergence.ORDINARY, eoSends
+				.getConvergence());
+		assertTrue("The event should be extended", eoSends.isExtended());
+		assertEquals("Incorrect guards", "{grd2=card(channel) ≠ max_size}",
+				eoSends.getGuards(false).toString());
+		assertEquals("Incorrect theorems",
+				"[thm1]", eoSends.getGuards(true).keySet().toString());
+
+		assertNull("There should be no such event", index.getEvent("channel",
+				"unknown"));
+		try {
+			index.getEvent("unknown", "sends");
+			fail("The machine should not exist");
+		} catch (AssertionFailedException e) {
+			// Expected.
+		}
+		try {
+			index.getEvent("message_ctx", "sends");
+			fail("A context is not a machine");
+		} catch (AssertionFailedException e) {
+			// Expected.
+		}
+	}
+
+	/**
+	 * Test that the statically checked queries of the index give the same
+	 * results as {@link EventBSCUtils}.
+	 */
+	@Test
+	public void testSCQueries() throws Exception {
+		for (IMachineRoot mch : Arrays.asList(
+				ChannelSetup.getChannelMachineRoot(),
+				ChannelSetup.getEOMachineRoot(),
+				ChannelSetup.getEOIOMachineRoot())) {
+			String name = mch.getComponentName();
+			for (boolean isTheorem : new boolean[] { false, true }) {
+				assertEquals("Incorrect seen axioms of " + name,
+						EventBSCUtils.getSCSeenAxioms(mch, isTheorem), index
+								.getSCSeenAxioms(name, isTheorem));
+				assertEquals("Incorrect invariants of " + name,
+						EventBSCUtils.getSCInvariants(mch, isTheorem), index
+								.getSCInvariants(name, isTheorem));
+			}
+			assertEquals("Incorrect seen carrier sets of " + name,
+					new HashSet<String>(EventBSCUtils
+							.getSCSeenCarrierSetIdentifierStrings(mch)),
+					new HashSet<String>(index
+							.getSCSeenCarrierSetIdentifierStrings(name)));
+			assertEquals("Incorrect seen constants of " + name,
+					new HashSet<String>(EventBSCUtils
+							.getSCSeenConstantIdentifierStrings(mch)),
+					new HashSet<String>(index
+							.getSCSeenConstantIdentifierStrings(name)));
+			for (ISCVariable var : mch.getSCMachineRoot().getSCVariables()) {
+				String identifier = var.getIdentifierString();
+				assertEquals("Incorrect type of " + identifier,
+						EventBSCUtils.getVariableType(mch, identifier)
+								.toString(), index.getVariableType(name,
+								identifier));
+			}
+			assertNull("There should be no such variable", index
+					.getVariableType(name, "unknown"));
+		}
+	}
+
+	/**
+	 * Test method for {@link EventBModelIndex#findPredicates(String)}.
+	 */
+	@Test
+	public void testFindPredicates() throws Exception {
+		Map<String, String> predicates = index.findPredicates("MESSAGE");
+		assertEquals("Incorrect axiom", "finite(MESSAGE)", predicates
+				.get("message_ctx/axm1"));
+		assertEquals("Incorrect guard", "msg ∈ MESSAGE", predicates
+				.get("channel/sends/grd1"));
+		assertFalse("Predicates without the text should not match",
+				predicates.containsKey("size_ctx/axm1"));
+		assertTrue("Nothing should match", index.findPredicates("unknown")
+				.isEmpty());
+	}
+
+	/**
+	 * Test that files which are not indexes are rejected.
+	 */
+	@Test
+	public void testInvalidFile() throws Exception {
+		File invalid = File.createTempFile("invalid", ".index");
+		FileOutputStream out = new FileOutputStream(invalid);
+		try {
+			out.write("Not an index of a model".getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+		try {
+			EventBModelIndex.open(invalid.toPath());
+			fail("The file should be rejected");
+		} catch (IOException e) {
+			// Expected.
+		} finally {
+			invalid.delete();
+		}
+	}
+
+}
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.tests;
+
+import java.util.List;
+
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eventb.core.IConvergenceElement.Convergence;
+import org.eventb.core.IEvent;
+import org.eventb.core.IEventBProject;
+import org.eventb.core.IMachineRoot;
+import org.junit.Test;
+import org.rodinp.core.IInternalElement;
+import org.rodinp.core.RodinCore;
+
+import ch.ethz.eventb.ui.utils.EventBSearchFilter;
+import ch.ethz.eventb.ui.utils.EventBSearchIndex;
+import ch.ethz.eventb.utils.EventBUtils;
+import ch.ethz.eventb.utils.tests.AbstractIsolatedEventBTests;
+import ch.ethz.eventb.utils.tests.ModelGenerator;
+
+/**
+ * <p>
+ * Tests for the quick search over Event-B elements, run headless against
+ * generated projects.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBSearchIndex
+ * @see EventBSearchFilter
+ * @since 0.2.5
+ */
+public class EventBSearchIndexTests extends AbstractIsolatedEventBTests {
+
+	/**
+	 * Test the prefix and substring searches.
+	 */
+	@Test
+	public void testSearch() throws Exception {
+		IEventBProject prj = new ModelGenerator(1).generate(
+				newTestProjectName(), nullMonitor);
+		IMachineRoot mch = prj.getMachineRoot(ModelGenerator.getMachineName(
+				0, 0));
+		EventBSearchIndex index = new EventBSearchIndex(prj.getRodinProject());
+		try {
+			index.waitUntilReady();
+			assertTrue("The index should be ready", index.isReady());
+
+			List<IInternalElement> events = index.search("EVT", -1);
+			assertEquals("Incorrect prefix matches", 2, events.size());
+			assertEquals("Incorrect first match", EventBUtils.getEvent(mch,
+					"evt0"), events.get(0));
+			assertEquals("Incorrect second match", EventBUtils.getEvent(mch,
+					"evt1"), events.get(1));
+
+			List<IInternalElement> inits = index.search("itialis", -1);
+			assertEquals("Incorrect substring matches", 1, inits.size());
+			assertEquals("Incorrect substring match", EventBUtils.getEvent(
+					mch, IEvent.INITIALISATION), inits.get(0));
+
+			assertEquals("Incorrect limited matches", 2, index.search("typ",
+					2).size());
+			assertTrue("Empty texts should not match", index.search("", -1)
+					.isEmpty());
+		} finally {
+			index.dispose();
+		}
+	}
+
+	/**
+	 * Test that the changes of the components are indexed.
+	 */
+	@Test
+	public void testChanges() throws Exception {
+		IMachineRoot mch = EventBUtils.createMachine(getTestProject(), "m0",
+				nullMonitor);
+		EventBSearchIndex index = new EventBSearchIndex(getTestProject()
+				.getRodinProject());
+		try {
+			index.waitUntilReady();
+			assertTrue("Nothing should match yet", index.search("added", -1)
+					.isEmpty());
+
+			IEvent evt = EventBUtils.createEvent(mch, "added_evt",
+					Convergence.ORDINARY, false, null, nullMonitor);
+			index.waitUntilReady();
+			assertEquals("The new event should be indexed", evt, index
+					.search("added", -1).get(0));
+
+			mch.getRodinFile().delete(true, nullMonitor);
+			index.waitUntilReady();
+			assertTrue("The removed machine should not be indexed", index
+					.search("added", -1).isEmpty());
+		} finally {
+			index.dispose();
+		}
+	}
+
+	/**
+	 * Test that the components of a project added with its content in a
+	 * single operation are indexed.
+	 */
+	@Test
+	public void testAddedProject() throws Exception {
+		final String name = newTestProjectName();
+		EventBSearchIndex index = new EventBSearchIndex(RodinCore.getRodinDB());
+		try {
+			index.waitUntilReady();
+			RodinCore.run(new IWorkspaceRunnable() {
+
+				@Override
+				public void run(IProgressMonitor monitor) throws CoreException {
+					IEventBProject prj = EventBUtils.createEventBProject(name,
+							monitor);
+					IMachineRoot mch = EventBUtils.createMachine(prj, "m0",
+							monitor);
+					EventBUtils.createEvent(mch, "imported_evt",
+							Convergence.ORDINARY, false, null, monitor);
+					mch.getRodinFile().save(monitor, false);
+				}
+
+			}, nullMonitor);
+			index.waitUntilReady();
+			List<IInternalElement> matches = index.search("imported_evt", -1);
+			assertEquals("The added project should be indexed", 1, matches
+					.size());
+			assertEquals("Incorrect project", name, matches.get(0)
+					.getRodinProject().getElementName());
+		} finally {
+			index.dispose();
+		}
+	}
+
+	/**
+	 * Test that the filter selects the matches and their ancestors.
+	 */
+	@Test
+	public void testFilter() throws Exception {
+		IEventBProject prj = new ModelGenerator(1).generate(
+				newTestProjectName(), nullMonitor);
+		IMachineRoot mch = prj.getMachineRoot(ModelGenerator.getMachineName(
+				0, 0));
+		IEvent evt = EventBUtils.getEvent(mch, "evt0");
+		EventBSearchIndex index = new EventBSearchIndex(prj.getRodinProject());
+		try {
+			index.waitUntilReady();
+			EventBSearchFilter filter = new EventBSearchFilter(index, -1);
+			assertTrue("Empty texts should select all elements", filter
+					.select(null, mch, evt.getGuards()[0]));
+
+			filter.setSearchText(" evt0 ");
+			assertEquals("Incorrect search text", "evt0", filter
+					.getSearchText());
+			assertTrue("The match should be selected", filter.select(null,
+					mch, evt));
+			assertTrue("The machine should be selected", filter.select(null,
+					prj.getRodinProject(), mch));
+			assertTrue("The project should be selected", filter.select(null,
+					null, prj.getRodinProject()));
+			assertFalse("Other events should not be selected", filter.select(
+					null, mch, EventBUtils.getEvent(mch, "evt1")));
+			assertFalse("Children should not be selected", filter.select(null,
+					evt, evt.getGuards()[0]));
+		} finally {
+			index.dispose();
+		}
+	}
+
+}
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.eclipse.core.runtime.AssertionFailedException;
+import org.eventb.core.IContextRoot;
+import org.eventb.core.IConvergenceElement.Convergence;
+import org.eventb.core.IEvent;
+import org.eventb.core.IEventBProject;
+import org.eventb.core.IMachineRoot;
+import org.junit.Test;
+import org.rodinp.core.IRodinFile;
+
+import ch.ethz.eventb.utils.EventBSnapshot;
+import ch.ethz.eventb.utils.EventBUtils;
+import ch.ethz.eventb.utils.tests.AbstractIsolatedEventBTests;
+
+/**
+ * <p>
+ * Tests for the binary snapshots of Event-B projects.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBSnapshot
+ * @since 0.2.5
+ */
+public class EventBSnapshotTests extends AbstractIsolatedEventBTests {
+
+	/**
+	 * Test that loading an exported snapshot recreates the components with
+	 * the same elements, attributes and order.
+	 */
+	@Test
+	public void testRoundTrip() throws Exception {
+		IEventBProject source = getTestProject();
+		IContextRoot ctx = EventBUtils.createContext(source, "c0",
+				nullMonitor);
+		EventBUtils.createCarrierSet(ctx, "S", null, nullMonitor);
+		EventBUtils.createConstant(ctx, "k", null, nullMonitor);
+		EventBUtils.createAxiom(ctx, "axm1", "k ∈ S", false, null,
+				nullMonitor);
+		IMachineRoot mch = EventBUtils.createMachine(source, "m0",
+				nullMonitor);
+		EventBUtils.createSeesContextClause(mch, "c0", null, nullMonitor);
+		EventBUtils.createVariable(mch, "x", null, nullMonitor);
+		EventBUtils.createInvariant(mch, "inv1", "x ∈ ℕ", false, null,
+				nullMonitor);
+		IEvent evt2 = EventBUtils.createEvent(mch, "evt2",
+				Convergence.CONVERGENT, false, null, nullMonitor);
+		// Inserted before evt2 to check the order.
+		IEvent evt1 = EventBUtils.createEvent(mch, "evt1",
+				Convergence.ORDINARY, true, evt2, nullMonitor);
+		EventBUtils.createGuard(evt1, "grd1", "x > 0", true, null,
+				nullMonitor);
+		EventBUtils.createAction(evt1, "act1", "x ≔ x − 1", null,
+				nullMonitor);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		int exported = EventBSnapshot.export(source, out, nullMonitor);
+		assertEquals("Incorrect number of exported elements", 12, exported);
+
+		IEventBProject target = EventBUtils.createEventBProject(
+				newTestProjectName(), nullMonitor);
+		IRodinFile[] files = EventBSnapshot.load(target,
+				new ByteArrayInputStream(out.toByteArray()), nullMonitor);
+		assertEquals("Incorrect loaded components", "[c0.buc, m0.bum]",
+				getNames(files));
+		for (IRodinFile file : files) {
+			assertFalse("The component should be saved", file
+					.hasUnsavedChanges());
+		}
+
+		IContextRoot loadedCtx = target.getContextRoot("c0");
+		testContextCarrierSets("Loaded context", loadedCtx, "S");
+		testContextConstants("Loaded context", loadedCtx, "k");
+		testContextAxioms("Loaded context", loadedCtx, "axm1:k ∈ S:false");
+		IMachineRoot loadedMch = target.getMachineRoot("m0");
+		testMachineSeesClauses("Loaded machine", loadedMch, "c0");
+		testMachineVariables("Loaded machine", loadedMch, "x");
+		testMachineInvariants("Loaded machine", loadedMch, "inv1:x ∈ ℕ:false");
+		testMachineEvents("Loaded machine", loadedMch,
+				"evt1:ORDINARY:true", "evt2:CONVERGENT:false");
+		IEvent loadedEvt = loadedMch.getEvents()[0];
+		assertEquals("The element names should be kept",
+				evt1.getElementName(), loadedEvt.getElementName());
+		testEventGuards("Loaded event", loadedEvt, "grd1:x > 0:true");
+		testEventActions("Loaded event", loadedEvt, "act1:x ≔ x − 1");
+		assertEquals("The configuration should be kept",
+				mch.getConfiguration(), loadedMch.getConfiguration());
+	}
+
+	/**
+	 * Test that loading a snapshot does not overwrite existing components.
+	 */
+	@Test
+	public void testExistingComponent() throws Exception {
+		IEventBProject prj = getTestProject();
+		EventBUtils.createContext(prj, "c0", nullMonitor);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		EventBSnapshot.export(prj, out, nullMonitor);
+		try {
+			EventBSnapshot.load(prj, new ByteArrayInputStream(out
+					.toByteArray()), nullMonitor);
+			fail("Existing components should not be overwritten");
+		} catch (AssertionFailedException e) {
+			// Expected.
+		}
+	}
+
+	/**
+	 * Test that malformed snapshots are rejected.
+	 */
+	@Test
+	public void testMalformed() throws Exception {
+		IEventBProject prj = getTestProject();
+		IMachineRoot mch = EventBUtils.createMachine(prj, "m0", nullMonitor);
+		EventBUtils.createEvent(mch, "evt", Convergence.ORDINARY, false, null,
+				nullMonitor);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		EventBSnapshot.export(prj, out, nullMonitor);
+		byte[] bytes = out.toByteArray();
+
+		IEventBProject target = EventBUtils.createEventBProject(
+				newTestProjectName(), nullMonitor);
+		assertLoadFails(target, "Not a snapshot".getBytes("UTF-8"));
+
+		// The magic number and the version, followed by a negative length.
+		byte[] negativeLength = Arrays.copyOf(bytes, 15);
+		Arrays.fill(negativeLength, 5, 14, (byte) 0xFF);
+		negativeLength[14] = 1;
+		assertLoadFails(target, negativeLength);
+
+		// The magic number and the version, followed by a huge length which
+		// is not backed by the input.
+		byte[] hugeLength = Arrays.copyOf(bytes, 12);
+		Arrays.fill(hugeLength, 5, 9, (byte) 0xFF);
+		hugeLength[9] = 0x07;
+		assertLoadFails(target, hugeLength);
+
+		assertLoadFails(target, Arrays.copyOf(bytes, bytes.length - 3));
+		assertFalse("The partially loaded machine should be deleted", target
+				.getMachineFile("m0").exists());
+		IRodinFile[] files = EventBSnapshot.load(target,
+				new ByteArrayInputStream(bytes), nullMonitor);
+		assertEquals("Incorrect loaded components", "[m0.bum]",
+				getNames(files));
+	}
+
+	/**
+	 * Utility method to check that loading some bytes fails.
+	 */
+	private void assertLoadFails(IEventBProject prj, byte[] bytes)
+			throws Exception {
+		try {
+			EventBSnapshot.load(prj, new ByteArrayInputStream(bytes),
+					nullMonitor);
+			fail("The snapshot should be rejected");
+		} catch (IOException e) {
+			// Expected.
+		}
+	}
+
+	/**
+	 * Utility method to get the names of some files.
+	 */
+	private String getNames(IRodinFile[] files) {
+		String[] names = new String[files.length];
+		for (int i = 0; i < files.length; i++) {
+			names[i] = files[i].getElementName();
+		}
+		return Arrays.toString(names);
+	}
+
+}
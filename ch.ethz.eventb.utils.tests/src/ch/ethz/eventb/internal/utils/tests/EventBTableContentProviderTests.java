@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.tests;
+
+import org.eventb.core.IEvent;
+import org.eventb.core.IEventBProject;
+import org.eventb.core.IGuard;
+import org.eventb.core.IMachineRoot;
+import org.eventb.core.IVariable;
+import org.junit.Test;
+
+import ch.ethz.eventb.ui.utils.EventBTableContentProvider;
+import ch.ethz.eventb.utils.EventBUtils;
+import ch.ethz.eventb.utils.tests.AbstractIsolatedEventBTests;
+import ch.ethz.eventb.utils.tests.ModelGenerator;
+
+/**
+ * <p>
+ * Tests for the lazy table content provider, run headless: the provider is
+ * not attached to a viewer and only collects the elements.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBTableContentProvider
+ * @since 0.2.5
+ */
+public class EventBTableContentProviderTests extends
+		AbstractIsolatedEventBTests {
+
+	// The maximal time to wait for the collection of the elements.
+	private static final long TIMEOUT = 60000;
+
+	/**
+	 * Test that all elements of the given types are collected, in order,
+	 * including when they span several published chunks.
+	 */
+	@Test
+	public void testCollect() throws Exception {
+		IEventBProject prj = new ModelGenerator(1).setEvents(300)
+				.setGuards(2).generate(newTestProjectName(), nullMonitor);
+		IMachineRoot mch = prj.getMachineRoot(ModelGenerator.getMachineName(
+				0, 0));
+		EventBTableContentProvider provider = new EventBTableContentProvider(
+				IGuard.ELEMENT_TYPE);
+		try {
+			provider.inputChanged(null, null, prj.getRodinProject());
+			waitUntilComplete(provider);
+			assertEquals("Incorrect number of guards", 600, provider
+					.getElementCount());
+			IEvent first = EventBUtils.getEvent(mch, "evt0");
+			IEvent last = EventBUtils.getEvent(mch, "evt299");
+			assertEquals("Incorrect first guard", first.getGuards()[0],
+					provider.getElement(0));
+			assertEquals("Incorrect last guard", last.getGuards()[1],
+					provider.getElement(599));
+			assertNull("Out of range", provider.getElement(600));
+		} finally {
+			provider.dispose();
+		}
+	}
+
+	/**
+	 * Test that changing the input replaces the collected elements.
+	 */
+	@Test
+	public void testInputChanged() throws Exception {
+		IEventBProject prj = new ModelGenerator(1).generate(
+				newTestProjectName(), nullMonitor);
+		IMachineRoot mch = prj.getMachineRoot(ModelGenerator.getMachineName(
+				0, 0));
+		EventBTableContentProvider provider = new EventBTableContentProvider(
+				IGuard.ELEMENT_TYPE, IVariable.ELEMENT_TYPE);
+		try {
+			provider.inputChanged(null, null, prj.getRodinProject());
+			waitUntilComplete(provider);
+			assertEquals("Incorrect number of elements", 4, provider
+					.getElementCount());
+
+			IEvent evt = EventBUtils.getEvent(mch, "evt1");
+			provider.inputChanged(null, prj.getRodinProject(), evt);
+			waitUntilComplete(provider);
+			assertEquals("Incorrect number of elements", 1, provider
+					.getElementCount());
+			assertEquals("Incorrect element", evt.getGuards()[0], provider
+					.getElement(0));
+
+			provider.inputChanged(null, evt, null);
+			assertTrue("The collection should be complete", provider
+					.isComplete());
+			assertEquals("No elements should be presented", 0, provider
+					.getElementCount());
+		} finally {
+			provider.dispose();
+		}
+	}
+
+	/**
+	 * Utility method to wait until the provider collected all elements.
+	 */
+	private void waitUntilComplete(EventBTableContentProvider provider)
+			throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (!provider.isComplete()) {
+			assertTrue("The collection should complete",
+					System.currentTimeMillis() < deadline);
+			Thread.sleep(10);
+		}
+	}
+
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.tests;
+
+import org.eventb.core.IEvent;
+import org.eventb.core.IEventBProject;
+import org.eventb.core.IGuard;
+import org.eventb.core.IMachineRoot;
+import org.eventb.core.IVariable;
+import org.junit.Test;
+
+import ch.ethz.eventb.ui.utils.EventBTableLabelProvider;
+import ch.ethz.eventb.utils.EventBUtils;
+import ch.ethz.eventb.utils.tests.AbstractIsolatedEventBTests;
+import ch.ethz.eventb.utils.tests.ModelGenerator;
+
+/**
+ * <p>
+ * Tests for the columns of the table label provider, run headless: only the
+ * texts are tested since creating images requires a display.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBTableLabelProvider
+ * @since 0.2.5
+ */
+public class EventBTableLabelProviderTests extends AbstractIsolatedEventBTests {
+
+	/**
+	 * Test the texts of the columns.
+	 */
+	@Test
+	public void testColumnTexts() throws Exception {
+		IEventBProject prj = new ModelGenerator(1).generate(
+				newTestProjectName(), nullMonitor);
+		IMachineRoot mch = prj.getMachineRoot(ModelGenerator.getMachineName(
+				0, 0));
+		IEvent evt = EventBUtils.getEvent(mch, "evt0");
+		IGuard grd = evt.getGuards()[0];
+		IVariable var = mch.getVariables()[0];
+		EventBTableLabelProvider provider = new EventBTableLabelProvider();
+		try {
+			assertEquals("Incorrect label", "grd0_0", provider.getColumnText(
+					grd, EventBTableLabelProvider.LABEL_COLUMN));
+			assertEquals("Incorrect formula", grd.getPredicateString(),
+					provider.getColumnText(grd,
+							EventBTableLabelProvider.FORMULA_COLUMN));
+			assertEquals("Incorrect container", "m0_0/evt0", provider
+					.getColumnText(grd,
+							EventBTableLabelProvider.CONTAINER_COLUMN));
+
+			assertEquals("Incorrect identifier", "v0_0", provider
+					.getColumnText(var, EventBTableLabelProvider.LABEL_COLUMN));
+			assertEquals("Variables have no formula", "", provider
+					.getColumnText(var,
+							EventBTableLabelProvider.FORMULA_COLUMN));
+			assertEquals("Incorrect container", "m0_0", provider
+					.getColumnText(var,
+							EventBTableLabelProvider.CONTAINER_COLUMN));
+
+			assertEquals("Unknown columns should be empty", "", provider
+					.getColumnText(grd, 3));
+			assertNull("Only the label column has images", provider
+					.getColumnImage(grd,
+							EventBTableLabelProvider.FORMULA_COLUMN));
+		} finally {
+			provider.dispose();
+			// Disposing twice must not disconnect twice.
+			provider.dispose();
+		}
+	}
+
+}
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.tests;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.eclipse.core.runtime.AssertionFailedException;
+import org.eventb.core.IContextRoot;
+import org.eventb.core.IConvergenceElement.Convergence;
+import org.eventb.core.IEvent;
+import org.eventb.core.IEventBProject;
+import org.eventb.core.IEventBRoot;
+import org.eventb.core.IMachineRoot;
+import org.junit.Test;
+
+import ch.ethz.eventb.utils.EventBTextImport;
+import ch.ethz.eventb.utils.EventBUtils;
+import ch.ethz.eventb.utils.tests.AbstractIsolatedEventBTests;
+
+/**
+ * <p>
+ * Tests for the import of Event-B components written in plain text.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBTextImport
+ * @since 0.2.5
+ */
+public class EventBTextImportTests extends AbstractIsolatedEventBTests {
+
+	/**
+	 * Test that the elements of the text are created in order.
+	 */
+	@Test
+	public void testImport() throws Exception {
+		IEventBProject prj = getTestProject();
+		String text = "// A context.\n"
+				+ "context c0\n"
+				+ "  sets S\n"
+				+ "  constants k l\n"
+				+ "  axioms\n"
+				+ "    @axm1 k ∈ S\n"
+				+ "    theorem @thm1 S ≠ ∅\n"
+				+ "end\n"
+				+ "\n"
+				+ "machine m0\n"
+				+ "  sees c0\n"
+				+ "  variables x\n"
+				+ "  invariants\n"
+				+ "    @inv1 x ∈ ℕ\n"
+				+ "  events\n"
+				+ "    event INITIALISATION\n"
+				+ "      then\n"
+				+ "        @act1 x ≔ 0\n"
+				+ "    end\n"
+				+ "    convergent event evt extends abs\n"
+				+ "      any p\n"
+				+ "      where\n"
+				+ "        @grd1 p < x\n"
+				+ "        theorem @grd2 x ∈ ℕ\n"
+				+ "      with\n"
+				+ "        @y y = p\n"
+				+ "      then\n"
+				+ "        @act1 x ≔ p\n"
+				+ "    end\n"
+				+ "end\n";
+		IEventBRoot[] roots = EventBTextImport.load(prj, new StringReader(
+				text), nullMonitor);
+		assertEquals("Incorrect number of components", 2, roots.length);
+
+		IContextRoot ctx = (IContextRoot) roots[0];
+		assertEquals("Incorrect context", "c0", ctx.getComponentName());
+		assertFalse("The context should be saved", ctx.getRodinFile()
+				.hasUnsavedChanges());
+		testContextCarrierSets("Incorrect carrier sets", ctx, "S");
+		testContextConstants("Incorrect constants", ctx, "k", "l");
+		testContextAxioms("Incorrect axioms", ctx, "axm1:k ∈ S:false",
+				"thm1:S ≠ ∅:true");
+
+		IMachineRoot mch = (IMachineRoot) roots[1];
+		assertEquals("Incorrect machine", "m0", mch.getComponentName());
+		testMachineSeesClauses("Incorrect sees clauses", mch, "c0");
+		testMachineVariables("Incorrect variables", mch, "x");
+		testMachineInvariants("Incorrect invariants", mch, "inv1:x ∈ ℕ:false");
+		testMachineEvents("Incorrect events", mch,
+				"INITIALISATION:ORDINARY:false", "evt:CONVERGENT:true");
+		IEvent evt = EventBUtils.getEvent(mch, "evt");
+		testEventRefinesClauses("Incorrect refines clauses", evt, "abs");
+		testEventParameters("Incorrect parameters", evt, "p");
+		testEventGuards("Incorrect guards", evt, "grd1:p < x:false",
+				"grd2:x ∈ ℕ:true");
+		testEventWitnesses("Incorrect witnesses", evt, "y:y = p");
+		testEventActions("Incorrect actions", evt, "act1:x ≔ p");
+		assertEquals("Incorrect convergence", Convergence.CONVERGENT, evt
+				.getConvergence());
+	}
+
+	/**
+	 * Test that syntax errors are reported with their line.
+	 */
+	@Test
+	public void testSyntaxError() throws Exception {
+		String text = "context c0\n"
+				+ "  axioms\n"
+				+ "    axm1 1 < 2\n"
+				+ "end\n";
+		try {
+			EventBTextImport.load(getTestProject(), new StringReader(text),
+					nullMonitor);
+			fail("Malformed texts should not be imported");
+		} catch (IOException e) {
+			assertEquals("Incorrect message",
+					"Syntax error at line 3: axm1 1 < 2", e.getMessage());
+		}
+
+		try {
+			EventBTextImport.load(getTestProject(), new StringReader(
+					"machine m1\n  variables x\n"), nullMonitor);
+			fail("Incomplete texts should not be imported");
+		} catch (IOException e) {
+			assertEquals("Incorrect message",
+					"Unexpected end of text at line 2", e.getMessage());
+		}
+	}
+
+	/**
+	 * Test that existing components are not overwritten.
+	 */
+	@Test
+	public void testExistingComponent() throws Exception {
+		EventBUtils.createMachine(getTestProject(), "m0", nullMonitor);
+		try {
+			EventBTextImport.load(getTestProject(), new StringReader(
+					"machine m0\nend\n"), nullMonitor);
+			fail("Existing components should not be overwritten");
+		} catch (AssertionFailedException e) {
+			// Expected.
+		}
+	}
+
+	/**
+	 * Test that a component cannot have the name of an existing component of
+	 * the other kind.
+	 */
+	@Test
+	public void testExistingComponentOfOtherKind() throws Exception {
+		EventBUtils.createMachine(getTestProject(), "m0", nullMonitor);
+		try {
+			EventBTextImport.load(getTestProject(), new StringReader(
+					"context m0\nend\n"), nullMonitor);
+			fail("A context should not have the name of a machine");
+		} catch (AssertionFailedException e) {
+			// Expected.
+		}
+		assertFalse("The context should not be created", getTestProject()
+				.getContextFile("m0_0").exists());
+	}
+
+}
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.ILogListener;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eventb.core.IConvergenceElement.Convergence;
+import org.eventb.core.IEvent;
+import org.eventb.core.IMachineRoot;
+import org.junit.Test;
+
+import ch.ethz.eventb.utils.EventBTracing;
+import ch.ethz.eventb.utils.EventBUtils;
+import ch.ethz.eventb.utils.tests.AbstractIsolatedEventBTests;
+
+/**
+ * <p>
+ * Tests for the tracing of the slow utility operations.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBTracing
+ * @since 0.2.5
+ */
+public class EventBTracingTests extends AbstractIsolatedEventBTests {
+
+	// The statuses logged by the utilities.
+	private final List<IStatus> logged = new ArrayList<IStatus>();
+
+	// The listener collecting the statuses logged by the utilities.
+	private final ILogListener listener = new ILogListener() {
+
+		@Override
+		public void logging(IStatus status, String plugin) {
+			if ("ch.ethz.eventb.utils".equals(status.getPlugin())) {
+				synchronized (logged) {
+					logged.add(status);
+				}
+			}
+		}
+
+	};
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see AbstractIsolatedEventBTests#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		Platform.addLogListener(listener);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see AbstractIsolatedEventBTests#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		EventBTracing.setSlowOperationThreshold(-1);
+		Platform.removeLogListener(listener);
+		super.tearDown();
+	}
+
+	/**
+	 * Test that the calls above the threshold are logged.
+	 */
+	@Test
+	public void testSlowOperations() throws Exception {
+		IMachineRoot mch = EventBUtils.createMachine(getTestProject(), "m0",
+				nullMonitor);
+		EventBTracing.setSlowOperationThreshold(0);
+		assertEquals("Incorrect threshold", 0, EventBTracing
+				.getSlowOperationThreshold());
+		IEvent evt = EventBUtils.createEvent(mch, "evt",
+				Convergence.ORDINARY, false, null, nullMonitor);
+		EventBUtils.createGuard(evt, "grd", "1 < 2", false, null, nullMonitor);
+
+		List<String> messages = getMessages();
+		assertEquals("Each call should be logged", 2, messages.size());
+		String message = messages.get(1);
+		assertTrue("The operation should be logged: " + message, message
+				.startsWith("Slow operation createGuard on m0 (element "
+						+ evt.getElementName() + ")"));
+		assertTrue("The breakdown should be logged: " + message, message
+				.contains("reading and") && message.contains("writing"));
+		assertEquals("Slow calls should be warnings", IStatus.WARNING, logged
+				.get(1).getSeverity());
+	}
+
+	/**
+	 * Test that nothing is logged when the tracing is disabled or the calls
+	 * are fast enough.
+	 */
+	@Test
+	public void testDisabled() throws Exception {
+		assertEquals("The tracing should be disabled by default", -1,
+				EventBTracing.getSlowOperationThreshold());
+		IMachineRoot mch = EventBUtils.createMachine(getTestProject(), "m0",
+				nullMonitor);
+		EventBUtils.createEvent(mch, "evt1", Convergence.ORDINARY, false,
+				null, nullMonitor);
+		EventBTracing.setSlowOperationThreshold(60000);
+		EventBUtils.createEvent(mch, "evt2", Convergence.ORDINARY, false,
+				null, nullMonitor);
+		assertTrue("Nothing should be logged", getMessages().isEmpty());
+	}
+
+	/**
+	 * Utility method to get the messages logged so far.
+	 */
+	private List<String> getMessages() {
+		List<String> result = new ArrayList<String>();
+		synchronized (logged) {
+			for (IStatus status : logged) {
+				result.add(status.getMessage());
+			}
+		}
+		return result;
+	}
+
+}
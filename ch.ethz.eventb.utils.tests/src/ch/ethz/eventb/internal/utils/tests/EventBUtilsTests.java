@@ -14,6 +14,7 @@
 
 package ch.ethz.eventb.internal.utils.tests;
 
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eventb.core.IAction;
 import org.eventb.core.IAxiom;
@@ -59,6 +60,16 @@ public class EventBUtilsTests extends AbstractEventBTests {
 	@Override
 	protected void setUp() throws Exception {
 		super.setUp();
+		setUpChannelProject();
+	}
+
+	/**
+	 * Setup the <code>Channel</code> project in the workspace.
+	 * 
+	 * @throws CoreException
+	 *             if some unexpected problems occur.
+	 */
+	protected void setUpChannelProject() throws CoreException {
 		ChannelSetup.setup();
 	}
 
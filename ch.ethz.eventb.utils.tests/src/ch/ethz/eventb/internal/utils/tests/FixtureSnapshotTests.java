@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.tests;
+
+import org.eclipse.core.resources.IProject;
+import org.eventb.core.IContextRoot;
+import org.eventb.core.IEventBProject;
+import org.eventb.core.IMachineRoot;
+import org.junit.Test;
+
+import ch.ethz.eventb.utils.EventBUtils;
+import ch.ethz.eventb.utils.tests.AbstractEventBTests;
+import ch.ethz.eventb.utils.tests.ChannelSetup;
+import ch.ethz.eventb.utils.tests.FixtureSnapshot;
+import ch.ethz.eventb.utils.tests.ModelGenerator;
+
+/**
+ * <p>
+ * Tests for the snapshots of test fixtures.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see FixtureSnapshot
+ * @since 0.2.5
+ */
+public class FixtureSnapshotTests extends AbstractEventBTests {
+
+	/**
+	 * Test restoring a snapshot after the project has been deleted.
+	 */
+	@Test
+	public void testRestoreDeleted() throws Exception {
+		IEventBProject prj = new ModelGenerator(0).generate("Snapshot",
+				nullMonitor);
+		IProject project = prj.getRodinProject().getProject();
+		FixtureSnapshot snapshot = FixtureSnapshot.take(project);
+		try {
+			project.delete(true, true, nullMonitor);
+			assertFalse("Project should be deleted", project.exists());
+
+			snapshot.restore(nullMonitor);
+			assertTrue("Project should be restored", project.isOpen());
+			IContextRoot ctx = prj.getContextRoot("ctx0");
+			assertTrue("Context ctx0 should be restored", ctx.exists());
+			testContextConstants("Incorrect CONSTANTS for ctx0", ctx, "k0_0",
+					"k0_1");
+			IMachineRoot mch = prj.getMachineRoot("m0_0");
+			assertTrue("Machine m0_0 should be restored", mch.exists());
+			testMachineVariables("Incorrect VARIABLES for m0_0", mch, "v0_0",
+					"v0_1");
+		} finally {
+			snapshot.dispose();
+		}
+	}
+
+	/**
+	 * Test restoring a snapshot after the project has been modified.
+	 */
+	@Test
+	public void testRestoreModified() throws Exception {
+		IEventBProject prj = new ModelGenerator(0).generate("Snapshot",
+				nullMonitor);
+		FixtureSnapshot snapshot = FixtureSnapshot.take(prj.getRodinProject()
+				.getProject());
+		try {
+			IContextRoot ctx = prj.getContextRoot("ctx0");
+			EventBUtils.createConstant(ctx, "extra", null, nullMonitor);
+			ctx.getRodinFile().save(nullMonitor, false);
+			EventBUtils.createContext(prj, "extra_ctx", nullMonitor);
+
+			snapshot.restore(nullMonitor);
+			testContextConstants("Incorrect CONSTANTS for ctx0", ctx, "k0_0",
+					"k0_1");
+			assertFalse("Context extra_ctx should not be restored", prj
+					.getContextRoot("extra_ctx").exists());
+		} finally {
+			snapshot.dispose();
+		}
+	}
+
+	/**
+	 * Test that the handles of the Channel project remain valid after it is
+	 * restored.
+	 */
+	@Test
+	public void testChannelSetupRestore() throws Exception {
+		ChannelSetup.setup();
+		IMachineRoot channel = ChannelSetup.getChannelMachineRoot();
+		EventBUtils.createVariable(channel, "extra", null, nullMonitor);
+		channel.getRodinFile().save(nullMonitor, false);
+
+		workspace.getRoot().delete(true, null);
+		ChannelSetup.setup();
+		assertTrue("Machine channel should be restored", channel.exists());
+		testMachineVariables("Incorrect VARIABLES for channel", channel,
+				"s_count", "r_count");
+	}
+
+}
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.tests;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eventb.core.IConvergenceElement.Convergence;
+import org.eventb.core.IEvent;
+import org.eventb.core.IMachineRoot;
+import org.junit.Test;
+
+import ch.ethz.eventb.utils.EventBTracing;
+import ch.ethz.eventb.utils.EventBUtils;
+import ch.ethz.eventb.utils.tests.AbstractIsolatedEventBTests;
+
+/**
+ * <p>
+ * Tests for the Java Flight Recorder events of the utility operations. The
+ * recordings are driven reflectively, and the tests do nothing on JVMs
+ * without Flight Recorder.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @since 0.2.5
+ */
+public class FlightRecorderEventsTests extends AbstractIsolatedEventBTests {
+
+	// The name of the events of the utility operations.
+	private static final String EVENT_NAME = "ch.ethz.eventb.utils.Operation";
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see AbstractIsolatedEventBTests#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		EventBTracing.setFlightRecorderEventsEnabled(false);
+		super.tearDown();
+	}
+
+	/**
+	 * Test that an event is emitted for each operation called during a
+	 * recording, and only then.
+	 */
+	@Test
+	public void testEvents() throws Exception {
+		IMachineRoot mch = EventBUtils.createMachine(getTestProject(), "m0",
+				nullMonitor);
+		Class<?> recordingClass;
+		try {
+			recordingClass = ClassLoader.getSystemClassLoader().loadClass(
+					"jdk.jfr.Recording");
+		} catch (ClassNotFoundException e) {
+			return;
+		}
+		EventBTracing.setFlightRecorderEventsEnabled(true);
+		Object recording = recordingClass.newInstance();
+		File file = File.createTempFile("operations", ".jfr");
+		try {
+			invoke(recording, "enable", EVENT_NAME);
+			invoke(recording, "start");
+			IEvent evt = EventBUtils.createEvent(mch, "evt",
+					Convergence.ORDINARY, false, null, nullMonitor);
+			EventBUtils.createGuard(evt, "grd", "1 < 2", false, null,
+					nullMonitor);
+			EventBUtils.getEvent(mch, "evt");
+			invoke(recording, "stop");
+			// Not recorded.
+			EventBUtils.createAction(evt, "act", "x ≔ 1", null, nullMonitor);
+			recordingClass.getMethod("dump", Path.class).invoke(recording,
+					file.toPath());
+		} finally {
+			invoke(recording, "close");
+		}
+
+		List<String> events = readEvents(file);
+		file.delete();
+		assertEquals("Incorrect events", "[createEvent m0 1, "
+				+ "createGuard m0 1, getEvent m0 1]", events.toString());
+	}
+
+	/**
+	 * Test that no event is emitted during a recording unless the events are
+	 * enabled.
+	 */
+	@Test
+	public void testDisabled() throws Exception {
+		IMachineRoot mch = EventBUtils.createMachine(getTestProject(), "m0",
+				nullMonitor);
+		Class<?> recordingClass;
+		try {
+			recordingClass = ClassLoader.getSystemClassLoader().loadClass(
+					"jdk.jfr.Recording");
+		} catch (ClassNotFoundException e) {
+			return;
+		}
+		assertFalse("The events should be disabled by default",
+				EventBTracing.isFlightRecorderEventsEnabled());
+		Object recording = recordingClass.newInstance();
+		File file = File.createTempFile("operations", ".jfr");
+		try {
+			invoke(recording, "enable", EVENT_NAME);
+			invoke(recording, "start");
+			EventBUtils.createEvent(mch, "evt", Convergence.ORDINARY, false,
+					null, nullMonitor);
+			invoke(recording, "stop");
+			recordingClass.getMethod("dump", Path.class).invoke(recording,
+					file.toPath());
+		} finally {
+			invoke(recording, "close");
+		}
+
+		List<String> events = readEvents(file);
+		file.delete();
+		assertEquals("No event should be emitted", "[]", events.toString());
+	}
+
+	/**
+	 * Utility method to read the events of the utility operations from a
+	 * recording, as strings "operation component elements" sorted
+	 * alphabetically.
+	 */
+	private List<String> readEvents(File file) throws Exception {
+		Class<?> recordingFile = ClassLoader.getSystemClassLoader().loadClass(
+				"jdk.jfr.consumer.RecordingFile");
+		List<?> recorded = (List<?>) recordingFile.getMethod("readAllEvents",
+				Path.class).invoke(null, file.toPath());
+		List<String> result = new ArrayList<String>();
+		for (Object event : recorded) {
+			Object type = invoke(event, "getEventType");
+			if (!EVENT_NAME.equals(invoke(type, "getName")))
+				continue;
+			result.add(invoke(event, "getString", "operation") + " "
+					+ invoke(event, "getString", "component") + " "
+					+ invoke(event, "getInt", "elements"));
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+	/**
+	 * Utility method to invoke a public method without arguments or with a
+	 * string argument.
+	 */
+	private Object invoke(Object target, String name, String... args)
+			throws Exception {
+		Class<?>[] types = new Class<?>[args.length];
+		for (int i = 0; i < args.length; i++) {
+			types[i] = String.class;
+		}
+		return target.getClass().getMethod(name, types).invoke(target,
+				(Object[]) args);
+	}
+
+}
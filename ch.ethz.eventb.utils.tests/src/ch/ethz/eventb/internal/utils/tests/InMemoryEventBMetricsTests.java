@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.tests;
+
+import org.eventb.core.IMachineRoot;
+import org.junit.Test;
+
+import ch.ethz.eventb.utils.EventBMetrics;
+import ch.ethz.eventb.utils.EventBUtils;
+import ch.ethz.eventb.utils.OperationStatistics;
+import ch.ethz.eventb.utils.tests.ChannelSetup;
+import ch.ethz.eventb.utils.tests.InMemoryRodinDatabase;
+
+/**
+ * <p>
+ * Tests for Event-B Utilities, run against an {@link InMemoryRodinDatabase}
+ * with the metrics enabled, so that the accounting of the accesses to the
+ * database is exercised on the in-memory elements, including the setup of
+ * the <code>Channel</code> project.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBMetrics
+ * @see InMemoryRodinDatabase
+ * @since 0.2.5
+ */
+public class InMemoryEventBMetricsTests extends InMemoryEventBUtilsTests {
+
+	/**
+	 * <ol>
+	 * <li>Enable the metrics.</li>
+	 * <li>Setup the <code>Channel</code> project.</li>
+	 * </ol>
+	 *
+	 * @see InMemoryEventBUtilsTests#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		EventBMetrics.reset();
+		EventBMetrics.setEnabled(true);
+		super.setUp();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see InMemoryEventBUtilsTests#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		EventBMetrics.setEnabled(false);
+		EventBMetrics.reset();
+		super.tearDown();
+	}
+
+	/**
+	 * Test that the calls made by the setup are recorded.
+	 */
+	@Test
+	public void testSetupRecorded() {
+		OperationStatistics createEvent = EventBMetrics
+				.getStatistics("createEvent");
+		assertEquals("Incorrect number of calls", 9, createEvent.getCount());
+		assertEquals("Incorrect number of created elements", 9, createEvent
+				.getElementsCreated());
+	}
+
+	/**
+	 * Test that the files of the in-memory database are loaded by the first
+	 * access to their elements after being closed.
+	 */
+	@Test
+	public void testFilesLoaded() throws Exception {
+		IMachineRoot mch = ChannelSetup.getChannelMachineRoot();
+		mch.getRodinFile().save(nullMonitor, false);
+		mch.getRodinFile().close();
+		assertFalse("The machine file should be closed", mch.getRodinFile()
+				.isOpen());
+		EventBMetrics.reset();
+		EventBUtils.getEvent(mch, "sends");
+		EventBUtils.getEvent(mch, "receives");
+
+		OperationStatistics getEvent = EventBMetrics.getStatistics("getEvent");
+		assertEquals("Incorrect number of calls", 2, getEvent.getCount());
+		assertEquals("The machine should be accounted for once per call", 2,
+				getEvent.getElementsOpened());
+		assertEquals("The closed file should be loaded once", 1, getEvent
+				.getFilesLoaded());
+		assertTrue("The machine file should be open", mch.getRodinFile()
+				.isOpen());
+	}
+
+}
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.tests;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eventb.core.IEventBProject;
+import org.junit.Test;
+
+import ch.ethz.eventb.utils.EventBUtils;
+import ch.ethz.eventb.utils.tests.ChannelSetup;
+import ch.ethz.eventb.utils.tests.InMemoryRodinDatabase;
+
+/**
+ * <p>
+ * Tests for Event-B Utilities, run against the <code>Channel</code> project
+ * of an {@link InMemoryRodinDatabase} rather than the workspace. These are
+ * still plug-in tests, since the element types are those of the Event-B core
+ * plug-in.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBUtils
+ * @see InMemoryRodinDatabase
+ * @since 0.2.5
+ */
+public class InMemoryEventBUtilsTests extends EventBUtilsTests {
+
+	// The in-memory database of the current test.
+	private InMemoryRodinDatabase database;
+
+	/**
+	 * Setup the <code>Channel</code> project in a new in-memory database.
+	 * 
+	 * @see EventBUtilsTests#setUpChannelProject()
+	 */
+	@Override
+	protected void setUpChannelProject() throws CoreException {
+		database = new InMemoryRodinDatabase();
+		ChannelSetup.setup(database.createEventBProject("Channel"));
+	}
+
+	/**
+	 * Test the lookup of projects in the in-memory database, since
+	 * {@link EventBUtils#getEventBProject(String)} always uses the Rodin
+	 * database.
+	 */
+	@Test
+	@Override
+	public void testGetEventBProject() {
+		IEventBProject channelPrj = ChannelSetup.getChannelProject();
+
+		IEventBProject prj = database.getEventBProject("Channel");
+		assertEquals(
+				"The Event-B project returns should be the same as Channel project",
+				channelPrj, prj);
+		assertTrue("The Channel Event-B project should exist", prj
+				.getRodinProject().exists());
+
+		prj = database.getEventBProject("Dummy");
+		assertFalse("The Dummy Event-B project should not exist", prj
+				.getRodinProject().exists());
+	}
+
+	/**
+	 * Test that the <code>Channel</code> project is not created in the
+	 * workspace.
+	 */
+	@Test
+	public void testNotInWorkspace() {
+		assertFalse("The Channel project should not exist in the workspace",
+				EventBUtils.getEventBProject("Channel").getRodinProject()
+						.exists());
+	}
+
+}
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.tests;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eventb.core.IAction;
+import org.eventb.core.IEvent;
+import org.eventb.core.IEventBProject;
+import org.eventb.core.IGuard;
+import org.eventb.core.IInvariant;
+import org.eventb.core.IMachineRoot;
+import org.junit.Test;
+import org.rodinp.core.RodinMarkerUtil;
+
+import ch.ethz.eventb.utils.tests.AbstractIsolatedEventBTests;
+import ch.ethz.eventb.utils.tests.ModelGenerator;
+
+/**
+ * <p>
+ * Tests for the synthetic model generator.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see ModelGenerator
+ * @since 0.2.5
+ */
+public class ModelGeneratorTests extends AbstractIsolatedEventBTests {
+
+	/**
+	 * Test the model generated with the default configuration.
+	 */
+	@Test
+	public void testDefaultConfiguration() throws Exception {
+		IEventBProject prj = new ModelGenerator(0).generate(
+				newTestProjectName(), nullMonitor);
+		testContextExtendsClauses("Incorrect EXTENDS clauses for ctx0",
+				prj.getContextRoot("ctx0"));
+		testContextCarrierSets("Incorrect SETS for ctx0",
+				prj.getContextRoot("ctx0"), "S0");
+		testContextConstants("Incorrect CONSTANTS for ctx0",
+				prj.getContextRoot("ctx0"), "k0_0", "k0_1");
+		testContextAxioms("Incorrect AXIOMS for ctx0",
+				prj.getContextRoot("ctx0"), "typ0_0:k0_0 ∈ S0:false",
+				"typ0_1:k0_1 ∈ S0:false", "axm0_0:finite(S0):false");
+
+		IMachineRoot mch = prj.getMachineRoot("m0_0");
+		testMachineRefinesClauses("Incorrect REFINES clauses for m0_0", mch);
+		testMachineSeesClauses("Incorrect SEES clauses for m0_0", mch,
+				"ctx0");
+		testMachineVariables("Incorrect VARIABLES for m0_0", mch, "v0_0",
+				"v0_1");
+		testMachineEvents("Incorrect EVENTS for m0_0", mch,
+				"INITIALISATION:ORDINARY:false", "evt0:ORDINARY:false",
+				"evt1:ORDINARY:false");
+		IEvent[] events = mch.getEvents();
+		testEventActions("Incorrect THEN for INITIALISATION for m0_0",
+				events[0], "act0_0:v0_0 ≔ 0", "act0_1:v0_1 ≔ 0");
+		assertEquals("Incorrect number of guards for evt0", 1,
+				events[1].getGuards().length);
+		assertEquals("Incorrect number of actions for evt0", 1,
+				events[1].getActions().length);
+	}
+
+	/**
+	 * Test the structure of a model with several contexts and refinement
+	 * chains.
+	 */
+	@Test
+	public void testRefinementChains() throws Exception {
+		ModelGenerator generator = new ModelGenerator(1).setContexts(3)
+				.setMachines(2).setRefinementDepth(2).setVariables(3)
+				.setInvariants(2).setEvents(4).setGuards(2).setActions(2);
+		assertEquals("Incorrect number of machines", 6,
+				generator.getMachineCount());
+		IEventBProject prj = generator.generate(newTestProjectName(),
+				nullMonitor);
+
+		testContextExtendsClauses("Incorrect EXTENDS clauses for ctx0",
+				prj.getContextRoot("ctx0"));
+		testContextExtendsClauses("Incorrect EXTENDS clauses for ctx2",
+				prj.getContextRoot("ctx2"), "ctx1");
+
+		IMachineRoot mch = prj.getMachineRoot(ModelGenerator.getMachineName(
+				1, 2));
+		assertTrue("The machine m1_2 should exist", mch.exists());
+		testMachineRefinesClauses("Incorrect REFINES clauses for m1_2", mch,
+				"m1_1");
+		testMachineVariables("Incorrect VARIABLES for m1_2", mch, "v0_0",
+				"v0_1", "v0_2", "v1_0", "v1_1", "v1_2", "v2_0", "v2_1",
+				"v2_2");
+		assertEquals("Incorrect number of invariants for m1_2", 5,
+				mch.getInvariants().length);
+		testMachineEvents("Incorrect EVENTS for m1_2", mch,
+				"INITIALISATION:ORDINARY:true", "evt0:ORDINARY:true",
+				"evt1:ORDINARY:true", "evt2:ORDINARY:true",
+				"evt3:ORDINARY:true");
+		IEvent evt = mch.getEvents()[3];
+		testEventRefinesClauses("Incorrect REFINES clauses for evt2", evt,
+				"evt2");
+		assertEquals("Incorrect number of guards for evt2", 2,
+				evt.getGuards().length);
+		assertEquals("Incorrect number of actions for evt2", 2,
+				evt.getActions().length);
+	}
+
+	/**
+	 * Test that the generated models are determined by the seed.
+	 */
+	@Test
+	public void testDeterminism() throws Exception {
+		ModelGenerator generator = new ModelGenerator(42).setContexts(2)
+				.setMachines(3).setRefinementDepth(1).setInvariants(3)
+				.setEvents(3).setGuards(2).setActions(2);
+		IEventBProject prj1 = generator.generate(newTestProjectName(),
+				nullMonitor);
+		IEventBProject prj2 = generator.generate(newTestProjectName(),
+				nullMonitor);
+		for (int i = 0; i < 3; i++) {
+			for (int d = 0; d <= 1; d++) {
+				String name = ModelGenerator.getMachineName(i, d);
+				assertSameMachine(name, prj1.getMachineRoot(name),
+						prj2.getMachineRoot(name));
+			}
+		}
+	}
+
+	/**
+	 * Test that the generated models are statically checked without errors.
+	 */
+	@Test
+	public void testWellTyped() throws Exception {
+		IEventBProject prj = new ModelGenerator(7).setContexts(2)
+				.setMachines(2).setRefinementDepth(2).setInvariants(2)
+				.setEvents(3).setGuards(2).setActions(2)
+				.generate(newTestProjectName(), nullMonitor);
+		prj.getRodinProject().getProject()
+				.build(IncrementalProjectBuilder.FULL_BUILD, nullMonitor);
+		IMarker[] markers = prj.getRodinProject().getProject().findMarkers(
+				RodinMarkerUtil.RODIN_PROBLEM_MARKER, true,
+				IResource.DEPTH_INFINITE);
+		for (IMarker marker : markers) {
+			assertTrue(
+					"Unexpected error: "
+							+ marker.getAttribute(IMarker.MESSAGE, ""),
+					marker.getAttribute(IMarker.SEVERITY, -1) != IMarker.SEVERITY_ERROR);
+		}
+		IMachineRoot mch = prj.getMachineRoot(ModelGenerator.getMachineName(
+				1, 2));
+		assertEquals("All variables should be accepted", 6, mch
+				.getSCMachineRoot().getSCVariables().length);
+	}
+
+	/**
+	 * Utility method to compare the formulae of two generated machines.
+	 */
+	private void assertSameMachine(String msg, IMachineRoot expected,
+			IMachineRoot actual) throws Exception {
+		IInvariant[] expInvs = expected.getInvariants();
+		IInvariant[] actInvs = actual.getInvariants();
+		assertEquals(msg + ": Incorrect number of invariants", expInvs.length,
+				actInvs.length);
+		for (int i = 0; i < expInvs.length; i++) {
+			assertEquals(msg, expInvs[i].getPredicateString(),
+					actInvs[i].getPredicateString());
+		}
+		IEvent[] expEvts = expected.getEvents();
+		IEvent[] actEvts = actual.getEvents();
+		assertEquals(msg + ": Incorrect number of events", expEvts.length,
+				actEvts.length);
+		for (int i = 0; i < expEvts.length; i++) {
+			IGuard[] expGrds = expEvts[i].getGuards();
+			IGuard[] actGrds = actEvts[i].getGuards();
+			assertEquals(msg + ": Incorrect number of guards",
+					expGrds.length, actGrds.length);
+			for (int j = 0; j < expGrds.length; j++) {
+				assertEquals(msg, expGrds[j].getPredicateString(),
+						actGrds[j].getPredicateString());
+			}
+			IAction[] expActs = expEvts[i].getActions();
+			IAction[] actActs = actEvts[i].getActions();
+			assertEquals(msg + ": Incorrect number of actions",
+					expActs.length, actActs.length);
+			for (int j = 0; j < expActs.length; j++) {
+				assertEquals(msg, expActs[j].getAssignmentString(),
+						actActs[j].getAssignmentString());
+			}
+		}
+	}
+
+}
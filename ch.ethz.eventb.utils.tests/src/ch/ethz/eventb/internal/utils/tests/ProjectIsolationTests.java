@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils.tests;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eventb.core.IEventBProject;
+import org.junit.Test;
+
+import ch.ethz.eventb.utils.EventBUtils;
+import ch.ethz.eventb.utils.tests.AbstractIsolatedEventBTests;
+
+/**
+ * <p>
+ * Tests for the isolation of the projects of tests.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see AbstractIsolatedEventBTests
+ * @since 0.2.5
+ */
+public class ProjectIsolationTests extends AbstractIsolatedEventBTests {
+
+	// The name of the fixture project.
+	private static final String FIXTURE_NAME = "IsolationFixture";
+
+	// The number of times the fixture has been built.
+	private static int builds;
+
+	// The builder of the fixture.
+	private static final IFixtureBuilder BUILDER = new IFixtureBuilder() {
+
+		@Override
+		public void build(IEventBProject prj, IProgressMonitor monitor)
+				throws CoreException {
+			builds++;
+			EventBUtils.createContext(prj, "ctx", monitor);
+		}
+
+	};
+
+	/**
+	 * Test that the projects of a test have unique names.
+	 */
+	@Test
+	public void testUniqueProjects() throws Exception {
+		IEventBProject prj = getTestProject();
+		assertTrue("The test project should exist", prj.getRodinProject()
+				.exists());
+		assertSame("The test project should be created once", prj,
+				getTestProject());
+		IEventBProject other = EventBUtils.createEventBProject(
+				newTestProjectName(), nullMonitor);
+		assertFalse("The test projects should be different", prj.equals(other));
+	}
+
+	/**
+	 * Test that only the projects of the test are deleted, while fixtures
+	 * persist.
+	 */
+	@Test
+	public void testCleanWorkspace() throws Exception {
+		IEventBProject fixture = getFixture(FIXTURE_NAME, BUILDER);
+		IEventBProject prj = getTestProject();
+		EventBUtils.createMachine(prj, "mch", nullMonitor);
+		cleanWorkspace();
+		assertFalse("The test project should be deleted", prj
+				.getRodinProject().exists());
+		assertTrue("The fixture should persist", fixture.getRodinProject()
+				.exists());
+		assertTrue("The fixture content should persist", fixture
+				.getContextRoot("ctx").exists());
+	}
+
+	/**
+	 * Test that fixtures are only built once, unless they are deleted.
+	 */
+	@Test
+	public void testFixtureBuiltOnce() throws Exception {
+		IEventBProject fixture = getFixture(FIXTURE_NAME, BUILDER);
+		int count = builds;
+		assertEquals("The fixture should not be rebuilt", fixture, getFixture(
+				FIXTURE_NAME, BUILDER));
+		assertEquals("The fixture should not be rebuilt", count, builds);
+
+		fixture.getRodinProject().getProject().delete(true, true, nullMonitor);
+		fixture = getFixture(FIXTURE_NAME, BUILDER);
+		assertEquals("The deleted fixture should be rebuilt", count + 1, builds);
+		assertTrue("The fixture content should be rebuilt", fixture
+				.getContextRoot("ctx").exists());
+	}
+
+}
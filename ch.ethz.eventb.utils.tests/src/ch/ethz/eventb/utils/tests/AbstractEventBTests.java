@@ -116,7 +116,7 @@ public abstract class AbstractEventBTests extends AbstractTests {
 		DebugHelpers.disableIndexing();
 
 		// Delete the old workspace
-		workspace.getRoot().delete(true, null);
+		cleanWorkspace();
 
 	}
 
@@ -131,10 +131,23 @@ public abstract class AbstractEventBTests extends AbstractTests {
 	@After
 	@Override
 	protected void tearDown() throws Exception {
-		workspace.getRoot().delete(true, null);
+		cleanWorkspace();
 		super.tearDown();
 	}
 
+	/**
+	 * Cleans the workspace before and after each test. By default, the whole
+	 * workspace is deleted. Subclasses may override this method to delete
+	 * only the projects used by the test (see
+	 * {@link AbstractIsolatedEventBTests}).
+	 * 
+	 * @throws CoreException
+	 *             if some unexpected problems occur.
+	 */
+	protected void cleanWorkspace() throws CoreException {
+		workspace.getRoot().delete(true, null);
+	}
+
 	// =========================================================================
 	// Utility methods for testing various Event-B elements.
 	// =========================================================================
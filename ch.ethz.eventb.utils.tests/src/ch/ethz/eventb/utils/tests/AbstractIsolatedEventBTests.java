@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.utils.tests;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eventb.core.IEventBProject;
+import org.rodinp.core.IRodinFile;
+
+import ch.ethz.eventb.utils.EventBUtils;
+
+/**
+ * <p>
+ * Abstract class for testing Event-B models in isolated projects. Instead of
+ * deleting the whole workspace, each test works in its own uniquely named
+ * projects, which are the only ones deleted before and after the test. Other
+ * projects persist, in particular the read-only fixture projects shared by
+ * the tests of a run (see {@link #getFixture(String, IFixtureBuilder)}),
+ * which are therefore built only once.
+ * </p>
+ * <p>
+ * Tests must create their projects with {@link #getTestProject()} or with a
+ * name obtained from {@link #newTestProjectName()}, and must not modify the
+ * fixture projects.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see AbstractEventBTests
+ * @since 0.2.5
+ */
+public abstract class AbstractIsolatedEventBTests extends AbstractEventBTests {
+
+	/**
+	 * <p>
+	 * The builder of the content of a fixture project.
+	 * </p>
+	 */
+	public interface IFixtureBuilder {
+
+		/**
+		 * Builds the content of a fixture project.
+		 * 
+		 * @param prj
+		 *            the newly created fixture project.
+		 * @param monitor
+		 *            a progress monitor.
+		 * @throws CoreException
+		 *             if some unexpected problems occur.
+		 */
+		void build(IEventBProject prj, IProgressMonitor monitor)
+				throws CoreException;
+
+	}
+
+	// The counter making the names of the test projects unique within a run.
+	private static final AtomicInteger counter = new AtomicInteger();
+
+	// Map from the names of the fixture projects to the projects.
+	private static final Map<String, IEventBProject> fixtures = new HashMap<String, IEventBProject>();
+
+	// The names of the projects of the current test.
+	private final List<String> projectNames = new ArrayList<String>();
+
+	// The default project of the current test, or null.
+	private IEventBProject testProject;
+
+	/**
+	 * Constructor: Create a test case.
+	 */
+	public AbstractIsolatedEventBTests() {
+		super();
+	}
+
+	/**
+	 * Constructor: Create a test case with the given name.
+	 * 
+	 * @param name
+	 *            the name of test
+	 */
+	public AbstractIsolatedEventBTests(String name) {
+		super(name);
+	}
+
+	/**
+	 * Returns a new project name, unique within the run, which is registered
+	 * for deletion at the end of the current test. The project is not
+	 * created.
+	 * 
+	 * @return a new project name.
+	 */
+	protected String newTestProjectName() {
+		String name = getClass().getSimpleName() + "_" + getName() + "_"
+				+ counter.incrementAndGet();
+		projectNames.add(name);
+		return name;
+	}
+
+	/**
+	 * Returns the default project of the current test, which is created on
+	 * the first call.
+	 * 
+	 * @return the project of the current test.
+	 * @throws CoreException
+	 *             if the project cannot be created.
+	 */
+	protected IEventBProject getTestProject() throws CoreException {
+		if (testProject == null)
+			testProject = EventBUtils.createEventBProject(
+					newTestProjectName(), nullMonitor);
+		return testProject;
+	}
+
+	/**
+	 * Returns a fixture project shared by the tests of the run. The project
+	 * is built, and its files saved, on the first call or if it does not exist
+	 * anymore (e.g. if a test deleted the whole workspace).
+	 * 
+	 * @param name
+	 *            the name of the fixture project.
+	 * @param builder
+	 *            the builder of the content of the project.
+	 * @return the fixture project.
+	 * @throws CoreException
+	 *             if the project cannot be built.
+	 */
+	protected IEventBProject getFixture(String name, IFixtureBuilder builder)
+			throws CoreException {
+		synchronized (fixtures) {
+			IEventBProject fixture = fixtures.get(name);
+			if (fixture != null && fixture.getRodinProject().exists())
+				return fixture;
+			fixtures.remove(name);
+			deleteProject(name);
+			fixture = EventBUtils.createEventBProject(name, nullMonitor);
+			builder.build(fixture, nullMonitor);
+			for (IRodinFile file : fixture.getRodinProject().getRodinFiles()) {
+				if (file.hasUnsavedChanges())
+					file.save(nullMonitor, false);
+			}
+			fixtures.put(name, fixture);
+			return fixture;
+		}
+	}
+
+	/**
+	 * Deletes the projects of the current test only.
+	 * 
+	 * @see AbstractEventBTests#cleanWorkspace()
+	 */
+	@Override
+	protected void cleanWorkspace() throws CoreException {
+		for (String name : projectNames) {
+			deleteProject(name);
+		}
+		projectNames.clear();
+		testProject = null;
+	}
+
+	/**
+	 * Utility method to delete a project with its content, if it exists.
+	 */
+	private void deleteProject(String name) throws CoreException {
+		IProject project = workspace.getRoot().getProject(name);
+		if (project.exists())
+			project.delete(true, true, nullMonitor);
+	}
+
+}
@@ -52,6 +52,11 @@ public class ChannelSetup {
 	private final static String channelPrjName = "Channel";
 	private static IEventBProject channelPrj;
 
+	/**
+	 * The snapshot of the "Channel" project, taken after it is first built.
+	 */
+	private static FixtureSnapshot snapshot;
+
 	/**
 	 * Some predefined contexts: - message_ctx, size_ctx in channelPrj.
 	 */
@@ -234,18 +239,62 @@ public class ChannelSetup {
 	private static IAction EO_receives_act_3;
 
 	/**
-	 * Utility method to create the "Channel" project.
+	 * Utility method to create the "Channel" project. The project is built
+	 * once using {@link EventBUtils} and snapshot; subsequent calls restore the
+	 * snapshot by copying files. The element handles returned by the getters
+	 * remain valid after each restore.
 	 * 
 	 * @throws CoreException
 	 *             if some unexpected problems occur.
 	 */
 	public static void setup() throws CoreException {
-
 		IProgressMonitor nullMonitor = new NullProgressMonitor();
-
-		// Create the project
-		channelPrj = EventBUtils.createEventBProject(channelPrjName,
+		if (snapshot != null) {
+			snapshot.restore(nullMonitor);
+			return;
+		}
+		build(EventBUtils.createEventBProject(channelPrjName, nullMonitor),
 				nullMonitor);
+		snapshot = FixtureSnapshot.take(channelPrj.getRodinProject()
+				.getProject());
+	}
+
+	/**
+	 * Utility method to create the content of the "Channel" project within an
+	 * existing project, e.g. one of an {@link InMemoryRodinDatabase}. The
+	 * element handles returned by the getters then refer to this project until
+	 * the next call to one of the setup methods.
+	 * 
+	 * @param prj
+	 *            an existing Event-B project.
+	 * @throws CoreException
+	 *             if some unexpected problems occur.
+	 */
+	public static void setup(IEventBProject prj) throws CoreException {
+		if (snapshot != null) {
+			// The snapshot does not match the handles anymore.
+			snapshot.dispose();
+			snapshot = null;
+		}
+		build(prj, new NullProgressMonitor());
+	}
+
+	/**
+	 * Utility method to build the content of the "Channel" project from
+	 * scratch.
+	 * 
+	 * @param prj
+	 *            an existing Event-B project.
+	 * @param nullMonitor
+	 *            a progress monitor.
+	 * @throws CoreException
+	 *             if some unexpected problems occur.
+	 */
+	private static void build(IEventBProject prj, IProgressMonitor nullMonitor)
+			throws CoreException {
+
+		// The project
+		channelPrj = prj;
 
 		// Create some contexts inside the project
 		messageCtxRoot = EventBUtils.createContext(channelPrj, messageCtxName,
@@ -0,0 +1,259 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.utils.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.rodinp.core.IRodinFile;
+import org.rodinp.core.IRodinProject;
+import org.rodinp.core.RodinCore;
+
+/**
+ * <p>
+ * A snapshot of the files of a project, used as a test fixture: the fixture
+ * is built once using the database API, then restored by copying files for
+ * each test, which is much faster than rebuilding it. Since restoring
+ * recreates the files with the same element names, element handles obtained
+ * when building the fixture remain valid after each restore.
+ * </p>
+ * <p>
+ * Typical usage:
+ * 
+ * <pre>
+ * if (snapshot == null) {
+ * 	// build the project...
+ * 	snapshot = FixtureSnapshot.take(project);
+ * } else {
+ * 	snapshot.restore(monitor);
+ * }
+ * </pre>
+ * 
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see ChannelSetup
+ * @since 0.2.5
+ */
+public class FixtureSnapshot {
+
+	// The identifier of this plug-in.
+	private static final String PLUGIN_ID = "ch.ethz.eventb.utils.tests";
+
+	// The name of the project.
+	private final String projectName;
+
+	// The directory containing a copy of the project files.
+	private final File directory;
+
+	// The hook deleting the files of the snapshot when the JVM terminates.
+	private final Thread shutdownHook = new Thread() {
+
+		@Override
+		public void run() {
+			deleteFiles();
+		}
+
+	};
+
+	/**
+	 * Constructor: Create a snapshot.
+	 * 
+	 * @param projectName
+	 *            the name of the project.
+	 * @param directory
+	 *            the directory containing a copy of the project files.
+	 */
+	private FixtureSnapshot(String projectName, File directory) {
+		this.projectName = projectName;
+		this.directory = directory;
+	}
+
+	/**
+	 * Takes a snapshot of a project. All unsaved changes of the Rodin files
+	 * of the project are saved first. The snapshot is stored in a temporary
+	 * directory, which is deleted when the JVM terminates or when the snapshot
+	 * is disposed.
+	 * 
+	 * @param project
+	 *            an open project.
+	 * @return the snapshot of the project.
+	 * @throws CoreException
+	 *             if some unexpected problems occur.
+	 */
+	public static FixtureSnapshot take(IProject project) throws CoreException {
+		IRodinProject rodinProject = RodinCore.valueOf(project);
+		if (rodinProject != null && rodinProject.exists()) {
+			for (IRodinFile file : rodinProject.getRodinFiles()) {
+				if (file.hasUnsavedChanges())
+					file.save(null, false);
+			}
+		}
+		try {
+			File directory = Files.createTempDirectory(
+					"snapshot-" + project.getName()).toFile();
+			copy(project.getLocation().toFile(), directory);
+			FixtureSnapshot snapshot = new FixtureSnapshot(project.getName(),
+					directory);
+			Runtime.getRuntime().addShutdownHook(snapshot.shutdownHook);
+			return snapshot;
+		} catch (IOException e) {
+			throw newCoreException("Cannot take a snapshot of " + project, e);
+		}
+	}
+
+	/**
+	 * Restores the snapshot: the project is deleted if it exists, its files
+	 * are copied back from the snapshot, then the project is created, opened
+	 * and refreshed.
+	 * 
+	 * @param monitor
+	 *            a progress monitor, or <code>null</code>.
+	 * @return the restored project.
+	 * @throws CoreException
+	 *             if some unexpected problems occur.
+	 */
+	public IProject restore(IProgressMonitor monitor) throws CoreException {
+		IProject project = ResourcesPlugin.getWorkspace().getRoot()
+				.getProject(projectName);
+		if (project.exists())
+			project.delete(true, true, monitor);
+		File location = ResourcesPlugin.getWorkspace().getRoot()
+				.getLocation().append(projectName).toFile();
+		try {
+			delete(location);
+			copy(directory, location);
+		} catch (IOException e) {
+			throw newCoreException("Cannot restore the snapshot of "
+					+ projectName, e);
+		}
+		project.create(monitor);
+		project.open(monitor);
+		project.refreshLocal(IResource.DEPTH_INFINITE, monitor);
+		return project;
+	}
+
+	/**
+	 * Returns the name of the project of this snapshot.
+	 * 
+	 * @return the name of the project.
+	 */
+	public String getProjectName() {
+		return projectName;
+	}
+
+	/**
+	 * Deletes the files of the snapshot and unregisters its shutdown hook.
+	 * The snapshot cannot be restored afterwards.
+	 */
+	public void dispose() {
+		try {
+			Runtime.getRuntime().removeShutdownHook(shutdownHook);
+		} catch (IllegalStateException e) {
+			// The JVM is terminating: the hook deletes the files.
+			return;
+		}
+		deleteFiles();
+	}
+
+	/**
+	 * Utility method to delete the files of the snapshot.
+	 */
+	private void deleteFiles() {
+		try {
+			delete(directory);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Utility method to copy a directory recursively.
+	 */
+	private static void copy(File source, File target) throws IOException {
+		final Path from = source.toPath();
+		final Path to = target.toPath();
+		Files.walkFileTree(from, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir,
+					BasicFileAttributes attrs) throws IOException {
+				Files.createDirectories(to.resolve(from.relativize(dir)));
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file,
+					BasicFileAttributes attrs) throws IOException {
+				Files.copy(file, to.resolve(from.relativize(file)),
+						StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.COPY_ATTRIBUTES);
+				return FileVisitResult.CONTINUE;
+			}
+
+		});
+	}
+
+	/**
+	 * Utility method to delete a directory recursively, if it exists.
+	 */
+	private static void delete(File file) throws IOException {
+		if (!file.exists())
+			return;
+		Files.walkFileTree(file.toPath(), new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult visitFile(Path path,
+					BasicFileAttributes attrs) throws IOException {
+				Files.delete(path);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException e)
+					throws IOException {
+				if (e != null)
+					throw e;
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+
+		});
+	}
+
+	/**
+	 * Utility method to create a core exception.
+	 */
+	private static CoreException newCoreException(String message,
+			Throwable cause) {
+		return new CoreException(new Status(IStatus.ERROR, PLUGIN_ID, message,
+				cause));
+	}
+
+}
@@ -0,0 +1,657 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.utils.tests;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eventb.core.IAction;
+import org.eventb.core.IAxiom;
+import org.eventb.core.ICarrierSet;
+import org.eventb.core.IConstant;
+import org.eventb.core.IContextRoot;
+import org.eventb.core.IEvent;
+import org.eventb.core.IEventBProject;
+import org.eventb.core.IExtendsContext;
+import org.eventb.core.IGuard;
+import org.eventb.core.IInvariant;
+import org.eventb.core.IMachineRoot;
+import org.eventb.core.IParameter;
+import org.eventb.core.IRefinesEvent;
+import org.eventb.core.IRefinesMachine;
+import org.eventb.core.ISeesContext;
+import org.eventb.core.IVariable;
+import org.eventb.core.IVariant;
+import org.eventb.core.IWitness;
+import org.rodinp.core.IInternalElement;
+import org.rodinp.core.IInternalElementType;
+import org.rodinp.core.IRodinDBStatusConstants;
+import org.rodinp.core.IRodinElement;
+import org.rodinp.core.IRodinFile;
+import org.rodinp.core.IRodinProject;
+import org.rodinp.core.RodinDBException;
+
+/**
+ * <p>
+ * An in-memory stand-in for the subset of the Rodin database and Event-B API
+ * used by {@link ch.ethz.eventb.utils.EventBUtils}. Projects, files and
+ * internal elements are represented by dynamic proxies of the Rodin and
+ * Event-B interfaces, backed by a tree of nodes held in memory: nothing is
+ * written to disk and no resource deltas are fired.
+ * </p>
+ * <p>
+ * The supported operations are:
+ * <ul>
+ * <li>the structural methods of projects, files and internal elements (e.g.
+ * <code>exists()</code>, <code>getChildren()</code>,
+ * <code>createChild(...)</code>, <code>create(...)</code>,
+ * <code>save(...)</code>),</li>
+ * <li>the life cycle of files (<code>isOpen()</code>, <code>close()</code>,
+ * <code>hasUnsavedChanges()</code>): as in the Rodin database, a file is
+ * opened by the first access to its elements, which lets the
+ * instrumentation detect the files loaded by the operations,</li>
+ * <li>the typed children getters (e.g. <code>getEvents()</code>) and handle
+ * getters (e.g. <code>getEvent(String)</code>) of the registered element
+ * types,</li>
+ * <li>the attribute accessors following the <code>getX()</code>,
+ * <code>isX()</code>, <code>hasX()</code> and <code>setX(value, monitor)</code>
+ * naming convention.</li>
+ * </ul>
+ * Other methods throw an {@link UnsupportedOperationException}. The element
+ * types are those of the Event-B core plug-in, hence this class still
+ * requires the plug-in to be loaded: tests using it are plug-in tests like
+ * the others. The time saved against the workspace fixture is measured by
+ * <code>ChannelSetupBenchmarks</code> in the benchmarks plug-in.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see ChannelSetup#setup(IEventBProject)
+ * @since 0.2.5
+ */
+public class InMemoryRodinDatabase {
+
+	// Map from the element types to the interfaces of their elements.
+	private static final Map<IInternalElementType<?>, Class<?>> interfaces = new HashMap<IInternalElementType<?>, Class<?>>();
+	static {
+		register(IContextRoot.class);
+		register(IMachineRoot.class);
+		register(IExtendsContext.class);
+		register(ICarrierSet.class);
+		register(IConstant.class);
+		register(IAxiom.class);
+		register(IRefinesMachine.class);
+		register(ISeesContext.class);
+		register(IVariable.class);
+		register(IInvariant.class);
+		register(IVariant.class);
+		register(IEvent.class);
+		register(IRefinesEvent.class);
+		register(IParameter.class);
+		register(IGuard.class);
+		register(IWitness.class);
+		register(IAction.class);
+	}
+
+	// The file extension of contexts.
+	private static final String CONTEXT_EXTENSION = ".buc";
+
+	// The file extension of machines.
+	private static final String MACHINE_EXTENSION = ".bum";
+
+	// The prefix of the names of the created children.
+	private static final String CHILD_NAME_PREFIX = "internal_element";
+
+	// The kinds of handles.
+	private enum Kind {
+		PROJECT, FILE, ELEMENT
+	}
+
+	// The projects of this database.
+	private final Map<String, Node> projects = new LinkedHashMap<String, Node>();
+
+	/**
+	 * Registers the interface of the elements of some type. The interface
+	 * must declare the <code>ELEMENT_TYPE</code> field.
+	 * 
+	 * @param clazz
+	 *            the interface of the elements.
+	 */
+	public static synchronized void register(
+			Class<? extends IInternalElement> clazz) {
+		interfaces.put(getElementType(clazz), clazz);
+	}
+
+	/**
+	 * Creates an Event-B project in this database.
+	 * 
+	 * @param name
+	 *            the name of the project.
+	 * @return the newly created project.
+	 */
+	public IEventBProject createEventBProject(String name) {
+		if (!projects.containsKey(name))
+			projects.put(name, new Node(null, null, name));
+		return getEventBProject(name);
+	}
+
+	/**
+	 * Returns the Event-B project with the given name. This is a handle-only
+	 * method. The project may or may not exist.
+	 * 
+	 * @param name
+	 *            the name of the project.
+	 * @return the Event-B project with the given name.
+	 */
+	public IEventBProject getEventBProject(String name) {
+		return (IEventBProject) newProxy(IEventBProject.class, new Handle(
+				Kind.PROJECT, null, null, name));
+	}
+
+	/**
+	 * Utility method to get the element type of an interface.
+	 */
+	private static IInternalElementType<?> getElementType(Class<?> clazz) {
+		try {
+			Field field = clazz.getField("ELEMENT_TYPE");
+			return (IInternalElementType<?>) field.get(null);
+		} catch (Exception e) {
+			throw new IllegalArgumentException("No element type for " + clazz,
+					e);
+		}
+	}
+
+	/**
+	 * Utility method to get the interface of the elements of some type.
+	 */
+	private static synchronized Class<?> getInterface(
+			IInternalElementType<?> type) {
+		Class<?> clazz = interfaces.get(type);
+		return clazz == null ? IInternalElement.class : clazz;
+	}
+
+	/**
+	 * Utility method to create a proxy for a handle.
+	 */
+	private static Object newProxy(Class<?> clazz, Handle handle) {
+		return Proxy.newProxyInstance(InMemoryRodinDatabase.class
+				.getClassLoader(), new Class<?>[] { clazz }, handle);
+	}
+
+	/**
+	 * Utility method to create a database exception.
+	 */
+	private static RodinDBException newException(String message, int code) {
+		return new RodinDBException(new Exception(message), code);
+	}
+
+	/**
+	 * <p>
+	 * A node of the database: a project, a file or an internal element.
+	 * </p>
+	 */
+	private static class Node {
+
+		// The type of the element, or null for projects and files.
+		final IInternalElementType<?> type;
+
+		// The parent node, or null for projects.
+		final Node parent;
+
+		// The name of the element.
+		final String name;
+
+		// The attributes of the element.
+		final Map<String, Object> attributes = new HashMap<String, Object>();
+
+		// The children of the element, in order.
+		final List<Node> children = new ArrayList<Node>();
+
+		// Whether the file has unsaved changes (only used for files).
+		boolean unsaved;
+
+		// Whether the file is open (only used for files).
+		boolean open;
+
+		Node(IInternalElementType<?> type, Node parent, String name) {
+			this.type = type;
+			this.parent = parent;
+			this.name = name;
+		}
+
+		Node getChild(IInternalElementType<?> childType, String childName) {
+			for (Node child : children) {
+				if (child.type == childType && child.name.equals(childName))
+					return child;
+			}
+			return null;
+		}
+
+		void changed() {
+			Node node = this;
+			while (node.parent != null && node.parent.parent != null)
+				node = node.parent;
+			node.unsaved = true;
+		}
+
+	}
+
+	/**
+	 * <p>
+	 * The handle of an element, used as the invocation handler of the proxy
+	 * representing the element. Handles are equal if they designate the same
+	 * element.
+	 * </p>
+	 */
+	private class Handle implements InvocationHandler {
+
+		// The kind of the element.
+		private final Kind kind;
+
+		// The handle of the parent, or null for projects.
+		private final Handle parent;
+
+		// The type of the element, or null for projects and files.
+		private final IInternalElementType<?> type;
+
+		// The name of the element.
+		private final String name;
+
+		Handle(Kind kind, Handle parent, IInternalElementType<?> type,
+				String name) {
+			this.kind = kind;
+			this.parent = parent;
+			this.type = type;
+			this.name = name;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see InvocationHandler#invoke(Object, Method, Object[])
+		 */
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args)
+				throws Throwable {
+			String methodName = method.getName();
+			int arity = args == null ? 0 : args.length;
+			if (methodName.equals("equals") && arity == 1)
+				return equals(getHandle(args[0]));
+			if (methodName.equals("hashCode") && arity == 0)
+				return hashCode();
+			if (methodName.equals("toString") && arity == 0)
+				return toString();
+			switch (kind) {
+			case PROJECT:
+				return invokeProject(proxy, method, args);
+			case FILE:
+				return invokeFile(proxy, method, args);
+			default:
+				return invokeElement(proxy, method, args);
+			}
+		}
+
+		/**
+		 * Invokes a method on a project.
+		 */
+		private Object invokeProject(Object proxy, Method method,
+				Object[] args) {
+			String methodName = method.getName();
+			if (methodName.equals("getRodinProject"))
+				return newProxy(IRodinProject.class, this);
+			if (methodName.equals("getEventBProject")
+					|| (methodName.equals("getAdapter") && args[0] == IEventBProject.class))
+				return newProxy(IEventBProject.class, this);
+			if (methodName.equals("getElementName"))
+				return name;
+			if (methodName.equals("exists"))
+				return resolve() != null;
+			if (methodName.equals("getContextFile"))
+				return getFile(args[0] + CONTEXT_EXTENSION);
+			if (methodName.equals("getMachineFile"))
+				return getFile(args[0] + MACHINE_EXTENSION);
+			if (methodName.equals("getContextRoot"))
+				return ((IRodinFile) getFile(args[0] + CONTEXT_EXTENSION))
+						.getRoot();
+			if (methodName.equals("getMachineRoot"))
+				return ((IRodinFile) getFile(args[0] + MACHINE_EXTENSION))
+						.getRoot();
+			if (methodName.equals("getRodinFile"))
+				return getFile((String) args[0]);
+			if (methodName.equals("getRodinFiles")) {
+				Node node = resolve();
+				List<IRodinFile> files = new ArrayList<IRodinFile>();
+				if (node != null) {
+					for (Node child : node.children)
+						files.add(getFile(child.name));
+				}
+				return files.toArray(new IRodinFile[files.size()]);
+			}
+			throw new UnsupportedOperationException(method.toString());
+		}
+
+		/**
+		 * Invokes a method on a file.
+		 */
+		private Object invokeFile(Object proxy, Method method, Object[] args)
+				throws RodinDBException {
+			String methodName = method.getName();
+			if (methodName.equals("getElementName"))
+				return name;
+			if (methodName.equals("getBareName"))
+				return getBareName();
+			if (methodName.equals("getRodinProject")
+					|| methodName.equals("getParent"))
+				return newProxy(IRodinProject.class, parent);
+			if (methodName.equals("getRoot"))
+				return newProxy(getInterface(getRootType()), new Handle(
+						Kind.ELEMENT, this, getRootType(), getBareName()));
+			if (methodName.equals("getRootElementType"))
+				return getRootType();
+			if (methodName.equals("exists"))
+				return lookup() != null;
+			if (methodName.equals("isOpen")) {
+				Node node = lookup();
+				return node != null && node.open;
+			}
+			if (methodName.equals("hasUnsavedChanges")) {
+				Node node = lookup();
+				return node != null && node.unsaved;
+			}
+			if (methodName.equals("close")) {
+				Node node = lookup();
+				if (node != null)
+					node.open = false;
+				return null;
+			}
+			if (methodName.equals("create")) {
+				Node project = parent.resolve();
+				if (project == null)
+					throw newException(parent.name,
+							IRodinDBStatusConstants.ELEMENT_DOES_NOT_EXIST);
+				Node node = resolve();
+				if (node != null) {
+					if (!(Boolean) args[0])
+						throw newException(name,
+								IRodinDBStatusConstants.NAME_COLLISION);
+					project.children.remove(node);
+				}
+				node = new Node(null, project, name);
+				node.children.add(new Node(getRootType(), node, getBareName()));
+				project.children.add(node);
+				return null;
+			}
+			if (methodName.equals("save")) {
+				getNode().unsaved = false;
+				return null;
+			}
+			if (methodName.equals("delete")) {
+				parent.resolve().children.remove(getNode());
+				return null;
+			}
+			throw new UnsupportedOperationException(method.toString());
+		}
+
+		/**
+		 * Invokes a method on an internal element.
+		 */
+		private Object invokeElement(Object proxy, Method method, Object[] args)
+				throws RodinDBException {
+			String methodName = method.getName();
+			Class<?> returnType = method.getReturnType();
+			int arity = args == null ? 0 : args.length;
+			if (methodName.equals("getElementName"))
+				return name;
+			if (methodName.equals("getElementType"))
+				return type;
+			if (methodName.equals("exists"))
+				return resolve() != null;
+			if (methodName.equals("isRoot"))
+				return parent.kind == Kind.FILE;
+			if (methodName.equals("getParent"))
+				return parent.kind == Kind.FILE ? newProxy(IRodinFile.class,
+						parent) : parent.toElement();
+			if (methodName.equals("getRodinFile"))
+				return newProxy(IRodinFile.class, getFileHandle());
+			if (methodName.equals("getRodinProject"))
+				return newProxy(IRodinProject.class, getFileHandle().parent);
+			if (methodName.equals("getEventBProject"))
+				return newProxy(IEventBProject.class, getFileHandle().parent);
+			if (methodName.equals("getRoot"))
+				return ((IRodinFile) newProxy(IRodinFile.class,
+						getFileHandle())).getRoot();
+			if (methodName.equals("getComponentName"))
+				return getFileHandle().getBareName();
+			if (methodName.equals("getChildren"))
+				return getChildren(null, IRodinElement.class);
+			if (methodName.equals("getChildrenOfType"))
+				return getChildren((IInternalElementType<?>) args[0],
+						getInterface((IInternalElementType<?>) args[0]));
+			if (methodName.equals("hasChildren"))
+				return !getNode().children.isEmpty();
+			if (methodName.equals("getInternalElement"))
+				return getChild((IInternalElementType<?>) args[0],
+						(String) args[1]);
+			if (methodName.equals("createChild"))
+				return createChild((IInternalElementType<?>) args[0],
+						(IInternalElement) args[1]);
+			if (methodName.equals("delete")) {
+				Node node = getNode();
+				node.changed();
+				node.parent.children.remove(node);
+				return null;
+			}
+			if (methodName.equals("hasUnsavedChanges"))
+				return getFileHandle().getNode().unsaved;
+
+			// Typed children, e.g. getEvents().
+			if (arity == 0 && returnType.isArray()
+					&& IInternalElement.class.isAssignableFrom(returnType
+							.getComponentType())) {
+				Class<?> clazz = returnType.getComponentType();
+				return getChildren(getElementType(clazz), clazz);
+			}
+
+			// Typed handles, e.g. getEvent(String).
+			if (arity == 1 && args[0] instanceof String
+					&& IInternalElement.class.isAssignableFrom(returnType)
+					&& methodName.startsWith("get"))
+				return getChild(getElementType(returnType), (String) args[0]);
+
+			// Attributes.
+			if (methodName.startsWith("set") && arity == 2) {
+				Node node = getNode();
+				node.attributes.put(methodName.substring(3), args[0]);
+				node.changed();
+				return null;
+			}
+			if (methodName.startsWith("has") && arity == 0)
+				return getNode().attributes.containsKey(methodName.substring(3));
+			if ((methodName.startsWith("get") || methodName.startsWith("is"))
+					&& arity == 0) {
+				String attribute = methodName.substring(methodName
+						.startsWith("get") ? 3 : 2);
+				Object value = getNode().attributes.get(attribute);
+				if (value == null)
+					throw newException(attribute,
+							IRodinDBStatusConstants.ATTRIBUTE_DOES_NOT_EXIST);
+				return value;
+			}
+			throw new UnsupportedOperationException(method.toString());
+		}
+
+		/**
+		 * Returns the node of the element, or <code>null</code> if the element
+		 * does not exist. Resolving an element opens its file.
+		 */
+		Node resolve() {
+			Node node = lookup();
+			if (node != null && kind == Kind.FILE)
+				node.open = true;
+			return node;
+		}
+
+		/**
+		 * Returns the node of the element, or <code>null</code> if the element
+		 * does not exist, without opening its file.
+		 */
+		Node lookup() {
+			switch (kind) {
+			case PROJECT:
+				return projects.get(name);
+			default:
+				Node parentNode = parent.resolve();
+				return parentNode == null ? null : parentNode.getChild(type,
+						name);
+			}
+		}
+
+		/**
+		 * Returns the node of the element, which must exist.
+		 */
+		Node getNode() throws RodinDBException {
+			Node node = resolve();
+			if (node == null)
+				throw newException(toString(),
+						IRodinDBStatusConstants.ELEMENT_DOES_NOT_EXIST);
+			return node;
+		}
+
+		/**
+		 * Returns a proxy for this internal element.
+		 */
+		Object toElement() {
+			return newProxy(getInterface(type), this);
+		}
+
+		IRodinFile getFile(String fileName) {
+			return (IRodinFile) newProxy(IRodinFile.class, new Handle(
+					Kind.FILE, this, null, fileName));
+		}
+
+		Handle getFileHandle() {
+			Handle handle = this;
+			while (handle.kind != Kind.FILE)
+				handle = handle.parent;
+			return handle;
+		}
+
+		String getBareName() {
+			return name.substring(0, name.lastIndexOf('.'));
+		}
+
+		IInternalElementType<?> getRootType() {
+			return name.endsWith(CONTEXT_EXTENSION) ? IContextRoot.ELEMENT_TYPE
+					: IMachineRoot.ELEMENT_TYPE;
+		}
+
+		Object getChild(IInternalElementType<?> childType, String childName) {
+			return new Handle(Kind.ELEMENT, this, childType, childName)
+					.toElement();
+		}
+
+		Object getChildren(IInternalElementType<?> childType, Class<?> clazz)
+				throws RodinDBException {
+			List<Object> result = new ArrayList<Object>();
+			for (Node child : getNode().children) {
+				if (childType == null || child.type == childType)
+					result.add(getChild(child.type, child.name));
+			}
+			return result.toArray((Object[]) Array.newInstance(clazz,
+					result.size()));
+		}
+
+		Object createChild(IInternalElementType<?> childType,
+				IInternalElement nextSibling) throws RodinDBException {
+			Node node = getNode();
+			int index = node.children.size();
+			if (nextSibling != null) {
+				Handle sibling = getHandle(nextSibling);
+				Node siblingNode = sibling == null ? null : sibling.resolve();
+				index = node.children.indexOf(siblingNode);
+				if (index < 0)
+					throw newException(nextSibling.toString(),
+							IRodinDBStatusConstants.INVALID_SIBLING);
+			}
+			int count = 1;
+			while (node.getChild(childType, CHILD_NAME_PREFIX + count) != null)
+				count++;
+			Node child = new Node(childType, node, CHILD_NAME_PREFIX + count);
+			node.children.add(index, child);
+			node.changed();
+			return getChild(childType, child.name);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see Object#equals(Object)
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Handle))
+				return false;
+			Handle other = (Handle) obj;
+			return kind == other.kind
+					&& type == other.type
+					&& name.equals(other.name)
+					&& (parent == null ? other.parent == null : parent
+							.equals(other.parent));
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see Object#hashCode()
+		 */
+		@Override
+		public int hashCode() {
+			int hash = name.hashCode() * 31 + kind.hashCode();
+			return parent == null ? hash : hash * 31 + parent.hashCode();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return parent == null ? name : parent + "/" + name;
+		}
+
+	}
+
+	/**
+	 * Utility method to get the handle of a proxy created by this class.
+	 */
+	private static Handle getHandle(Object object) {
+		if (object == null || !Proxy.isProxyClass(object.getClass()))
+			return null;
+		InvocationHandler handler = Proxy.getInvocationHandler(object);
+		return handler instanceof Handle ? (Handle) handler : null;
+	}
+
+}
@@ -0,0 +1,475 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.utils.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eventb.core.IContextRoot;
+import org.eventb.core.IConvergenceElement.Convergence;
+import org.eventb.core.IEvent;
+import org.eventb.core.IEventBProject;
+import org.eventb.core.IMachineRoot;
+import org.rodinp.core.RodinCore;
+
+import ch.ethz.eventb.utils.BatchProgressMonitor;
+import ch.ethz.eventb.utils.EventBUtils;
+
+/**
+ * <p>
+ * This utility class is for generating synthetic Event-B projects of
+ * configurable size, e.g. as workloads for benchmarks and scaling tests. The
+ * generated models are well-typed and entirely determined by the seed and the
+ * configuration of the generator. A generated project contains:
+ * <ul>
+ * <li>A chain of contexts <code>ctx0</code>, <code>ctx1</code>, ... where each
+ * context extends the previous one. Context <code>ctx</code><em>i</em> has a
+ * carrier set <code>S</code><em>i</em>, constants typed by axioms, and some
+ * further axioms.</li>
+ * <li>A number of refinement chains of machines. Machine <code>m</code>
+ * <em>i</em><code>_</code><em>d</em> is the machine at refinement level
+ * <em>d</em> of the <em>i</em>-th chain, and refines machine <code>m</code>
+ * <em>i</em><code>_</code><em>(d-1)</em>. All the machines of a chain see the
+ * same, randomly chosen, context (or the last context, see
+ * {@link #setSeesLastContext(boolean)}).</li>
+ * <li>Each machine introduces new variables of type &#8469; (each typed by an
+ * invariant), further invariants, an <code>INITIALISATION</code> and events
+ * <code>evt0</code>, <code>evt1</code>, ... with guards and actions on the new
+ * variables. In refinements, all events are extended and refine the abstract
+ * event with the same label.</li>
+ * </ul>
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see ChannelSetup
+ * @since 0.2.5
+ */
+public class ModelGenerator {
+
+	// The seed of the random generator.
+	private final long seed;
+
+	// The number of contexts.
+	private int contexts = 1;
+
+	// The number of constants per context.
+	private int constants = 2;
+
+	// The number of axioms per context (in addition to typing axioms).
+	private int axioms = 1;
+
+	// The number of machine refinement chains.
+	private int machines = 1;
+
+	// The refinement depth of the chains.
+	private int depth = 0;
+
+	// The number of new variables per machine.
+	private int variables = 2;
+
+	// The number of invariants per machine (in addition to typing invariants).
+	private int invariants = 1;
+
+	// The number of events per machine (excluding the initialisation).
+	private int events = 2;
+
+	// The number of new guards per event.
+	private int guards = 1;
+
+	// The number of new actions per event.
+	private int actions = 1;
+
+	// Whether machines see the last context rather than a random one.
+	private boolean seesLastContext = false;
+
+	// The random generator used while generating a project.
+	private Random random;
+
+	/**
+	 * Constructor: Create a generator with the default configuration, i.e.
+	 * one context with two constants and one axiom, and one machine (without
+	 * refinement) with two variables, one invariant and two events having one
+	 * guard and one action each.
+	 * 
+	 * @param seed
+	 *            the seed for generating the models.
+	 */
+	public ModelGenerator(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Sets the number of contexts.
+	 * 
+	 * @param n
+	 *            the number of contexts.
+	 * @return this generator.
+	 */
+	public ModelGenerator setContexts(int n) {
+		Assert.isLegal(n >= 0);
+		contexts = n;
+		return this;
+	}
+
+	/**
+	 * Sets the number of constants per context. Each constant is typed by an
+	 * axiom.
+	 * 
+	 * @param n
+	 *            the number of constants.
+	 * @return this generator.
+	 */
+	public ModelGenerator setConstants(int n) {
+		Assert.isLegal(n >= 0);
+		constants = n;
+		return this;
+	}
+
+	/**
+	 * Sets the number of axioms per context, in addition to the typing axioms
+	 * of the constants.
+	 * 
+	 * @param n
+	 *            the number of axioms.
+	 * @return this generator.
+	 */
+	public ModelGenerator setAxioms(int n) {
+		Assert.isLegal(n >= 0);
+		axioms = n;
+		return this;
+	}
+
+	/**
+	 * Sets the number of machine refinement chains, i.e. the number of most
+	 * abstract machines.
+	 * 
+	 * @param n
+	 *            the number of machine refinement chains.
+	 * @return this generator.
+	 */
+	public ModelGenerator setMachines(int n) {
+		Assert.isLegal(n >= 0);
+		machines = n;
+		return this;
+	}
+
+	/**
+	 * Sets the refinement depth, i.e. the number of refinements of each most
+	 * abstract machine.
+	 * 
+	 * @param n
+	 *            the refinement depth.
+	 * @return this generator.
+	 */
+	public ModelGenerator setRefinementDepth(int n) {
+		Assert.isLegal(n >= 0);
+		depth = n;
+		return this;
+	}
+
+	/**
+	 * Sets the number of new variables per machine. Each variable is typed by
+	 * an invariant.
+	 * 
+	 * @param n
+	 *            the number of new variables.
+	 * @return this generator.
+	 */
+	public ModelGenerator setVariables(int n) {
+		Assert.isLegal(n >= 0);
+		variables = n;
+		return this;
+	}
+
+	/**
+	 * Sets the number of invariants per machine, in addition to the typing
+	 * invariants of the variables.
+	 * 
+	 * @param n
+	 *            the number of invariants.
+	 * @return this generator.
+	 */
+	public ModelGenerator setInvariants(int n) {
+		Assert.isLegal(n >= 0);
+		invariants = n;
+		return this;
+	}
+
+	/**
+	 * Sets the number of events per machine, excluding the initialisation.
+	 * 
+	 * @param n
+	 *            the number of events.
+	 * @return this generator.
+	 */
+	public ModelGenerator setEvents(int n) {
+		Assert.isLegal(n >= 0);
+		events = n;
+		return this;
+	}
+
+	/**
+	 * Sets the number of new guards per event.
+	 * 
+	 * @param n
+	 *            the number of guards.
+	 * @return this generator.
+	 */
+	public ModelGenerator setGuards(int n) {
+		Assert.isLegal(n >= 0);
+		guards = n;
+		return this;
+	}
+
+	/**
+	 * Sets the number of new actions per event. Since each action assigns a
+	 * different new variable, this is bounded by the number of variables.
+	 * 
+	 * @param n
+	 *            the number of actions.
+	 * @return this generator.
+	 */
+	public ModelGenerator setActions(int n) {
+		Assert.isLegal(n >= 0);
+		actions = n;
+		return this;
+	}
+
+	/**
+	 * Sets whether the machines see the last context of the chain of
+	 * contexts, hence all the contexts, rather than a randomly chosen one.
+	 * This does not change the rest of the generated model.
+	 * 
+	 * @param last
+	 *            <code>true</code> if the machines see the last context.
+	 * @return this generator.
+	 */
+	public ModelGenerator setSeesLastContext(boolean last) {
+		seesLastContext = last;
+		return this;
+	}
+
+	/**
+	 * Returns the number of machines of the generated projects.
+	 * 
+	 * @return the number of machines.
+	 */
+	public int getMachineCount() {
+		return machines * (depth + 1);
+	}
+
+	/**
+	 * Returns the name of a generated context.
+	 * 
+	 * @param index
+	 *            the index of the context.
+	 * @return the name of the context.
+	 */
+	public static String getContextName(int index) {
+		return "ctx" + index;
+	}
+
+	/**
+	 * Returns the name of a generated machine.
+	 * 
+	 * @param chain
+	 *            the index of the refinement chain of the machine.
+	 * @param level
+	 *            the refinement level of the machine, 0 for the most abstract
+	 *            machine.
+	 * @return the name of the machine.
+	 */
+	public static String getMachineName(int chain, int level) {
+		return "m" + chain + "_" + level;
+	}
+
+	/**
+	 * Generates a project. All files of the project are saved. Generating
+	 * twice with the same configuration yields the same model.
+	 * 
+	 * @param name
+	 *            the name of the project, which must not exist.
+	 * @param monitor
+	 *            a progress monitor, or <code>null</code>.
+	 * @return the generated project.
+	 * @throws CoreException
+	 *             if some unexpected problems occur.
+	 */
+	public IEventBProject generate(final String name, IProgressMonitor monitor)
+			throws CoreException {
+		final IEventBProject prj = EventBUtils.createEventBProject(name,
+				monitor);
+		random = new Random(seed);
+		// Batch all changes to the database.
+		RodinCore.run(new IWorkspaceRunnable() {
+
+			@Override
+			public void run(IProgressMonitor pm) throws CoreException {
+				// Report the progress of the generation as a whole.
+				BatchProgressMonitor batch = new BatchProgressMonitor(pm,
+						name, IProgressMonitor.UNKNOWN);
+				for (int i = 0; i < contexts; i++) {
+					generateContext(prj, i, batch);
+				}
+				for (int i = 0; i < machines; i++) {
+					String ctxName = null;
+					if (contexts != 0) {
+						int seen = random.nextInt(contexts);
+						ctxName = getContextName(seesLastContext ? contexts - 1
+								: seen);
+					}
+					for (int d = 0; d <= depth; d++) {
+						generateMachine(prj, i, d, ctxName, batch);
+					}
+				}
+				batch.finish();
+			}
+
+		}, monitor);
+		return prj;
+	}
+
+	/**
+	 * Utility method to generate a context.
+	 */
+	private void generateContext(IEventBProject prj, int index,
+			IProgressMonitor monitor) throws CoreException {
+		IContextRoot ctx = EventBUtils.createContext(prj,
+				getContextName(index), monitor);
+		if (index > 0)
+			EventBUtils.createExtendsContextClause(ctx,
+					getContextName(index - 1), null, monitor);
+		String set = "S" + index;
+		EventBUtils.createCarrierSet(ctx, set, null, monitor);
+		for (int j = 0; j < constants; j++) {
+			String cst = "k" + index + "_" + j;
+			EventBUtils.createConstant(ctx, cst, null, monitor);
+			EventBUtils.createAxiom(ctx, "typ" + index + "_" + j, cst + " ∈ "
+					+ set, false, null, monitor);
+		}
+		for (int j = 0; j < axioms; j++) {
+			String predicate = j == 0 ? "finite(" + set + ")" : "card(" + set
+					+ ") ≥ " + random.nextInt(100);
+			EventBUtils.createAxiom(ctx, "axm" + index + "_" + j, predicate,
+					false, null, monitor);
+		}
+		ctx.getRodinFile().save(monitor, false);
+	}
+
+	/**
+	 * Utility method to generate a machine.
+	 */
+	private void generateMachine(IEventBProject prj, int chain, int level,
+			String ctxName, IProgressMonitor monitor) throws CoreException {
+		IMachineRoot mch = EventBUtils.createMachine(prj,
+				getMachineName(chain, level), monitor);
+		boolean refinement = level > 0;
+		if (refinement)
+			EventBUtils.createRefinesMachineClause(mch,
+					getMachineName(chain, level - 1), null, monitor);
+		if (ctxName != null)
+			EventBUtils.createSeesContextClause(mch, ctxName, null, monitor);
+
+		// The variables of this machine, including the abstract ones.
+		List<String> allVars = new ArrayList<String>();
+		for (int d = 0; d <= level; d++) {
+			for (int k = 0; k < variables; k++) {
+				allVars.add(getVariableName(d, k));
+			}
+		}
+
+		// Variables and invariants.
+		for (int d = 0; d <= level; d++) {
+			for (int k = 0; k < variables; k++) {
+				EventBUtils.createVariable(mch, getVariableName(d, k), null,
+						monitor);
+			}
+		}
+		for (int k = 0; k < variables; k++) {
+			EventBUtils.createInvariant(mch, "typ" + level + "_" + k,
+					getVariableName(level, k) + " ∈ ℕ", false, null, monitor);
+		}
+		for (int k = 0; k < invariants; k++) {
+			String predicate;
+			if (allVars.isEmpty()) {
+				predicate = random.nextInt(100) + " ≥ 0";
+			} else {
+				predicate = pick(allVars) + " + " + pick(allVars) + " ≥ 0";
+			}
+			EventBUtils.createInvariant(mch, "inv" + level + "_" + k,
+					predicate, false, null, monitor);
+		}
+
+		// Initialisation.
+		IEvent init = EventBUtils.createEvent(mch, IEvent.INITIALISATION,
+				Convergence.ORDINARY, refinement, null, monitor);
+		for (int k = 0; k < variables; k++) {
+			EventBUtils.createAction(init, "act" + level + "_" + k,
+					getVariableName(level, k) + " ≔ 0", null, monitor);
+		}
+
+		// Events.
+		int nbActions = Math.min(actions, variables);
+		for (int e = 0; e < events; e++) {
+			String label = "evt" + e;
+			IEvent evt = EventBUtils.createEvent(mch, label,
+					Convergence.ORDINARY, refinement, null, monitor);
+			if (refinement)
+				EventBUtils.createRefinesEventClause(evt, label, null,
+						monitor);
+			for (int g = 0; g < guards; g++) {
+				String predicate;
+				if (variables == 0) {
+					predicate = random.nextInt(100) + " ≥ 0";
+				} else {
+					predicate = getVariableName(level,
+							random.nextInt(variables))
+							+ " < " + (1 + random.nextInt(100));
+				}
+				EventBUtils.createGuard(evt, "grd" + level + "_" + g,
+						predicate, false, null, monitor);
+			}
+			for (int a = 0; a < nbActions; a++) {
+				String var = getVariableName(level, (e + a) % variables);
+				String expression = random.nextBoolean() ? var + " + 1"
+						: String.valueOf(random.nextInt(100));
+				EventBUtils.createAction(evt, "act" + level + "_" + a, var
+						+ " ≔ " + expression, null, monitor);
+			}
+		}
+		mch.getRodinFile().save(monitor, false);
+	}
+
+	/**
+	 * Utility method to get the name of a variable.
+	 */
+	private static String getVariableName(int level, int index) {
+		return "v" + level + "_" + index;
+	}
+
+	/**
+	 * Utility method to pick a random string from a list.
+	 */
+	private String pick(List<String> strings) {
+		return strings.get(random.nextInt(strings.size()));
+	}
+
+}
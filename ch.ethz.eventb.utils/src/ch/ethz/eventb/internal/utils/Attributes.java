@@ -0,0 +1,418 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eventb.core.IAssignmentElement;
+import org.eventb.core.IConfigurationElement;
+import org.eventb.core.IConvergenceElement;
+import org.eventb.core.IConvergenceElement.Convergence;
+import org.eventb.core.IDerivedPredicateElement;
+import org.eventb.core.IEvent;
+import org.eventb.core.IExtendsContext;
+import org.eventb.core.IIdentifierElement;
+import org.eventb.core.ILabeledElement;
+import org.eventb.core.IPredicateElement;
+import org.eventb.core.IRefinesEvent;
+import org.eventb.core.IRefinesMachine;
+import org.eventb.core.ISCIdentifierElement;
+import org.eventb.core.ISeesContext;
+import org.eventb.core.ITraceableElement;
+import org.eventb.core.ast.FormulaFactory;
+import org.eventb.core.ast.Type;
+import org.rodinp.core.IRodinElement;
+import org.rodinp.core.RodinDBException;
+
+/**
+ * <p>
+ * The accesses to the attributes of elements made by the instrumented
+ * operations of {@link ch.ethz.eventb.utils.EventBUtils} and
+ * {@link ch.ethz.eventb.utils.EventBSCUtils}. Each method accounts for the
+ * read or the write of one attribute in the trace of the call (see
+ * {@link Instrumentation}) before accessing the attribute, so that the
+ * operations do not have to count their accesses by hand.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see Instrumentation
+ * @since 0.2.5
+ */
+public final class Attributes {
+
+	private Attributes() {
+		// Utility classes shall not have a public or default constructor.
+	}
+
+	/**
+	 * Reads the label of an element.
+	 * 
+	 * @param trace
+	 *            the trace of the call, or <code>null</code>.
+	 * @param element
+	 *            a labeled element.
+	 * @return the label of the element.
+	 * @throws RodinDBException
+	 *             if there are problems accessing the database.
+	 */
+	public static String getLabel(OperationTrace trace, ILabeledElement element)
+			throws RodinDBException {
+		Instrumentation.read(trace, element);
+		return element.getLabel();
+	}
+
+	/**
+	 * Reads whether an element is a theorem.
+	 * 
+	 * @param trace
+	 *            the trace of the call, or <code>null</code>.
+	 * @param element
+	 *            a derived predicate element.
+	 * @return <code>true</code> if the element is a theorem,
+	 *         <code>false</code> otherwise.
+	 * @throws RodinDBException
+	 *             if there are problems accessing the database.
+	 */
+	public static boolean isTheorem(OperationTrace trace,
+			IDerivedPredicateElement element) throws RodinDBException {
+		Instrumentation.read(trace, element);
+		return element.isTheorem();
+	}
+
+	/**
+	 * Reads the predicate string of an element.
+	 * 
+	 * @param trace
+	 *            the trace of the call, or <code>null</code>.
+	 * @param element
+	 *            a predicate element.
+	 * @return the predicate string of the element.
+	 * @throws RodinDBException
+	 *             if there are problems accessing the database.
+	 */
+	public static String getPredicateString(OperationTrace trace,
+			IPredicateElement element) throws RodinDBException {
+		Instrumentation.read(trace, element);
+		return element.getPredicateString();
+	}
+
+	/**
+	 * Reads the identifier string of an element.
+	 * 
+	 * @param trace
+	 *            the trace of the call, or <code>null</code>.
+	 * @param element
+	 *            an identifier element.
+	 * @return the identifier string of the element.
+	 * @throws RodinDBException
+	 *             if there are problems accessing the database.
+	 */
+	public static String getIdentifierString(OperationTrace trace,
+			IIdentifierElement element) throws RodinDBException {
+		Instrumentation.read(trace, element);
+		return element.getIdentifierString();
+	}
+
+	/**
+	 * Reads the source of an element.
+	 * 
+	 * @param trace
+	 *            the trace of the call, or <code>null</code>.
+	 * @param element
+	 *            a traceable element.
+	 * @return the source of the element.
+	 * @throws RodinDBException
+	 *             if there are problems accessing the database.
+	 */
+	public static IRodinElement getSource(OperationTrace trace,
+			ITraceableElement element) throws RodinDBException {
+		Instrumentation.read(trace, element);
+		return element.getSource();
+	}
+
+	/**
+	 * Reads the type of a statically checked identifier element.
+	 * 
+	 * @param trace
+	 *            the trace of the call, or <code>null</code>.
+	 * @param element
+	 *            a statically checked identifier element.
+	 * @param factory
+	 *            the formula factory used to parse the type.
+	 * @return the type of the element.
+	 * @throws CoreException
+	 *             if there are problems accessing the database or parsing
+	 *             the type.
+	 */
+	public static Type getType(OperationTrace trace,
+			ISCIdentifierElement element, FormulaFactory factory)
+			throws CoreException {
+		Instrumentation.read(trace, element);
+		return element.getType(factory);
+	}
+
+	/**
+	 * Writes the label of an element.
+	 * 
+	 * @param trace
+	 *            the trace of the call, or <code>null</code>.
+	 * @param element
+	 *            a labeled element.
+	 * @param label
+	 *            the new label.
+	 * @param monitor
+	 *            a progress monitor, or <code>null</code>.
+	 * @throws RodinDBException
+	 *             if there are problems accessing the database.
+	 */
+	public static void setLabel(OperationTrace trace, ILabeledElement element,
+			String label, IProgressMonitor monitor) throws RodinDBException {
+		Instrumentation.written(trace);
+		element.setLabel(label, monitor);
+	}
+
+	/**
+	 * Writes whether an element is a theorem.
+	 * 
+	 * @param trace
+	 *            the trace of the call, or <code>null</code>.
+	 * @param element
+	 *            a derived predicate element.
+	 * @param theorem
+	 *            <code>true</code> if the element is a theorem.
+	 * @param monitor
+	 *            a progress monitor, or <code>null</code>.
+	 * @throws RodinDBException
+	 *             if there are problems accessing the database.
+	 */
+	public static void setTheorem(OperationTrace trace,
+			IDerivedPredicateElement element, boolean theorem,
+			IProgressMonitor monitor) throws RodinDBException {
+		Instrumentation.written(trace);
+		element.setTheorem(theorem, monitor);
+	}
+
+	/**
+	 * Writes the predicate string of an element.
+	 * 
+	 * @param trace
+	 *            the trace of the call, or <code>null</code>.
+	 * @param element
+	 *            a predicate element.
+	 * @param predicate
+	 *            the new predicate string.
+	 * @param monitor
+	 *            a progress monitor, or <code>null</code>.
+	 * @throws RodinDBException
+	 *             if there are problems accessing the database.
+	 */
+	public static void setPredicateString(OperationTrace trace,
+			IPredicateElement element, String predicate,
+			IProgressMonitor monitor) throws RodinDBException {
+		Instrumentation.written(trace);
+		element.setPredicateString(predicate, monitor);
+	}
+
+	/**
+	 * Writes the assignment string of an element.
+	 * 
+	 * @param trace
+	 *            the trace of the call, or <code>null</code>.
+	 * @param element
+	 *            an assignment element.
+	 * @param assignment
+	 *            the new assignment string.
+	 * @param monitor
+	 *            a progress monitor, or <code>null</code>.
+	 * @throws RodinDBException
+	 *             if there are problems accessing the database.
+	 */
+	public static void setAssignmentString(OperationTrace trace,
+			IAssignmentElement element, String assignment,
+			IProgressMonitor monitor) throws RodinDBException {
+		Instrumentation.written(trace);
+		element.setAssignmentString(assignment, monitor);
+	}
+
+	/**
+	 * Writes the identifier string of an element.
+	 * 
+	 * @param trace
+	 *            the trace of the call, or <code>null</code>.
+	 * @param element
+	 *            an identifier element.
+	 * @param identifier
+	 *            the new identifier string.
+	 * @param monitor
+	 *            a progress monitor, or <code>null</code>.
+	 * @throws RodinDBException
+	 *             if there are problems accessing the database.
+	 */
+	public static void setIdentifierString(OperationTrace trace,
+			IIdentifierElement element, String identifier,
+			IProgressMonitor monitor) throws RodinDBException {
+		Instrumentation.written(trace);
+		element.setIdentifierString(identifier, monitor);
+	}
+
+	/**
+	 * Writes the configuration of an element.
+	 * 
+	 * @param trace
+	 *            the trace of the call, or <code>null</code>.
+	 * @param element
+	 *            a configuration element.
+	 * @param configuration
+	 *            the new configuration.
+	 * @param monitor
+	 *            a progress monitor, or <code>null</code>.
+	 * @throws RodinDBException
+	 *             if there are problems accessing the database.
+	 */
+	public static void setConfiguration(OperationTrace trace,
+			IConfigurationElement element, String configuration,
+			IProgressMonitor monitor) throws RodinDBException {
+		Instrumentation.written(trace);
+		element.setConfiguration(configuration, monitor);
+	}
+
+	/**
+	 * Writes the convergence of an element.
+	 * 
+	 * @param trace
+	 *            the trace of the call, or <code>null</code>.
+	 * @param element
+	 *            a convergence element.
+	 * @param convergence
+	 *            the new convergence.
+	 * @param monitor
+	 *            a progress monitor, or <code>null</code>.
+	 * @throws RodinDBException
+	 *             if there are problems accessing the database.
+	 */
+	public static void setConvergence(OperationTrace trace,
+			IConvergenceElement element, Convergence convergence,
+			IProgressMonitor monitor) throws RodinDBException {
+		Instrumentation.written(trace);
+		element.setConvergence(convergence, monitor);
+	}
+
+	/**
+	 * Writes whether an event is extended.
+	 * 
+	 * @param trace
+	 *            the trace of the call, or <code>null</code>.
+	 * @param evt
+	 *            an event.
+	 * @param extended
+	 *            <code>true</code> if the event is extended.
+	 * @param monitor
+	 *            a progress monitor, or <code>null</code>.
+	 * @throws RodinDBException
+	 *             if there are problems accessing the database.
+	 */
+	public static void setExtended(OperationTrace trace, IEvent evt,
+			boolean extended, IProgressMonitor monitor)
+			throws RodinDBException {
+		Instrumentation.written(trace);
+		evt.setExtended(extended, monitor);
+	}
+
+	/**
+	 * Writes the abstract event label of a refines event clause.
+	 * 
+	 * @param trace
+	 *            the trace of the call, or <code>null</code>.
+	 * @param clause
+	 *            a refines event clause.
+	 * @param label
+	 *            the new abstract event label.
+	 * @param monitor
+	 *            a progress monitor, or <code>null</code>.
+	 * @throws RodinDBException
+	 *             if there are problems accessing the database.
+	 */
+	public static void setAbstractEventLabel(OperationTrace trace,
+			IRefinesEvent clause, String label, IProgressMonitor monitor)
+			throws RodinDBException {
+		Instrumentation.written(trace);
+		clause.setAbstractEventLabel(label, monitor);
+	}
+
+	/**
+	 * Writes the abstract machine name of a refines machine clause.
+	 * 
+	 * @param trace
+	 *            the trace of the call, or <code>null</code>.
+	 * @param clause
+	 *            a refines machine clause.
+	 * @param name
+	 *            the new abstract machine name.
+	 * @param monitor
+	 *            a progress monitor, or <code>null</code>.
+	 * @throws RodinDBException
+	 *             if there are problems accessing the database.
+	 */
+	public static void setAbstractMachineName(OperationTrace trace,
+			IRefinesMachine clause, String name, IProgressMonitor monitor)
+			throws RodinDBException {
+		Instrumentation.written(trace);
+		clause.setAbstractMachineName(name, monitor);
+	}
+
+	/**
+	 * Writes the abstract context name of an extends context clause.
+	 * 
+	 * @param trace
+	 *            the trace of the call, or <code>null</code>.
+	 * @param clause
+	 *            an extends context clause.
+	 * @param name
+	 *            the new abstract context name.
+	 * @param monitor
+	 *            a progress monitor, or <code>null</code>.
+	 * @throws RodinDBException
+	 *             if there are problems accessing the database.
+	 */
+	public static void setAbstractContextName(OperationTrace trace,
+			IExtendsContext clause, String name, IProgressMonitor monitor)
+			throws RodinDBException {
+		Instrumentation.written(trace);
+		clause.setAbstractContextName(name, monitor);
+	}
+
+	/**
+	 * Writes the seen context name of a sees context clause.
+	 * 
+	 * @param trace
+	 *            the trace of the call, or <code>null</code>.
+	 * @param clause
+	 *            a sees context clause.
+	 * @param name
+	 *            the new seen context name.
+	 * @param monitor
+	 *            a progress monitor, or <code>null</code>.
+	 * @throws RodinDBException
+	 *             if there are problems accessing the database.
+	 */
+	public static void setSeenContextName(OperationTrace trace,
+			ISeesContext clause, String name, IProgressMonitor monitor)
+			throws RodinDBException {
+		Instrumentation.written(trace);
+		clause.setSeenContextName(name, monitor);
+	}
+
+}
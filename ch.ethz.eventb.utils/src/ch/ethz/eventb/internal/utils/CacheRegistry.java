@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * <p>
+ * The registry of the caches maintained by the utilities. Caches register
+ * themselves while they are in use, e.g. the cached roots of a content
+ * provider while it is attached to a viewer, so that they can be monitored
+ * and cleared through {@link ch.ethz.eventb.utils.EventBUtilsMXBean}.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see ManagedCache
+ * @since 0.2.5
+ */
+public final class CacheRegistry {
+
+	// The registered caches, in the order of registration.
+	private static final CopyOnWriteArrayList<ManagedCache> caches = new CopyOnWriteArrayList<ManagedCache>();
+
+	private CacheRegistry() {
+		// Utility classes shall not have a public or default constructor.
+	}
+
+	/**
+	 * Registers a cache. Does nothing if the cache is already registered.
+	 * 
+	 * @param cache
+	 *            a cache.
+	 */
+	public static void register(ManagedCache cache) {
+		caches.addIfAbsent(cache);
+	}
+
+	/**
+	 * Unregisters a cache. Does nothing if the cache is not registered.
+	 * 
+	 * @param cache
+	 *            a cache.
+	 */
+	public static void unregister(ManagedCache cache) {
+		caches.remove(cache);
+	}
+
+	/**
+	 * Returns the registered caches.
+	 * 
+	 * @return a snapshot of the registered caches, in the order of
+	 *         registration.
+	 */
+	public static List<ManagedCache> getCaches() {
+		return new ArrayList<ManagedCache>(caches);
+	}
+
+	/**
+	 * Clears all registered caches.
+	 */
+	public static void clearAll() {
+		for (ManagedCache cache : caches) {
+			cache.clear();
+		}
+	}
+
+}
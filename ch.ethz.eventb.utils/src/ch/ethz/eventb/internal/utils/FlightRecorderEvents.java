@@ -0,0 +1,308 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+
+package ch.ethz.eventb.internal.utils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.osgi.framework.Bundle;
+
+/**
+ * <p>
+ * The Java Flight Recorder events of the instrumented operations. An event
+ * named {@value #EVENT_NAME} is emitted for each call while a recording is
+ * running, with the name of the operation, the component (or project) on
+ * which it is called, the number of elements created or read and the
+ * duration of the call. The event is enabled by default and can be
+ * configured (e.g. given a threshold) in the recording settings.
+ * </p>
+ * <p>
+ * The <code>jdk.jfr</code> API is neither part of the Java 8 API nor
+ * exported to the OSGi runtime, hence the event type is defined with the
+ * <code>jdk.jfr.EventFactory</code>, looked up reflectively from the system
+ * class loader. The events are opt-in: a listener of the recorder is only
+ * registered when they are first enabled (see
+ * {@link Instrumentation#setFlightRecorderEnabled(boolean)}), and tells
+ * {@link Instrumentation} whether recordings are running, so that nothing is
+ * done otherwise. The factory is only created when a recording starts. On
+ * JVMs without Flight Recorder, no event is emitted.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see Instrumentation
+ * @since 0.2.5
+ */
+final class FlightRecorderEvents {
+
+	/**
+	 * The name of the event type.
+	 */
+	static final String EVENT_NAME = "ch.ethz.eventb.utils.Operation"; //$NON-NLS-1$
+
+	/**
+	 * The system property enabling the events at start-up.
+	 */
+	static final String ENABLED_PROPERTY = "ch.ethz.eventb.utils.flightRecorderEvents"; //$NON-NLS-1$
+
+	// The identifier of the plug-in logging the problems with the recorder.
+	private static final String PLUGIN_ID = "ch.ethz.eventb.utils"; //$NON-NLS-1$
+
+	// The package of the Flight Recorder API.
+	private static final String JFR = "jdk.jfr."; //$NON-NLS-1$
+
+	// The indexes of the fields of the events.
+	private static final int OPERATION = 0;
+
+	private static final int COMPONENT = 1;
+
+	private static final int ELEMENTS = 2;
+
+	// Whether the listener of the recorder is registered.
+	private static boolean installed;
+
+	// The factory of the events, or null if not created yet.
+	private static volatile Object factory;
+
+	// The methods of the factory and of the events.
+	private static Method newEvent;
+
+	private static Method begin;
+
+	private static Method end;
+
+	private static Method shouldCommit;
+
+	private static Method set;
+
+	private static Method commit;
+
+	private FlightRecorderEvents() {
+		// Utility classes shall not have a public or default constructor.
+	}
+
+	/**
+	 * Returns whether the events are enabled by the system property
+	 * {@value #ENABLED_PROPERTY}.
+	 * 
+	 * @return <code>true</code> if the property is set to <code>true</code>.
+	 */
+	static boolean isEnabledByDefault() {
+		return Boolean.getBoolean(ENABLED_PROPERTY);
+	}
+
+	/**
+	 * Registers a listener of the recorder, which updates the instrumentation
+	 * when recordings start or stop, unless it is already registered. Does
+	 * nothing if the JVM does not provide Flight Recorder.
+	 */
+	static synchronized void install() {
+		if (installed)
+			return;
+		installed = true;
+		try {
+			Class<?> recorder = load("FlightRecorder"); //$NON-NLS-1$
+			Class<?> listener = load("FlightRecorderListener"); //$NON-NLS-1$
+			if (!(Boolean) recorder.getMethod("isAvailable").invoke(null)) //$NON-NLS-1$
+				return;
+			Object proxy = Proxy.newProxyInstance(ClassLoader
+					.getSystemClassLoader(), new Class<?>[] { listener },
+					new InvocationHandler() {
+
+						@Override
+						public Object invoke(Object proxy, Method method,
+								Object[] args) {
+							if (method.getDeclaringClass() == Object.class)
+								return invokeObjectMethod(proxy, method, args);
+							update();
+							return null;
+						}
+
+					});
+			recorder.getMethod("addListener", listener).invoke(null, proxy); //$NON-NLS-1$
+			update();
+		} catch (ClassNotFoundException e) {
+			// Flight Recorder is not provided by the JVM.
+		} catch (Exception e) {
+			log(e);
+		}
+	}
+
+	/**
+	 * Begins the event of a call.
+	 * 
+	 * @return the event, or <code>null</code> if it cannot be created.
+	 */
+	static Object begin() {
+		if (factory == null)
+			return null;
+		try {
+			Object event = newEvent.invoke(factory);
+			begin.invoke(event);
+			return event;
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Ends and commits the event of a call, unless the event is disabled or
+	 * below the threshold of the running recordings.
+	 * 
+	 * @param event
+	 *            the event returned by {@link #begin()}.
+	 * @param trace
+	 *            the trace of the call.
+	 * @param elements
+	 *            the number of elements created or read by the call.
+	 */
+	static void commit(Object event, OperationTrace trace, int elements) {
+		try {
+			end.invoke(event);
+			if (!(Boolean) shouldCommit.invoke(event))
+				return;
+			set.invoke(event, OPERATION, trace.getOperation().getName());
+			set.invoke(event, COMPONENT, trace.getComponentName());
+			set.invoke(event, ELEMENTS, elements);
+			commit.invoke(event);
+		} catch (Exception e) {
+			// The event is lost, the operation is not affected.
+		}
+	}
+
+	/**
+	 * Utility method to update the instrumentation according to the state of
+	 * the recordings, creating the factory of the events when a recording
+	 * runs for the first time.
+	 */
+	private static synchronized void update() {
+		boolean running = false;
+		try {
+			Class<?> recorder = load("FlightRecorder"); //$NON-NLS-1$
+			// Do not initialise the recorder if no recording was created.
+			if ((Boolean) recorder.getMethod("isInitialized").invoke(null)) { //$NON-NLS-1$
+				Object instance = recorder.getMethod("getFlightRecorder") //$NON-NLS-1$
+						.invoke(null);
+				List<?> recordings = (List<?>) recorder.getMethod(
+						"getRecordings").invoke(instance); //$NON-NLS-1$
+				for (Object recording : recordings) {
+					Object state = recording.getClass().getMethod("getState") //$NON-NLS-1$
+							.invoke(recording);
+					if ("RUNNING".equals(state.toString())) //$NON-NLS-1$
+						running = true;
+				}
+			}
+			if (running && factory == null)
+				createFactory();
+		} catch (Exception e) {
+			log(e);
+			running = false;
+		}
+		Instrumentation.setRecording(running);
+	}
+
+	/**
+	 * Utility method to create the factory of the events.
+	 */
+	private static void createFactory() throws Exception {
+		Class<?> annotationElement = load("AnnotationElement"); //$NON-NLS-1$
+		Class<?> valueDescriptor = load("ValueDescriptor"); //$NON-NLS-1$
+		Class<?> eventFactory = load("EventFactory"); //$NON-NLS-1$
+		Class<?> event = load("Event"); //$NON-NLS-1$
+		Constructor<?> newAnnotation = annotationElement.getConstructor(
+				Class.class, Object.class);
+		Constructor<?> newField = valueDescriptor.getConstructor(Class.class,
+				String.class, List.class);
+
+		List<Object> annotations = new ArrayList<Object>();
+		annotations.add(newAnnotation.newInstance(load("Name"), EVENT_NAME)); //$NON-NLS-1$
+		annotations.add(newAnnotation.newInstance(load("Label"), //$NON-NLS-1$
+				"Event-B Utility Operation")); //$NON-NLS-1$
+		annotations.add(newAnnotation.newInstance(load("Category"), //$NON-NLS-1$
+				new String[] { "Event-B" })); //$NON-NLS-1$
+
+		List<Object> fields = new ArrayList<Object>();
+		fields.add(OPERATION, newField.newInstance(String.class, "operation", //$NON-NLS-1$
+				label(newAnnotation, "Operation"))); //$NON-NLS-1$
+		fields.add(COMPONENT, newField.newInstance(String.class, "component", //$NON-NLS-1$
+				label(newAnnotation, "Component"))); //$NON-NLS-1$
+		fields.add(ELEMENTS, newField.newInstance(int.class, "elements", //$NON-NLS-1$
+				label(newAnnotation, "Elements"))); //$NON-NLS-1$
+
+		Object result = eventFactory.getMethod("create", List.class, //$NON-NLS-1$
+				List.class).invoke(null, annotations, fields);
+		newEvent = eventFactory.getMethod("newEvent"); //$NON-NLS-1$
+		begin = event.getMethod("begin"); //$NON-NLS-1$
+		end = event.getMethod("end"); //$NON-NLS-1$
+		shouldCommit = event.getMethod("shouldCommit"); //$NON-NLS-1$
+		set = event.getMethod("set", int.class, Object.class); //$NON-NLS-1$
+		commit = event.getMethod("commit"); //$NON-NLS-1$
+		factory = result;
+	}
+
+	/**
+	 * Utility method to create the annotations of a field with a label.
+	 */
+	private static List<Object> label(Constructor<?> newAnnotation,
+			String label) throws Exception {
+		return Collections.singletonList((Object) newAnnotation.newInstance(
+				load("Label"), label)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Utility method to log a problem with the recorder in the platform log.
+	 */
+	private static void log(Exception e) {
+		IStatus status = new Status(IStatus.ERROR, PLUGIN_ID,
+				Messages.error_FlightRecorder, e);
+		Bundle bundle = Platform.isRunning() ? Platform.getBundle(PLUGIN_ID)
+				: null;
+		if (bundle != null)
+			Platform.getLog(bundle).log(status);
+		else
+			System.err.println(Messages.error_FlightRecorder + ": " + e); //$NON-NLS-1$
+	}
+
+	/**
+	 * Utility method to load a class of the Flight Recorder API.
+	 */
+	private static Class<?> load(String name) throws ClassNotFoundException {
+		return ClassLoader.getSystemClassLoader().loadClass(JFR + name);
+	}
+
+	/**
+	 * Utility method to implement the methods of {@link Object} for the
+	 * listener of the recorder.
+	 */
+	private static Object invokeObjectMethod(Object proxy, Method method,
+			Object[] args) {
+		String name = method.getName();
+		if (name.equals("equals")) //$NON-NLS-1$
+			return proxy == args[0];
+		if (name.equals("hashCode")) //$NON-NLS-1$
+			return System.identityHashCode(proxy);
+		return FlightRecorderEvents.class.getSimpleName();
+	}
+
+}
@@ -0,0 +1,345 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils;
+
+import org.rodinp.core.IInternalElement;
+import org.rodinp.core.IRodinElement;
+
+/**
+ * <p>
+ * The instrumentation of the operations of
+ * {@link ch.ethz.eventb.utils.EventBUtils} and
+ * {@link ch.ethz.eventb.utils.EventBSCUtils}. Each instrumented method calls
+ * {@link #begin(Operation, IRodinElement)} after checking that its arguments
+ * are not <code>null</code>, and {@link #end(OperationTrace)} when it
+ * returns, normally or not:
+ * </p>
+ * 
+ * <pre>
+ * Assert.isNotNull(ctx, Messages.error_NullContext);
+ * OperationTrace trace = Instrumentation.begin(Operation.CREATE_AXIOM, ctx);
+ * try {
+ * 	...
+ * } finally {
+ * 	Instrumentation.end(trace);
+ * }
+ * </pre>
+ * <p>
+ * When the instrumentation is inactive, <code>begin</code> returns
+ * <code>null</code> after testing a single flag and <code>end</code> does
+ * nothing, hence the cost is that of a branch. Calls throwing an exception
+ * are recorded with the accesses made before the exception.
+ * </p>
+ * <p>
+ * The instrumented methods also account for their accesses to the Rodin
+ * database with {@link #opened(OperationTrace, IRodinElement)},
+ * {@link #created(OperationTrace)} and
+ * {@link #elementsRead(OperationTrace, int)}, and access the attributes of
+ * elements through {@link Attributes}, which accounts for each attribute read
+ * or written. The accesses are accounted for before they are made so that
+ * the files loaded by the accesses are detected.
+ * </p>
+ * <p>
+ * Operations changing the database call {@link #beginWrite(OperationTrace)}
+ * before their first change, so that the duration of a call is split into
+ * the time spent reading the database (checking the preconditions, looking
+ * up elements) and the time spent writing it.
+ * </p>
+ * <p>
+ * The instrumentation is active when the metrics are enabled, while a Java
+ * Flight Recorder recording is running if the events are enabled (see
+ * {@link FlightRecorderEvents}), or when slow operations are logged (see
+ * {@link SlowOperations}).
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see ch.ethz.eventb.utils.EventBMetrics
+ * @since 0.2.5
+ */
+public final class Instrumentation {
+
+	// Whether the instrumentation is active, i.e. some consumer is enabled.
+	private static volatile boolean active;
+
+	// Whether the metrics are recorded.
+	private static volatile boolean metricsEnabled;
+
+	// Whether the Flight Recorder events are enabled.
+	private static volatile boolean flightRecorderEnabled;
+
+	// Whether a Flight Recorder recording is running.
+	private static volatile boolean recording;
+
+	// The duration above which calls are logged in nanoseconds, or -1.
+	private static volatile long slowThreshold = -1;
+
+	// The metrics of the operations, indexed by their ordinals.
+	private static final OperationCounters[] counters = new OperationCounters[Operation
+			.values().length];
+	static {
+		for (int i = 0; i < counters.length; i++) {
+			counters[i] = new OperationCounters();
+		}
+		setFlightRecorderEnabled(FlightRecorderEvents.isEnabledByDefault());
+		setSlowThreshold(SlowOperations.getDefaultThreshold());
+	}
+
+	private Instrumentation() {
+		// Utility classes shall not have a public or default constructor.
+	}
+
+	/**
+	 * Begins a call to an operation.
+	 * 
+	 * @param operation
+	 *            the called operation.
+	 * @param element
+	 *            the element on which the operation is called, or
+	 *            <code>null</code>.
+	 * @return the trace of the call, or <code>null</code> if the
+	 *         instrumentation is inactive.
+	 */
+	public static OperationTrace begin(Operation operation,
+			IRodinElement element) {
+		if (!active)
+			return null;
+		OperationTrace trace = new OperationTrace(operation, element);
+		if (recording && flightRecorderEnabled)
+			trace.event = FlightRecorderEvents.begin();
+		return trace;
+	}
+
+	/**
+	 * Marks the beginning of the changes of the database by a call. The time
+	 * spent by the call before is accounted as reading the database, and
+	 * the time spent after as writing it.
+	 * 
+	 * @param trace
+	 *            the trace returned by
+	 *            {@link #begin(Operation, IRodinElement)}, or
+	 *            <code>null</code>.
+	 */
+	public static void beginWrite(OperationTrace trace) {
+		if (trace != null)
+			trace.writeStartNanos = System.nanoTime();
+	}
+
+	/**
+	 * Accounts for an access to the information of an element, e.g. an
+	 * existence check or an enumeration of its children. A call accounts for
+	 * each element once, before its first access.
+	 * 
+	 * @param trace
+	 *            the trace of the call, or <code>null</code>.
+	 * @param element
+	 *            the accessed element.
+	 */
+	public static void opened(OperationTrace trace, IRodinElement element) {
+		if (trace == null)
+			return;
+		trace.elementsOpened++;
+		loading(trace, element);
+	}
+
+	/**
+	 * Accounts for the creation of an element, e.g. a component or an
+	 * internal element.
+	 * 
+	 * @param trace
+	 *            the trace of the call, or <code>null</code>.
+	 */
+	public static void created(OperationTrace trace) {
+		if (trace != null)
+			trace.elementsCreated++;
+	}
+
+	/**
+	 * Accounts for elements read, e.g. the elements enumerated when looking up
+	 * an element.
+	 * 
+	 * @param trace
+	 *            the trace of the call, or <code>null</code>.
+	 * @param elements
+	 *            the number of elements read.
+	 */
+	public static void elementsRead(OperationTrace trace, int elements) {
+		if (trace != null)
+			trace.elementsRead += elements;
+	}
+
+	/**
+	 * Accounts for the read of an attribute of an element. This is called by
+	 * {@link Attributes}.
+	 * 
+	 * @param trace
+	 *            the trace of the call, or <code>null</code>.
+	 * @param element
+	 *            the element whose attribute is read.
+	 */
+	static void read(OperationTrace trace, IRodinElement element) {
+		if (trace == null)
+			return;
+		trace.attributeReads++;
+		loading(trace, element);
+	}
+
+	/**
+	 * Accounts for the write of an attribute. This is called by
+	 * {@link Attributes}.
+	 * 
+	 * @param trace
+	 *            the trace of the call, or <code>null</code>.
+	 */
+	static void written(OperationTrace trace) {
+		if (trace != null)
+			trace.attributeWrites++;
+	}
+
+	/**
+	 * Ends a call to an operation. This is called whether the call returns
+	 * normally or throws an exception.
+	 * 
+	 * @param trace
+	 *            the trace returned by
+	 *            {@link #begin(Operation, IRodinElement)}, or
+	 *            <code>null</code>.
+	 */
+	public static void end(OperationTrace trace) {
+		if (trace == null)
+			return;
+		long now = System.nanoTime();
+		long nanos = now - trace.getStartNanos();
+		int elements = trace.elementsCreated + trace.elementsRead;
+		if (metricsEnabled)
+			counters[trace.getOperation().ordinal()].record(trace, nanos);
+		if (trace.event != null)
+			FlightRecorderEvents.commit(trace.event, trace, elements);
+		long threshold = slowThreshold;
+		if (threshold >= 0 && nanos >= threshold) {
+			long writeNanos = trace.writeStartNanos == 0 ? 0 : now
+					- trace.writeStartNanos;
+			SlowOperations.log(trace, nanos, writeNanos, elements);
+		}
+	}
+
+	/**
+	 * Enables or disables the recording of the metrics.
+	 * 
+	 * @param enabled
+	 *            <code>true</code> to record the metrics.
+	 */
+	public static void setMetricsEnabled(boolean enabled) {
+		metricsEnabled = enabled;
+		update();
+	}
+
+	/**
+	 * Returns whether the metrics are recorded.
+	 * 
+	 * @return <code>true</code> if the metrics are recorded,
+	 *         <code>false</code> otherwise.
+	 */
+	public static boolean isMetricsEnabled() {
+		return metricsEnabled;
+	}
+
+	/**
+	 * Returns the metrics of an operation.
+	 * 
+	 * @param operation
+	 *            an operation.
+	 * @return the metrics of the operation.
+	 */
+	public static OperationCounters getCounters(Operation operation) {
+		return counters[operation.ordinal()];
+	}
+
+	/**
+	 * Sets the duration above which the calls are logged.
+	 * 
+	 * @param nanos
+	 *            a duration in nanoseconds, or a negative number to disable
+	 *            the logging.
+	 */
+	public static void setSlowThreshold(long nanos) {
+		slowThreshold = nanos < 0 ? -1 : nanos;
+		update();
+	}
+
+	/**
+	 * Returns the duration above which the calls are logged.
+	 * 
+	 * @return a duration in nanoseconds, or <code>-1</code> if the logging
+	 *         is disabled.
+	 */
+	public static long getSlowThreshold() {
+		return slowThreshold;
+	}
+
+	/**
+	 * Enables or disables the Flight Recorder events. The listener of the
+	 * recorder is registered when the events are first enabled.
+	 * 
+	 * @param enabled
+	 *            <code>true</code> to emit the events while recordings run.
+	 */
+	public static void setFlightRecorderEnabled(boolean enabled) {
+		flightRecorderEnabled = enabled;
+		if (enabled)
+			FlightRecorderEvents.install();
+		update();
+	}
+
+	/**
+	 * Returns whether the Flight Recorder events are enabled.
+	 * 
+	 * @return <code>true</code> if the events are emitted while recordings
+	 *         run, <code>false</code> otherwise.
+	 */
+	public static boolean isFlightRecorderEnabled() {
+		return flightRecorderEnabled;
+	}
+
+	/**
+	 * Sets whether a Flight Recorder recording is running.
+	 * 
+	 * @param running
+	 *            <code>true</code> if a recording is running.
+	 */
+	static void setRecording(boolean running) {
+		recording = running;
+		update();
+	}
+
+	/**
+	 * Utility method to account for the loading of the file of an element, if
+	 * it is not open yet.
+	 */
+	private static void loading(OperationTrace trace, IRodinElement element) {
+		if (element instanceof IInternalElement
+				&& !((IInternalElement) element).getRodinFile().isOpen())
+			trace.filesLoaded++;
+	}
+
+	/**
+	 * Utility method to update the activity flag from the enabled consumers.
+	 */
+	private static synchronized void update() {
+		active = metricsEnabled || (flightRecorderEnabled && recording)
+				|| slowThreshold >= 0;
+	}
+
+}
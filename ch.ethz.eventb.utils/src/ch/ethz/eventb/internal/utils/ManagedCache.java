@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils;
+
+/**
+ * <p>
+ * A cache maintained by the utilities, which can be monitored and cleared
+ * through {@link CacheRegistry}. Implementations must be thread-safe, since
+ * the caches are monitored from other threads, e.g. through JMX.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see CacheRegistry
+ * @since 0.2.5
+ */
+public interface ManagedCache {
+
+	/**
+	 * Returns the name of this cache, unique among the registered caches.
+	 * 
+	 * @return the name of this cache.
+	 */
+	public String getName();
+
+	/**
+	 * Returns the number of entries of this cache.
+	 * 
+	 * @return the number of entries of this cache.
+	 */
+	public int getSize();
+
+	/**
+	 * Returns the number of lookups of this cache which found an entry.
+	 * 
+	 * @return the number of hits of this cache.
+	 */
+	public long getHits();
+
+	/**
+	 * Returns the number of lookups of this cache which found no entry.
+	 * 
+	 * @return the number of misses of this cache.
+	 */
+	public long getMisses();
+
+	/**
+	 * Removes all entries of this cache. The hits and misses are kept.
+	 */
+	public void clear();
+
+}
@@ -97,6 +97,23 @@ public final class Messages extends NLS {
 	public static String progress_SetActionLabel;
 	public static String progress_SetActionAssignmentString;
 
+	public static String progress_BatchOperations;
+	public static String progress_BatchOperationsOf;
+
+	public static String progress_ExportSnapshot;
+	public static String progress_LoadSnapshot;
+	public static String progress_ExportModelIndex;
+	public static String progress_ExportJson;
+	public static String progress_ImportText;
+
+	// Job names
+	public static String job_RefreshEventBViewer;
+	public static String job_BuildEventBSearchIndex;
+	public static String job_CollectEventBElements;
+
+	// Trace strings
+	public static String trace_SlowOperation;
+
 
 	// Error strings
 	public static String error_NullProject;
@@ -118,6 +135,22 @@ public final class Messages extends NLS {
 
 	public static String error_NotAnAxiom;
 
+	public static String error_ExistingComponent;
+	public static String error_NonExistingComponent;
+	public static String error_NotAComponent;
+	public static String error_NotASnapshot;
+	public static String error_UnsupportedSnapshotVersion;
+	public static String error_MalformedSnapshot;
+	public static String error_InvalidSnapshotComponent;
+	public static String error_UnknownSnapshotType;
+	public static String error_NotAModelIndex;
+	public static String error_UnsupportedModelIndexVersion;
+	public static String error_ModelIndexTooLarge;
+	public static String error_TextSyntax;
+	public static String error_UnexpectedEndOfText;
+
+	public static String error_FlightRecorder;
+
 
 
 
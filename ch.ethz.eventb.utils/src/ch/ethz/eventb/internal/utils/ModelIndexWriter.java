@@ -0,0 +1,526 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eventb.core.IAction;
+import org.eventb.core.IAxiom;
+import org.eventb.core.IContextRoot;
+import org.eventb.core.IEvent;
+import org.eventb.core.IGuard;
+import org.eventb.core.IInvariant;
+import org.eventb.core.IMachineRoot;
+import org.eventb.core.IParameter;
+import org.eventb.core.ISCMachineRoot;
+import org.eventb.core.ISCVariable;
+import org.rodinp.core.IRodinProject;
+import org.rodinp.core.RodinDBException;
+
+import ch.ethz.eventb.utils.EventBSCUtils;
+
+/**
+ * <p>
+ * The writer of the indexed model files read by
+ * {@link ch.ethz.eventb.utils.EventBModelIndex}. The whole file is buffered
+ * in the heap, then written at once: writing the index of a project needs as
+ * much memory as the size of the file, which cannot exceed 2 GB since the
+ * offsets are 4-byte integers. All numbers are 4-byte big-endian integers,
+ * except flags and codes which are single bytes, and all strings are
+ * references, i.e. offsets in the file of their length followed by their
+ * UTF-8 encoding. Strings are stored once. The file consists of:
+ * </p>
+ * <ul>
+ * <li>the header: the magic number {@link #MAGIC}, the {@link #VERSION} of
+ * the format, the offset of the directory of the components and the offset
+ * of the table of the predicates,</li>
+ * <li>the strings and the records of the machines and their events,</li>
+ * <li>the directory of the components, i.e. their number followed by
+ * (name, kind, offset of the record) for each component sorted by name,</li>
+ * <li>the table of the predicates, i.e. their number followed by (key,
+ * predicate) for each axiom, invariant and guard, the key being the
+ * component name, the event label for guards, and the label, separated by
+ * <code>/</code>.</li>
+ * </ul>
+ * <p>
+ * The record of an event consists of its label, convergence code and
+ * extended flag, then its parameters (number followed by identifiers),
+ * guards (number followed by (label, predicate, theorem flag)) and actions
+ * (number followed by (label, assignment)) in order. The record of a machine
+ * consists of its events (number followed by (label, offset of the record)
+ * sorted by label), then a flag telling whether the statically checked
+ * machine exists, followed if so by its seen axioms and its invariants
+ * (number followed by (key, predicate, theorem flag) with the keys of
+ * {@link EventBSCUtils}), its seen carrier sets and constants (number
+ * followed by identifiers), and its variables (number followed by
+ * (identifier, type) sorted by identifier). Sorted tables are sorted by the
+ * UTF-8 encodings of their keys, compared as unsigned bytes.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see ch.ethz.eventb.utils.EventBModelIndex
+ * @since 0.2.5
+ */
+public final class ModelIndexWriter {
+
+	/**
+	 * The magic number starting the indexed model files, i.e.
+	 * <code>EVBI</code>.
+	 */
+	public static final int MAGIC = 0x45564249;
+
+	/**
+	 * The version of the format.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * The size of the header.
+	 */
+	public static final int HEADER_SIZE = 16;
+
+	/**
+	 * The kind of the contexts in the directory.
+	 */
+	public static final byte KIND_CONTEXT = 0;
+
+	/**
+	 * The kind of the machines in the directory.
+	 */
+	public static final byte KIND_MACHINE = 1;
+
+	/**
+	 * The order of the UTF-8 encodings of the keys of the sorted tables.
+	 */
+	public static final Comparator<byte[]> KEY_ORDER = new Comparator<byte[]>() {
+
+		@Override
+		public int compare(byte[] b1, byte[] b2) {
+			int length = Math.min(b1.length, b2.length);
+			for (int i = 0; i < length; i++) {
+				int c = (b1[i] & 0xFF) - (b2[i] & 0xFF);
+				if (c != 0)
+					return c;
+			}
+			return b1.length - b2.length;
+		}
+
+	};
+
+	// The content of the file written so far.
+	private ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+	// Map from the strings to their offsets.
+	private final Map<String, Integer> strings = new HashMap<String, Integer>();
+
+	// The predicates, as pairs of references to the key and the predicate.
+	private final List<int[]> predicates = new ArrayList<int[]>();
+
+	/**
+	 * Writes the indexed model file of the machines and contexts of a
+	 * project.
+	 * 
+	 * @param project
+	 *            an existing project.
+	 * @param file
+	 *            the path of the file, which is replaced if it exists.
+	 * @param monitor
+	 *            a progress monitor, or <code>null</code>.
+	 * @throws RodinDBException
+	 *             if a problem occurs while accessing the database.
+	 * @throws IOException
+	 *             if a problem occurs while writing the file.
+	 */
+	public void write(IRodinProject project, Path file,
+			IProgressMonitor monitor) throws RodinDBException, IOException {
+		IContextRoot[] contexts = project
+				.getRootElementsOfType(IContextRoot.ELEMENT_TYPE);
+		IMachineRoot[] machines = project
+				.getRootElementsOfType(IMachineRoot.ELEMENT_TYPE);
+		SubMonitor subMonitor = SubMonitor.convert(monitor, contexts.length
+				+ machines.length);
+		buffer.position(HEADER_SIZE);
+		List<DirectoryEntry> directory = new ArrayList<DirectoryEntry>();
+		for (IContextRoot ctx : contexts) {
+			subMonitor.subTask(ctx.getComponentName());
+			String name = ctx.getComponentName();
+			for (IAxiom axm : ctx.getAxioms()) {
+				addPredicate(name + "/" + axm.getLabel(), //$NON-NLS-1$
+						axm.getPredicateString());
+			}
+			directory.add(new DirectoryEntry(name, KIND_CONTEXT, 0));
+			subMonitor.worked(1);
+		}
+		for (IMachineRoot mch : machines) {
+			subMonitor.subTask(mch.getComponentName());
+			directory.add(new DirectoryEntry(mch.getComponentName(),
+					KIND_MACHINE, writeMachine(mch)));
+			subMonitor.worked(1);
+		}
+
+		// The directory.
+		Collections.sort(directory);
+		for (DirectoryEntry entry : directory) {
+			entry.nameRef = addString(entry.name);
+		}
+		int directoryOffset = buffer.position();
+		putInt(directory.size());
+		for (DirectoryEntry entry : directory) {
+			putInt(entry.nameRef);
+			putByte(entry.kind);
+			putInt(entry.offset);
+		}
+
+		// The predicates.
+		int predicatesOffset = buffer.position();
+		putInt(predicates.size());
+		for (int[] predicate : predicates) {
+			putInt(predicate[0]);
+			putInt(predicate[1]);
+		}
+
+		// The header.
+		buffer.putInt(0, MAGIC);
+		buffer.putInt(4, VERSION);
+		buffer.putInt(8, directoryOffset);
+		buffer.putInt(12, predicatesOffset);
+
+		buffer.flip();
+		FileChannel channel = FileChannel.open(file,
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Utility method to write the record of a machine and of its events.
+	 * 
+	 * @return the offset of the record of the machine.
+	 */
+	private int writeMachine(IMachineRoot mch) throws RodinDBException,
+			IOException {
+		String name = mch.getComponentName();
+		for (IInvariant inv : mch.getInvariants()) {
+			addPredicate(name + "/" + inv.getLabel(), //$NON-NLS-1$
+					inv.getPredicateString());
+		}
+
+		// The events, sorted by label.
+		List<SortedEntry> events = new ArrayList<SortedEntry>();
+		for (IEvent evt : mch.getEvents()) {
+			events.add(new SortedEntry(addString(evt.getLabel()),
+					writeEvent(name, evt), evt.getLabel()));
+		}
+		Collections.sort(events);
+
+		// The statically checked machine.
+		ISCMachineRoot scMch = mch.getSCMachineRoot();
+		boolean checked = scMch.exists();
+		List<int[]> seenAxioms = new ArrayList<int[]>();
+		List<int[]> invariants = new ArrayList<int[]>();
+		List<Integer> carrierSets = new ArrayList<Integer>();
+		List<Integer> constants = new ArrayList<Integer>();
+		List<SortedEntry> variables = new ArrayList<SortedEntry>();
+		if (checked) {
+			addPredicates(seenAxioms, EventBSCUtils.getSCSeenAxioms(mch,
+					false), false);
+			addPredicates(seenAxioms, EventBSCUtils.getSCSeenAxioms(mch,
+					true), true);
+			addPredicates(invariants, EventBSCUtils.getSCInvariants(mch,
+					false), false);
+			addPredicates(invariants, EventBSCUtils.getSCInvariants(mch,
+					true), true);
+			addStrings(carrierSets, EventBSCUtils
+					.getSCSeenCarrierSetIdentifierStrings(mch));
+			addStrings(constants, EventBSCUtils
+					.getSCSeenConstantIdentifierStrings(mch));
+			for (ISCVariable var : scMch.getSCVariables()) {
+				String identifier = var.getIdentifierString();
+				String type = var.getType(scMch.getFormulaFactory())
+						.toString();
+				variables.add(new SortedEntry(addString(identifier),
+						addString(type), identifier));
+			}
+			Collections.sort(variables);
+		}
+
+		int offset = buffer.position();
+		putInt(events.size());
+		for (SortedEntry entry : events) {
+			putInt(entry.keyRef);
+			putInt(entry.value);
+		}
+		putByte(checked ? 1 : 0);
+		if (checked) {
+			putTriples(seenAxioms);
+			putTriples(invariants);
+			putInts(carrierSets);
+			putInts(constants);
+			putInt(variables.size());
+			for (SortedEntry entry : variables) {
+				putInt(entry.keyRef);
+				putInt(entry.value);
+			}
+		}
+		return offset;
+	}
+
+	/**
+	 * Utility method to write the record of an event.
+	 * 
+	 * @return the offset of the record of the event.
+	 */
+	private int writeEvent(String machine, IEvent evt)
+			throws RodinDBException, IOException {
+		String label = evt.getLabel();
+		int labelRef = addString(label);
+		IParameter[] parameters = evt.getParameters();
+		int[] parameterRefs = new int[parameters.length];
+		for (int i = 0; i < parameters.length; i++) {
+			parameterRefs[i] = addString(parameters[i].getIdentifierString());
+		}
+		IGuard[] guards = evt.getGuards();
+		int[] guardRefs = new int[2 * guards.length];
+		for (int i = 0; i < guards.length; i++) {
+			String predicate = guards[i].getPredicateString();
+			guardRefs[2 * i] = addString(guards[i].getLabel());
+			guardRefs[2 * i + 1] = addString(predicate);
+			addPredicate(machine + "/" + label + "/" //$NON-NLS-1$ //$NON-NLS-2$
+					+ guards[i].getLabel(), predicate);
+		}
+		IAction[] actions = evt.getActions();
+		int[] actionRefs = new int[2 * actions.length];
+		for (int i = 0; i < actions.length; i++) {
+			actionRefs[2 * i] = addString(actions[i].getLabel());
+			actionRefs[2 * i + 1] = addString(actions[i]
+					.getAssignmentString());
+		}
+
+		int offset = buffer.position();
+		putInt(labelRef);
+		putByte(evt.getConvergence().getCode());
+		putByte(evt.isExtended() ? 1 : 0);
+		putInt(parameters.length);
+		for (int ref : parameterRefs) {
+			putInt(ref);
+		}
+		putInt(guards.length);
+		for (int i = 0; i < guards.length; i++) {
+			putInt(guardRefs[2 * i]);
+			putInt(guardRefs[2 * i + 1]);
+			putByte(guards[i].isTheorem() ? 1 : 0);
+		}
+		putInt(actions.length);
+		for (int ref : actionRefs) {
+			putInt(ref);
+		}
+		return offset;
+	}
+
+	/**
+	 * Utility method to add some labelled predicates to a list of triples
+	 * (key, predicate, theorem flag).
+	 */
+	private void addPredicates(List<int[]> triples,
+			Map<String, String> predicates, boolean isTheorem)
+			throws IOException {
+		for (Map.Entry<String, String> entry : predicates.entrySet()) {
+			triples.add(new int[] { addString(entry.getKey()),
+					addString(entry.getValue()), isTheorem ? 1 : 0 });
+		}
+	}
+
+	/**
+	 * Utility method to add some strings to a list of references.
+	 */
+	private void addStrings(List<Integer> refs, Collection<String> values)
+			throws IOException {
+		for (String value : values) {
+			refs.add(addString(value));
+		}
+	}
+
+	/**
+	 * Utility method to add a predicate to the table of the predicates.
+	 */
+	private void addPredicate(String key, String predicate)
+			throws IOException {
+		predicates.add(new int[] { addString(key), addString(predicate) });
+	}
+
+	/**
+	 * Utility method to add a string, unless it is already stored.
+	 * 
+	 * @return the offset of the string.
+	 */
+	private int addString(String value) throws IOException {
+		Integer offset = strings.get(value);
+		if (offset != null)
+			return offset;
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		ensureCapacity(4 + bytes.length);
+		int result = buffer.position();
+		buffer.putInt(bytes.length);
+		buffer.put(bytes);
+		strings.put(value, result);
+		return result;
+	}
+
+	/**
+	 * Utility method to write a list of triples (key, predicate, theorem
+	 * flag).
+	 */
+	private void putTriples(List<int[]> triples) throws IOException {
+		putInt(triples.size());
+		for (int[] triple : triples) {
+			putInt(triple[0]);
+			putInt(triple[1]);
+			putByte(triple[2]);
+		}
+	}
+
+	/**
+	 * Utility method to write a list of integers preceded by its size.
+	 */
+	private void putInts(List<Integer> values) throws IOException {
+		putInt(values.size());
+		for (int value : values) {
+			putInt(value);
+		}
+	}
+
+	/**
+	 * Utility method to write an integer.
+	 */
+	private void putInt(int value) throws IOException {
+		ensureCapacity(4);
+		buffer.putInt(value);
+	}
+
+	/**
+	 * Utility method to write a byte.
+	 */
+	private void putByte(int value) throws IOException {
+		ensureCapacity(1);
+		buffer.put((byte) value);
+	}
+
+	/**
+	 * Utility method to grow the buffer if needed, doubling its capacity up
+	 * to the maximum size of the file.
+	 * 
+	 * @throws IOException
+	 *             if the file would exceed its maximum size.
+	 */
+	private void ensureCapacity(int length) throws IOException {
+		if (buffer.remaining() >= length)
+			return;
+		long required = (long) buffer.position() + length;
+		if (required > Integer.MAX_VALUE)
+			throw new IOException(Messages.error_ModelIndexTooLarge);
+		long capacity = buffer.capacity();
+		while (capacity < required) {
+			capacity *= 2;
+		}
+		ByteBuffer grown = ByteBuffer.allocate((int) Math.min(capacity,
+				Integer.MAX_VALUE));
+		buffer.flip();
+		grown.put(buffer);
+		buffer = grown;
+	}
+
+	/**
+	 * An entry of a table sorted by the UTF-8 encodings of the keys.
+	 */
+	private static class SortedEntry implements Comparable<SortedEntry> {
+
+		// The reference to the key.
+		final int keyRef;
+
+		// The value, i.e. an offset or a reference.
+		final int value;
+
+		// The UTF-8 encoding of the key.
+		private final byte[] key;
+
+		SortedEntry(int keyRef, int value, String key) {
+			this.keyRef = keyRef;
+			this.value = value;
+			this.key = key.getBytes(StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public int compareTo(SortedEntry other) {
+			return KEY_ORDER.compare(key, other.key);
+		}
+
+	}
+
+	/**
+	 * An entry of the directory of the components.
+	 */
+	private static class DirectoryEntry implements Comparable<DirectoryEntry> {
+
+		// The name of the component.
+		final String name;
+
+		// The kind of the component.
+		final byte kind;
+
+		// The offset of the record of the component.
+		final int offset;
+
+		// The reference to the name of the component.
+		int nameRef;
+
+		// The UTF-8 encoding of the name.
+		private final byte[] key;
+
+		DirectoryEntry(String name, byte kind, int offset) {
+			this.name = name;
+			this.kind = kind;
+			this.offset = offset;
+			this.key = name.getBytes(StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public int compareTo(DirectoryEntry other) {
+			return KEY_ORDER.compare(key, other.key);
+		}
+
+	}
+
+}
@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+import org.rodinp.core.IAttributeType;
+import org.rodinp.core.IInternalElement;
+import org.rodinp.core.IRodinElement;
+import org.rodinp.core.IRodinFile;
+import org.rodinp.core.RodinDBException;
+
+/**
+ * <p>
+ * A streaming writer of Event-B components as newline-delimited JSON, i.e.
+ * one JSON object per line and per element, in document order:
+ * </p>
+ * 
+ * <pre>
+ * {"file":"m0.bum","parent":["m0","_evt1"],"name":"_grd1",
+ *  "type":"org.eventb.core.guard","attributes":{"org.eventb.core.label":"grd1",...}}
+ * </pre>
+ * <p>
+ * The parent path is the list of the names of the ancestors of the element,
+ * starting with the root of the component, and is empty for the roots.
+ * Boolean, integer and long attributes are written as JSON literals, string
+ * attributes as JSON strings and handle attributes as the JSON strings of
+ * their handle identifiers. The output is encoded in UTF-8.
+ * </p>
+ * <p>
+ * Each element is written as soon as it is visited, and the components
+ * which were not open before being written are closed afterwards, so that
+ * the memory used does not depend on the number of components.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see ch.ethz.eventb.utils.EventBJsonExport
+ * @since 0.2.5
+ */
+public final class NdjsonWriter {
+
+	// The output.
+	private final Writer out;
+
+	// The names of the ancestors of the element being written.
+	private final List<String> path = new ArrayList<String>();
+
+	// The number of elements written.
+	private int elements;
+
+	/**
+	 * Constructor: Create a writer.
+	 * 
+	 * @param out
+	 *            the output stream, which is flushed but not closed by the
+	 *            writer.
+	 */
+	public NdjsonWriter(OutputStream out) {
+		this.out = new BufferedWriter(new OutputStreamWriter(out,
+				StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Writes the elements of some components.
+	 * 
+	 * @param files
+	 *            the files of the components.
+	 * @param monitor
+	 *            a progress monitor, or <code>null</code>.
+	 * @throws RodinDBException
+	 *             if a problem occurs while accessing the database.
+	 * @throws IOException
+	 *             if a problem occurs while writing the output.
+	 */
+	public void write(IRodinFile[] files, IProgressMonitor monitor)
+			throws RodinDBException, IOException {
+		SubMonitor subMonitor = SubMonitor.convert(monitor, files.length);
+		for (IRodinFile file : files) {
+			subMonitor.subTask(file.getElementName());
+			boolean open = file.isOpen();
+			try {
+				writeElement(file.getElementName(), file.getRoot());
+			} finally {
+				if (!open && file.isOpen() && !file.hasUnsavedChanges())
+					file.close();
+			}
+			subMonitor.worked(1);
+		}
+		out.flush();
+	}
+
+	/**
+	 * Returns the number of elements written so far.
+	 * 
+	 * @return the number of elements written.
+	 */
+	public int getElements() {
+		return elements;
+	}
+
+	/**
+	 * Utility method to write an element and its descendants.
+	 */
+	private void writeElement(String fileName, IInternalElement element)
+			throws RodinDBException, IOException {
+		elements++;
+		out.write("{\"file\":"); //$NON-NLS-1$
+		writeString(fileName);
+		out.write(",\"parent\":["); //$NON-NLS-1$
+		for (int i = 0; i < path.size(); i++) {
+			if (i != 0)
+				out.write(',');
+			writeString(path.get(i));
+		}
+		out.write("],\"name\":"); //$NON-NLS-1$
+		writeString(element.getElementName());
+		out.write(",\"type\":"); //$NON-NLS-1$
+		writeString(element.getElementType().getId());
+		out.write(",\"attributes\":{"); //$NON-NLS-1$
+		IAttributeType[] types = element.getAttributeTypes();
+		for (int i = 0; i < types.length; i++) {
+			if (i != 0)
+				out.write(',');
+			writeString(types[i].getId());
+			out.write(':');
+			writeValue(element, types[i]);
+		}
+		out.write("}}\n"); //$NON-NLS-1$
+
+		IRodinElement[] children = element.getChildren();
+		if (children.length == 0)
+			return;
+		path.add(element.getElementName());
+		for (IRodinElement child : children) {
+			writeElement(fileName, (IInternalElement) child);
+		}
+		path.remove(path.size() - 1);
+	}
+
+	/**
+	 * Utility method to write the value of an attribute.
+	 */
+	private void writeValue(IInternalElement element, IAttributeType type)
+			throws RodinDBException, IOException {
+		if (type instanceof IAttributeType.Boolean) {
+			out.write(String.valueOf(element
+					.getAttributeValue((IAttributeType.Boolean) type)));
+		} else if (type instanceof IAttributeType.Handle) {
+			writeString(element.getAttributeValue((IAttributeType.Handle) type)
+					.getHandleIdentifier());
+		} else if (type instanceof IAttributeType.Integer) {
+			out.write(String.valueOf(element
+					.getAttributeValue((IAttributeType.Integer) type)));
+		} else if (type instanceof IAttributeType.Long) {
+			out.write(String.valueOf(element
+					.getAttributeValue((IAttributeType.Long) type)));
+		} else {
+			writeString(element.getAttributeValue((IAttributeType.String) type));
+		}
+	}
+
+	/**
+	 * Utility method to write a JSON string.
+	 */
+	private void writeString(String value) throws IOException {
+		out.write('"');
+		int start = 0;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c != '"' && c != '\\' && c >= 0x20)
+				continue;
+			out.write(value, start, i - start);
+			switch (c) {
+			case '"':
+				out.write("\\\""); //$NON-NLS-1$
+				break;
+			case '\\':
+				out.write("\\\\"); //$NON-NLS-1$
+				break;
+			case '\n':
+				out.write("\\n"); //$NON-NLS-1$
+				break;
+			case '\r':
+				out.write("\\r"); //$NON-NLS-1$
+				break;
+			case '\t':
+				out.write("\\t"); //$NON-NLS-1$
+				break;
+			default:
+				out.write(String.format("\\u%04x", (int) c)); //$NON-NLS-1$
+			}
+			start = i + 1;
+		}
+		out.write(value, start, value.length() - start);
+		out.write('"');
+	}
+
+}
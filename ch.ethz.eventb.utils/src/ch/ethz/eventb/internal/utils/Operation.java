@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils;
+
+/**
+ * <p>
+ * The instrumented operations of {@link ch.ethz.eventb.utils.EventBUtils} and
+ * {@link ch.ethz.eventb.utils.EventBSCUtils}. Each constant corresponds to a
+ * public method, overloaded methods sharing the same constant.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see Instrumentation
+ * @since 0.2.5
+ */
+public enum Operation {
+
+	// EventBUtils
+	CREATE_EVENTB_PROJECT("createEventBProject"), //$NON-NLS-1$
+	CREATE_CONTEXT("createContext"), //$NON-NLS-1$
+	CREATE_MACHINE("createMachine"), //$NON-NLS-1$
+	CREATE_EXTENDS_CONTEXT_CLAUSE("createExtendsContextClause"), //$NON-NLS-1$
+	CREATE_CARRIER_SET("createCarrierSet"), //$NON-NLS-1$
+	CREATE_CONSTANT("createConstant"), //$NON-NLS-1$
+	CREATE_AXIOM("createAxiom"), //$NON-NLS-1$
+	CREATE_REFINES_MACHINE_CLAUSE("createRefinesMachineClause"), //$NON-NLS-1$
+	CREATE_SEES_CONTEXT_CLAUSE("createSeesContextClause"), //$NON-NLS-1$
+	CREATE_VARIABLE("createVariable"), //$NON-NLS-1$
+	CREATE_INVARIANT("createInvariant"), //$NON-NLS-1$
+	CREATE_EVENT("createEvent"), //$NON-NLS-1$
+	CREATE_REFINES_EVENT_CLAUSE("createRefinesEventClause"), //$NON-NLS-1$
+	CREATE_PARAMETER("createParameter"), //$NON-NLS-1$
+	CREATE_GUARD("createGuard"), //$NON-NLS-1$
+	CREATE_WITNESS("createWitness"), //$NON-NLS-1$
+	CREATE_ACTION("createAction"), //$NON-NLS-1$
+	GET_EVENT("getEvent"), //$NON-NLS-1$
+
+	// EventBSCUtils
+	GET_SC_SEEN_AXIOMS("getSCSeenAxioms"), //$NON-NLS-1$
+	GET_SC_INVARIANTS("getSCInvariants"), //$NON-NLS-1$
+	GET_SC_SEEN_CARRIER_SET_IDENTIFIER_STRINGS(
+			"getSCSeenCarrierSetIdentifierStrings"), //$NON-NLS-1$
+	GET_SC_SEEN_CONSTANT_IDENTIFIER_STRINGS(
+			"getSCSeenConstantIdentifierStrings"), //$NON-NLS-1$
+	GET_VARIABLE_TYPE("getVariableType"); //$NON-NLS-1$
+
+	// The name of the operation, i.e. the name of the method.
+	private final String name;
+
+	private Operation(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Returns the name of the operation, i.e. the name of the corresponding
+	 * method.
+	 * 
+	 * @return the name of the operation.
+	 */
+	public String getName() {
+		return name;
+	}
+
+}
@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * The metrics recorded for an operation: the number of calls, the latencies
+ * (total, maximum and histogram), the number of elements created and read,
+ * and the accesses to the Rodin database (see {@link OperationTrace}).
+ * All counters can be updated concurrently without locking.
+ * </p>
+ * <p>
+ * The latency histogram has {@link #BUCKETS} buckets with exponential bounds:
+ * bucket <code>0</code> counts latencies below 1&#181;s and bucket
+ * <code>i &gt; 0</code> counts latencies in
+ * [2<sup>i-1</sup>&#181;s, 2<sup>i</sup>&#181;s), the last bucket counting
+ * all greater latencies.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see Instrumentation
+ * @since 0.2.5
+ */
+public final class OperationCounters {
+
+	/**
+	 * The number of buckets of the latency histograms.
+	 */
+	public static final int BUCKETS = 28;
+
+	// The number of calls.
+	private final LongAdder count = new LongAdder();
+
+	// The total latency in nanoseconds.
+	private final LongAdder totalNanos = new LongAdder();
+
+	// The maximum latency in nanoseconds.
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	// The number of elements created.
+	private final LongAdder created = new LongAdder();
+
+	// The number of elements read.
+	private final LongAdder read = new LongAdder();
+
+	// The number of accesses to the information of elements.
+	private final LongAdder opened = new LongAdder();
+
+	// The number of attribute reads.
+	private final LongAdder attributeReads = new LongAdder();
+
+	// The number of attribute writes.
+	private final LongAdder attributeWrites = new LongAdder();
+
+	// The number of files loaded.
+	private final LongAdder filesLoaded = new LongAdder();
+
+	// The latency histogram.
+	private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+	/**
+	 * Constructor: Create empty counters.
+	 */
+	public OperationCounters() {
+		for (int i = 0; i < BUCKETS; i++) {
+			histogram[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Records a call.
+	 * 
+	 * @param trace
+	 *            the trace of the call, giving its database accesses.
+	 * @param nanos
+	 *            the latency of the call in nanoseconds.
+	 */
+	public void record(OperationTrace trace, long nanos) {
+		count.increment();
+		totalNanos.add(nanos);
+		created.add(trace.getElementsCreated());
+		read.add(trace.getElementsRead());
+		opened.add(trace.getElementsOpened());
+		attributeReads.add(trace.getAttributeReads());
+		attributeWrites.add(trace.getAttributeWrites());
+		filesLoaded.add(trace.getFilesLoaded());
+		histogram[getBucket(nanos)].increment();
+		long max = maxNanos.get();
+		while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+			max = maxNanos.get();
+		}
+	}
+
+	/**
+	 * Resets all counters. Calls recorded concurrently may be partially lost.
+	 */
+	public void reset() {
+		count.reset();
+		totalNanos.reset();
+		maxNanos.set(0);
+		created.reset();
+		read.reset();
+		opened.reset();
+		attributeReads.reset();
+		attributeWrites.reset();
+		filesLoaded.reset();
+		for (LongAdder bucket : histogram) {
+			bucket.reset();
+		}
+	}
+
+	/**
+	 * Returns the number of calls.
+	 * 
+	 * @return the number of calls.
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * Returns the total latency of the calls.
+	 * 
+	 * @return the total latency in nanoseconds.
+	 */
+	public long getTotalNanos() {
+		return totalNanos.sum();
+	}
+
+	/**
+	 * Returns the maximum latency of the calls.
+	 * 
+	 * @return the maximum latency in nanoseconds.
+	 */
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	/**
+	 * Returns the number of elements created by the calls.
+	 * 
+	 * @return the number of elements created.
+	 */
+	public long getElementsCreated() {
+		return created.sum();
+	}
+
+	/**
+	 * Returns the number of elements read by the calls.
+	 * 
+	 * @return the number of elements read.
+	 */
+	public long getElementsRead() {
+		return read.sum();
+	}
+
+	/**
+	 * Returns the number of accesses to the information of elements by the
+	 * calls.
+	 * 
+	 * @return the number of elements opened.
+	 */
+	public long getElementsOpened() {
+		return opened.sum();
+	}
+
+	/**
+	 * Returns the number of attribute reads by the calls.
+	 * 
+	 * @return the number of attribute reads.
+	 */
+	public long getAttributeReads() {
+		return attributeReads.sum();
+	}
+
+	/**
+	 * Returns the number of attribute writes by the calls.
+	 * 
+	 * @return the number of attribute writes.
+	 */
+	public long getAttributeWrites() {
+		return attributeWrites.sum();
+	}
+
+	/**
+	 * Returns the number of files loaded by the calls.
+	 * 
+	 * @return the number of files loaded.
+	 */
+	public long getFilesLoaded() {
+		return filesLoaded.sum();
+	}
+
+	/**
+	 * Returns a copy of the latency histogram.
+	 * 
+	 * @return the number of calls in each bucket.
+	 */
+	public long[] getHistogram() {
+		long[] result = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			result[i] = histogram[i].sum();
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the bucket of the histogram of a latency.
+	 * 
+	 * @param nanos
+	 *            a latency in nanoseconds.
+	 * @return the index of the bucket.
+	 */
+	public static int getBucket(long nanos) {
+		long micros = nanos / 1000;
+		int bucket = 64 - Long.numberOfLeadingZeros(micros);
+		return Math.min(bucket, BUCKETS - 1);
+	}
+
+	/**
+	 * Returns the (exclusive) upper bound of a bucket of the histogram.
+	 * 
+	 * @param bucket
+	 *            the index of a bucket.
+	 * @return the upper bound of the bucket in nanoseconds, or
+	 *         {@link Long#MAX_VALUE} for the last bucket.
+	 */
+	public static long getUpperBound(int bucket) {
+		if (bucket >= BUCKETS - 1)
+			return Long.MAX_VALUE;
+		return (1L << bucket) * 1000;
+	}
+
+}
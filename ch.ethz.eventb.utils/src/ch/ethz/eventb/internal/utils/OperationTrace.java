@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils;
+
+import org.rodinp.core.IInternalElement;
+import org.rodinp.core.IRodinElement;
+
+/**
+ * <p>
+ * The trace of a call to an instrumented operation, created by
+ * {@link Instrumentation#begin(Operation, IRodinElement)} when the
+ * instrumentation is active, and ended by
+ * {@link Instrumentation#end(OperationTrace)} when the call completes,
+ * normally or not. The trace accumulates the database accesses of the call,
+ * which are accounted for by {@link Instrumentation} and {@link Attributes}.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see Instrumentation
+ * @since 0.2.5
+ */
+public final class OperationTrace {
+
+	// The traced operation.
+	private final Operation operation;
+
+	// The element on which the operation is called, or null.
+	private final IRodinElement element;
+
+	// The start time in nanoseconds.
+	private final long startNanos;
+
+	// The Flight Recorder event of the call, or null.
+	Object event;
+
+	// The time at which the call started writing the database, or 0.
+	long writeStartNanos;
+
+	// The number of elements created.
+	int elementsCreated;
+
+	// The number of elements read.
+	int elementsRead;
+
+	// The number of elements whose information is accessed.
+	int elementsOpened;
+
+	// The number of attribute reads.
+	int attributeReads;
+
+	// The number of attribute writes.
+	int attributeWrites;
+
+	// The number of files loaded.
+	int filesLoaded;
+
+	/**
+	 * Constructor: Create the trace of a call starting now.
+	 * 
+	 * @param operation
+	 *            the called operation.
+	 * @param element
+	 *            the element on which the operation is called, or
+	 *            <code>null</code>.
+	 */
+	OperationTrace(Operation operation, IRodinElement element) {
+		this.operation = operation;
+		this.element = element;
+		this.startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Returns the traced operation.
+	 * 
+	 * @return the traced operation.
+	 */
+	public Operation getOperation() {
+		return operation;
+	}
+
+	/**
+	 * Returns the element on which the operation is called, e.g. the root of
+	 * the component in which an element is created.
+	 * 
+	 * @return the element, or <code>null</code> if there is none.
+	 */
+	public IRodinElement getElement() {
+		return element;
+	}
+
+	/**
+	 * Returns the start time of the call.
+	 * 
+	 * @return the start time, as given by {@link System#nanoTime()}.
+	 */
+	public long getStartNanos() {
+		return startNanos;
+	}
+
+	/**
+	 * Returns the number of elements whose information, i.e. existence and
+	 * children, is accessed by the call. Each element is accounted for once.
+	 * 
+	 * @return the number of elements opened.
+	 */
+	public int getElementsOpened() {
+		return elementsOpened;
+	}
+
+	/**
+	 * Returns the number of attribute reads made by the call.
+	 * 
+	 * @return the number of attribute reads.
+	 */
+	public int getAttributeReads() {
+		return attributeReads;
+	}
+
+	/**
+	 * Returns the number of elements created by the call.
+	 * 
+	 * @return the number of elements created.
+	 */
+	public int getElementsCreated() {
+		return elementsCreated;
+	}
+
+	/**
+	 * Returns the number of elements read by the call.
+	 * 
+	 * @return the number of elements read.
+	 */
+	public int getElementsRead() {
+		return elementsRead;
+	}
+
+	/**
+	 * Returns the number of attribute writes made by the call.
+	 * 
+	 * @return the number of attribute writes.
+	 */
+	public int getAttributeWrites() {
+		return attributeWrites;
+	}
+
+	/**
+	 * Returns the number of files loaded by the call, i.e. the files which
+	 * were not open when the call accessed them.
+	 * 
+	 * @return the number of files loaded.
+	 */
+	public int getFilesLoaded() {
+		return filesLoaded;
+	}
+
+	/**
+	 * Returns the name of the component containing the element on which the
+	 * operation is called, or the name of the element if it is not within a
+	 * component (e.g. a project).
+	 * 
+	 * @return the name of the component, or <code>null</code> if there is no
+	 *         element.
+	 */
+	public String getComponentName() {
+		if (element == null)
+			return null;
+		if (element instanceof IInternalElement)
+			return ((IInternalElement) element).getRodinFile().getBareName();
+		return element.getElementName();
+	}
+
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+
+package ch.ethz.eventb.internal.utils;
+
+import java.util.Locale;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.osgi.framework.Bundle;
+import org.rodinp.core.IInternalElement;
+import org.rodinp.core.IRodinElement;
+
+/**
+ * <p>
+ * The log of the slow operations, i.e. the calls to instrumented operations
+ * lasting longer than a threshold (see
+ * {@link Instrumentation#setSlowThreshold(long)}). Each slow call is logged
+ * as a warning in the platform log, with the operation, the component and
+ * the element on which it is called, the time spent reading and writing the
+ * database, and the accesses to the database.
+ * </p>
+ * <p>
+ * The threshold can also be given in milliseconds by the system property
+ * {@value #THRESHOLD_PROPERTY}, e.g. for batch runs.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see Instrumentation
+ * @since 0.2.5
+ */
+final class SlowOperations {
+
+	/**
+	 * The system property giving the default threshold in milliseconds.
+	 */
+	static final String THRESHOLD_PROPERTY = "ch.ethz.eventb.utils.slowOperationThreshold"; //$NON-NLS-1$
+
+	// The identifier of the plug-in logging the slow operations.
+	private static final String PLUGIN_ID = "ch.ethz.eventb.utils"; //$NON-NLS-1$
+
+	// The string used when there is no component or element.
+	private static final String NONE = "-"; //$NON-NLS-1$
+
+	private SlowOperations() {
+		// Utility classes shall not have a public or default constructor.
+	}
+
+	/**
+	 * Returns the threshold given by the system property
+	 * {@value #THRESHOLD_PROPERTY}.
+	 * 
+	 * @return the threshold in nanoseconds, or <code>-1</code> if the
+	 *         property is not set or invalid.
+	 */
+	static long getDefaultThreshold() {
+		String value = System.getProperty(THRESHOLD_PROPERTY);
+		if (value == null)
+			return -1;
+		try {
+			return (long) (Double.parseDouble(value.trim()) * 1000000);
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Logs a slow call.
+	 * 
+	 * @param trace
+	 *            the trace of the call.
+	 * @param nanos
+	 *            the duration of the call in nanoseconds.
+	 * @param writeNanos
+	 *            the time spent writing the database in nanoseconds.
+	 * @param elements
+	 *            the number of elements created or read by the call.
+	 */
+	static void log(OperationTrace trace, long nanos, long writeNanos,
+			int elements) {
+		String component = trace.getComponentName();
+		String message = Messages.bind(Messages.trace_SlowOperation,
+				new Object[] { trace.getOperation().getName(),
+						component == null ? NONE : component,
+						getElementName(trace.getElement()), toMillis(nanos),
+						toMillis(nanos - writeNanos), toMillis(writeNanos),
+						elements, trace.getElementsOpened(),
+						trace.getAttributeReads(), trace.getAttributeWrites(),
+						trace.getFilesLoaded() });
+		IStatus status = new Status(IStatus.WARNING, PLUGIN_ID, message);
+		Bundle bundle = Platform.isRunning() ? Platform.getBundle(PLUGIN_ID)
+				: null;
+		if (bundle != null)
+			Platform.getLog(bundle).log(status);
+		else
+			System.err.println(message);
+	}
+
+	/**
+	 * Utility method to get the name of the element on which an operation
+	 * is called, if it is not a root.
+	 */
+	private static String getElementName(IRodinElement element) {
+		if (element instanceof IInternalElement
+				&& !((IInternalElement) element).isRoot())
+			return element.getElementName();
+		return NONE;
+	}
+
+	/**
+	 * Utility method to format a duration in milliseconds.
+	 */
+	private static String toMillis(long nanos) {
+		return String.format(Locale.ROOT, "%.3f", nanos / 1000000.0); //$NON-NLS-1$
+	}
+
+}
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils;
+
+/**
+ * <p>
+ * The constants of the binary snapshot format of Event-B projects, written
+ * by {@link SnapshotWriter} and read by {@link SnapshotReader}. All numbers
+ * are unsigned variable-length integers (7 bits per byte, least significant
+ * group first) unless stated otherwise, and strings are written as their
+ * length in bytes followed by their UTF-8 encoding. A snapshot consists of:
+ * </p>
+ * <ul>
+ * <li>the magic number {@link #MAGIC} (4 bytes) and the {@link #VERSION} of
+ * the format,</li>
+ * <li>the handle identifier of the exported project, used to relocate the
+ * handle attributes referring to elements of the project,</li>
+ * <li>the number of components, followed by each component as its file name,
+ * the type of its root element and the contents of its root element.</li>
+ * </ul>
+ * <p>
+ * The contents of an element are its number of attributes, followed by each
+ * attribute as its type and value, then its number of children, followed by
+ * each child in order as its type, its name and its contents. Element and
+ * attribute types are written as indices in dictionaries built while
+ * writing: an index equal to the size of the dictionary introduces a new
+ * type, followed by its identifier (and its kind for attribute types).
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see ch.ethz.eventb.utils.EventBSnapshot
+ * @since 0.2.5
+ */
+final class SnapshotFormat {
+
+	/**
+	 * The magic number starting the snapshots, i.e. <code>EVBS</code>.
+	 */
+	static final int MAGIC = 0x45564253;
+
+	/**
+	 * The version of the format.
+	 */
+	static final int VERSION = 1;
+
+	/**
+	 * The kind of the boolean attributes, written as one byte.
+	 */
+	static final int KIND_BOOLEAN = 0;
+
+	/**
+	 * The kind of the handle attributes, written as a flag byte telling
+	 * whether the handle is relative to the exported project, followed by
+	 * the (relative) handle identifier.
+	 */
+	static final int KIND_HANDLE = 1;
+
+	/**
+	 * The kind of the integer attributes, written as zig-zag encoded
+	 * variable-length integers.
+	 */
+	static final int KIND_INTEGER = 2;
+
+	/**
+	 * The kind of the long attributes, written as zig-zag encoded
+	 * variable-length integers.
+	 */
+	static final int KIND_LONG = 3;
+
+	/**
+	 * The kind of the string attributes.
+	 */
+	static final int KIND_STRING = 4;
+
+	private SnapshotFormat() {
+		// Utility classes shall not have a public or default constructor.
+	}
+
+}
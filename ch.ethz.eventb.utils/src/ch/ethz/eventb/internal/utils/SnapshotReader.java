@@ -0,0 +1,370 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+import org.rodinp.core.IAttributeType;
+import org.rodinp.core.IInternalElement;
+import org.rodinp.core.IInternalElementType;
+import org.rodinp.core.IRodinElement;
+import org.rodinp.core.IRodinFile;
+import org.rodinp.core.IRodinProject;
+import org.rodinp.core.RodinCore;
+import org.rodinp.core.RodinDBException;
+
+/**
+ * <p>
+ * A streaming reader of the binary snapshots of Event-B projects (see
+ * {@link SnapshotFormat}), recreating the components in a project as they
+ * are read. The elements are created in order, so that each one is appended
+ * to its parent without looking up a sibling, and each component is saved
+ * once when it is complete.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see SnapshotWriter
+ * @since 0.2.5
+ */
+public final class SnapshotReader {
+
+	// The size of the input buffer.
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	// The input stream.
+	private final InputStream in;
+
+	// The project in which the components are created.
+	private final IRodinProject project;
+
+	// The handle identifier of the project, followed by a slash.
+	private final String projectPrefix;
+
+	// Dictionary of the element types, indexed by their indices.
+	private final List<IInternalElementType<?>> elementTypes = new ArrayList<IInternalElementType<?>>();
+
+	// Dictionary of the attribute types, indexed by their indices.
+	private final List<IAttributeType> attributeTypes = new ArrayList<IAttributeType>();
+
+	// Dictionary of the kinds of the attribute types, indexed by the indices
+	// of the attribute types.
+	private final List<Integer> attributeKinds = new ArrayList<Integer>();
+
+	// The number of elements created.
+	private int elements;
+
+	/**
+	 * Constructor: Create a reader of a snapshot.
+	 * 
+	 * @param in
+	 *            the input stream, which is not closed by the reader.
+	 * @param project
+	 *            the existing project in which the components are created.
+	 */
+	public SnapshotReader(InputStream in, IRodinProject project) {
+		this.in = new BufferedInputStream(in, BUFFER_SIZE);
+		this.project = project;
+		this.projectPrefix = project.getHandleIdentifier() + "/"; //$NON-NLS-1$
+	}
+
+	/**
+	 * Reads a snapshot and creates its components in the project. The
+	 * components must not exist in the project. If the snapshot is
+	 * malformed, the components read before the problem is detected are kept
+	 * and the component being read is deleted.
+	 * 
+	 * @param monitor
+	 *            a progress monitor, or <code>null</code>.
+	 * @return the files of the created components.
+	 * @throws RodinDBException
+	 *             if a problem occurs while accessing the database.
+	 * @throws IOException
+	 *             if a problem occurs while reading the snapshot, or if the
+	 *             snapshot is malformed.
+	 */
+	public IRodinFile[] read(IProgressMonitor monitor)
+			throws RodinDBException, IOException {
+		SubMonitor subMonitor = SubMonitor.convert(monitor);
+		if (readInt() != SnapshotFormat.MAGIC)
+			throw new IOException(Messages.error_NotASnapshot);
+		int version = readVarInt();
+		if (version != SnapshotFormat.VERSION)
+			throw new IOException(Messages.bind(
+					Messages.error_UnsupportedSnapshotVersion, version));
+		// The identifier of the exported project is not needed, since the
+		// handles referring to elements of the project are relative.
+		readString();
+		int count = readVarInt();
+		subMonitor.setWorkRemaining(count);
+		IRodinFile[] result = new IRodinFile[count];
+		for (int i = 0; i < count; i++) {
+			String name = readString();
+			subMonitor.subTask(name);
+			IRodinFile file = project.getRodinFile(name);
+			if (file == null)
+				throw new IOException(Messages.bind(
+						Messages.error_InvalidSnapshotComponent, name));
+			Assert.isTrue(!file.exists(),
+					Messages.bind(Messages.error_ExistingComponent, name));
+			IInternalElementType<?> rootType = readElementType();
+			if (file.getRoot().getElementType() != rootType)
+				throw new IOException(Messages.bind(
+						Messages.error_InvalidSnapshotComponent, name));
+			file.create(false, null);
+			boolean complete = false;
+			try {
+				readContents(file.getRoot());
+				file.save(null, false);
+				complete = true;
+			} finally {
+				if (!complete)
+					discard(file);
+			}
+			result[i] = file;
+			subMonitor.worked(1);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of elements created so far, including the roots of
+	 * the components.
+	 * 
+	 * @return the number of elements created.
+	 */
+	public int getElements() {
+		return elements;
+	}
+
+	/**
+	 * Utility method to delete a partially read component. A problem while
+	 * deleting it is ignored, so that the problem while reading it is
+	 * reported.
+	 */
+	private static void discard(IRodinFile file) {
+		try {
+			file.delete(true, null);
+		} catch (RodinDBException e) {
+			// Report the original problem.
+		}
+	}
+
+	/**
+	 * Utility method to read the attributes and the children of an element.
+	 */
+	private void readContents(IInternalElement element)
+			throws RodinDBException, IOException {
+		elements++;
+		int attributes = readVarInt();
+		for (int i = 0; i < attributes; i++) {
+			readAttribute(element);
+		}
+		int children = readVarInt();
+		for (int i = 0; i < children; i++) {
+			IInternalElementType<?> type = readElementType();
+			IInternalElement child = element.getInternalElement(type,
+					readString());
+			child.create(null, null);
+			readContents(child);
+		}
+	}
+
+	/**
+	 * Utility method to read an attribute and set it on an element.
+	 */
+	private void readAttribute(IInternalElement element)
+			throws RodinDBException, IOException {
+		int index = readVarInt();
+		if (index == attributeTypes.size()) {
+			String id = readString();
+			int kind = readByte();
+			attributeTypes.add(getAttributeType(id, kind));
+			attributeKinds.add(kind);
+		} else if (index > attributeTypes.size()) {
+			throw new IOException(Messages.error_MalformedSnapshot);
+		}
+		IAttributeType type = attributeTypes.get(index);
+		switch (attributeKinds.get(index)) {
+		case SnapshotFormat.KIND_BOOLEAN:
+			element.setAttributeValue((IAttributeType.Boolean) type,
+					readByte() != 0, null);
+			break;
+		case SnapshotFormat.KIND_HANDLE:
+			boolean relative = readByte() != 0;
+			String identifier = readString();
+			IRodinElement handle = RodinCore.valueOf(relative ? projectPrefix
+					+ identifier : identifier);
+			if (handle == null)
+				throw new IOException(Messages.error_MalformedSnapshot);
+			element.setAttributeValue((IAttributeType.Handle) type, handle,
+					null);
+			break;
+		case SnapshotFormat.KIND_INTEGER:
+			element.setAttributeValue((IAttributeType.Integer) type,
+					(int) unZigZag(readVarLong()), null);
+			break;
+		case SnapshotFormat.KIND_LONG:
+			element.setAttributeValue((IAttributeType.Long) type,
+					unZigZag(readVarLong()), null);
+			break;
+		default:
+			element.setAttributeValue((IAttributeType.String) type,
+					readString(), null);
+		}
+	}
+
+	/**
+	 * Utility method to read an element type, adding it to the dictionary
+	 * if needed.
+	 */
+	private IInternalElementType<?> readElementType() throws IOException {
+		int index = readVarInt();
+		if (index < elementTypes.size())
+			return elementTypes.get(index);
+		if (index > elementTypes.size())
+			throw new IOException(Messages.error_MalformedSnapshot);
+		String id = readString();
+		IInternalElementType<?> type;
+		try {
+			type = RodinCore.getInternalElementType(id);
+		} catch (IllegalArgumentException e) {
+			type = null;
+		}
+		if (type == null)
+			throw new IOException(Messages.bind(
+					Messages.error_UnknownSnapshotType, id));
+		elementTypes.add(type);
+		return type;
+	}
+
+	/**
+	 * Utility method to get an attribute type of a given kind.
+	 */
+	private IAttributeType getAttributeType(String id, int kind)
+			throws IOException {
+		IAttributeType type;
+		try {
+			switch (kind) {
+			case SnapshotFormat.KIND_BOOLEAN:
+				type = RodinCore.getBooleanAttrType(id);
+				break;
+			case SnapshotFormat.KIND_HANDLE:
+				type = RodinCore.getHandleAttrType(id);
+				break;
+			case SnapshotFormat.KIND_INTEGER:
+				type = RodinCore.getIntegerAttrType(id);
+				break;
+			case SnapshotFormat.KIND_LONG:
+				type = RodinCore.getLongAttrType(id);
+				break;
+			case SnapshotFormat.KIND_STRING:
+				type = RodinCore.getStringAttrType(id);
+				break;
+			default:
+				throw new IOException(Messages.error_MalformedSnapshot);
+			}
+		} catch (IllegalArgumentException e) {
+			type = null;
+		}
+		if (type == null)
+			throw new IOException(Messages.bind(
+					Messages.error_UnknownSnapshotType, id));
+		return type;
+	}
+
+	/**
+	 * Utility method to read a string written as its length in bytes
+	 * followed by its UTF-8 encoding. The length is not trusted: the bytes
+	 * are read in a buffer growing with the bytes actually read, so that a
+	 * malformed length cannot exhaust the memory.
+	 */
+	private String readString() throws IOException {
+		int length = readVarInt();
+		byte[] bytes = new byte[Math.min(length, BUFFER_SIZE)];
+		int offset = 0;
+		while (offset < length) {
+			if (offset == bytes.length)
+				bytes = Arrays.copyOf(bytes,
+						(int) Math.min(length, 2L * bytes.length));
+			int n = in.read(bytes, offset, bytes.length - offset);
+			if (n < 0)
+				throw new EOFException(Messages.error_MalformedSnapshot);
+			offset += n;
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Utility method to read a non-negative integer with a variable length.
+	 */
+	private int readVarInt() throws IOException {
+		long value = readVarLong();
+		if (value < 0 || value > Integer.MAX_VALUE)
+			throw new IOException(Messages.error_MalformedSnapshot);
+		return (int) value;
+	}
+
+	/**
+	 * Utility method to read a non-negative long with a variable length.
+	 */
+	private long readVarLong() throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = readByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new IOException(Messages.error_MalformedSnapshot);
+	}
+
+	/**
+	 * Utility method to read an integer written as 4 bytes, most significant
+	 * first.
+	 */
+	private int readInt() throws IOException {
+		return readByte() << 24 | readByte() << 16 | readByte() << 8
+				| readByte();
+	}
+
+	/**
+	 * Utility method to read a byte.
+	 */
+	private int readByte() throws IOException {
+		int b = in.read();
+		if (b < 0)
+			throw new EOFException(Messages.error_MalformedSnapshot);
+		return b;
+	}
+
+	/**
+	 * Utility method to map back the non-negative numbers to signed numbers.
+	 */
+	private static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+}
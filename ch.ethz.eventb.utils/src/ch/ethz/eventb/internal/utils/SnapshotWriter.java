@@ -0,0 +1,269 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+import org.rodinp.core.IAttributeType;
+import org.rodinp.core.IInternalElement;
+import org.rodinp.core.IInternalElementType;
+import org.rodinp.core.IRodinElement;
+import org.rodinp.core.IRodinFile;
+import org.rodinp.core.IRodinProject;
+import org.rodinp.core.RodinDBException;
+
+/**
+ * <p>
+ * A streaming writer of the binary snapshots of Event-B projects (see
+ * {@link SnapshotFormat}). The components are written one element at a time
+ * as they are traversed, and the components which were not open before
+ * being written are closed afterwards, hence the memory used does not depend
+ * on the size of the project.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see SnapshotReader
+ * @since 0.2.5
+ */
+public final class SnapshotWriter {
+
+	// The size of the output buffer.
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	// The output stream.
+	private final OutputStream out;
+
+	// The handle identifier of the exported project.
+	private final String projectIdentifier;
+
+	// The handle identifier of the exported project, followed by a slash.
+	private final String projectPrefix;
+
+	// Dictionary from the element types to their indices.
+	private final Map<IInternalElementType<?>, Integer> elementTypes = new HashMap<IInternalElementType<?>, Integer>();
+
+	// Dictionary from the attribute types to their indices.
+	private final Map<IAttributeType, Integer> attributeTypes = new HashMap<IAttributeType, Integer>();
+
+	// The number of elements written.
+	private int elements;
+
+	/**
+	 * Constructor: Create a writer of a snapshot of a project.
+	 * 
+	 * @param out
+	 *            the output stream, which is flushed but not closed by the
+	 *            writer.
+	 * @param project
+	 *            the exported project.
+	 */
+	public SnapshotWriter(OutputStream out, IRodinProject project) {
+		this.out = new BufferedOutputStream(out, BUFFER_SIZE);
+		this.projectIdentifier = project.getHandleIdentifier();
+		this.projectPrefix = projectIdentifier + "/"; //$NON-NLS-1$
+	}
+
+	/**
+	 * Writes a snapshot of some components of the project.
+	 * 
+	 * @param files
+	 *            the files of the components.
+	 * @param monitor
+	 *            a progress monitor, or <code>null</code>.
+	 * @throws RodinDBException
+	 *             if a problem occurs while accessing the database.
+	 * @throws IOException
+	 *             if a problem occurs while writing the snapshot.
+	 */
+	public void write(IRodinFile[] files, IProgressMonitor monitor)
+			throws RodinDBException, IOException {
+		SubMonitor subMonitor = SubMonitor.convert(monitor, files.length);
+		writeInt(SnapshotFormat.MAGIC);
+		writeVarInt(SnapshotFormat.VERSION);
+		writeString(projectIdentifier);
+		writeVarInt(files.length);
+		for (IRodinFile file : files) {
+			subMonitor.subTask(file.getElementName());
+			boolean open = file.isOpen();
+			try {
+				IInternalElement root = file.getRoot();
+				writeString(file.getElementName());
+				writeElementType(root.getElementType());
+				writeContents(root);
+			} finally {
+				if (!open && file.isOpen() && !file.hasUnsavedChanges())
+					file.close();
+			}
+			subMonitor.worked(1);
+		}
+		out.flush();
+	}
+
+	/**
+	 * Returns the number of elements written so far, including the roots of
+	 * the components.
+	 * 
+	 * @return the number of elements written.
+	 */
+	public int getElements() {
+		return elements;
+	}
+
+	/**
+	 * Utility method to write the attributes and the children of an element.
+	 */
+	private void writeContents(IInternalElement element)
+			throws RodinDBException, IOException {
+		elements++;
+		IAttributeType[] types = element.getAttributeTypes();
+		writeVarInt(types.length);
+		for (IAttributeType type : types) {
+			writeAttribute(element, type);
+		}
+		IRodinElement[] children = element.getChildren();
+		writeVarInt(children.length);
+		for (IRodinElement child : children) {
+			IInternalElement internal = (IInternalElement) child;
+			writeElementType(internal.getElementType());
+			writeString(internal.getElementName());
+			writeContents(internal);
+		}
+	}
+
+	/**
+	 * Utility method to write an attribute of an element.
+	 */
+	private void writeAttribute(IInternalElement element, IAttributeType type)
+			throws RodinDBException, IOException {
+		if (type instanceof IAttributeType.Boolean) {
+			writeAttributeType(type, SnapshotFormat.KIND_BOOLEAN);
+			boolean value = element
+					.getAttributeValue((IAttributeType.Boolean) type);
+			out.write(value ? 1 : 0);
+		} else if (type instanceof IAttributeType.Handle) {
+			writeAttributeType(type, SnapshotFormat.KIND_HANDLE);
+			String identifier = element.getAttributeValue(
+					(IAttributeType.Handle) type).getHandleIdentifier();
+			if (identifier.startsWith(projectPrefix)) {
+				out.write(1);
+				writeString(identifier.substring(projectPrefix.length()));
+			} else {
+				out.write(0);
+				writeString(identifier);
+			}
+		} else if (type instanceof IAttributeType.Integer) {
+			writeAttributeType(type, SnapshotFormat.KIND_INTEGER);
+			writeVarLong(zigZag(element
+					.getAttributeValue((IAttributeType.Integer) type)));
+		} else if (type instanceof IAttributeType.Long) {
+			writeAttributeType(type, SnapshotFormat.KIND_LONG);
+			writeVarLong(zigZag(element
+					.getAttributeValue((IAttributeType.Long) type)));
+		} else {
+			writeAttributeType(type, SnapshotFormat.KIND_STRING);
+			writeString(element.getAttributeValue((IAttributeType.String) type));
+		}
+	}
+
+	/**
+	 * Utility method to write an element type, adding it to the dictionary
+	 * if needed.
+	 */
+	private void writeElementType(IInternalElementType<?> type)
+			throws IOException {
+		Integer index = elementTypes.get(type);
+		if (index != null) {
+			writeVarInt(index);
+			return;
+		}
+		int size = elementTypes.size();
+		elementTypes.put(type, size);
+		writeVarInt(size);
+		writeString(type.getId());
+	}
+
+	/**
+	 * Utility method to write an attribute type, adding it to the dictionary
+	 * if needed.
+	 */
+	private void writeAttributeType(IAttributeType type, int kind)
+			throws IOException {
+		Integer index = attributeTypes.get(type);
+		if (index != null) {
+			writeVarInt(index);
+			return;
+		}
+		int size = attributeTypes.size();
+		attributeTypes.put(type, size);
+		writeVarInt(size);
+		writeString(type.getId());
+		out.write(kind);
+	}
+
+	/**
+	 * Utility method to write a string as its length in bytes followed by
+	 * its UTF-8 encoding.
+	 */
+	private void writeString(String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Utility method to write a non-negative integer with a variable length.
+	 */
+	private void writeVarInt(int value) throws IOException {
+		writeVarLong(value);
+	}
+
+	/**
+	 * Utility method to write a non-negative long with a variable length.
+	 */
+	private void writeVarLong(long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.write((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	/**
+	 * Utility method to write an integer as 4 bytes, most significant first.
+	 */
+	private void writeInt(int value) throws IOException {
+		out.write(value >>> 24);
+		out.write(value >>> 16);
+		out.write(value >>> 8);
+		out.write(value);
+	}
+
+	/**
+	 * Utility method to map signed numbers to non-negative numbers, so that
+	 * numbers with a small absolute value have a short encoding.
+	 */
+	private static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+}
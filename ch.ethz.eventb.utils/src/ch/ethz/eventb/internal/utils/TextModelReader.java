@@ -0,0 +1,453 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.internal.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.Assert;
+import org.eventb.core.IContextRoot;
+import org.eventb.core.IConvergenceElement.Convergence;
+import org.eventb.core.IEvent;
+import org.eventb.core.IEventBProject;
+import org.eventb.core.IEventBRoot;
+import org.eventb.core.IMachineRoot;
+import org.rodinp.core.IRodinFile;
+import org.rodinp.core.RodinDBException;
+
+import ch.ethz.eventb.utils.BatchProgressMonitor;
+import ch.ethz.eventb.utils.EventBUtils;
+
+/**
+ * <p>
+ * A streaming reader of machines and contexts written in a plain-text
+ * notation (see {@link ch.ethz.eventb.utils.EventBTextImport}). The input is
+ * read line by line, and each element is created with {@link EventBUtils} as
+ * soon as its line is read, appended to its parent, so that no tree of the
+ * input is built. Each component is saved and closed when its
+ * <code>end</code> line is read.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see ch.ethz.eventb.utils.EventBTextImport
+ * @since 0.2.5
+ */
+public final class TextModelReader {
+
+	/**
+	 * The sections of the components, i.e. what the formula lines are.
+	 */
+	private enum Section {
+		NONE, AXIOMS, INVARIANTS, EVENTS, GUARDS, WITNESSES, ACTIONS
+	}
+
+	// The input.
+	private final BufferedReader in;
+
+	// The project in which the components are created.
+	private final IEventBProject project;
+
+	// The monitor counting the created elements.
+	private final BatchProgressMonitor monitor;
+
+	// The number of the current line.
+	private int lineNumber;
+
+	// The current line, trimmed.
+	private String line;
+
+	// The context being read, or null.
+	private IContextRoot ctx;
+
+	// The machine being read, or null.
+	private IMachineRoot mch;
+
+	// The event being read, or null.
+	private IEvent evt;
+
+	// The current section.
+	private Section section = Section.NONE;
+
+	// The number of elements created.
+	private int elements;
+
+	/**
+	 * Constructor: Create a reader.
+	 * 
+	 * @param in
+	 *            the input, which is not closed by the reader.
+	 * @param project
+	 *            the project in which the components are created.
+	 * @param monitor
+	 *            the monitor passed to the element creators.
+	 */
+	public TextModelReader(Reader in, IEventBProject project,
+			BatchProgressMonitor monitor) {
+		this.in = in instanceof BufferedReader ? (BufferedReader) in
+				: new BufferedReader(in);
+		this.project = project;
+		this.monitor = monitor;
+	}
+
+	/**
+	 * Reads the input and creates its components.
+	 * 
+	 * @return the roots of the created components, in the order of the
+	 *         input.
+	 * @throws RodinDBException
+	 *             if a problem occurs while accessing the database.
+	 * @throws IOException
+	 *             if a problem occurs while reading the input, or if the
+	 *             input is malformed.
+	 */
+	public IEventBRoot[] read() throws RodinDBException, IOException {
+		List<IEventBRoot> result = new ArrayList<IEventBRoot>();
+		String next;
+		while ((next = in.readLine()) != null) {
+			lineNumber++;
+			line = next.trim();
+			if (line.isEmpty() || line.startsWith("//")) //$NON-NLS-1$
+				continue;
+			String keyword = getKeyword();
+			if (ctx != null) {
+				readContextLine(keyword);
+			} else if (mch != null) {
+				readMachineLine(keyword);
+			} else if (keyword.equals("context")) { //$NON-NLS-1$
+				String name = getComponentName();
+				ctx = EventBUtils.createContext(project, name, monitor);
+				result.add(ctx);
+				elements++;
+			} else if (keyword.equals("machine")) { //$NON-NLS-1$
+				String name = getComponentName();
+				mch = EventBUtils.createMachine(project, name, monitor);
+				result.add(mch);
+				elements++;
+			} else {
+				throw syntaxError();
+			}
+		}
+		if (ctx != null || mch != null)
+			throw new IOException(Messages.bind(
+					Messages.error_UnexpectedEndOfText, lineNumber));
+		return result.toArray(new IEventBRoot[result.size()]);
+	}
+
+	/**
+	 * Returns the number of elements created so far, including the roots of
+	 * the components.
+	 * 
+	 * @return the number of elements created.
+	 */
+	public int getElements() {
+		return elements;
+	}
+
+	/**
+	 * Utility method to read a line of a context.
+	 */
+	private void readContextLine(String keyword) throws RodinDBException,
+			IOException {
+		if (keyword.equals("extends")) { //$NON-NLS-1$
+			for (String name : getIdentifiers()) {
+				EventBUtils.createExtendsContextClause(ctx, name, null,
+						monitor);
+				elements++;
+			}
+			section = Section.NONE;
+		} else if (keyword.equals("sets")) { //$NON-NLS-1$
+			for (String name : getIdentifiers()) {
+				EventBUtils.createCarrierSet(ctx, name, null, monitor);
+				elements++;
+			}
+			section = Section.NONE;
+		} else if (keyword.equals("constants")) { //$NON-NLS-1$
+			for (String name : getIdentifiers()) {
+				EventBUtils.createConstant(ctx, name, null, monitor);
+				elements++;
+			}
+			section = Section.NONE;
+		} else if (keyword.equals("axioms")) { //$NON-NLS-1$
+			checkNoArgument();
+			section = Section.AXIOMS;
+		} else if (keyword.equals("end")) { //$NON-NLS-1$
+			checkNoArgument();
+			close(ctx.getRodinFile());
+			ctx = null;
+			section = Section.NONE;
+		} else if (section == Section.AXIOMS && isFormula(keyword)) {
+			boolean thm = keyword.equals("theorem"); //$NON-NLS-1$
+			String[] formula = getFormula(thm);
+			EventBUtils.createAxiom(ctx, formula[0], formula[1], thm, null,
+					monitor);
+			elements++;
+		} else {
+			throw syntaxError();
+		}
+	}
+
+	/**
+	 * Utility method to read a line of a machine.
+	 */
+	private void readMachineLine(String keyword) throws RodinDBException,
+			IOException {
+		if (evt != null) {
+			readEventLine(keyword);
+		} else if (section == Section.EVENTS) {
+			if (keyword.equals("end")) { //$NON-NLS-1$
+				checkNoArgument();
+				close(mch.getRodinFile());
+				mch = null;
+				section = Section.NONE;
+			} else {
+				readEventHeader();
+			}
+		} else if (keyword.equals("refines")) { //$NON-NLS-1$
+			for (String name : getIdentifiers()) {
+				EventBUtils.createRefinesMachineClause(mch, name, null,
+						monitor);
+				elements++;
+			}
+			section = Section.NONE;
+		} else if (keyword.equals("sees")) { //$NON-NLS-1$
+			for (String name : getIdentifiers()) {
+				EventBUtils.createSeesContextClause(mch, name, null, monitor);
+				elements++;
+			}
+			section = Section.NONE;
+		} else if (keyword.equals("variables")) { //$NON-NLS-1$
+			for (String name : getIdentifiers()) {
+				EventBUtils.createVariable(mch, name, null, monitor);
+				elements++;
+			}
+			section = Section.NONE;
+		} else if (keyword.equals("invariants")) { //$NON-NLS-1$
+			checkNoArgument();
+			section = Section.INVARIANTS;
+		} else if (keyword.equals("events")) { //$NON-NLS-1$
+			checkNoArgument();
+			section = Section.EVENTS;
+		} else if (keyword.equals("end")) { //$NON-NLS-1$
+			checkNoArgument();
+			close(mch.getRodinFile());
+			mch = null;
+			section = Section.NONE;
+		} else if (section == Section.INVARIANTS && isFormula(keyword)) {
+			boolean thm = keyword.equals("theorem"); //$NON-NLS-1$
+			String[] formula = getFormula(thm);
+			EventBUtils.createInvariant(mch, formula[0], formula[1], thm,
+					null, monitor);
+			elements++;
+		} else {
+			throw syntaxError();
+		}
+	}
+
+	/**
+	 * Utility method to read the first line of an event, i.e.
+	 * <code>[ordinary|convergent|anticipated] event label [extends abs]</code>.
+	 */
+	private void readEventHeader() throws RodinDBException, IOException {
+		String[] tokens = line.split("\\s+"); //$NON-NLS-1$
+		int i = 0;
+		Convergence convergence = Convergence.ORDINARY;
+		if (tokens[i].equals("convergent")) { //$NON-NLS-1$
+			convergence = Convergence.CONVERGENT;
+			i++;
+		} else if (tokens[i].equals("anticipated")) { //$NON-NLS-1$
+			convergence = Convergence.ANTICIPATED;
+			i++;
+		} else if (tokens[i].equals("ordinary")) { //$NON-NLS-1$
+			i++;
+		}
+		if (tokens.length != i + 2 && tokens.length != i + 4
+				|| !tokens[i].equals("event")) //$NON-NLS-1$
+			throw syntaxError();
+		boolean extended = tokens.length == i + 4;
+		if (extended && !tokens[i + 2].equals("extends")) //$NON-NLS-1$
+			throw syntaxError();
+		evt = EventBUtils.createEvent(mch, tokens[i + 1], convergence,
+				extended, null, monitor);
+		elements++;
+		if (extended) {
+			EventBUtils.createRefinesEventClause(evt, tokens[i + 3], null,
+					monitor);
+			elements++;
+		}
+		section = Section.NONE;
+	}
+
+	/**
+	 * Utility method to read a line of an event.
+	 */
+	private void readEventLine(String keyword) throws RodinDBException,
+			IOException {
+		if (keyword.equals("refines")) { //$NON-NLS-1$
+			for (String name : getIdentifiers()) {
+				EventBUtils.createRefinesEventClause(evt, name, null, monitor);
+				elements++;
+			}
+			section = Section.NONE;
+		} else if (keyword.equals("any")) { //$NON-NLS-1$
+			for (String name : getIdentifiers()) {
+				EventBUtils.createParameter(evt, name, null, monitor);
+				elements++;
+			}
+			section = Section.NONE;
+		} else if (keyword.equals("where")) { //$NON-NLS-1$
+			checkNoArgument();
+			section = Section.GUARDS;
+		} else if (keyword.equals("with")) { //$NON-NLS-1$
+			checkNoArgument();
+			section = Section.WITNESSES;
+		} else if (keyword.equals("then")) { //$NON-NLS-1$
+			checkNoArgument();
+			section = Section.ACTIONS;
+		} else if (keyword.equals("end")) { //$NON-NLS-1$
+			checkNoArgument();
+			evt = null;
+			section = Section.EVENTS;
+		} else if (section == Section.GUARDS && isFormula(keyword)) {
+			boolean thm = keyword.equals("theorem"); //$NON-NLS-1$
+			String[] formula = getFormula(thm);
+			EventBUtils.createGuard(evt, formula[0], formula[1], thm, null,
+					monitor);
+			elements++;
+		} else if (section == Section.WITNESSES && isLabelled(keyword)) {
+			String[] formula = getFormula(false);
+			EventBUtils.createWitness(evt, formula[0], formula[1], null,
+					monitor);
+			elements++;
+		} else if (section == Section.ACTIONS && isLabelled(keyword)) {
+			String[] formula = getFormula(false);
+			EventBUtils.createAction(evt, formula[0], formula[1], null,
+					monitor);
+			elements++;
+		} else {
+			throw syntaxError();
+		}
+	}
+
+	/**
+	 * Utility method to save and close a component once it is read, so that
+	 * it is not kept in memory.
+	 */
+	private void close(IRodinFile file) throws RodinDBException {
+		file.save(null, false);
+		file.close();
+	}
+
+	/**
+	 * Utility method to get the first word of the current line.
+	 */
+	private String getKeyword() {
+		int end = 0;
+		while (end < line.length() && !Character.isWhitespace(line.charAt(end)))
+			end++;
+		return line.substring(0, end);
+	}
+
+	/**
+	 * Utility method to get the identifiers following the keyword of the
+	 * current line.
+	 */
+	private String[] getIdentifiers() {
+		String rest = line.substring(getKeyword().length()).trim();
+		if (rest.isEmpty())
+			return new String[0];
+		return rest.split("\\s+"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Utility method to get the single name following the keyword of the
+	 * current line.
+	 */
+	private String getName() throws IOException {
+		String[] names = getIdentifiers();
+		if (names.length != 1)
+			throw syntaxError();
+		return names[0];
+	}
+
+	/**
+	 * Utility method to get the name of the component declared by the
+	 * current line. No context nor machine may have this name, since the
+	 * component would otherwise be created with another name.
+	 */
+	private String getComponentName() throws IOException {
+		String name = getName();
+		Assert.isTrue(!project.getContextFile(name).exists()
+				&& !project.getMachineFile(name).exists(),
+				Messages.bind(Messages.error_ExistingComponent, name));
+		return name;
+	}
+
+	/**
+	 * Utility method to check that the current line has only a keyword.
+	 */
+	private void checkNoArgument() throws IOException {
+		if (!line.equals(getKeyword()))
+			throw syntaxError();
+	}
+
+	/**
+	 * Utility method to check whether the current line is a labelled
+	 * formula, i.e. starts with a label or with <code>theorem</code>.
+	 */
+	private boolean isFormula(String keyword) {
+		return isLabelled(keyword) || keyword.equals("theorem"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Utility method to check whether the current line starts with a label.
+	 */
+	private boolean isLabelled(String keyword) {
+		return keyword.startsWith("@"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Utility method to get the label and the formula of the current line,
+	 * i.e. <code>[theorem] @label formula</code>.
+	 */
+	private String[] getFormula(boolean thm) throws IOException {
+		String rest = line;
+		if (thm)
+			rest = rest.substring("theorem".length()).trim(); //$NON-NLS-1$
+		if (!rest.startsWith("@")) //$NON-NLS-1$
+			throw syntaxError();
+		int end = 1;
+		while (end < rest.length() && !Character.isWhitespace(rest.charAt(end)))
+			end++;
+		String label = rest.substring(1, end);
+		String formula = rest.substring(end).trim();
+		if (label.isEmpty() || formula.isEmpty())
+			throw syntaxError();
+		return new String[] { label, formula };
+	}
+
+	/**
+	 * Utility method to create the exception reporting a syntax error on the
+	 * current line.
+	 */
+	private IOException syntaxError() {
+		return new IOException(Messages.bind(Messages.error_TextSyntax,
+				lineNumber, line));
+	}
+
+}
@@ -15,28 +15,134 @@
 package ch.ethz.eventb.ui.utils;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.viewers.AbstractTreeViewer;
 import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.StructuredViewer;
 import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.ui.progress.UIJob;
+import org.eventb.core.IContextRoot;
+import org.eventb.core.IMachineRoot;
+import org.rodinp.core.ElementChangedEvent;
+import org.rodinp.core.IElementChangedListener;
 import org.rodinp.core.IInternalElement;
 import org.rodinp.core.IParent;
 import org.rodinp.core.IRodinElement;
+import org.rodinp.core.IRodinElementDelta;
 import org.rodinp.core.IRodinFile;
 import org.rodinp.core.IRodinProject;
+import org.rodinp.core.RodinCore;
 import org.rodinp.core.RodinDBException;
 
+import ch.ethz.eventb.internal.utils.CacheRegistry;
+import ch.ethz.eventb.internal.utils.ManagedCache;
+import ch.ethz.eventb.internal.utils.Messages;
+
 /**
  * <p>
  * An implementation of {@link ITreeContentProvider} to populate Event-B
  * elements for a Tree viewer.
  * </p>
+ * <p>
+ * While attached to a viewer, the content provider listens to changes in the
+ * Rodin database and translates the resulting deltas into the corresponding
+ * add, remove and update calls on the viewer. Deltas arriving in bursts are
+ * coalesced and applied in a single UI update, so clients do not need to
+ * refresh the whole viewer after changing the model.
+ * </p>
+ * <p>
+ * The component roots of a project are presented sorted, contexts first, then
+ * machines, then other components, each group by name. While attached to a
+ * viewer, the content provider caches these lists per project and maintains
+ * them from the deltas instead of recomputing them for each expansion. Added
+ * components are inserted at their sorted position among the cached roots.
+ * </p>
  *
  * @author htson
- * @version 0.1
+ * @version 0.2
  * @since 0.2.2
  */
-public class EventBContentProvider implements ITreeContentProvider {
+public class EventBContentProvider implements ITreeContentProvider,
+		IElementChangedListener {
+
+	// The delay (in milliseconds) used to coalesce bursts of deltas.
+	private static final long REFRESH_DELAY = 100;
+
+	// The number of pending changes above which the viewer is fully refreshed.
+	private static final int MAX_INCREMENTAL_CHANGES = 500;
+
+	// The order in which component roots are presented.
+	private static final Comparator<IInternalElement> ROOT_ORDER = new Comparator<IInternalElement>() {
+
+		@Override
+		public int compare(IInternalElement root1, IInternalElement root2) {
+			int result = rank(root1) - rank(root2);
+			if (result != 0)
+				return result;
+			return root1.getRodinFile().getElementName()
+					.compareTo(root2.getRodinFile().getElementName());
+		}
+
+		private int rank(IInternalElement root) {
+			if (root instanceof IContextRoot)
+				return 0;
+			if (root instanceof IMachineRoot)
+				return 1;
+			return 2;
+		}
+
+	};
+
+	// The viewer attached to this content provider, or null (guarded by this).
+	private StructuredViewer viewer;
+
+	// The changes waiting to be applied to the viewer (guarded by this).
+	private PendingChanges pending = new PendingChanges();
+
+	// The job applying the pending changes in the UI thread (guarded by this).
+	private UIJob refreshJob;
+
+	// Flag to indicate if the refresh job is scheduled (guarded by this).
+	private boolean refreshScheduled;
+
+	// Map from projects to their sorted component roots (guarded by this).
+	private final Map<IRodinProject, IInternalElement[]> projectRoots = new HashMap<IRodinProject, IInternalElement[]>();
+
+	// Counter incremented whenever cached roots are invalidated (guarded by
+	// this).
+	private int rootsGeneration;
+
+	// The number of lookups of the cached roots which found the roots
+	// (guarded by this).
+	private long rootsHits;
+
+	// The number of lookups of the cached roots which did not find the roots
+	// (guarded by this).
+	private long rootsMisses;
+
+	// The cached roots as a managed cache, registered while the content
+	// provider is attached to a viewer.
+	private final ManagedCache rootsCache = new RootsCache();
+
+	// Lock guarding the registration as a Rodin listener.
+	private final Object listenerLock = new Object();
+
+	// Flag to indicate if this is registered as a Rodin listener (guarded by
+	// listenerLock).
+	private boolean listening;
 
 	/*
 	 * (non-Javadoc)
@@ -45,7 +151,18 @@ public class EventBContentProvider implements ITreeContentProvider {
 	 */
 	@Override
 	public void dispose() {
-		// Do nothing
+		stopListening();
+		CacheRegistry.unregister(rootsCache);
+		synchronized (this) {
+			viewer = null;
+			pending.clear();
+			clearProjectRoots();
+			if (refreshJob != null) {
+				refreshJob.cancel();
+				refreshJob = null;
+			}
+			refreshScheduled = false;
+		}
 	}
 
 	/*
@@ -55,7 +172,30 @@ public class EventBContentProvider implements ITreeContentProvider {
 	 */
 	@Override
 	public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
-		// Do nothing
+		boolean attached;
+		synchronized (this) {
+			pending.clear();
+			clearProjectRoots();
+			if (refreshJob != null) {
+				refreshJob.cancel();
+				refreshJob = null;
+			}
+			refreshScheduled = false;
+			if (viewer instanceof StructuredViewer && newInput != null) {
+				this.viewer = (StructuredViewer) viewer;
+				refreshJob = new RefreshJob(this.viewer);
+			} else {
+				this.viewer = null;
+			}
+			attached = this.viewer != null;
+		}
+		if (attached) {
+			startListening();
+			CacheRegistry.register(rootsCache);
+		} else {
+			stopListening();
+			CacheRegistry.unregister(rootsCache);
+		}
 	}
 
 	/*
@@ -77,15 +217,7 @@ public class EventBContentProvider implements ITreeContentProvider {
 	public Object[] getChildren(Object parentElement) {
 		if (parentElement instanceof IRodinProject) {
 			try {
-				IRodinFile[] rodinFiles = ((IRodinProject) parentElement)
-						.getRodinFiles();
-				Collection<IInternalElement> roots = new ArrayList<IInternalElement>(
-						rodinFiles.length);
-				for (IRodinFile rodinFile : rodinFiles) {
-					IInternalElement root = rodinFile.getRoot();
-					roots.add(root);
-				}
-				return roots.toArray(new IInternalElement[roots.size()]);
+				return getRoots((IRodinProject) parentElement).clone();
 			} catch (RodinDBException e) {
 				e.printStackTrace();
 				return new Object[0];
@@ -111,6 +243,11 @@ public class EventBContentProvider implements ITreeContentProvider {
 	 */
 	@Override
 	public Object getParent(Object element) {
+		if (element instanceof IInternalElement
+				&& ((IInternalElement) element).isRoot()) {
+			// Roots are presented directly under their project.
+			return ((IInternalElement) element).getRodinProject();
+		}
 		if (element instanceof IRodinElement) {
 			return ((IRodinElement) element).getParent();
 		}
@@ -126,7 +263,563 @@ public class EventBContentProvider implements ITreeContentProvider {
 	 */
 	@Override
 	public boolean hasChildren(Object element) {
-		return getChildren(element).length != 0;
+		if (element instanceof IRodinProject) {
+			try {
+				return getRoots((IRodinProject) element).length != 0;
+			} catch (RodinDBException e) {
+				e.printStackTrace();
+				return false;
+			}
+		}
+
+		if (element instanceof IParent) {
+			try {
+				return ((IParent) element).hasChildren();
+			} catch (RodinDBException e) {
+				e.printStackTrace();
+				return false;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Utility method to get the sorted component roots of a project. The
+	 * result is cached while the content provider is attached to a viewer,
+	 * since the cache is then kept up-to-date by the deltas. The returned
+	 * array must not be modified.
+	 *
+	 * @param project
+	 *            a Rodin project.
+	 * @return the sorted component roots of the project.
+	 * @throws RodinDBException
+	 *             if a problem occurs while accessing the database.
+	 */
+	private IInternalElement[] getRoots(IRodinProject project)
+			throws RodinDBException {
+		int generation;
+		synchronized (this) {
+			IInternalElement[] roots = projectRoots.get(project);
+			if (roots != null) {
+				rootsHits++;
+				return roots;
+			}
+			rootsMisses++;
+			generation = rootsGeneration;
+		}
+
+		IRodinFile[] rodinFiles = project.getRodinFiles();
+		IInternalElement[] roots = new IInternalElement[rodinFiles.length];
+		for (int i = 0; i < rodinFiles.length; i++) {
+			roots[i] = rodinFiles[i].getRoot();
+		}
+		Arrays.sort(roots, ROOT_ORDER);
+
+		synchronized (this) {
+			// Only cache if no deltas invalidated the roots in the mean time.
+			if (viewer != null && generation == rootsGeneration)
+				projectRoots.put(project, roots);
+		}
+		return roots;
+	}
+
+	/**
+	 * Utility method to update the cached roots of a project after a root has
+	 * been added or removed. Must be called while holding the lock of this
+	 * content provider.
+	 *
+	 * @param root
+	 *            the added or removed root.
+	 * @param added
+	 *            <code>true</code> if the root has been added,
+	 *            <code>false</code> if it has been removed.
+	 * @return <code>true</code> if the cached roots have been updated,
+	 *         <code>false</code> if the roots of the project are not cached
+	 *         or already up-to-date.
+	 */
+	private boolean updateProjectRoots(IInternalElement root, boolean added) {
+		rootsGeneration++;
+		IRodinProject project = root.getRodinProject();
+		IInternalElement[] roots = projectRoots.get(project);
+		if (roots == null)
+			return false;
+		int index = Arrays.binarySearch(roots, root, ROOT_ORDER);
+		IInternalElement[] newRoots;
+		if (added && index < 0) {
+			int insertion = -index - 1;
+			newRoots = new IInternalElement[roots.length + 1];
+			System.arraycopy(roots, 0, newRoots, 0, insertion);
+			newRoots[insertion] = root;
+			System.arraycopy(roots, insertion, newRoots, insertion + 1,
+					roots.length - insertion);
+		} else if (!added && index >= 0) {
+			newRoots = new IInternalElement[roots.length - 1];
+			System.arraycopy(roots, 0, newRoots, 0, index);
+			System.arraycopy(roots, index + 1, newRoots, index,
+					roots.length - index - 1);
+		} else {
+			return false;
+		}
+		projectRoots.put(project, newRoots);
+		return true;
+	}
+
+	/**
+	 * Utility method to invalidate the cached roots of a project. Must be
+	 * called while holding the lock of this content provider.
+	 *
+	 * @param project
+	 *            a Rodin project.
+	 */
+	private void invalidateProjectRoots(IRodinProject project) {
+		rootsGeneration++;
+		projectRoots.remove(project);
+	}
+
+	/**
+	 * Utility method to invalidate all cached roots. Must be called while
+	 * holding the lock of this content provider.
+	 */
+	private void clearProjectRoots() {
+		rootsGeneration++;
+		projectRoots.clear();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see IElementChangedListener#elementChanged(ElementChangedEvent)
+	 */
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		synchronized (this) {
+			if (viewer == null)
+				return;
+			processDelta(event.getDelta());
+			if (refreshScheduled || pending.isEmpty())
+				return;
+			refreshScheduled = true;
+			refreshJob.schedule(REFRESH_DELAY);
+		}
+	}
+
+	/**
+	 * Registers this content provider as a listener of the Rodin database, if
+	 * not already done.
+	 */
+	private void startListening() {
+		synchronized (listenerLock) {
+			if (!listening) {
+				RodinCore.addElementChangedListener(this);
+				listening = true;
+			}
+		}
+	}
+
+	/**
+	 * Unregisters this content provider as a listener of the Rodin database,
+	 * if registered.
+	 */
+	private void stopListening() {
+		synchronized (listenerLock) {
+			if (listening) {
+				RodinCore.removeElementChangedListener(this);
+				listening = false;
+			}
+		}
+	}
+
+	/**
+	 * Utility method to translate a Rodin delta into pending viewer changes.
+	 * Must be called while holding the lock of this content provider.
+	 *
+	 * @param delta
+	 *            a Rodin element delta.
+	 */
+	private void processDelta(IRodinElementDelta delta) {
+		IRodinElement rodinElement = delta.getElement();
+		Object element = toViewerElement(rodinElement);
+		switch (delta.getKind()) {
+		case IRodinElementDelta.ADDED:
+			if (rodinElement instanceof IRodinFile) {
+				// Insert the root at its sorted position among the cached
+				// roots, or refresh the project if they are not cached.
+				IInternalElement root = (IInternalElement) element;
+				if (updateProjectRoots(root, true))
+					pending.insert(getParent(root), root);
+				else
+					pending.refresh(getParent(root));
+			} else {
+				pending.add(getParent(element), element);
+			}
+			return;
+		case IRodinElementDelta.REMOVED:
+			if (rodinElement instanceof IRodinFile) {
+				updateProjectRoots((IInternalElement) element, false);
+			} else if (rodinElement instanceof IRodinProject) {
+				invalidateProjectRoots((IRodinProject) rodinElement);
+			}
+			pending.remove(element);
+			return;
+		default:
+			int flags = delta.getFlags();
+			// Files changed outside the database API (e.g. reverted or
+			// replaced on disk) have no delta for their children.
+			if ((flags & (IRodinElementDelta.F_OPENED
+					| IRodinElementDelta.F_CLOSED
+					| IRodinElementDelta.F_CONTENT
+					| IRodinElementDelta.F_REPLACED)) != 0) {
+				if (rodinElement instanceof IRodinProject)
+					invalidateProjectRoots((IRodinProject) rodinElement);
+				pending.refresh(element);
+				return;
+			}
+			if ((flags & IRodinElementDelta.F_REORDERED) != 0) {
+				pending.refresh(getParent(element));
+			}
+			if ((flags & IRodinElementDelta.F_ATTRIBUTE) != 0) {
+				pending.update(element);
+			}
+			for (IRodinElementDelta child : delta.getAffectedChildren()) {
+				processDelta(child);
+			}
+		}
+	}
+
+	/**
+	 * Utility method to get the element presented in the viewer for a Rodin
+	 * element. Rodin files are presented by their root elements.
+	 *
+	 * @param element
+	 *            a Rodin element.
+	 * @return the element presented in the viewer.
+	 */
+	private Object toViewerElement(IRodinElement element) {
+		if (element instanceof IRodinFile) {
+			return ((IRodinFile) element).getRoot();
+		}
+		return element;
+	}
+
+	/**
+	 * Utility method to take the pending changes and reset them. Returns
+	 * <code>null</code> if the content provider has been detached from the
+	 * given viewer in the mean time.
+	 *
+	 * @param target
+	 *            the viewer the changes are applied to.
+	 * @return the pending changes to be applied to the viewer.
+	 */
+	private synchronized PendingChanges takePendingChanges(
+			StructuredViewer target) {
+		refreshScheduled = false;
+		if (viewer != target)
+			return null;
+		PendingChanges result = pending;
+		pending = new PendingChanges();
+		result.resolveInsertions(projectRoots);
+		return result;
+	}
+
+	/**
+	 * <p>
+	 * The changes waiting to be applied to the viewer. Elements are kept in
+	 * insertion order and duplicates are discarded. Adding an element cancels
+	 * its pending removal and conversely, so that an element created then
+	 * deleted before the changes are applied is not added to the viewer.
+	 * </p>
+	 * <p>
+	 * Added component roots are inserted at their position among the sorted
+	 * roots of their project, which is resolved from the cached roots when
+	 * the changes are taken. Since the removals are applied first and the
+	 * insertions in the order of their positions, each position is that of
+	 * the root among the items of the project at the time it is inserted.
+	 * </p>
+	 */
+	private static class PendingChanges {
+
+		// Map from parent elements to their added children.
+		private final Map<Object, Set<Object>> additions = new LinkedHashMap<Object, Set<Object>>();
+
+		// Map from inserted roots to their projects.
+		private final Map<Object, Object> insertions = new LinkedHashMap<Object, Object>();
+
+		// The inserted roots with their positions, sorted by position, or
+		// null if not resolved yet.
+		private List<Insertion> resolvedInsertions;
+
+		// The removed elements.
+		private final Set<Object> removals = new LinkedHashSet<Object>();
+
+		// The elements whose labels must be updated.
+		private final Set<Object> updates = new LinkedHashSet<Object>();
+
+		// The elements whose sub-trees must be refreshed.
+		private final Set<Object> refreshes = new LinkedHashSet<Object>();
+
+		// The total number of recorded changes.
+		private int size;
+
+		void add(Object parent, Object element) {
+			if (removals.remove(element))
+				size--;
+			Set<Object> children = additions.get(parent);
+			if (children == null) {
+				children = new LinkedHashSet<Object>();
+				additions.put(parent, children);
+			}
+			if (children.add(element))
+				size++;
+		}
+
+		void insert(Object project, Object root) {
+			// A root removed then added again is still presented: refresh
+			// it instead.
+			if (removals.remove(root)) {
+				size--;
+				refresh(root);
+				return;
+			}
+			if (insertions.put(root, project) == null)
+				size++;
+		}
+
+		void remove(Object element) {
+			for (Set<Object> children : additions.values()) {
+				if (children.remove(element))
+					size--;
+			}
+			if (insertions.remove(element) != null)
+				size--;
+			if (removals.add(element))
+				size++;
+		}
+
+		void update(Object element) {
+			if (updates.add(element))
+				size++;
+		}
+
+		void refresh(Object element) {
+			if (refreshes.add(element))
+				size++;
+		}
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		void clear() {
+			additions.clear();
+			insertions.clear();
+			resolvedInsertions = null;
+			removals.clear();
+			updates.clear();
+			refreshes.clear();
+			size = 0;
+		}
+
+		/**
+		 * Resolves the positions of the inserted roots among the cached roots
+		 * of their projects. The projects whose roots are no longer cached
+		 * are refreshed instead. Must be called while holding the lock of the
+		 * content provider.
+		 *
+		 * @param projectRoots
+		 *            map from projects to their sorted cached roots.
+		 */
+		void resolveInsertions(
+				Map<IRodinProject, IInternalElement[]> projectRoots) {
+			resolvedInsertions = new ArrayList<Insertion>(insertions.size());
+			for (Map.Entry<Object, Object> entry : insertions.entrySet()) {
+				IInternalElement[] roots = projectRoots.get(entry.getValue());
+				int position = roots == null ? -1 : Arrays.binarySearch(roots,
+						(IInternalElement) entry.getKey(), ROOT_ORDER);
+				if (position < 0)
+					refresh(entry.getValue());
+				else
+					resolvedInsertions.add(new Insertion(entry.getValue(),
+							entry.getKey(), position));
+			}
+			Collections.sort(resolvedInsertions);
+		}
+
+		/**
+		 * Applies the changes to the given viewer. Falls back to a full
+		 * refresh for non-tree viewers or when there are too many changes.
+		 *
+		 * @param viewer
+		 *            a structured viewer.
+		 */
+		void applyTo(StructuredViewer viewer) {
+			if (size > MAX_INCREMENTAL_CHANGES
+					|| !(viewer instanceof AbstractTreeViewer)) {
+				viewer.refresh();
+				return;
+			}
+			AbstractTreeViewer treeViewer = (AbstractTreeViewer) viewer;
+			if (!removals.isEmpty()) {
+				treeViewer.remove(removals.toArray());
+			}
+			if (resolvedInsertions != null) {
+				for (Insertion insertion : resolvedInsertions) {
+					treeViewer.insert(insertion.project, insertion.root,
+							insertion.position);
+				}
+			}
+			for (Map.Entry<Object, Set<Object>> entry : additions.entrySet()) {
+				if (entry.getValue().isEmpty())
+					continue;
+				treeViewer.add(entry.getKey(), entry.getValue().toArray());
+			}
+			for (Object element : refreshes) {
+				treeViewer.refresh(element, true);
+			}
+			if (!updates.isEmpty()) {
+				treeViewer.update(updates.toArray(), null);
+			}
+		}
+
+	}
+
+	/**
+	 * <p>
+	 * A root to be inserted in the viewer, with its position among the
+	 * sorted roots of its project.
+	 * </p>
+	 */
+	private static class Insertion implements Comparable<Insertion> {
+
+		final Object project;
+
+		final Object root;
+
+		final int position;
+
+		Insertion(Object project, Object root, int position) {
+			this.project = project;
+			this.root = root;
+			this.position = position;
+		}
+
+		@Override
+		public int compareTo(Insertion other) {
+			return position - other.position;
+		}
+
+	}
+
+	/**
+	 * <p>
+	 * The cached roots of the projects, as monitored through
+	 * {@link CacheRegistry}.
+	 * </p>
+	 */
+	private class RootsCache implements ManagedCache {
+
+		// The name of the cache, unique among the content providers.
+		private final String name = "EventBContentProvider@" //$NON-NLS-1$
+				+ Integer.toHexString(System.identityHashCode(
+						EventBContentProvider.this)) + ".roots"; //$NON-NLS-1$
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see ManagedCache#getName()
+		 */
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see ManagedCache#getSize()
+		 */
+		@Override
+		public int getSize() {
+			synchronized (EventBContentProvider.this) {
+				return projectRoots.size();
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see ManagedCache#getHits()
+		 */
+		@Override
+		public long getHits() {
+			synchronized (EventBContentProvider.this) {
+				return rootsHits;
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see ManagedCache#getMisses()
+		 */
+		@Override
+		public long getMisses() {
+			synchronized (EventBContentProvider.this) {
+				return rootsMisses;
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see ManagedCache#clear()
+		 */
+		@Override
+		public void clear() {
+			synchronized (EventBContentProvider.this) {
+				clearProjectRoots();
+			}
+		}
+
+	}
+
+	/**
+	 * <p>
+	 * The UI job applying the pending changes to the viewer.
+	 * </p>
+	 */
+	private class RefreshJob extends UIJob {
+
+		// The viewer to be updated.
+		private final StructuredViewer target;
+
+		RefreshJob(StructuredViewer target) {
+			super(target.getControl().getDisplay(),
+					Messages.job_RefreshEventBViewer);
+			this.target = target;
+			setSystem(true);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see UIJob#runInUIThread(IProgressMonitor)
+		 */
+		@Override
+		public IStatus runInUIThread(IProgressMonitor monitor) {
+			PendingChanges changes = takePendingChanges(target);
+			Control control = target.getControl();
+			if (changes == null || control == null || control.isDisposed())
+				return Status.OK_STATUS;
+			control.setRedraw(false);
+			try {
+				changes.applyTo(target);
+			} finally {
+				control.setRedraw(true);
+			}
+			return Status.OK_STATUS;
+		}
+
 	}
 
 }
@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.ui.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.ui.plugin.AbstractUIPlugin;
+import org.eventb.core.IAction;
+import org.eventb.core.IAxiom;
+import org.eventb.core.ICarrierSet;
+import org.eventb.core.IConstant;
+import org.eventb.core.IContextRoot;
+import org.eventb.core.IEvent;
+import org.eventb.core.IGuard;
+import org.eventb.core.IInvariant;
+import org.eventb.core.IMachineRoot;
+import org.eventb.core.IParameter;
+import org.eventb.core.IVariable;
+import org.rodinp.core.IInternalElement;
+import org.rodinp.core.IInternalElementType;
+
+/**
+ * <p>
+ * A shared, reference-counted registry of the images associated with Event-B
+ * internal element types. At most one {@link Image} is created per element
+ * type, however many elements are displayed. The images are disposed when the
+ * last client disconnects from the registry.
+ * </p>
+ * <p>
+ * By default, the icons of the Event-B UI plug-in are used when that plug-in
+ * is installed. Clients can associate other images with element types using
+ * {@link #registerImageDescriptor(IInternalElementType, ImageDescriptor)}.
+ * All methods must be called from the UI thread, since they allocate or
+ * dispose images.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBLabelProvider
+ * @since 0.2.5
+ */
+public final class EventBImageRegistry {
+
+	// The plug-in providing the default Event-B icons.
+	private static final String EVENTB_UI_PLUGIN_ID = "org.eventb.ui"; //$NON-NLS-1$
+
+	// The path of the default Event-B icons within the plug-in.
+	private static final String ICONS_PATH = "icons/full/obj16/"; //$NON-NLS-1$
+
+	// Map from element types to their default icon file names.
+	private static final Map<IInternalElementType<?>, String> DEFAULT_ICONS = new HashMap<IInternalElementType<?>, String>();
+	static {
+		DEFAULT_ICONS.put(IMachineRoot.ELEMENT_TYPE, "mch_obj.gif"); //$NON-NLS-1$
+		DEFAULT_ICONS.put(IContextRoot.ELEMENT_TYPE, "ctx_obj.gif"); //$NON-NLS-1$
+		DEFAULT_ICONS.put(ICarrierSet.ELEMENT_TYPE, "set_obj.gif"); //$NON-NLS-1$
+		DEFAULT_ICONS.put(IConstant.ELEMENT_TYPE, "cst_obj.gif"); //$NON-NLS-1$
+		DEFAULT_ICONS.put(IAxiom.ELEMENT_TYPE, "axm_obj.gif"); //$NON-NLS-1$
+		DEFAULT_ICONS.put(IVariable.ELEMENT_TYPE, "var_obj.gif"); //$NON-NLS-1$
+		DEFAULT_ICONS.put(IInvariant.ELEMENT_TYPE, "inv_obj.gif"); //$NON-NLS-1$
+		DEFAULT_ICONS.put(IEvent.ELEMENT_TYPE, "evt_obj.gif"); //$NON-NLS-1$
+		DEFAULT_ICONS.put(IParameter.ELEMENT_TYPE, "par_obj.gif"); //$NON-NLS-1$
+		DEFAULT_ICONS.put(IGuard.ELEMENT_TYPE, "grd_obj.gif"); //$NON-NLS-1$
+		DEFAULT_ICONS.put(IAction.ELEMENT_TYPE, "act_obj.gif"); //$NON-NLS-1$
+	}
+
+	// Map from element types to the descriptors registered by clients.
+	private static final Map<IInternalElementType<?>, ImageDescriptor> descriptors = new HashMap<IInternalElementType<?>, ImageDescriptor>();
+
+	// Map from element types to their images (null for types without image).
+	private static final Map<IInternalElementType<?>, Image> images = new HashMap<IInternalElementType<?>, Image>();
+
+	// The images replaced by a registration, which viewers may still show.
+	private static final List<Image> replacedImages = new ArrayList<Image>();
+
+	// The number of connected clients.
+	private static int references;
+
+	private EventBImageRegistry() {
+		// Utility classes shall not have a public or default constructor.
+	}
+
+	/**
+	 * Connects a client to the registry. Each call must be balanced with a
+	 * call to {@link #disconnect()}.
+	 */
+	public static synchronized void connect() {
+		references++;
+	}
+
+	/**
+	 * Disconnects a client from the registry. The images are disposed when the
+	 * last client disconnects.
+	 */
+	public static synchronized void disconnect() {
+		if (references == 0)
+			return;
+		references--;
+		if (references == 0)
+			disposeImages();
+	}
+
+	/**
+	 * Associates an image with an element type, replacing the default one.
+	 * Elements of the given type displayed afterwards use the new image. The
+	 * replaced image is kept until the last client disconnects, since
+	 * connected viewers may still show it.
+	 *
+	 * @param type
+	 *            an internal element type.
+	 * @param descriptor
+	 *            the descriptor of the image, or <code>null</code> to
+	 *            restore the default image.
+	 */
+	public static synchronized void registerImageDescriptor(
+			IInternalElementType<? extends IInternalElement> type,
+			ImageDescriptor descriptor) {
+		if (descriptor == null)
+			descriptors.remove(type);
+		else
+			descriptors.put(type, descriptor);
+		Image old = images.remove(type);
+		if (old != null)
+			replacedImages.add(old);
+	}
+
+	/**
+	 * Returns the image associated with an element type. The image is shared
+	 * and must not be disposed by clients. Clients must be connected to the
+	 * registry.
+	 *
+	 * @param type
+	 *            an internal element type.
+	 * @return the image associated with the element type, or
+	 *         <code>null</code> if there is none.
+	 */
+	public static synchronized Image getImage(
+			IInternalElementType<? extends IInternalElement> type) {
+		if (references == 0)
+			return null;
+		if (images.containsKey(type))
+			return images.get(type);
+		ImageDescriptor descriptor = getImageDescriptor(type);
+		Image image = descriptor == null ? null : descriptor.createImage(false);
+		images.put(type, image);
+		return image;
+	}
+
+	/**
+	 * Returns the number of images currently allocated by the registry.
+	 *
+	 * @return the number of allocated images.
+	 */
+	public static synchronized int getImageCount() {
+		int count = replacedImages.size();
+		for (Image image : images.values()) {
+			if (image != null)
+				count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Utility method to get the descriptor of the image associated with an
+	 * element type.
+	 *
+	 * @param type
+	 *            an internal element type.
+	 * @return the image descriptor or <code>null</code> if there is none.
+	 */
+	private static ImageDescriptor getImageDescriptor(
+			IInternalElementType<?> type) {
+		ImageDescriptor descriptor = descriptors.get(type);
+		if (descriptor != null)
+			return descriptor;
+		String icon = DEFAULT_ICONS.get(type);
+		if (icon == null)
+			return null;
+		return AbstractUIPlugin.imageDescriptorFromPlugin(EVENTB_UI_PLUGIN_ID,
+				ICONS_PATH + icon);
+	}
+
+	/**
+	 * Utility method to dispose all images of the registry, including the
+	 * replaced ones.
+	 */
+	private static void disposeImages() {
+		for (Image image : images.values()) {
+			if (image != null)
+				image.dispose();
+		}
+		images.clear();
+		for (Image image : replacedImages) {
+			image.dispose();
+		}
+		replacedImages.clear();
+	}
+
+}
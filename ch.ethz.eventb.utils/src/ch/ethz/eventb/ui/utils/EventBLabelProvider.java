@@ -17,9 +17,13 @@ package ch.ethz.eventb.ui.utils;
 import org.eclipse.jface.viewers.ILabelProvider;
 import org.eclipse.jface.viewers.LabelProvider;
 import org.eclipse.swt.graphics.Image;
+import org.eclipse.ui.ISharedImages;
+import org.eclipse.ui.PlatformUI;
 import org.eventb.core.IEventBRoot;
 import org.eventb.core.IIdentifierElement;
 import org.eventb.core.ILabeledElement;
+import org.rodinp.core.IInternalElement;
+import org.rodinp.core.IRodinProject;
 import org.rodinp.core.RodinDBException;
 
 /**
@@ -27,14 +31,48 @@ import org.rodinp.core.RodinDBException;
  * An impmentation of {@link ILabelProvider} extending {@link LabelProvider} to
  * provide label information, i.e., text and images for Event-B elements.
  * </p>
+ * <p>
+ * Images are resolved per element type through the shared
+ * {@link EventBImageRegistry}, so that all elements of the same type share the
+ * same image. The label provider is connected to the registry until it is
+ * disposed.
+ * </p>
  *
  * @author htson
- * @version 0.1
+ * @version 0.2
  * @since 0.2.2
  */
 public class EventBLabelProvider extends LabelProvider implements
 		ILabelProvider {
 
+	// Flag to indicate if the label provider has been disposed.
+	private boolean disposed;
+
+	/**
+	 * Public constructor to create a label provider connected to the shared
+	 * image registry.
+	 */
+	public EventBLabelProvider() {
+		super();
+		EventBImageRegistry.connect();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see LabelProvider#dispose()
+	 */
+	@Override
+	public void dispose() {
+		// Disconnect once, so that the images used by other label providers
+		// are kept.
+		if (!disposed) {
+			disposed = true;
+			EventBImageRegistry.disconnect();
+		}
+		super.dispose();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -42,6 +80,20 @@ public class EventBLabelProvider extends LabelProvider implements
 	 */
 	@Override
 	public Image getImage(Object element) {
+		if (element instanceof IRodinProject) {
+			return PlatformUI.getWorkbench().getSharedImages()
+					.getImage(ISharedImages.IMG_OBJ_PROJECT);
+		}
+
+		if (element instanceof IInternalElement) {
+			Image image = EventBImageRegistry
+					.getImage(((IInternalElement) element).getElementType());
+			if (image != null)
+				return image;
+			return PlatformUI.getWorkbench().getSharedImages()
+					.getImage(ISharedImages.IMG_OBJ_ELEMENT);
+		}
+
 		return super.getImage(element);
 	}
 
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.ui.utils;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerFilter;
+import org.rodinp.core.IInternalElement;
+import org.rodinp.core.IRodinElement;
+
+/**
+ * <p>
+ * An extension of {@link ViewerFilter} for selecting the Event-B elements
+ * matching a search text, using an {@link EventBSearchIndex}. The matching
+ * elements and their ancestors are selected, so that the filter can be used
+ * for tree viewers populated by {@link EventBContentProvider}. An empty search
+ * text selects all elements.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBSearchIndex
+ * @since 0.2.5
+ */
+public class EventBSearchFilter extends ViewerFilter {
+
+	// The index used for searching.
+	private final EventBSearchIndex index;
+
+	// The maximum number of matches considered.
+	private final int maxResults;
+
+	// The current search text.
+	private String text = ""; //$NON-NLS-1$
+
+	// The matching elements and their ancestors.
+	private Set<Object> selected = Collections.emptySet();
+
+	/**
+	 * Public constructor to create a filter based on the given index.
+	 *
+	 * @param index
+	 *            the search index.
+	 * @param maxResults
+	 *            the maximum number of matches considered, or a negative
+	 *            number for no limit.
+	 */
+	public EventBSearchFilter(EventBSearchIndex index, int maxResults) {
+		this.index = index;
+		this.maxResults = maxResults;
+	}
+
+	/**
+	 * Sets the search text and computes the matching elements. Clients must
+	 * refresh the viewer afterwards.
+	 *
+	 * @param text
+	 *            the search text.
+	 */
+	public void setSearchText(String text) {
+		this.text = text == null ? "" : text.trim(); //$NON-NLS-1$
+		if (this.text.length() == 0) {
+			selected = Collections.emptySet();
+			return;
+		}
+		List<IInternalElement> matches = index.search(this.text, maxResults);
+		Set<Object> result = new HashSet<Object>();
+		for (IInternalElement match : matches) {
+			IRodinElement element = match;
+			while (element != null && result.add(element)) {
+				if (element instanceof IInternalElement
+						&& ((IInternalElement) element).isRoot()) {
+					// Roots are presented directly under their project.
+					element = element.getRodinProject();
+				} else {
+					element = element.getParent();
+				}
+			}
+		}
+		selected = result;
+	}
+
+	/**
+	 * Returns the current search text.
+	 *
+	 * @return the search text.
+	 */
+	public String getSearchText() {
+		return text;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see ViewerFilter#select(Viewer, Object, Object)
+	 */
+	@Override
+	public boolean select(Viewer viewer, Object parentElement, Object element) {
+		if (text.length() == 0)
+			return true;
+		return selected.contains(element);
+	}
+
+}
@@ -0,0 +1,574 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.ui.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eventb.core.IContextRoot;
+import org.eventb.core.IEventBRoot;
+import org.eventb.core.IIdentifierElement;
+import org.eventb.core.ILabeledElement;
+import org.eventb.core.IMachineRoot;
+import org.rodinp.core.ElementChangedEvent;
+import org.rodinp.core.IElementChangedListener;
+import org.rodinp.core.IInternalElement;
+import org.rodinp.core.IRodinDB;
+import org.rodinp.core.IRodinElement;
+import org.rodinp.core.IRodinElementDelta;
+import org.rodinp.core.IRodinFile;
+import org.rodinp.core.IRodinProject;
+import org.rodinp.core.RodinCore;
+import org.rodinp.core.RodinDBException;
+
+import ch.ethz.eventb.internal.utils.Messages;
+
+/**
+ * <p>
+ * An index of the labels and identifiers of the Event-B elements of machines
+ * and contexts, supporting quick prefix and substring searches. The index is
+ * built in a background job and is maintained incrementally from the changes
+ * of the Rodin database: only the components that changed are re-indexed.
+ * </p>
+ * <p>
+ * Searches are case-insensitive and can be performed at any time. While the
+ * index is being (re-)built, searches return the matches among the elements
+ * indexed so far (see {@link #isReady()}).
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBSearchFilter
+ * @since 0.2.5
+ */
+public class EventBSearchIndex implements IElementChangedListener {
+
+	// The scope of the index, i.e. the Rodin database or a Rodin project.
+	private final IRodinElement scope;
+
+	// Map from indexed files to their entries (guarded by this).
+	private final Map<IRodinFile, Entry[]> entries = new HashMap<IRodinFile, Entry[]>();
+
+	// The files waiting to be (re-)indexed (guarded by this).
+	private final Set<IRodinFile> dirtyFiles = new LinkedHashSet<IRodinFile>();
+
+	// The Rodin database or projects whose components are waiting to be
+	// listed by the background job (guarded by this).
+	private final Set<IRodinElement> dirtyScopes = new LinkedHashSet<IRodinElement>();
+
+	// Entries of all files sorted by key, or null if out of date (guarded by
+	// this).
+	private Entry[] sortedEntries;
+
+	// The background job maintaining the index.
+	private final Job indexJob;
+
+	// Flag to indicate if the index has been disposed.
+	private volatile boolean disposed;
+
+	/**
+	 * Creates a search index for all machines and contexts of the given Rodin
+	 * project, or of all Rodin projects if the scope is the Rodin database.
+	 * The index is built in the background, starting immediately: even the
+	 * components to index are listed in the background.
+	 *
+	 * @param scope
+	 *            either an {@link IRodinDB} or an {@link IRodinProject}.
+	 */
+	public EventBSearchIndex(IRodinElement scope) {
+		this.scope = scope;
+		indexJob = new IndexJob();
+		RodinCore.addElementChangedListener(this);
+		synchronized (this) {
+			dirtyScopes.add(scope);
+		}
+		indexJob.schedule();
+	}
+
+	/**
+	 * Returns the scope of the index.
+	 *
+	 * @return the Rodin database or the Rodin project indexed.
+	 */
+	public IRodinElement getScope() {
+		return scope;
+	}
+
+	/**
+	 * Returns whether all components in the scope have been indexed, i.e.
+	 * there are no pending changes to be indexed.
+	 *
+	 * @return <code>true</code> if the index is up-to-date, <code>false</code>
+	 *         otherwise.
+	 */
+	public synchronized boolean isReady() {
+		return dirtyScopes.isEmpty() && dirtyFiles.isEmpty()
+				&& indexJob.getState() == Job.NONE;
+	}
+
+	/**
+	 * Waits until the index is up-to-date.
+	 *
+	 * @throws InterruptedException
+	 *             if the waiting thread is interrupted.
+	 */
+	public void waitUntilReady() throws InterruptedException {
+		indexJob.join();
+	}
+
+	/**
+	 * Searches the index for elements whose label or identifier contains the
+	 * given text (ignoring case). Elements whose label or identifier start
+	 * with the text are returned first, followed by the other matches. Each
+	 * group is sorted by label or identifier.
+	 *
+	 * @param text
+	 *            the text to search for.
+	 * @param maxResults
+	 *            the maximum number of results, or a negative number for no
+	 *            limit.
+	 * @return the list of matching elements (without duplicates).
+	 */
+	public List<IInternalElement> search(String text, int maxResults) {
+		String key = normalise(text);
+		Entry[] all = getSortedEntries();
+		Set<IInternalElement> result = new LinkedHashSet<IInternalElement>();
+		if (key.length() == 0 || maxResults == 0)
+			return new ArrayList<IInternalElement>(result);
+
+		// 1. Prefix matches form a contiguous range of the sorted entries.
+		int start = lowerBound(all, key);
+		int end = start;
+		for (; end < all.length && all[end].key.startsWith(key); end++) {
+			result.add(all[end].element);
+			if (result.size() == maxResults)
+				return new ArrayList<IInternalElement>(result);
+		}
+
+		// 2. Substring matches outside the prefix range.
+		for (int i = 0; i < all.length; i++) {
+			if (i >= start && i < end)
+				continue;
+			if (all[i].key.contains(key)) {
+				result.add(all[i].element);
+				if (result.size() == maxResults)
+					break;
+			}
+		}
+		return new ArrayList<IInternalElement>(result);
+	}
+
+	/**
+	 * Disposes the index: stops listening to the Rodin database and cancels
+	 * the background indexing.
+	 */
+	public void dispose() {
+		disposed = true;
+		RodinCore.removeElementChangedListener(this);
+		indexJob.cancel();
+		synchronized (this) {
+			entries.clear();
+			dirtyFiles.clear();
+			dirtyScopes.clear();
+			sortedEntries = null;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see IElementChangedListener#elementChanged(ElementChangedEvent)
+	 */
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		if (disposed)
+			return;
+		boolean pending;
+		synchronized (this) {
+			processDelta(event.getDelta());
+			pending = !dirtyScopes.isEmpty() || !dirtyFiles.isEmpty();
+		}
+		if (pending)
+			indexJob.schedule();
+	}
+
+	/**
+	 * Utility method to mark the component files affected by a delta as
+	 * dirty. Removed files are dropped from the index immediately. The
+	 * components of added projects are listed by the background job. Must be
+	 * called while holding the lock of this index.
+	 *
+	 * @param delta
+	 *            a Rodin element delta.
+	 */
+	private void processDelta(IRodinElementDelta delta) {
+		IRodinElement element = delta.getElement();
+		if (element instanceof IRodinFile) {
+			IRodinFile file = (IRodinFile) element;
+			if (!isInScope(file) || !isComponent(file))
+				return;
+			if (delta.getKind() == IRodinElementDelta.REMOVED) {
+				dirtyFiles.remove(file);
+				if (entries.remove(file) != null)
+					sortedEntries = null;
+			} else {
+				dirtyFiles.add(file);
+			}
+			return;
+		}
+		if (element instanceof IRodinProject
+				&& (delta.getKind() == IRodinElementDelta.REMOVED || (delta
+						.getFlags() & IRodinElementDelta.F_CLOSED) != 0)) {
+			removeProject((IRodinProject) element);
+			return;
+		}
+		// The children of added projects are not reported in the delta.
+		if (element instanceof IRodinProject
+				&& (delta.getKind() == IRodinElementDelta.ADDED || (delta
+						.getFlags() & IRodinElementDelta.F_OPENED) != 0)
+				&& isInScope(element)) {
+			dirtyScopes.add(element);
+			return;
+		}
+		for (IRodinElementDelta child : delta.getAffectedChildren()) {
+			processDelta(child);
+		}
+	}
+
+	/**
+	 * Utility method to drop all files of a project from the index. Must be
+	 * called while holding the lock of this index.
+	 *
+	 * @param project
+	 *            a Rodin project.
+	 */
+	private void removeProject(IRodinProject project) {
+		dirtyScopes.remove(project);
+		for (Iterator<IRodinFile> it = dirtyFiles.iterator(); it.hasNext();) {
+			if (project.equals(it.next().getRodinProject()))
+				it.remove();
+		}
+		for (Iterator<IRodinFile> it = entries.keySet().iterator(); it
+				.hasNext();) {
+			if (project.equals(it.next().getRodinProject())) {
+				it.remove();
+				sortedEntries = null;
+			}
+		}
+	}
+
+	/**
+	 * Utility method to check if an element is within the scope of the index.
+	 *
+	 * @param element
+	 *            a Rodin element.
+	 * @return <code>true</code> if the element is within the scope.
+	 */
+	private boolean isInScope(IRodinElement element) {
+		return scope instanceof IRodinDB
+				|| scope.equals(element.getRodinProject());
+	}
+
+	/**
+	 * Utility method to check if a file is a (unchecked) machine or context.
+	 *
+	 * @param file
+	 *            a Rodin file.
+	 * @return <code>true</code> if the file is a machine or a context.
+	 */
+	private static boolean isComponent(IRodinFile file) {
+		IInternalElement root = file.getRoot();
+		return root instanceof IMachineRoot || root instanceof IContextRoot;
+	}
+
+	/**
+	 * Utility method to get the machine and context files within a scope.
+	 *
+	 * @param element
+	 *            either the Rodin database or a Rodin project.
+	 * @return the collection of machine and context files.
+	 */
+	private static Collection<IRodinFile> getComponentFiles(
+			IRodinElement element) {
+		Collection<IRodinFile> result = new ArrayList<IRodinFile>();
+		try {
+			IRodinProject[] projects;
+			if (element instanceof IRodinDB) {
+				projects = ((IRodinDB) element).getRodinProjects();
+			} else if (element instanceof IRodinProject) {
+				projects = new IRodinProject[] { (IRodinProject) element };
+			} else {
+				return result;
+			}
+			for (IRodinProject project : projects) {
+				if (!project.exists())
+					continue;
+				for (IRodinFile file : project.getRodinFiles()) {
+					if (isComponent(file))
+						result.add(file);
+				}
+			}
+		} catch (RodinDBException e) {
+			e.printStackTrace();
+		}
+		return result;
+	}
+
+	/**
+	 * Utility method to get all entries sorted by key, sorting them again if
+	 * the index changed since the last search.
+	 *
+	 * @return the sorted entries.
+	 */
+	private synchronized Entry[] getSortedEntries() {
+		if (sortedEntries == null) {
+			List<Entry> all = new ArrayList<Entry>();
+			for (Entry[] fileEntries : entries.values()) {
+				all.addAll(Arrays.asList(fileEntries));
+			}
+			sortedEntries = all.toArray(new Entry[all.size()]);
+			Arrays.sort(sortedEntries);
+		}
+		return sortedEntries;
+	}
+
+	/**
+	 * Utility method to mark a file as dirty again, e.g. when its indexing
+	 * has been cancelled.
+	 *
+	 * @param file
+	 *            a machine or context file.
+	 */
+	private synchronized void markDirty(IRodinFile file) {
+		if (!disposed)
+			dirtyFiles.add(file);
+	}
+
+	/**
+	 * Utility method to take the next scope whose components are to be
+	 * listed.
+	 *
+	 * @return the Rodin database or a Rodin project, or <code>null</code> if
+	 *         there are none.
+	 */
+	private synchronized IRodinElement takeDirtyScope() {
+		Iterator<IRodinElement> it = dirtyScopes.iterator();
+		if (!it.hasNext())
+			return null;
+		IRodinElement dirtyScope = it.next();
+		it.remove();
+		return dirtyScope;
+	}
+
+	/**
+	 * Utility method to mark the listed components of a scope as dirty. A
+	 * component removed in the mean time is dropped when it is indexed.
+	 *
+	 * @param files
+	 *            the machine and context files of a scope.
+	 */
+	private synchronized void markDirty(Collection<IRodinFile> files) {
+		if (!disposed)
+			dirtyFiles.addAll(files);
+	}
+
+	/**
+	 * Utility method to take the next dirty file to be indexed.
+	 *
+	 * @return a dirty file, or <code>null</code> if there are none.
+	 */
+	private synchronized IRodinFile takeDirtyFile() {
+		Iterator<IRodinFile> it = dirtyFiles.iterator();
+		if (!it.hasNext())
+			return null;
+		IRodinFile file = it.next();
+		it.remove();
+		return file;
+	}
+
+	/**
+	 * Utility method to (re-)index a file.
+	 *
+	 * @param file
+	 *            a machine or context file.
+	 * @param monitor
+	 *            the progress monitor used to check for cancellation.
+	 */
+	private void indexFile(IRodinFile file, IProgressMonitor monitor) {
+		List<Entry> fileEntries = new ArrayList<Entry>();
+		try {
+			if (file.exists())
+				collectEntries(file.getRoot(), fileEntries, monitor);
+		} catch (RodinDBException e) {
+			// The file changed or disappeared in the mean time: a new delta
+			// will trigger another indexing if needed.
+			fileEntries.clear();
+		}
+		synchronized (this) {
+			if (disposed)
+				return;
+			// The file may have been removed while it was read, and its
+			// entries dropped by the delta of the removal: check again that
+			// it exists before publishing its entries. A removal after this
+			// check is processed after this block, hence is not lost.
+			if (fileEntries.isEmpty() || !file.exists())
+				entries.remove(file);
+			else
+				entries.put(file, fileEntries.toArray(new Entry[fileEntries
+						.size()]));
+			sortedEntries = null;
+		}
+	}
+
+	/**
+	 * Utility method to collect the entries of an element and its
+	 * descendants.
+	 *
+	 * @param element
+	 *            an internal element.
+	 * @param result
+	 *            the list of entries to be extended.
+	 * @param monitor
+	 *            the progress monitor used to check for cancellation.
+	 * @throws RodinDBException
+	 *             if a problem occurs while accessing the database.
+	 */
+	private void collectEntries(IInternalElement element, List<Entry> result,
+			IProgressMonitor monitor) throws RodinDBException {
+		if (monitor.isCanceled())
+			throw new OperationCanceledException();
+		if (element instanceof IEventBRoot) {
+			addEntry(result, ((IEventBRoot) element).getComponentName(),
+					element);
+		}
+		if (element instanceof ILabeledElement
+				&& ((ILabeledElement) element).hasLabel()) {
+			addEntry(result, ((ILabeledElement) element).getLabel(), element);
+		}
+		if (element instanceof IIdentifierElement
+				&& ((IIdentifierElement) element).hasIdentifierString()) {
+			addEntry(result,
+					((IIdentifierElement) element).getIdentifierString(),
+					element);
+		}
+		for (IRodinElement child : element.getChildren()) {
+			if (child instanceof IInternalElement)
+				collectEntries((IInternalElement) child, result, monitor);
+		}
+	}
+
+	private static void addEntry(List<Entry> result, String text,
+			IInternalElement element) {
+		String key = normalise(text);
+		if (key.length() != 0)
+			result.add(new Entry(key, element));
+	}
+
+	private static String normalise(String text) {
+		return text == null ? "" : text.trim().toLowerCase(Locale.ROOT); //$NON-NLS-1$
+	}
+
+	/**
+	 * Utility method to find the index of the first entry whose key is not
+	 * less than the given key.
+	 */
+	private static int lowerBound(Entry[] all, String key) {
+		int low = 0;
+		int high = all.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (all[mid].key.compareTo(key) < 0)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+	/**
+	 * <p>
+	 * An index entry, i.e. a normalised label or identifier with its element.
+	 * </p>
+	 */
+	private static class Entry implements Comparable<Entry> {
+
+		final String key;
+
+		final IInternalElement element;
+
+		Entry(String key, IInternalElement element) {
+			this.key = key;
+			this.element = element;
+		}
+
+		@Override
+		public int compareTo(Entry other) {
+			return key.compareTo(other.key);
+		}
+
+	}
+
+	/**
+	 * <p>
+	 * The background job listing the components of the dirty scopes, then
+	 * indexing the dirty files.
+	 * </p>
+	 */
+	private class IndexJob extends Job {
+
+		IndexJob() {
+			super(Messages.job_BuildEventBSearchIndex);
+			setSystem(true);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see Job#run(IProgressMonitor)
+		 */
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			IRodinElement dirtyScope;
+			while (!disposed && (dirtyScope = takeDirtyScope()) != null) {
+				markDirty(getComponentFiles(dirtyScope));
+			}
+			IRodinFile file;
+			while (!disposed && (file = takeDirtyFile()) != null) {
+				try {
+					indexFile(file, monitor);
+				} catch (OperationCanceledException e) {
+					markDirty(file);
+					return Status.CANCEL_STATUS;
+				}
+			}
+			return Status.OK_STATUS;
+		}
+
+	}
+
+}
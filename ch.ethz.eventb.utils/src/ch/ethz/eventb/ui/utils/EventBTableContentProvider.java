@@ -0,0 +1,313 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.ui.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.viewers.ILazyContentProvider;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.swt.widgets.Control;
+import org.eventb.core.IContextRoot;
+import org.eventb.core.IMachineRoot;
+import org.rodinp.core.IInternalElement;
+import org.rodinp.core.IInternalElementType;
+import org.rodinp.core.IRodinDB;
+import org.rodinp.core.IRodinElement;
+import org.rodinp.core.IRodinFile;
+import org.rodinp.core.IRodinProject;
+import org.rodinp.core.RodinDBException;
+
+import ch.ethz.eventb.internal.utils.Messages;
+
+/**
+ * <p>
+ * An implementation of {@link ILazyContentProvider} presenting, as a flat
+ * list, all Event-B elements of some given types within the input (the Rodin
+ * database, a Rodin project, a component or any internal element). It is
+ * intended for {@link TableViewer}s created with the <code>SWT.VIRTUAL</code>
+ * style, e.g. to list all guards of all events of a machine.
+ * </p>
+ * <p>
+ * The elements are collected in a background job, which only gathers element
+ * handles, and are streamed into the table: the item count grows as elements
+ * are found. Rows are materialised on demand by the table, and their
+ * attributes are only read by the label provider (see
+ * {@link EventBTableLabelProvider}) for the visible rows. When the viewer is
+ * not a table viewer, e.g. <code>null</code>, the elements are collected
+ * without updating any table (see {@link #getElement(int)}).
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBTableLabelProvider
+ * @since 0.2.5
+ */
+public class EventBTableContentProvider implements ILazyContentProvider {
+
+	// The number of elements collected between two updates of the item count.
+	private static final int CHUNK_SIZE = 512;
+
+	// The types of the presented elements.
+	private final Collection<IInternalElementType<? extends IInternalElement>> types;
+
+	// The handles of the collected elements (guarded by itself).
+	private final List<IInternalElement> elements = new ArrayList<IInternalElement>();
+
+	// The table viewer attached to this content provider, or null.
+	private TableViewer viewer;
+
+	// The job collecting the elements of the current input, or null.
+	private volatile CollectJob collectJob;
+
+	/**
+	 * Public constructor to create a content provider presenting elements of
+	 * the given types.
+	 *
+	 * @param types
+	 *            the types of the presented elements.
+	 */
+	@SafeVarargs
+	public EventBTableContentProvider(
+			IInternalElementType<? extends IInternalElement>... types) {
+		this.types = Arrays.asList(types);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see IContentProvider#dispose()
+	 */
+	@Override
+	public void dispose() {
+		cancelCollect();
+		viewer = null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see IContentProvider#inputChanged(Viewer, Object, Object)
+	 */
+	@Override
+	public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
+		// Stop the previous job before clearing, so that it cannot publish
+		// elements of the previous input afterwards.
+		synchronized (elements) {
+			cancelCollect();
+			elements.clear();
+		}
+		this.viewer = (viewer instanceof TableViewer) ? (TableViewer) viewer
+				: null;
+		if (this.viewer != null)
+			this.viewer.setItemCount(0);
+		if (!(newInput instanceof IRodinElement))
+			return;
+		CollectJob job = new CollectJob(this.viewer, (IRodinElement) newInput);
+		collectJob = job;
+		job.schedule();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see ILazyContentProvider#updateElement(int)
+	 */
+	@Override
+	public void updateElement(int index) {
+		IInternalElement element;
+		synchronized (elements) {
+			if (index >= elements.size())
+				return;
+			element = elements.get(index);
+		}
+		if (viewer != null)
+			viewer.replace(element, index);
+	}
+
+	/**
+	 * Returns the number of elements collected so far.
+	 *
+	 * @return the number of collected elements.
+	 */
+	public int getElementCount() {
+		synchronized (elements) {
+			return elements.size();
+		}
+	}
+
+	/**
+	 * Returns an element collected so far.
+	 *
+	 * @param index
+	 *            the index of the element, in the order of the input.
+	 * @return the element at the given index, or <code>null</code> if fewer
+	 *         elements have been collected.
+	 */
+	public IInternalElement getElement(int index) {
+		synchronized (elements) {
+			if (index < 0 || index >= elements.size())
+				return null;
+			return elements.get(index);
+		}
+	}
+
+	/**
+	 * Returns whether all elements of the current input have been collected.
+	 *
+	 * @return <code>true</code> if the collection is complete,
+	 *         <code>false</code> otherwise.
+	 */
+	public boolean isComplete() {
+		CollectJob job = collectJob;
+		return job == null || job.getState() == Job.NONE;
+	}
+
+	/**
+	 * Utility method to cancel the collection of elements, if any.
+	 */
+	private void cancelCollect() {
+		if (collectJob != null) {
+			collectJob.cancel();
+			collectJob = null;
+		}
+	}
+
+	/**
+	 * <p>
+	 * The background job collecting the element handles of an input.
+	 * </p>
+	 */
+	private class CollectJob extends Job {
+
+		// The table being populated, or null.
+		private final TableViewer target;
+
+		// The input whose elements are collected.
+		private final IRodinElement input;
+
+		// The elements collected but not yet published.
+		private final List<IInternalElement> buffer = new ArrayList<IInternalElement>(
+				CHUNK_SIZE);
+
+		CollectJob(TableViewer target, IRodinElement input) {
+			super(Messages.job_CollectEventBElements);
+			this.target = target;
+			this.input = input;
+			setSystem(true);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see Job#run(IProgressMonitor)
+		 */
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			try {
+				collect(input, monitor);
+				publish();
+			} catch (OperationCanceledException e) {
+				return Status.CANCEL_STATUS;
+			} catch (RodinDBException e) {
+				e.printStackTrace();
+				publish();
+			}
+			return Status.OK_STATUS;
+		}
+
+		/**
+		 * Collects the elements of the presented types within an element.
+		 */
+		private void collect(IRodinElement element, IProgressMonitor monitor)
+				throws RodinDBException {
+			if (monitor.isCanceled())
+				throw new OperationCanceledException();
+			if (element instanceof IRodinDB) {
+				for (IRodinProject project : ((IRodinDB) element)
+						.getRodinProjects()) {
+					collect(project, monitor);
+				}
+			} else if (element instanceof IRodinProject) {
+				for (IRodinFile file : ((IRodinProject) element)
+						.getRodinFiles()) {
+					IInternalElement root = file.getRoot();
+					// Only unchecked components are presented.
+					if (root instanceof IMachineRoot
+							|| root instanceof IContextRoot)
+						collect(root, monitor);
+				}
+			} else if (element instanceof IRodinFile) {
+				collect(((IRodinFile) element).getRoot(), monitor);
+			} else if (element instanceof IInternalElement) {
+				IInternalElement internal = (IInternalElement) element;
+				if (types.contains(internal.getElementType())) {
+					buffer.add(internal);
+					if (buffer.size() == CHUNK_SIZE)
+						publish();
+				}
+				for (IRodinElement child : internal.getChildren()) {
+					collect(child, monitor);
+				}
+			}
+		}
+
+		/**
+		 * Publishes the buffered elements and updates the item count of the
+		 * table accordingly.
+		 */
+		private void publish() {
+			if (buffer.isEmpty())
+				return;
+			final int count;
+			// Check that the input did not change under the same lock as
+			// inputChanged(), which clears the elements.
+			synchronized (elements) {
+				if (collectJob != this)
+					return;
+				elements.addAll(buffer);
+				count = elements.size();
+			}
+			buffer.clear();
+			if (target == null)
+				return;
+			Control control = target.getControl();
+			if (control == null || control.isDisposed())
+				return;
+			control.getDisplay().asyncExec(new Runnable() {
+
+				@Override
+				public void run() {
+					Control table = target.getControl();
+					if (collectJob == CollectJob.this && table != null
+							&& !table.isDisposed()) {
+						target.setItemCount(count);
+					}
+				}
+
+			});
+		}
+
+	}
+
+}
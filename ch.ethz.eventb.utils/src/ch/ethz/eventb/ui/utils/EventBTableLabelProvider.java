@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.ui.utils;
+
+import org.eclipse.jface.viewers.ITableLabelProvider;
+import org.eclipse.swt.graphics.Image;
+import org.eventb.core.IAssignmentElement;
+import org.eventb.core.IEventBRoot;
+import org.eventb.core.IExpressionElement;
+import org.eventb.core.ILabeledElement;
+import org.eventb.core.IPredicateElement;
+import org.rodinp.core.IInternalElement;
+import org.rodinp.core.IRodinElement;
+import org.rodinp.core.RodinDBException;
+
+/**
+ * <p>
+ * An extension of {@link EventBLabelProvider} implementing
+ * {@link ITableLabelProvider} to present Event-B elements in a table, e.g. one
+ * populated by {@link EventBTableContentProvider}. The table has the following
+ * columns:
+ * <ul>
+ * <li>{@link #LABEL_COLUMN}: the label or identifier of the element.</li>
+ * <li>{@link #FORMULA_COLUMN}: the predicate, assignment or expression string
+ * of the element, if any.</li>
+ * <li>{@link #CONTAINER_COLUMN}: the component and the labelled ancestors of
+ * the element, separated by <code>/</code>, e.g. <code>m0/evt</code> for a
+ * guard of the event <code>evt</code> of the machine <code>m0</code>.</li>
+ * </ul>
+ * Attributes are only read when a row is displayed.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBTableContentProvider
+ * @since 0.2.5
+ */
+public class EventBTableLabelProvider extends EventBLabelProvider implements
+		ITableLabelProvider {
+
+	/**
+	 * The index of the column presenting the label of the elements.
+	 */
+	public static final int LABEL_COLUMN = 0;
+
+	/**
+	 * The index of the column presenting the formula of the elements.
+	 */
+	public static final int FORMULA_COLUMN = 1;
+
+	/**
+	 * The index of the column presenting the container of the elements.
+	 */
+	public static final int CONTAINER_COLUMN = 2;
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see ITableLabelProvider#getColumnImage(Object, int)
+	 */
+	@Override
+	public Image getColumnImage(Object element, int columnIndex) {
+		if (columnIndex == LABEL_COLUMN)
+			return getImage(element);
+		return null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see ITableLabelProvider#getColumnText(Object, int)
+	 */
+	@Override
+	public String getColumnText(Object element, int columnIndex) {
+		switch (columnIndex) {
+		case LABEL_COLUMN:
+			return getText(element);
+		case FORMULA_COLUMN:
+			return getFormula(element);
+		case CONTAINER_COLUMN:
+			return getContainer(element);
+		default:
+			return ""; //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Utility method to get the formula string of an element.
+	 *
+	 * @param element
+	 *            an element.
+	 * @return the formula string of the element, or the empty string if the
+	 *         element has no formula.
+	 */
+	private String getFormula(Object element) {
+		try {
+			if (element instanceof IPredicateElement
+					&& ((IPredicateElement) element).hasPredicateString()) {
+				return ((IPredicateElement) element).getPredicateString();
+			}
+			if (element instanceof IAssignmentElement
+					&& ((IAssignmentElement) element).hasAssignmentString()) {
+				return ((IAssignmentElement) element).getAssignmentString();
+			}
+			if (element instanceof IExpressionElement
+					&& ((IExpressionElement) element).hasExpressionString()) {
+				return ((IExpressionElement) element).getExpressionString();
+			}
+		} catch (RodinDBException e) {
+			e.printStackTrace();
+		}
+		return ""; //$NON-NLS-1$
+	}
+
+	/**
+	 * Utility method to get the path of the containers of an element, i.e. the
+	 * component name followed by the labels of the labelled ancestors.
+	 *
+	 * @param element
+	 *            an element.
+	 * @return the path of the containers of the element.
+	 */
+	private String getContainer(Object element) {
+		if (!(element instanceof IInternalElement))
+			return ""; //$NON-NLS-1$
+		StringBuilder path = new StringBuilder();
+		IRodinElement parent = ((IInternalElement) element).getParent();
+		while (parent instanceof IInternalElement) {
+			String segment = null;
+			if (parent instanceof IEventBRoot) {
+				segment = ((IEventBRoot) parent).getComponentName();
+			} else if (parent instanceof ILabeledElement) {
+				segment = getText(parent);
+			}
+			if (segment != null) {
+				if (path.length() != 0)
+					path.insert(0, '/');
+				path.insert(0, segment);
+			}
+			parent = parent.getParent();
+		}
+		return path.toString();
+	}
+
+}
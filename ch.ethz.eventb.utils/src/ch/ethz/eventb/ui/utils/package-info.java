@@ -18,13 +18,32 @@
  * Currently the package contains the following classes:
  * <ul>
  * <li>{@link ch.ethz.eventb.ui.utils.EventBContentProvider}: 
- * A tree content provider populating Event-B elements.</li>
+ * A tree content provider populating Event-B elements and keeping the
+ * viewer synchronised with changes of the Rodin database.</li>
  * 
  * <li>{@link ch.ethz.eventb.ui.utils.EventBLabelProvider}:
  * A label provider for Event-B elements.</li>
  * 
+ * <li>{@link ch.ethz.eventb.ui.utils.EventBTableContentProvider}:
+ * A lazy content provider listing all Event-B elements of some types in a
+ * virtual table.</li>
+ * 
+ * <li>{@link ch.ethz.eventb.ui.utils.EventBTableLabelProvider}:
+ * A table label provider for Event-B elements.</li>
+ * 
+ * <li>{@link ch.ethz.eventb.ui.utils.EventBImageRegistry}:
+ * A shared, reference-counted registry of images for Event-B element
+ * types.</li>
+ * 
  * <li>{@link ch.ethz.eventb.ui.utils.EventBViewerFilter}:
  * A viewer filter for selecting certain Event-B internal element types</li>
+ * 
+ * <li>{@link ch.ethz.eventb.ui.utils.EventBSearchIndex}:
+ * A background-maintained index for searching Event-B elements by label or
+ * identifier.</li>
+ * 
+ * <li>{@link ch.ethz.eventb.ui.utils.EventBSearchFilter}:
+ * A viewer filter for selecting Event-B elements matching a search text.</li>
  * </ul>
  * </p>
  *
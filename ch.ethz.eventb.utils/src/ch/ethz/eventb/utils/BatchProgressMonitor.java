@@ -0,0 +1,272 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+
+package ch.ethz.eventb.utils;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+import ch.ethz.eventb.internal.utils.Messages;
+
+/**
+ * <p>
+ * A progress monitor aggregating the progress of bulk operations, e.g. the
+ * generation of many elements with {@link EventBUtils}. Instead of reporting
+ * the steps of each element (task names, sub-tasks and work), the utilities
+ * only count the operations performed with this monitor, and the progress
+ * is reported to the wrapped monitor at most every some number of
+ * operations or some time interval, whichever comes first. Each report
+ * consists of one call to {@link IProgressMonitor#worked(int)}, one call to
+ * {@link IProgressMonitor#subTask(String)} and one cancellation check.
+ * </p>
+ * <p>
+ * The calls made to this monitor by other operations (e.g. saving a file)
+ * are absorbed: they are not forwarded to the wrapped monitor, and
+ * cancellation is only noticed at the next report. Clients can count their
+ * own operations with {@link #advance(int)}, and must call
+ * {@link #finish()} at the end of the batch. When the wrapped monitor is
+ * cancelled, the next operation throws an
+ * {@link OperationCanceledException} before changing the database.
+ * </p>
+ * <p>
+ * As any progress monitor, an instance must only be used by one thread.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @since 0.2.5
+ */
+public class BatchProgressMonitor implements IProgressMonitor {
+
+	/**
+	 * The default number of operations between two reports.
+	 */
+	public static final int DEFAULT_GRANULARITY = 100;
+
+	/**
+	 * The default maximal interval between two reports, in milliseconds.
+	 */
+	public static final long DEFAULT_INTERVAL = 100;
+
+	// The monitor to which the progress is reported.
+	private final IProgressMonitor monitor;
+
+	// The expected number of operations, or UNKNOWN.
+	private final int operations;
+
+	// The number of operations between two reports.
+	private final int granularity;
+
+	// The maximal interval between two reports, in nanoseconds.
+	private final long interval;
+
+	// The number of operations performed.
+	private int performed;
+
+	// The number of operations performed at the last report.
+	private int reported;
+
+	// The time of the last report, as given by System.nanoTime().
+	private long reportTime;
+
+	// Whether the wrapped monitor was cancelled at the last report.
+	private boolean canceled;
+
+	/**
+	 * Public constructor to create a monitor reporting every
+	 * {@link #DEFAULT_GRANULARITY} operations or {@link #DEFAULT_INTERVAL}
+	 * milliseconds.
+	 * 
+	 * @param monitor
+	 *            the monitor to which the progress is reported, or
+	 *            <code>null</code>.
+	 * @param name
+	 *            the name of the batch.
+	 * @param operations
+	 *            the expected number of operations, or
+	 *            {@link IProgressMonitor#UNKNOWN}.
+	 */
+	public BatchProgressMonitor(IProgressMonitor monitor, String name,
+			int operations) {
+		this(monitor, name, operations, DEFAULT_GRANULARITY, DEFAULT_INTERVAL);
+	}
+
+	/**
+	 * Public constructor to create a monitor with the given reporting
+	 * frequency. The task of the wrapped monitor is begun with the given name
+	 * and number of operations.
+	 * 
+	 * @param monitor
+	 *            the monitor to which the progress is reported, or
+	 *            <code>null</code>.
+	 * @param name
+	 *            the name of the batch.
+	 * @param operations
+	 *            the expected number of operations, or
+	 *            {@link IProgressMonitor#UNKNOWN}.
+	 * @param granularity
+	 *            the number of operations between two reports.
+	 * @param interval
+	 *            the maximal interval between two reports, in milliseconds.
+	 */
+	public BatchProgressMonitor(IProgressMonitor monitor, String name,
+			int operations, int granularity, long interval) {
+		this.monitor = monitor == null ? new NullProgressMonitor() : monitor;
+		this.operations = operations;
+		this.granularity = Math.max(granularity, 1);
+		this.interval = interval * 1000000L;
+		this.monitor.beginTask(name, operations);
+		reportTime = System.nanoTime();
+	}
+
+	/**
+	 * Counts some operations, reporting the progress if enough operations
+	 * were performed or enough time elapsed since the last report. This is
+	 * called by the utilities for each operation.
+	 * 
+	 * @param count
+	 *            the number of performed operations.
+	 * @throws OperationCanceledException
+	 *             if the wrapped monitor is cancelled.
+	 */
+	public void advance(int count) {
+		performed += count;
+		if (performed - reported >= granularity
+				|| System.nanoTime() - reportTime >= interval)
+			report();
+		if (canceled)
+			throw new OperationCanceledException();
+	}
+
+	/**
+	 * Returns the number of operations performed so far.
+	 * 
+	 * @return the number of performed operations.
+	 */
+	public int getPerformed() {
+		return performed;
+	}
+
+	/**
+	 * Reports the remaining progress and ends the task of the wrapped
+	 * monitor.
+	 */
+	public void finish() {
+		report();
+		monitor.done();
+	}
+
+	/**
+	 * Utility method to report the progress to the wrapped monitor.
+	 */
+	private void report() {
+		if (performed != reported) {
+			monitor.worked(performed - reported);
+			if (operations == UNKNOWN)
+				monitor.subTask(Messages.bind(
+						Messages.progress_BatchOperations, performed));
+			else
+				monitor.subTask(Messages.bind(
+						Messages.progress_BatchOperationsOf, performed,
+						operations));
+			reported = performed;
+		}
+		reportTime = System.nanoTime();
+		canceled = monitor.isCanceled();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see IProgressMonitor#beginTask(String, int)
+	 */
+	@Override
+	public void beginTask(String name, int totalWork) {
+		// Absorbed.
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see IProgressMonitor#done()
+	 */
+	@Override
+	public void done() {
+		// Absorbed, the batch ends with finish().
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see IProgressMonitor#internalWorked(double)
+	 */
+	@Override
+	public void internalWorked(double work) {
+		// Absorbed.
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see IProgressMonitor#isCanceled()
+	 */
+	@Override
+	public boolean isCanceled() {
+		return canceled;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see IProgressMonitor#setCanceled(boolean)
+	 */
+	@Override
+	public void setCanceled(boolean value) {
+		canceled = value;
+		monitor.setCanceled(value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see IProgressMonitor#setTaskName(String)
+	 */
+	@Override
+	public void setTaskName(String name) {
+		// Absorbed.
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see IProgressMonitor#subTask(String)
+	 */
+	@Override
+	public void subTask(String name) {
+		// Absorbed.
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see IProgressMonitor#worked(int)
+	 */
+	@Override
+	public void worked(int work) {
+		// Absorbed.
+	}
+
+}
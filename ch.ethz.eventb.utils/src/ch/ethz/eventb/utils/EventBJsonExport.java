@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eventb.core.IContextRoot;
+import org.eventb.core.IEventBProject;
+import org.eventb.core.IEventBRoot;
+import org.eventb.core.IMachineRoot;
+import org.rodinp.core.IRodinFile;
+import org.rodinp.core.IRodinProject;
+import org.rodinp.core.RodinDBException;
+
+import ch.ethz.eventb.internal.utils.Messages;
+import ch.ethz.eventb.internal.utils.NdjsonWriter;
+
+/**
+ * <p>
+ * Utility class to export the machines and contexts of an Event-B project as
+ * newline-delimited JSON, with one record per element giving the file of the
+ * element, the names of its ancestors, its name, its type and its
+ * attributes, e.g. for a guard:
+ * </p>
+ * 
+ * <pre>
+ * {"file":"m0.bum","parent":["m0","_evt"],"name":"_grd",
+ *  "type":"org.eventb.core.guard","attributes":{"org.eventb.core.label":"grd",
+ *  "org.eventb.core.predicate":"x &gt; 0","org.eventb.core.theorem":false}}
+ * </pre>
+ * <p>
+ * The records are in document order, i.e. each element comes after its parent
+ * and before its next sibling. The elements are written as they are visited,
+ * and the components which were not open before the export are closed once
+ * written, hence the memory used does not depend on the size of the project.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBSnapshot
+ * @since 0.2.5
+ */
+public final class EventBJsonExport {
+
+	private EventBJsonExport() {
+		// Utility classes shall not have a public or default constructor.
+	}
+
+	/**
+	 * Exports the contexts then the machines of a project.
+	 * 
+	 * @param prj
+	 *            an existing Event-B project.
+	 * @param out
+	 *            the output stream, which is flushed but not closed. The
+	 *            records are encoded in UTF-8.
+	 * @param monitor
+	 *            the progress monitor to use for reporting progress to the
+	 *            user. It is the caller's responsibility to call done() on the
+	 *            given monitor. Accepts <code>null</code>, indicating that no
+	 *            progress should be reported and that the operation cannot be
+	 *            cancelled.
+	 * @return the number of records written, i.e. the number of elements
+	 *         exported including the roots of the components.
+	 * @throws RodinDBException
+	 *             if there are problems accessing the database.
+	 * @throws IOException
+	 *             if there are problems writing the records.
+	 */
+	public static int export(IEventBProject prj, OutputStream out,
+			IProgressMonitor monitor) throws RodinDBException, IOException {
+		// Assert preconditions.
+		Assert.isNotNull(prj, Messages.error_NullProject);
+		IRodinProject rodinPrj = prj.getRodinProject();
+		Assert.isTrue(rodinPrj.exists(),
+				Messages.bind(Messages.error_NonExistingProject, prj));
+
+		SubMonitor subMonitor = SubMonitor.convert(monitor,
+				Messages.bind(Messages.progress_ExportJson, prj), 1);
+		IContextRoot[] contexts = rodinPrj
+				.getRootElementsOfType(IContextRoot.ELEMENT_TYPE);
+		IMachineRoot[] machines = rodinPrj
+				.getRootElementsOfType(IMachineRoot.ELEMENT_TYPE);
+		IRodinFile[] files = new IRodinFile[contexts.length + machines.length];
+		for (int i = 0; i < contexts.length; i++) {
+			files[i] = contexts[i].getRodinFile();
+		}
+		for (int i = 0; i < machines.length; i++) {
+			files[contexts.length + i] = machines[i].getRodinFile();
+		}
+		NdjsonWriter writer = new NdjsonWriter(out);
+		writer.write(files, subMonitor.newChild(1));
+		return writer.getElements();
+	}
+
+	/**
+	 * Exports a single machine or context.
+	 * 
+	 * @param root
+	 *            the root of an existing machine or context.
+	 * @param out
+	 *            the output stream, which is flushed but not closed. The
+	 *            records are encoded in UTF-8.
+	 * @param monitor
+	 *            the progress monitor to use for reporting progress to the
+	 *            user. It is the caller's responsibility to call done() on the
+	 *            given monitor. Accepts <code>null</code>, indicating that no
+	 *            progress should be reported and that the operation cannot be
+	 *            cancelled.
+	 * @return the number of records written, i.e. the number of elements
+	 *         exported including the root of the component.
+	 * @throws RodinDBException
+	 *             if there are problems accessing the database.
+	 * @throws IOException
+	 *             if there are problems writing the records.
+	 */
+	public static int export(IEventBRoot root, OutputStream out,
+			IProgressMonitor monitor) throws RodinDBException, IOException {
+		// Assert preconditions.
+		Assert.isTrue(root instanceof IContextRoot
+				|| root instanceof IMachineRoot,
+				Messages.bind(Messages.error_NotAComponent, root));
+		Assert.isTrue(root.exists(),
+				Messages.bind(Messages.error_NonExistingComponent, root));
+
+		SubMonitor subMonitor = SubMonitor.convert(monitor,
+				Messages.bind(Messages.progress_ExportJson, root
+						.getComponentName()), 1);
+		NdjsonWriter writer = new NdjsonWriter(out);
+		writer.write(new IRodinFile[] { root.getRodinFile() },
+				subMonitor.newChild(1));
+		return writer.getElements();
+	}
+
+}
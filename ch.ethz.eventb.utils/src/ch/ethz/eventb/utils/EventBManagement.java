@@ -0,0 +1,316 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.utils;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import ch.ethz.eventb.internal.utils.CacheRegistry;
+import ch.ethz.eventb.internal.utils.ManagedCache;
+
+/**
+ * <p>
+ * Utility class registering the management interface of the utilities,
+ * {@link EventBUtilsMXBean}, in the platform MBean server, so that
+ * long-running applications can be monitored with JMX clients, e.g.
+ * JConsole or VisualVM. The registration is explicit, typically when the
+ * application starts:
+ * </p>
+ * 
+ * <pre>
+ * EventBMetrics.setEnabled(true);
+ * EventBManagement.register();
+ * </pre>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBUtilsMXBean
+ * @since 0.2.5
+ */
+public final class EventBManagement {
+
+	/**
+	 * The name under which the management interface is registered.
+	 */
+	public static final String OBJECT_NAME = "ch.ethz.eventb.utils:type=EventBUtils"; //$NON-NLS-1$
+
+	private EventBManagement() {
+		// Utility classes shall not have a public or default constructor.
+	}
+
+	/**
+	 * Registers the management interface in the platform MBean server. Does
+	 * nothing if it is already registered.
+	 * 
+	 * @throws JMException
+	 *             if a problem occurs while registering the management
+	 *             interface.
+	 */
+	public static synchronized void register() throws JMException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(OBJECT_NAME);
+		if (server.isRegistered(name))
+			return;
+		server.registerMBean(new StandardMBean(new Management(),
+				EventBUtilsMXBean.class, true), name);
+	}
+
+	/**
+	 * Unregisters the management interface from the platform MBean server.
+	 * Does nothing if it is not registered.
+	 * 
+	 * @throws JMException
+	 *             if a problem occurs while unregistering the management
+	 *             interface.
+	 */
+	public static synchronized void unregister() throws JMException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(OBJECT_NAME);
+		if (server.isRegistered(name))
+			server.unregisterMBean(name);
+	}
+
+	/**
+	 * Returns whether the management interface is registered in the platform
+	 * MBean server.
+	 * 
+	 * @return <code>true</code> if the management interface is registered,
+	 *         <code>false</code> otherwise.
+	 * @throws JMException
+	 *             if the name of the management interface is malformed.
+	 */
+	public static boolean isRegistered() throws JMException {
+		return ManagementFactory.getPlatformMBeanServer().isRegistered(
+				new ObjectName(OBJECT_NAME));
+	}
+
+	/**
+	 * The implementation of the management interface, delegating to
+	 * {@link EventBMetrics}, {@link EventBTracing} and
+	 * {@link CacheRegistry}.
+	 */
+	private static class Management implements EventBUtilsMXBean {
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see EventBUtilsMXBean#isMetricsEnabled()
+		 */
+		@Override
+		public boolean isMetricsEnabled() {
+			return EventBMetrics.isEnabled();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see EventBUtilsMXBean#setMetricsEnabled(boolean)
+		 */
+		@Override
+		public void setMetricsEnabled(boolean enabled) {
+			EventBMetrics.setEnabled(enabled);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see EventBUtilsMXBean#getSlowOperationThreshold()
+		 */
+		@Override
+		public long getSlowOperationThreshold() {
+			return EventBTracing.getSlowOperationThreshold();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see EventBUtilsMXBean#setSlowOperationThreshold(long)
+		 */
+		@Override
+		public void setSlowOperationThreshold(long millis) {
+			EventBTracing.setSlowOperationThreshold(millis);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see EventBUtilsMXBean#getOperationCounts()
+		 */
+		@Override
+		public Map<String, Long> getOperationCounts() {
+			Map<String, Long> result = new TreeMap<String, Long>();
+			for (OperationStatistics statistics : EventBMetrics.getSnapshot()
+					.values()) {
+				result.put(statistics.getOperation(), statistics.getCount());
+			}
+			return result;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see EventBUtilsMXBean#getMeanLatencies()
+		 */
+		@Override
+		public Map<String, Double> getMeanLatencies() {
+			Map<String, Double> result = new TreeMap<String, Double>();
+			for (OperationStatistics statistics : EventBMetrics.getSnapshot()
+					.values()) {
+				result.put(statistics.getOperation(), statistics
+						.getMeanNanos());
+			}
+			return result;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see EventBUtilsMXBean#getMedianLatencies()
+		 */
+		@Override
+		public Map<String, Long> getMedianLatencies() {
+			return getPercentiles(50);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see EventBUtilsMXBean#getP99Latencies()
+		 */
+		@Override
+		public Map<String, Long> getP99Latencies() {
+			return getPercentiles(99);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see EventBUtilsMXBean#getMaxLatencies()
+		 */
+		@Override
+		public Map<String, Long> getMaxLatencies() {
+			Map<String, Long> result = new TreeMap<String, Long>();
+			for (OperationStatistics statistics : EventBMetrics.getSnapshot()
+					.values()) {
+				result.put(statistics.getOperation(), statistics
+						.getMaxNanos());
+			}
+			return result;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see EventBUtilsMXBean#getDatabaseOperationsPerCall()
+		 */
+		@Override
+		public Map<String, Double> getDatabaseOperationsPerCall() {
+			Map<String, Double> result = new TreeMap<String, Double>();
+			for (OperationStatistics statistics : EventBMetrics.getSnapshot()
+					.values()) {
+				result.put(statistics.getOperation(), statistics
+						.getDatabaseOperationsPerCall());
+			}
+			return result;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see EventBUtilsMXBean#getLatencyPercentile(String, double)
+		 */
+		@Override
+		public long getLatencyPercentile(String operation, double percentile) {
+			OperationStatistics statistics = EventBMetrics
+					.getStatistics(operation);
+			if (statistics == null)
+				return -1;
+			return statistics.getPercentileNanos(percentile);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see EventBUtilsMXBean#resetMetrics()
+		 */
+		@Override
+		public void resetMetrics() {
+			EventBMetrics.reset();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see EventBUtilsMXBean#getCacheSizes()
+		 */
+		@Override
+		public Map<String, Integer> getCacheSizes() {
+			Map<String, Integer> result = new TreeMap<String, Integer>();
+			for (ManagedCache cache : CacheRegistry.getCaches()) {
+				result.put(cache.getName(), cache.getSize());
+			}
+			return result;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see EventBUtilsMXBean#getCacheHitRates()
+		 */
+		@Override
+		public Map<String, Double> getCacheHitRates() {
+			Map<String, Double> result = new TreeMap<String, Double>();
+			for (ManagedCache cache : CacheRegistry.getCaches()) {
+				long hits = cache.getHits();
+				long lookups = hits + cache.getMisses();
+				result.put(cache.getName(), lookups == 0 ? Double.NaN
+						: (double) hits / lookups);
+			}
+			return result;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see EventBUtilsMXBean#clearCaches()
+		 */
+		@Override
+		public void clearCaches() {
+			CacheRegistry.clearAll();
+		}
+
+		/**
+		 * Utility method to get a percentile of the latencies of the
+		 * operations.
+		 */
+		private Map<String, Long> getPercentiles(double percentile) {
+			Map<String, Long> result = new TreeMap<String, Long>();
+			for (OperationStatistics statistics : EventBMetrics.getSnapshot()
+					.values()) {
+				result.put(statistics.getOperation(), statistics
+						.getPercentileNanos(percentile));
+			}
+			return result;
+		}
+
+	}
+
+}
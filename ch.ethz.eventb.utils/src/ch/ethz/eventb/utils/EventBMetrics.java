@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.utils;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import ch.ethz.eventb.internal.utils.Instrumentation;
+import ch.ethz.eventb.internal.utils.Operation;
+import ch.ethz.eventb.internal.utils.OperationCounters;
+
+/**
+ * <p>
+ * Utility class giving access to the metrics of the operations of
+ * {@link EventBUtils} and {@link EventBSCUtils}: for each public method, the
+ * number of calls, the latency histogram, the number of elements created
+ * and read, and the accesses to the Rodin database. Calls throwing an
+ * exception are recorded too.
+ * </p>
+ * <p>
+ * The metrics are disabled by default, in which case the cost for each call
+ * is that of a branch. They can be enabled at any time, e.g.
+ * </p>
+ * 
+ * <pre>
+ * EventBMetrics.setEnabled(true);
+ * ...
+ * for (OperationStatistics statistics : EventBMetrics.getSnapshot().values())
+ * 	System.out.println(statistics);
+ * </pre>
+ *
+ * @author htson
+ * @version 0.1
+ * @see OperationStatistics
+ * @since 0.2.5
+ */
+public final class EventBMetrics {
+
+	private EventBMetrics() {
+		// Utility classes shall not have a public or default constructor.
+	}
+
+	/**
+	 * Enables or disables the recording of the metrics. Disabling the
+	 * recording keeps the metrics recorded so far.
+	 * 
+	 * @param enabled
+	 *            <code>true</code> to record the metrics, <code>false</code>
+	 *            otherwise.
+	 */
+	public static void setEnabled(boolean enabled) {
+		Instrumentation.setMetricsEnabled(enabled);
+	}
+
+	/**
+	 * Returns whether the metrics are recorded.
+	 * 
+	 * @return <code>true</code> if the metrics are recorded,
+	 *         <code>false</code> otherwise.
+	 */
+	public static boolean isEnabled() {
+		return Instrumentation.isMetricsEnabled();
+	}
+
+	/**
+	 * Returns a snapshot of the metrics of the operations which have been
+	 * called at least once.
+	 * 
+	 * @return an unmodifiable map from the operation names (i.e. method
+	 *         names) to their statistics, sorted by name.
+	 */
+	public static Map<String, OperationStatistics> getSnapshot() {
+		Map<String, OperationStatistics> result = new TreeMap<String, OperationStatistics>();
+		for (Operation operation : Operation.values()) {
+			OperationStatistics statistics = getStatistics(operation);
+			if (statistics.getCount() != 0)
+				result.put(operation.getName(), statistics);
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * Returns a snapshot of the metrics of an operation.
+	 * 
+	 * @param name
+	 *            the name of an operation, i.e. a method name.
+	 * @return the statistics of the operation, or <code>null</code> if there
+	 *         is no such operation.
+	 */
+	public static OperationStatistics getStatistics(String name) {
+		for (Operation operation : Operation.values()) {
+			if (operation.getName().equals(name))
+				return getStatistics(operation);
+		}
+		return null;
+	}
+
+	/**
+	 * Resets the metrics of all operations.
+	 */
+	public static void reset() {
+		for (Operation operation : Operation.values()) {
+			Instrumentation.getCounters(operation).reset();
+		}
+	}
+
+	/**
+	 * Utility method to get a snapshot of the metrics of an operation.
+	 */
+	private static OperationStatistics getStatistics(Operation operation) {
+		OperationCounters counters = Instrumentation.getCounters(operation);
+		return new OperationStatistics(operation.getName(),
+				counters.getCount(), counters.getTotalNanos(),
+				counters.getMaxNanos(), counters.getElementsCreated(),
+				counters.getElementsRead(), counters.getElementsOpened(),
+				counters.getAttributeReads(), counters.getAttributeWrites(),
+				counters.getFilesLoaded(), counters.getHistogram());
+	}
+
+}
@@ -0,0 +1,493 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eventb.core.IConvergenceElement.Convergence;
+import org.eventb.core.IEventBProject;
+import org.rodinp.core.IRodinProject;
+import org.rodinp.core.RodinDBException;
+
+import ch.ethz.eventb.internal.utils.Messages;
+import ch.ethz.eventb.internal.utils.ModelIndexWriter;
+
+/**
+ * <p>
+ * A read-only index of the machines and contexts of an Event-B project,
+ * stored in a file which is memory-mapped when opened. The index answers
+ * the queries of {@link EventBUtils#getEvent(org.eventb.core.IMachineRoot,
+ * String)} and of {@link EventBSCUtils} without accessing the Rodin
+ * database, and supports scanning the predicates of the components. Only
+ * the queried entries are decoded: events and variables are looked up by
+ * binary search, and the pages of the file are loaded on demand and shared
+ * by all processes mapping the same file.
+ * </p>
+ * <p>
+ * An index is a snapshot: it does not reflect the changes made to the
+ * project after the export. The statically checked queries are only
+ * available for the machines whose statically checked version existed when
+ * exporting. Indexes are safe for concurrent use, and files are limited to
+ * 2 GB. Typical usage:
+ * </p>
+ * 
+ * <pre>
+ * EventBModelIndex.export(prj, path, monitor);
+ * ...
+ * EventBModelIndex index = EventBModelIndex.open(path);
+ * IndexedEvent evt = index.getEvent(&quot;m0&quot;, &quot;evt&quot;);
+ * </pre>
+ *
+ * @author htson
+ * @version 0.1
+ * @see IndexedEvent
+ * @since 0.2.5
+ */
+public final class EventBModelIndex {
+
+	// The content of the file.
+	private final ByteBuffer buffer;
+
+	// The offset of the directory of the components.
+	private final int directory;
+
+	// The offset of the table of the predicates.
+	private final int predicates;
+
+	/**
+	 * Constructor: Create an index from the content of a file.
+	 */
+	private EventBModelIndex(ByteBuffer buffer, int directory, int predicates) {
+		this.buffer = buffer;
+		this.directory = directory;
+		this.predicates = predicates;
+	}
+
+	/**
+	 * Exports the index of the machines and contexts of a project to a file.
+	 * The whole index is built in the heap before being written, hence this
+	 * needs as much memory as the size of the file, which is at most 2 GB.
+	 * 
+	 * @param prj
+	 *            an existing Event-B project.
+	 * @param file
+	 *            the path of the file, which is replaced if it exists.
+	 * @param monitor
+	 *            the progress monitor to use for reporting progress to the
+	 *            user. It is the caller's responsibility to call done() on the
+	 *            given monitor. Accepts <code>null</code>, indicating that no
+	 *            progress should be reported and that the operation cannot be
+	 *            cancelled.
+	 * @throws RodinDBException
+	 *             if there are problems accessing the database.
+	 * @throws IOException
+	 *             if there are problems writing the file, or if the index
+	 *             exceeds 2 GB.
+	 */
+	public static void export(IEventBProject prj, Path file,
+			IProgressMonitor monitor) throws RodinDBException, IOException {
+		// Assert preconditions.
+		Assert.isNotNull(prj, Messages.error_NullProject);
+		IRodinProject rodinPrj = prj.getRodinProject();
+		Assert.isTrue(rodinPrj.exists(),
+				Messages.bind(Messages.error_NonExistingProject, prj));
+
+		SubMonitor subMonitor = SubMonitor.convert(monitor,
+				Messages.bind(Messages.progress_ExportModelIndex, prj), 1);
+		new ModelIndexWriter().write(rodinPrj, file, subMonitor.newChild(1));
+	}
+
+	/**
+	 * Opens an index by memory-mapping its file. The file must not be
+	 * modified while the index is in use. The mapping is released when the
+	 * index is garbage collected.
+	 * 
+	 * @param file
+	 *            the path of a file exported by
+	 *            {@link #export(IEventBProject, Path, IProgressMonitor)}.
+	 * @return the index stored in the file.
+	 * @throws IOException
+	 *             if there are problems reading the file, or if the file is
+	 *             not an index.
+	 */
+	public static EventBModelIndex open(Path file) throws IOException {
+		ByteBuffer buffer;
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			long size = channel.size();
+			if (size < ModelIndexWriter.HEADER_SIZE
+					|| size > Integer.MAX_VALUE)
+				throw new IOException(Messages.bind(
+						Messages.error_NotAModelIndex, file));
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		} finally {
+			channel.close();
+		}
+		if (buffer.getInt(0) != ModelIndexWriter.MAGIC)
+			throw new IOException(Messages.bind(Messages.error_NotAModelIndex,
+					file));
+		int version = buffer.getInt(4);
+		if (version != ModelIndexWriter.VERSION)
+			throw new IOException(Messages.bind(
+					Messages.error_UnsupportedModelIndexVersion, version));
+		int directory = buffer.getInt(8);
+		int predicates = buffer.getInt(12);
+		if (directory < ModelIndexWriter.HEADER_SIZE
+				|| directory > buffer.limit() - 4
+				|| predicates < directory || predicates > buffer.limit() - 4)
+			throw new IOException(Messages.bind(Messages.error_NotAModelIndex,
+					file));
+		return new EventBModelIndex(buffer, directory, predicates);
+	}
+
+	/**
+	 * Returns the names of the machines of the index.
+	 * 
+	 * @return the names of the machines, sorted.
+	 */
+	public List<String> getMachineNames() {
+		return getComponentNames(ModelIndexWriter.KIND_MACHINE);
+	}
+
+	/**
+	 * Returns the names of the contexts of the index.
+	 * 
+	 * @return the names of the contexts, sorted.
+	 */
+	public List<String> getContextNames() {
+		return getComponentNames(ModelIndexWriter.KIND_CONTEXT);
+	}
+
+	/**
+	 * Returns the event of a machine with the given label.
+	 * 
+	 * @param mch
+	 *            the name of a machine of the index.
+	 * @param evtLabel
+	 *            the label of the event.
+	 * @return the event with the given label or <code>null</code> if there is
+	 *         no such event.
+	 * @see EventBUtils#getEvent(org.eventb.core.IMachineRoot, String)
+	 */
+	public IndexedEvent getEvent(String mch, String evtLabel) {
+		int machine = getMachine(mch);
+		int count = buffer.getInt(machine);
+		int index = search(machine + 4, count, evtLabel);
+		if (index < 0)
+			return null;
+		int position = buffer.getInt(machine + 4 + 8 * index + 4);
+
+		String label = getString(buffer.getInt(position));
+		Convergence convergence = Convergence.valueOf(buffer
+				.get(position + 4));
+		boolean extended = buffer.get(position + 5) != 0;
+		position += 6;
+		List<String> parameters = new ArrayList<String>();
+		int parameterCount = buffer.getInt(position);
+		position += 4;
+		for (int i = 0; i < parameterCount; i++, position += 4) {
+			parameters.add(getString(buffer.getInt(position)));
+		}
+		Map<String, String> guards = new LinkedHashMap<String, String>();
+		Map<String, String> theorems = new LinkedHashMap<String, String>();
+		int guardCount = buffer.getInt(position);
+		position += 4;
+		for (int i = 0; i < guardCount; i++, position += 9) {
+			Map<String, String> target = theorems;
+			if (buffer.get(position + 8) == 0)
+				target = guards;
+			target.put(getString(buffer.getInt(position)),
+					getString(buffer.getInt(position + 4)));
+		}
+		Map<String, String> actions = new LinkedHashMap<String, String>();
+		int actionCount = buffer.getInt(position);
+		position += 4;
+		for (int i = 0; i < actionCount; i++, position += 8) {
+			actions.put(getString(buffer.getInt(position)),
+					getString(buffer.getInt(position + 4)));
+		}
+		return new IndexedEvent(label, convergence, extended, parameters,
+				guards, theorems, actions);
+	}
+
+	/**
+	 * Returns the seen axioms of a machine.
+	 * 
+	 * @param mch
+	 *            the name of a machine of the index, whose statically checked
+	 *            version existed when exporting.
+	 * @param isTheorem
+	 *            the flag to indicate either only axioms or theorems are
+	 *            returned.
+	 * @return the map from the labels of the seen axioms to their predicate
+	 *         strings, as returned by
+	 *         {@link EventBSCUtils#getSCSeenAxioms(org.eventb.core.IMachineRoot, boolean)}
+	 *         .
+	 */
+	public Map<String, String> getSCSeenAxioms(String mch, boolean isTheorem) {
+		return getPredicates(getSCSection(mch, 0), isTheorem);
+	}
+
+	/**
+	 * Returns the invariants of a machine, including those of the abstract
+	 * machines.
+	 * 
+	 * @param mch
+	 *            the name of a machine of the index, whose statically checked
+	 *            version existed when exporting.
+	 * @param isTheorem
+	 *            the flag to indicate either only invariants or theorems are
+	 *            returned.
+	 * @return the map from the labels of the invariants to their predicate
+	 *         strings, as returned by
+	 *         {@link EventBSCUtils#getSCInvariants(org.eventb.core.IMachineRoot, boolean)}
+	 *         .
+	 */
+	public Map<String, String> getSCInvariants(String mch, boolean isTheorem) {
+		return getPredicates(getSCSection(mch, 1), isTheorem);
+	}
+
+	/**
+	 * Returns the identifier strings of the carrier sets seen by a machine.
+	 * 
+	 * @param mch
+	 *            the name of a machine of the index, whose statically checked
+	 *            version existed when exporting.
+	 * @return the collection of the identifiers of the seen carrier sets.
+	 * @see EventBSCUtils#getSCSeenCarrierSetIdentifierStrings(org.eventb.core.IMachineRoot)
+	 */
+	public Collection<String> getSCSeenCarrierSetIdentifierStrings(String mch) {
+		return getStrings(getSCSection(mch, 2));
+	}
+
+	/**
+	 * Returns the identifier strings of the constants seen by a machine.
+	 * 
+	 * @param mch
+	 *            the name of a machine of the index, whose statically checked
+	 *            version existed when exporting.
+	 * @return the collection of the identifiers of the seen constants.
+	 * @see EventBSCUtils#getSCSeenConstantIdentifierStrings(org.eventb.core.IMachineRoot)
+	 */
+	public Collection<String> getSCSeenConstantIdentifierStrings(String mch) {
+		return getStrings(getSCSection(mch, 3));
+	}
+
+	/**
+	 * Returns the type of a variable of a machine.
+	 * 
+	 * @param mch
+	 *            the name of a machine of the index, whose statically checked
+	 *            version existed when exporting.
+	 * @param identifier
+	 *            the identifier of the variable.
+	 * @return the string representation of the type of the variable, which
+	 *         can be parsed with
+	 *         {@link org.eventb.core.ast.FormulaFactory#parseType(String)},
+	 *         or <code>null</code> if there is no such variable.
+	 * @see EventBSCUtils#getVariableType(org.eventb.core.IMachineRoot, String)
+	 */
+	public String getVariableType(String mch, String identifier) {
+		int variables = getSCSection(mch, 4);
+		int index = search(variables + 4, buffer.getInt(variables),
+				identifier);
+		if (index < 0)
+			return null;
+		return getString(buffer.getInt(variables + 4 + 8 * index + 4));
+	}
+
+	/**
+	 * Returns the predicates of the axioms, invariants and guards containing
+	 * the given text.
+	 * 
+	 * @param text
+	 *            a text.
+	 * @return the map from the keys of the matching predicates to the
+	 *         predicates, in the order of the index. The keys are composed of
+	 *         the name of the component, the label of the event for guards,
+	 *         and the label of the predicate, separated by <code>/</code>.
+	 */
+	public Map<String, String> findPredicates(String text) {
+		Map<String, String> result = new LinkedHashMap<String, String>();
+		Map<Integer, Boolean> matches = new HashMap<Integer, Boolean>();
+		int count = buffer.getInt(predicates);
+		for (int i = 0; i < count; i++) {
+			int position = predicates + 4 + 8 * i;
+			int predicateRef = buffer.getInt(position + 4);
+			// Predicates are often shared, e.g. by refined guards.
+			Boolean match = matches.get(predicateRef);
+			String predicate = null;
+			if (match == null) {
+				predicate = getString(predicateRef);
+				match = predicate.contains(text);
+				matches.put(predicateRef, match);
+			}
+			if (match) {
+				if (predicate == null)
+					predicate = getString(predicateRef);
+				result.put(getString(buffer.getInt(position)), predicate);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Utility method to get the names of the components of a kind.
+	 */
+	private List<String> getComponentNames(byte kind) {
+		List<String> result = new ArrayList<String>();
+		int count = buffer.getInt(directory);
+		for (int i = 0; i < count; i++) {
+			int position = directory + 4 + 9 * i;
+			if (buffer.get(position + 4) == kind)
+				result.add(getString(buffer.getInt(position)));
+		}
+		return result;
+	}
+
+	/**
+	 * Utility method to get the offset of the record of a machine.
+	 */
+	private int getMachine(String mch) {
+		Assert.isNotNull(mch, Messages.error_NullMachine);
+		int count = buffer.getInt(directory);
+		int index = search(directory + 4, count, 9, mch);
+		Assert.isTrue(index >= 0 && buffer.get(directory + 4 + 9 * index
+				+ 4) == ModelIndexWriter.KIND_MACHINE, Messages.bind(
+				Messages.error_NonExistingMachine, mch));
+		return buffer.getInt(directory + 4 + 9 * index + 5);
+	}
+
+	/**
+	 * Utility method to get the offset of a section of the statically
+	 * checked part of the record of a machine: <code>0</code> for the seen
+	 * axioms, <code>1</code> for the invariants, <code>2</code> for the seen
+	 * carrier sets, <code>3</code> for the seen constants and <code>4</code>
+	 * for the variables.
+	 */
+	private int getSCSection(String mch, int section) {
+		int position = getMachine(mch);
+		position += 4 + 8 * buffer.getInt(position);
+		Assert.isTrue(buffer.get(position) != 0, Messages.bind(
+				Messages.error_NonExistingSCMachine, mch));
+		position++;
+		for (int i = 0; i < section; i++) {
+			int entrySize = i < 2 ? 9 : 4;
+			position += 4 + entrySize * buffer.getInt(position);
+		}
+		return position;
+	}
+
+	/**
+	 * Utility method to read a section of triples (key, predicate, theorem
+	 * flag).
+	 */
+	private Map<String, String> getPredicates(int position, boolean isTheorem) {
+		Map<String, String> result = new HashMap<String, String>();
+		int count = buffer.getInt(position);
+		position += 4;
+		for (int i = 0; i < count; i++, position += 9) {
+			if ((buffer.get(position + 8) != 0) == isTheorem)
+				result.put(getString(buffer.getInt(position)),
+						getString(buffer.getInt(position + 4)));
+		}
+		return result;
+	}
+
+	/**
+	 * Utility method to read a section of strings.
+	 */
+	private Collection<String> getStrings(int position) {
+		int count = buffer.getInt(position);
+		Collection<String> result = new ArrayList<String>(count);
+		for (int i = 0; i < count; i++) {
+			result.add(getString(buffer.getInt(position + 4 + 4 * i)));
+		}
+		return result;
+	}
+
+	/**
+	 * Utility method to search a table sorted by keys with entries of 8
+	 * bytes.
+	 */
+	private int search(int table, int count, String key) {
+		return search(table, count, 8, key);
+	}
+
+	/**
+	 * Utility method to search a table sorted by keys, each entry starting
+	 * with the reference to its key.
+	 * 
+	 * @return the index of the entry with the given key, or <code>-1</code>
+	 *         if there is no such entry.
+	 */
+	private int search(int table, int count, int entrySize, String key) {
+		byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+		int low = 0;
+		int high = count - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int c = compare(buffer.getInt(table + entrySize * middle), bytes);
+			if (c < 0)
+				low = middle + 1;
+			else if (c > 0)
+				high = middle - 1;
+			else
+				return middle;
+		}
+		return -1;
+	}
+
+	/**
+	 * Utility method to compare a stored string with a UTF-8 encoded key, in
+	 * the order of {@link ModelIndexWriter#KEY_ORDER}.
+	 */
+	private int compare(int ref, byte[] key) {
+		int length = buffer.getInt(ref);
+		int common = Math.min(length, key.length);
+		for (int i = 0; i < common; i++) {
+			int c = (buffer.get(ref + 4 + i) & 0xFF) - (key[i] & 0xFF);
+			if (c != 0)
+				return c;
+		}
+		return length - key.length;
+	}
+
+	/**
+	 * Utility method to decode a stored string.
+	 */
+	private String getString(int ref) {
+		ByteBuffer view = buffer.duplicate();
+		view.position(ref);
+		byte[] bytes = new byte[view.getInt()];
+		view.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
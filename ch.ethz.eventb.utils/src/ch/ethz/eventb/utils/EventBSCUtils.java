@@ -39,7 +39,11 @@ import org.rodinp.core.IInternalElementType;
 import org.rodinp.core.IRodinElement;
 import org.rodinp.core.RodinDBException;
 
+import ch.ethz.eventb.internal.utils.Attributes;
+import ch.ethz.eventb.internal.utils.Instrumentation;
 import ch.ethz.eventb.internal.utils.Messages;
+import ch.ethz.eventb.internal.utils.Operation;
+import ch.ethz.eventb.internal.utils.OperationTrace;
 
 /**
  * @author htson
@@ -78,43 +82,56 @@ public final class EventBSCUtils {
 			boolean isTheorem) throws RodinDBException {
 		// Assert preconditions.
 		Assert.isNotNull(mchRoot, Messages.error_NullMachine);
-		Assert.isTrue(mchRoot.exists(), Messages.bind(
-				Messages.error_NonExistingMachine, mchRoot.getRodinFile()
-						.getBareName()));
-		ISCMachineRoot scMchRoot = mchRoot.getSCMachineRoot();
-		Assert.isNotNull(scMchRoot, Messages.error_NullSCMachine);
-		Assert.isTrue(scMchRoot.exists(), Messages.bind(
-				Messages.error_NonExistingSCMachine, scMchRoot.getRodinFile()
-						.getBareName()));
+		OperationTrace trace = Instrumentation.begin(
+				Operation.GET_SC_SEEN_AXIOMS, mchRoot);
+		try {
+			Instrumentation.opened(trace, mchRoot);
+			Assert.isTrue(mchRoot.exists(), Messages.bind(
+					Messages.error_NonExistingMachine, mchRoot.getRodinFile()
+							.getBareName()));
+			ISCMachineRoot scMchRoot = mchRoot.getSCMachineRoot();
+			Assert.isNotNull(scMchRoot, Messages.error_NullSCMachine);
+			Instrumentation.opened(trace, scMchRoot);
+			Assert.isTrue(scMchRoot.exists(), Messages.bind(
+					Messages.error_NonExistingSCMachine,
+					scMchRoot.getRodinFile().getBareName()));
 
-		// Empty result.
-		Map<String, String> result = new HashMap<String, String>();
+			// Empty result.
+			Map<String, String> result = new HashMap<String, String>();
 
-		// Get the list of seen contexts.
-		ISCInternalContext[] scSeenContexts = scMchRoot.getSCSeenContexts();
+			// Get the list of seen contexts.
+			ISCInternalContext[] scSeenContexts = scMchRoot.getSCSeenContexts();
 
-		// Add the axioms from each seen context to the result.
-		for (ISCInternalContext scSeenContext : scSeenContexts) {
-			ISCAxiom[] scAxioms = scSeenContext.getSCAxioms();
-			for (ISCAxiom scAxiom : scAxioms) {
+			// Add the axioms from each seen context to the result.
+			for (ISCInternalContext scSeenContext : scSeenContexts) {
+				Instrumentation.opened(trace, scSeenContext);
+				ISCAxiom[] scAxioms = scSeenContext.getSCAxioms();
+				Instrumentation.elementsRead(trace, scAxioms.length);
+				for (ISCAxiom scAxiom : scAxioms) {
 
-				if (scAxiom.isTheorem() == isTheorem) {
-					String key = scSeenContext.getElementName() + "/"
-							+ scAxiom.getLabel();
-					IRodinElement source = scAxiom.getSource();
-					Assert.isTrue(
-							source instanceof IAxiom,
-							Messages.bind(Messages.error_NotAnAxiom,
-									source.getElementName()));
-					IAxiom axiom = (IAxiom) source;
-					result.put(key, axiom.getPredicateString());
+					if (Attributes.isTheorem(trace, scAxiom) == isTheorem) {
+						String key = scSeenContext.getElementName() + "/"
+								+ Attributes.getLabel(trace, scAxiom);
+						IRodinElement source = Attributes.getSource(trace,
+								scAxiom);
+						Assert.isTrue(
+								source instanceof IAxiom,
+								Messages.bind(Messages.error_NotAnAxiom,
+										source.getElementName()));
+						IAxiom axiom = (IAxiom) source;
+						Instrumentation.elementsRead(trace, 1);
+						result.put(key,
+								Attributes.getPredicateString(trace, axiom));
+					}
 				}
 			}
-		}
 
-		// Return result as an array of objects.
-		return result;
+			// Return result as an array of objects.
+			return result;
 
+		} finally {
+			Instrumentation.end(trace);
+		}
 	}
 
 	/**
@@ -128,32 +145,32 @@ public final class EventBSCUtils {
 	 * @param type
 	 *            the statically checked element type
 	 * 
+	 * @param trace
+	 *            the trace of the calling operation, or <code>null</code>.
+	 * 
 	 * @return the collection of statically checked seen element identifier
 	 *         strings. There is no guarantee on the order under which the
 	 *         identifiers are sorted.
 	 * @see #getSCSeenElementIdentifierStrings(ISCMachineRoot,
-	 *      IInternalElementType).
+	 *      IInternalElementType, OperationTrace).
 	 * @throws RodinDBException
 	 *             if there was a problem accessing the database.
 	 */
 	private static Collection<String> getSCSeenElementIdentifierStrings(
 			IMachineRoot mchRoot,
-			IInternalElementType<? extends ISCIdentifierElement> type)
-			throws RodinDBException {
+			IInternalElementType<? extends ISCIdentifierElement> type,
+			OperationTrace trace) throws RodinDBException {
 		// Assert preconditions.
-		Assert.isNotNull(mchRoot, Messages.error_NullMachine);
+		Instrumentation.opened(trace, mchRoot);
 		Assert.isTrue(mchRoot.exists(), Messages.bind(
 				Messages.error_NonExistingMachine, mchRoot.getRodinFile()
 						.getBareName()));
 		ISCMachineRoot scMchRoot = mchRoot.getSCMachineRoot();
 		Assert.isNotNull(scMchRoot, Messages.error_NullSCMachine);
-		Assert.isTrue(scMchRoot.exists(), Messages.bind(
-				Messages.error_NonExistingSCMachine, scMchRoot.getRodinFile()
-						.getBareName()));
 
 		// Get the seen element identifier strings of the statically checked
-		// version.
-		return getSCSeenElementIdentifierStrings(scMchRoot, type);
+		// version, which checks that it exists.
+		return getSCSeenElementIdentifierStrings(scMchRoot, type, trace);
 	}
 
 	/**
@@ -167,6 +184,9 @@ public final class EventBSCUtils {
 	 * @param type
 	 *            the statically checked element type
 	 * 
+	 * @param trace
+	 *            the trace of the calling operation, or <code>null</code>.
+	 * 
 	 * @return the collection of statically checked seen element identifier
 	 *         strings. There is no guarantee on the order under which the
 	 *         identifiers are sorted.
@@ -175,10 +195,10 @@ public final class EventBSCUtils {
 	 */
 	private static Collection<String> getSCSeenElementIdentifierStrings(
 			ISCMachineRoot scMchRoot,
-			IInternalElementType<? extends ISCIdentifierElement> type)
-			throws RodinDBException {
+			IInternalElementType<? extends ISCIdentifierElement> type,
+			OperationTrace trace) throws RodinDBException {
 		// Assert preconditions.
-		Assert.isNotNull(scMchRoot, Messages.error_NullSCMachine);
+		Instrumentation.opened(trace, scMchRoot);
 		Assert.isTrue(scMchRoot.exists(), Messages.bind(
 				Messages.error_NonExistingSCMachine, scMchRoot.getRodinFile()
 						.getBareName()));
@@ -190,10 +210,12 @@ public final class EventBSCUtils {
 		// Add the constants and carrier sets from each seen context to the
 		// result.
 		for (ISCInternalContext scSeenContext : scSeenContexts) {
+			Instrumentation.opened(trace, scSeenContext);
 			ISCIdentifierElement[] seenElms = scSeenContext
 					.getChildrenOfType(type);
+			Instrumentation.elementsRead(trace, seenElms.length);
 			for (ISCIdentifierElement seenElm : seenElms) {
-				result.add(seenElm.getIdentifierString());
+				result.add(Attributes.getIdentifierString(trace, seenElm));
 			}
 		}
 
@@ -218,32 +240,44 @@ public final class EventBSCUtils {
 			boolean isTheorem) throws RodinDBException {
 		// Assert preconditions.
 		Assert.isNotNull(mchRoot, Messages.error_NullMachine);
-		Assert.isTrue(mchRoot.exists(), Messages.bind(
-				Messages.error_NonExistingMachine, mchRoot.getRodinFile()
-						.getBareName()));
-		ISCMachineRoot scMchRoot = mchRoot.getSCMachineRoot();
-		Assert.isNotNull(scMchRoot, Messages.error_NullSCMachine);
-		Assert.isTrue(scMchRoot.exists(), Messages.bind(
-				Messages.error_NonExistingSCMachine, scMchRoot.getRodinFile()
-						.getBareName()));
+		OperationTrace trace = Instrumentation.begin(
+				Operation.GET_SC_INVARIANTS, mchRoot);
+		try {
+			Instrumentation.opened(trace, mchRoot);
+			Assert.isTrue(mchRoot.exists(), Messages.bind(
+					Messages.error_NonExistingMachine, mchRoot.getRodinFile()
+							.getBareName()));
+			ISCMachineRoot scMchRoot = mchRoot.getSCMachineRoot();
+			Assert.isNotNull(scMchRoot, Messages.error_NullSCMachine);
+			Instrumentation.opened(trace, scMchRoot);
+			Assert.isTrue(scMchRoot.exists(), Messages.bind(
+					Messages.error_NonExistingSCMachine,
+					scMchRoot.getRodinFile().getBareName()));
 
-		// Empty result.
-		Map<String, String> result = new HashMap<String, String>();
-		ISCInvariant[] scInvariants = scMchRoot.getSCInvariants();
-		for (ISCInvariant scInvariant : scInvariants) {
-			if (scInvariant.isTheorem() == isTheorem) {
-				String key = scMchRoot.getElementName() + "/"
-						+ scInvariant.getLabel();
-				IRodinElement source = scInvariant.getSource();
-//				Assert.isTrue(
-//						source instanceof IInvariant,
-//						Messages.bind(Messages.error_NotAnAxiom,
-//								source.getElementName()));
-				IInvariant invariant = (IInvariant) source;
-				result.put(key, invariant.getPredicateString());
+			// Empty result.
+			Map<String, String> result = new HashMap<String, String>();
+			ISCInvariant[] scInvariants = scMchRoot.getSCInvariants();
+			Instrumentation.elementsRead(trace, scInvariants.length);
+			for (ISCInvariant scInvariant : scInvariants) {
+				if (Attributes.isTheorem(trace, scInvariant) == isTheorem) {
+					String key = scMchRoot.getElementName() + "/"
+							+ Attributes.getLabel(trace, scInvariant);
+					IRodinElement source = Attributes.getSource(trace,
+							scInvariant);
+//					Assert.isTrue(
+//							source instanceof IInvariant,
+//							Messages.bind(Messages.error_NotAnAxiom,
+//									source.getElementName()));
+					IInvariant invariant = (IInvariant) source;
+					Instrumentation.elementsRead(trace, 1);
+					result.put(key,
+							Attributes.getPredicateString(trace, invariant));
+				}
 			}
+			return result;
+		} finally {
+			Instrumentation.end(trace);
 		}
-		return result;
 	}
 
 	/**
@@ -264,8 +298,16 @@ public final class EventBSCUtils {
 	 */
 	public static Collection<String> getSCSeenCarrierSetIdentifierStrings(
 			IMachineRoot mch) throws RodinDBException {
-		return getSCSeenElementIdentifierStrings(mch,
-				ISCCarrierSet.ELEMENT_TYPE);
+		// Assert preconditions.
+		Assert.isNotNull(mch, Messages.error_NullMachine);
+		OperationTrace trace = Instrumentation.begin(
+				Operation.GET_SC_SEEN_CARRIER_SET_IDENTIFIER_STRINGS, mch);
+		try {
+			return getSCSeenElementIdentifierStrings(mch,
+					ISCCarrierSet.ELEMENT_TYPE, trace);
+		} finally {
+			Instrumentation.end(trace);
+		}
 	}
 
 	/**
@@ -284,8 +326,16 @@ public final class EventBSCUtils {
 	 */
 	public static Collection<String> getSCSeenCarrierSetIdentifierStrings(
 			ISCMachineRoot mch) throws RodinDBException {
-		return getSCSeenElementIdentifierStrings(mch,
-				ISCCarrierSet.ELEMENT_TYPE);
+		// Assert preconditions.
+		Assert.isNotNull(mch, Messages.error_NullSCMachine);
+		OperationTrace trace = Instrumentation.begin(
+				Operation.GET_SC_SEEN_CARRIER_SET_IDENTIFIER_STRINGS, mch);
+		try {
+			return getSCSeenElementIdentifierStrings(mch,
+					ISCCarrierSet.ELEMENT_TYPE, trace);
+		} finally {
+			Instrumentation.end(trace);
+		}
 	}
 
 	/**
@@ -306,7 +356,16 @@ public final class EventBSCUtils {
 	 */
 	public static Collection<String> getSCSeenConstantIdentifierStrings(
 			IMachineRoot mch) throws RodinDBException {
-		return getSCSeenElementIdentifierStrings(mch, ISCConstant.ELEMENT_TYPE);
+		// Assert preconditions.
+		Assert.isNotNull(mch, Messages.error_NullMachine);
+		OperationTrace trace = Instrumentation.begin(
+				Operation.GET_SC_SEEN_CONSTANT_IDENTIFIER_STRINGS, mch);
+		try {
+			return getSCSeenElementIdentifierStrings(mch,
+					ISCConstant.ELEMENT_TYPE, trace);
+		} finally {
+			Instrumentation.end(trace);
+		}
 	}
 
 	/**
@@ -325,7 +384,16 @@ public final class EventBSCUtils {
 	 */
 	public static Collection<String> getSCSeenConstantIdentifierStrings(
 			ISCMachineRoot mch) throws RodinDBException {
-		return getSCSeenElementIdentifierStrings(mch, ISCConstant.ELEMENT_TYPE);
+		// Assert preconditions.
+		Assert.isNotNull(mch, Messages.error_NullSCMachine);
+		OperationTrace trace = Instrumentation.begin(
+				Operation.GET_SC_SEEN_CONSTANT_IDENTIFIER_STRINGS, mch);
+		try {
+			return getSCSeenElementIdentifierStrings(mch,
+					ISCConstant.ELEMENT_TYPE, trace);
+		} finally {
+			Instrumentation.end(trace);
+		}
 	}
 
 	/**
@@ -338,23 +406,34 @@ public final class EventBSCUtils {
 			throws CoreException {
 		// Assert preconditions.
 		Assert.isNotNull(mchRoot, Messages.error_NullMachine);
-		Assert.isTrue(mchRoot.exists(), Messages.bind(
-				Messages.error_NonExistingMachine, mchRoot.getRodinFile()
-						.getBareName()));
-		ISCMachineRoot scMchRoot = mchRoot.getSCMachineRoot();
-		Assert.isNotNull(scMchRoot, Messages.error_NullSCMachine);
-		Assert.isTrue(scMchRoot.exists(), Messages.bind(
-				Messages.error_NonExistingSCMachine, scMchRoot.getRodinFile()
-						.getBareName()));
+		OperationTrace trace = Instrumentation.begin(
+				Operation.GET_VARIABLE_TYPE, mchRoot);
+		try {
+			Instrumentation.opened(trace, mchRoot);
+			Assert.isTrue(mchRoot.exists(), Messages.bind(
+					Messages.error_NonExistingMachine, mchRoot.getRodinFile()
+							.getBareName()));
+			ISCMachineRoot scMchRoot = mchRoot.getSCMachineRoot();
+			Assert.isNotNull(scMchRoot, Messages.error_NullSCMachine);
+			Instrumentation.opened(trace, scMchRoot);
+			Assert.isTrue(scMchRoot.exists(), Messages.bind(
+					Messages.error_NonExistingSCMachine,
+					scMchRoot.getRodinFile().getBareName()));
 
-		ISCVariable[] scVariables = scMchRoot.getSCVariables();
-		for (ISCVariable scVariable : scVariables) {
-			if (scVariable.getIdentifierString().equals(identifier)) {
-				return scVariable.getType(scMchRoot.getFormulaFactory());
+			ISCVariable[] scVariables = scMchRoot.getSCVariables();
+			for (ISCVariable scVariable : scVariables) {
+				Instrumentation.elementsRead(trace, 1);
+				if (Attributes.getIdentifierString(trace, scVariable).equals(
+						identifier)) {
+					return Attributes.getType(trace, scVariable,
+							scMchRoot.getFormulaFactory());
+				}
 			}
-		}
 
-		return null;
+			return null;
+		} finally {
+			Instrumentation.end(trace);
+		}
 	}
 
 }
\ No newline at end of file
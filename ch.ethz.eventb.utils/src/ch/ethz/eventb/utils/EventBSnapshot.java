@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eventb.core.IContextRoot;
+import org.eventb.core.IEventBProject;
+import org.eventb.core.IMachineRoot;
+import org.rodinp.core.IRodinFile;
+import org.rodinp.core.IRodinProject;
+import org.rodinp.core.RodinCore;
+import org.rodinp.core.RodinDBException;
+
+import ch.ethz.eventb.internal.utils.Messages;
+import ch.ethz.eventb.internal.utils.SnapshotReader;
+import ch.ethz.eventb.internal.utils.SnapshotWriter;
+
+/**
+ * <p>
+ * Utility class to export the machines and contexts of an Event-B project as
+ * a compact binary snapshot, and to load such a snapshot into a project. A
+ * snapshot contains all elements of the components with their names, their
+ * attributes and their order. Handle attributes referring to elements of the
+ * exported project are relocated to the project into which the snapshot is
+ * loaded. The statically checked components and the proof obligations are
+ * not exported since the builder derives them from the components; neither
+ * are the proofs.
+ * </p>
+ * <p>
+ * Both the export and the load stream the elements, hence the memory used
+ * does not depend on the size of the project. The load creates all elements
+ * in a single Rodin operation, appending each element to its parent, and
+ * saves each component once.
+ * </p>
+ * 
+ * <pre>
+ * OutputStream out = new FileOutputStream(&quot;model.snapshot&quot;);
+ * try {
+ * 	EventBSnapshot.export(prj, out, monitor);
+ * } finally {
+ * 	out.close();
+ * }
+ * </pre>
+ *
+ * @author htson
+ * @version 0.1
+ * @since 0.2.5
+ */
+public final class EventBSnapshot {
+
+	// The identifier of this plug-in.
+	private static final String PLUGIN_ID = "ch.ethz.eventb.utils"; //$NON-NLS-1$
+
+	private EventBSnapshot() {
+		// Utility classes shall not have a public or default constructor.
+	}
+
+	/**
+	 * Exports a snapshot of the machines and contexts of a project.
+	 * 
+	 * @param prj
+	 *            an existing Event-B project.
+	 * @param out
+	 *            the output stream, which is flushed but not closed.
+	 * @param monitor
+	 *            the progress monitor to use for reporting progress to the
+	 *            user. It is the caller's responsibility to call done() on the
+	 *            given monitor. Accepts <code>null</code>, indicating that no
+	 *            progress should be reported and that the operation cannot be
+	 *            cancelled.
+	 * @return the number of elements exported, including the roots of the
+	 *         components.
+	 * @throws RodinDBException
+	 *             if there are problems accessing the database.
+	 * @throws IOException
+	 *             if there are problems writing the snapshot.
+	 */
+	public static int export(IEventBProject prj, OutputStream out,
+			IProgressMonitor monitor) throws RodinDBException, IOException {
+		// Assert preconditions.
+		Assert.isNotNull(prj, Messages.error_NullProject);
+		IRodinProject rodinPrj = prj.getRodinProject();
+		Assert.isTrue(rodinPrj.exists(),
+				Messages.bind(Messages.error_NonExistingProject, prj));
+
+		SubMonitor subMonitor = SubMonitor.convert(monitor,
+				Messages.bind(Messages.progress_ExportSnapshot, prj), 1);
+		IContextRoot[] contexts = rodinPrj
+				.getRootElementsOfType(IContextRoot.ELEMENT_TYPE);
+		IMachineRoot[] machines = rodinPrj
+				.getRootElementsOfType(IMachineRoot.ELEMENT_TYPE);
+		IRodinFile[] files = new IRodinFile[contexts.length + machines.length];
+		for (int i = 0; i < contexts.length; i++) {
+			files[i] = contexts[i].getRodinFile();
+		}
+		for (int i = 0; i < machines.length; i++) {
+			files[contexts.length + i] = machines[i].getRodinFile();
+		}
+		SnapshotWriter writer = new SnapshotWriter(out, rodinPrj);
+		writer.write(files, subMonitor.newChild(1));
+		return writer.getElements();
+	}
+
+	/**
+	 * Loads a snapshot into a project, creating its machines and contexts.
+	 * The components of the snapshot must not exist in the project. If the
+	 * snapshot is malformed, the components loaded before the problem is
+	 * detected are kept, and the component being loaded is deleted.
+	 * 
+	 * @param prj
+	 *            an existing Event-B project.
+	 * @param in
+	 *            the input stream, which is not closed.
+	 * @param monitor
+	 *            the progress monitor to use for reporting progress to the
+	 *            user. It is the caller's responsibility to call done() on the
+	 *            given monitor. Accepts <code>null</code>, indicating that no
+	 *            progress should be reported and that the operation cannot be
+	 *            cancelled.
+	 * @return the files of the loaded components.
+	 * @throws CoreException
+	 *             if there are problems accessing the database.
+	 * @throws IOException
+	 *             if there are problems reading the snapshot, or if the
+	 *             snapshot is malformed.
+	 */
+	public static IRodinFile[] load(IEventBProject prj, InputStream in,
+			IProgressMonitor monitor) throws CoreException, IOException {
+		// Assert preconditions.
+		Assert.isNotNull(prj, Messages.error_NullProject);
+		IRodinProject rodinPrj = prj.getRodinProject();
+		Assert.isTrue(rodinPrj.exists(),
+				Messages.bind(Messages.error_NonExistingProject, prj));
+
+		SubMonitor subMonitor = SubMonitor.convert(monitor,
+				Messages.bind(Messages.progress_LoadSnapshot, prj), 1);
+		final SnapshotReader reader = new SnapshotReader(in, rodinPrj);
+		final IRodinFile[][] result = new IRodinFile[1][];
+		final IOException[] failure = new IOException[1];
+		try {
+			// Batch the changes in a single operation, so that a single
+			// delta is reported.
+			RodinCore.run(new IWorkspaceRunnable() {
+
+				@Override
+				public void run(IProgressMonitor pm) throws CoreException {
+					try {
+						result[0] = reader.read(pm);
+					} catch (IOException e) {
+						failure[0] = e;
+						throw new CoreException(new Status(IStatus.ERROR,
+								PLUGIN_ID, e.getMessage(), e));
+					}
+				}
+
+			}, subMonitor.newChild(1));
+		} catch (CoreException e) {
+			if (failure[0] != null)
+				throw failure[0];
+			throw e;
+		}
+		return result[0];
+	}
+
+}
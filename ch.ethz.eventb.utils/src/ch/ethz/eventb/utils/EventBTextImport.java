@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eventb.core.IEventBProject;
+import org.eventb.core.IEventBRoot;
+import org.rodinp.core.RodinCore;
+
+import ch.ethz.eventb.internal.utils.Messages;
+import ch.ethz.eventb.internal.utils.TextModelReader;
+
+/**
+ * <p>
+ * Utility class to import machines and contexts written in a plain-text
+ * notation into an Event-B project. The notation is line-based: each line
+ * holds a keyword followed by its arguments, a labelled formula, or a comment
+ * starting with <code>//</code>. Formulas are written on a single line.
+ * </p>
+ * 
+ * <pre>
+ * context c0
+ *   extends c_abs
+ *   sets S
+ *   constants k
+ *   axioms
+ *     &#064;axm1 k ∈ S
+ *     theorem &#064;thm1 S ≠ ∅
+ * end
+ * 
+ * machine m0
+ *   refines m_abs
+ *   sees c0
+ *   variables x
+ *   invariants
+ *     &#064;inv1 x ∈ ℕ
+ *   events
+ *     event INITIALISATION
+ *       then
+ *         &#064;act1 x ≔ 0
+ *     end
+ *     convergent event evt extends abs_evt
+ *       refines other_evt
+ *       any p
+ *       where
+ *         &#064;grd1 p &lt; x
+ *       with
+ *         &#064;y y = p
+ *       then
+ *         &#064;act1 x ≔ p
+ *     end
+ * end
+ * </pre>
+ * <p>
+ * An event is <code>ordinary</code> (the default), <code>convergent</code>
+ * or <code>anticipated</code>, and an event which <code>extends</code> an
+ * abstract event refines it. The components must not exist in the project.
+ * </p>
+ * <p>
+ * The input is read line by line and each element is created with
+ * {@link EventBUtils} as soon as its line is read, with a
+ * {@link BatchProgressMonitor} aggregating the progress. All elements are
+ * created in a single Rodin operation, and each component is saved and
+ * closed once complete, hence the memory used does not depend on the size of
+ * the input beyond that of the largest component.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBJsonExport
+ * @since 0.2.5
+ */
+public final class EventBTextImport {
+
+	// The identifier of this plug-in.
+	private static final String PLUGIN_ID = "ch.ethz.eventb.utils"; //$NON-NLS-1$
+
+	private EventBTextImport() {
+		// Utility classes shall not have a public or default constructor.
+	}
+
+	/**
+	 * Imports the machines and contexts of a text into a project. If the text
+	 * is malformed, the components complete before the problem is detected
+	 * are kept, and the incomplete component is left unsaved.
+	 * 
+	 * @param prj
+	 *            an existing Event-B project.
+	 * @param in
+	 *            the text, which is not closed.
+	 * @param monitor
+	 *            the progress monitor to use for reporting progress to the
+	 *            user. It is the caller's responsibility to call done() on the
+	 *            given monitor. Accepts <code>null</code>, indicating that no
+	 *            progress should be reported and that the operation cannot be
+	 *            cancelled.
+	 * @return the roots of the imported components, in the order of the text.
+	 * @throws CoreException
+	 *             if there are problems accessing the database.
+	 * @throws IOException
+	 *             if there are problems reading the text, or if the text is
+	 *             malformed.
+	 */
+	public static IEventBRoot[] load(IEventBProject prj, Reader in,
+			IProgressMonitor monitor) throws CoreException, IOException {
+		// Assert preconditions.
+		Assert.isNotNull(prj, Messages.error_NullProject);
+		Assert.isTrue(prj.getRodinProject().exists(),
+				Messages.bind(Messages.error_NonExistingProject, prj));
+
+		final BatchProgressMonitor batch = new BatchProgressMonitor(monitor,
+				Messages.bind(Messages.progress_ImportText, prj),
+				IProgressMonitor.UNKNOWN);
+		final TextModelReader reader = new TextModelReader(in, prj, batch);
+		final IEventBRoot[][] result = new IEventBRoot[1][];
+		final IOException[] failure = new IOException[1];
+		try {
+			// Batch the changes in a single operation, so that a single
+			// delta is reported.
+			RodinCore.run(new IWorkspaceRunnable() {
+
+				@Override
+				public void run(IProgressMonitor pm) throws CoreException {
+					try {
+						result[0] = reader.read();
+					} catch (IOException e) {
+						failure[0] = e;
+						throw new CoreException(new Status(IStatus.ERROR,
+								PLUGIN_ID, e.getMessage(), e));
+					}
+				}
+
+			}, batch);
+		} catch (CoreException e) {
+			if (failure[0] != null)
+				throw failure[0];
+			throw e;
+		} finally {
+			batch.finish();
+		}
+		return result[0];
+	}
+
+}
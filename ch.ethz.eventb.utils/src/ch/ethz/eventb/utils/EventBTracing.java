@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+
+package ch.ethz.eventb.utils;
+
+import ch.ethz.eventb.internal.utils.Instrumentation;
+
+/**
+ * <p>
+ * Utility class controlling the tracing of the slow operations of
+ * {@link EventBUtils} and {@link EventBSCUtils}. When a threshold is set,
+ * each call lasting longer than the threshold is logged as a warning in the
+ * platform log, with the operation, the component and the element on which
+ * it is called, the number of elements created or read, the time spent
+ * reading and writing the database, and the accesses to the database (see
+ * {@link OperationStatistics}). Calls throwing an exception are traced too.
+ * </p>
+ * <p>
+ * The tracing is disabled by default. It can be enabled at any time with
+ * {@link #setSlowOperationThreshold(long)}, or at start-up with the system
+ * property <code>ch.ethz.eventb.utils.slowOperationThreshold</code> giving
+ * the threshold in milliseconds, e.g.
+ * <code>-Dch.ethz.eventb.utils.slowOperationThreshold=50</code>.
+ * </p>
+ * <p>
+ * The calls can also be traced as Java Flight Recorder events named
+ * <code>ch.ethz.eventb.utils.Operation</code>, with the operation, the
+ * component, the number of elements created or read and the duration of the
+ * call, emitted while a recording is running. The events are disabled by
+ * default. They can be enabled with
+ * {@link #setFlightRecorderEventsEnabled(boolean)}, or at start-up with the
+ * system property <code>ch.ethz.eventb.utils.flightRecorderEvents</code>,
+ * e.g. <code>-Dch.ethz.eventb.utils.flightRecorderEvents=true</code>.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBMetrics
+ * @since 0.2.5
+ */
+public final class EventBTracing {
+
+	private EventBTracing() {
+		// Utility classes shall not have a public or default constructor.
+	}
+
+	/**
+	 * Sets the duration above which the calls are logged.
+	 * 
+	 * @param millis
+	 *            a duration in milliseconds, or a negative number to disable
+	 *            the tracing.
+	 */
+	public static void setSlowOperationThreshold(long millis) {
+		Instrumentation.setSlowThreshold(millis < 0 ? -1 : millis * 1000000);
+	}
+
+	/**
+	 * Returns the duration above which the calls are logged.
+	 * 
+	 * @return a duration in milliseconds, or <code>-1</code> if the tracing
+	 *         is disabled.
+	 */
+	public static long getSlowOperationThreshold() {
+		long nanos = Instrumentation.getSlowThreshold();
+		return nanos < 0 ? -1 : nanos / 1000000;
+	}
+
+	/**
+	 * Enables or disables the Flight Recorder events.
+	 * 
+	 * @param enabled
+	 *            <code>true</code> to emit an event for each call while a
+	 *            recording is running.
+	 */
+	public static void setFlightRecorderEventsEnabled(boolean enabled) {
+		Instrumentation.setFlightRecorderEnabled(enabled);
+	}
+
+	/**
+	 * Returns whether the Flight Recorder events are enabled.
+	 * 
+	 * @return <code>true</code> if the events are enabled,
+	 *         <code>false</code> otherwise.
+	 */
+	public static boolean isFlightRecorderEventsEnabled() {
+		return Instrumentation.isFlightRecorderEnabled();
+	}
+
+}
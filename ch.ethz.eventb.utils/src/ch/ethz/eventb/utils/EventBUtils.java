@@ -50,7 +50,11 @@ import org.rodinp.core.IRodinProject;
 import org.rodinp.core.RodinCore;
 import org.rodinp.core.RodinDBException;
 
+import ch.ethz.eventb.internal.utils.Attributes;
+import ch.ethz.eventb.internal.utils.Instrumentation;
 import ch.ethz.eventb.internal.utils.Messages;
+import ch.ethz.eventb.internal.utils.Operation;
+import ch.ethz.eventb.internal.utils.OperationTrace;
 
 /**
  * @author htson
@@ -96,30 +100,41 @@ public final class EventBUtils {
 	 */
 	public static IEventBProject createEventBProject(String name,
 			IProgressMonitor monitor) throws CoreException {
-		IWorkspace workspace = ResourcesPlugin.getWorkspace();
-		IProject project = workspace.getRoot().getProject(name);
+		OperationTrace trace = Instrumentation.begin(
+				Operation.CREATE_EVENTB_PROJECT, null);
+		try {
+			IWorkspace workspace = ResourcesPlugin.getWorkspace();
+			IProject project = workspace.getRoot().getProject(name);
 		
-		// Split the progress monitor.
-		SubMonitor subMonitor = SubMonitor.convert(monitor,
-				Messages.progress_CreateEventBProject, 3);
+			// Split the progress monitor.
+			SubMonitor subMonitor = convert(monitor,
+					Messages.progress_CreateEventBProject, 3);
 
 		
-		// 1. Create a new project
-		subMonitor.subTask(Messages.progress_CreateProject);
-		project.create(subMonitor.newChild(1));
+			Instrumentation.beginWrite(trace);
+
+			// 1. Create a new project
+			subMonitor.subTask(Messages.progress_CreateProject);
+			project.create(subMonitor.newChild(1));
+			Instrumentation.created(trace);
 		
-		// 2. Open the newly created project.
-		subMonitor.subTask(Messages.progress_OpenProject);
-		project.open(subMonitor.newChild(1));
+			// 2. Open the newly created project.
+			subMonitor.subTask(Messages.progress_OpenProject);
+			project.open(subMonitor.newChild(1));
 		
-		// 3. Set the project nature.
-		IProjectDescription pDescription = project.getDescription();
-		pDescription.setNatureIds(new String[] { RodinCore.NATURE_ID });
-		subMonitor.subTask(Messages.progress_SetRodinProjectNature);
-		project.setDescription(pDescription, subMonitor.newChild(1));
-
-		IRodinProject rodinPrj = RodinCore.valueOf(project);
-		return (IEventBProject) rodinPrj.getAdapter(IEventBProject.class);
+			// 3. Set the project nature.
+			IProjectDescription pDescription = project.getDescription();
+			pDescription.setNatureIds(new String[] { RodinCore.NATURE_ID });
+			subMonitor.subTask(Messages.progress_SetRodinProjectNature);
+			project.setDescription(pDescription, subMonitor.newChild(1));
+
+			IRodinProject rodinPrj = RodinCore.valueOf(project);
+			IEventBProject result = (IEventBProject) rodinPrj
+					.getAdapter(IEventBProject.class);
+			return result;
+		} finally {
+			Instrumentation.end(trace);
+		}
 	}
 
 	// =========================================================================
@@ -151,35 +166,46 @@ public final class EventBUtils {
 			String barename, IProgressMonitor monitor) throws RodinDBException {
 		// Assert preconditions.
 		Assert.isNotNull(prj, Messages.error_NullProject);
-		Assert.isTrue(prj.getRodinProject().exists(),
-				Messages.bind(Messages.error_NonExistingProject, prj));
-
-		// Split the progress monitor.
-		SubMonitor subMonitor = SubMonitor.convert(monitor,
-				Messages.progress_CreateContext, 3);
-
-		// 1. Get a free component name by appending some suffix.
-		subMonitor.subTask(Messages.progress_GetFreeComponentName);
-		String name = getFreeComponentName(prj, barename,
-				subMonitor.newChild(1));
-		IRodinFile context = prj.getContextFile(name);
-		Assert.isNotNull(context, Messages.error_NullContext);
-		Assert.isTrue(
-				!context.exists(),
-				Messages.bind(Messages.error_ExistingContext,
-						context.getBareName()));
-
-		// 2. Create the context.
-		subMonitor.subTask(Messages.progress_CreateContextFile);
-		context.create(false, subMonitor.newChild(1));
-		IContextRoot root = (IContextRoot) context.getRoot();
-
-		// 3. Set default configuration.
-		subMonitor.subTask(Messages.progress_SetDefaultConfiguration);
-		root.setConfiguration(IConfigurationElement.DEFAULT_CONFIGURATION,
-				subMonitor.newChild(1));
-
-		return root;
+		OperationTrace trace = Instrumentation.begin(Operation.CREATE_CONTEXT,
+				prj.getRodinProject());
+		try {
+			Instrumentation.opened(trace, prj.getRodinProject());
+			Assert.isTrue(prj.getRodinProject().exists(),
+					Messages.bind(Messages.error_NonExistingProject, prj));
+
+			// Split the progress monitor.
+			SubMonitor subMonitor = convert(monitor,
+					Messages.progress_CreateContext, 3);
+
+			// 1. Get a free component name by appending some suffix.
+			subMonitor.subTask(Messages.progress_GetFreeComponentName);
+			String name = getFreeComponentName(prj, barename,
+					subMonitor.newChild(1));
+			IRodinFile context = prj.getContextFile(name);
+			Assert.isNotNull(context, Messages.error_NullContext);
+			Assert.isTrue(
+					!context.exists(),
+					Messages.bind(Messages.error_ExistingContext,
+							context.getBareName()));
+
+			Instrumentation.beginWrite(trace);
+
+			// 2. Create the context.
+			subMonitor.subTask(Messages.progress_CreateContextFile);
+			context.create(false, subMonitor.newChild(1));
+			Instrumentation.created(trace);
+			IContextRoot root = (IContextRoot) context.getRoot();
+
+			// 3. Set default configuration.
+			subMonitor.subTask(Messages.progress_SetDefaultConfiguration);
+			Attributes.setConfiguration(trace, root,
+					IConfigurationElement.DEFAULT_CONFIGURATION,
+					subMonitor.newChild(1));
+
+			return root;
+		} finally {
+			Instrumentation.end(trace);
+		}
 	}
 
 	/**
@@ -207,32 +233,67 @@ public final class EventBUtils {
 			String barename, IProgressMonitor monitor) throws RodinDBException {
 		// Assert preconditions.
 		Assert.isNotNull(prj, Messages.error_NullProject);
-		Assert.isTrue(prj.getRodinProject().exists(),
-				Messages.bind(Messages.error_NonExistingProject, prj));
-
-		// Split the progress monitor.
-		SubMonitor subMonitor = SubMonitor.convert(monitor,
-				Messages.progress_CreateMachine, 3);
-
-		// 1. Get a free component name by appending some suffix.
-		subMonitor.subTask(Messages.progress_GetFreeComponentName);
-		String name = getFreeComponentName(prj, barename,
-				subMonitor.newChild(1));
-		IRodinFile machine = prj.getMachineFile(name);
-		Assert.isNotNull(machine, Messages.error_NullMachine);
-		Assert.isTrue(!machine.exists(),
-				Messages.bind(Messages.error_ExistingMachine, machine));
-
-		// 2. Create the machine.
-		subMonitor.subTask(Messages.progress_CreateMachineFile);
-		machine.create(false, subMonitor.newChild(1));
-		IMachineRoot root = (IMachineRoot) machine.getRoot();
-
-		// 3. Set default configuration.
-		subMonitor.subTask(Messages.progress_SetDefaultConfiguration);
-		root.setConfiguration(IConfigurationElement.DEFAULT_CONFIGURATION,
-				subMonitor.newChild(1));
-		return root;
+		OperationTrace trace = Instrumentation.begin(Operation.CREATE_MACHINE,
+				prj.getRodinProject());
+		try {
+			Instrumentation.opened(trace, prj.getRodinProject());
+			Assert.isTrue(prj.getRodinProject().exists(),
+					Messages.bind(Messages.error_NonExistingProject, prj));
+
+			// Split the progress monitor.
+			SubMonitor subMonitor = convert(monitor,
+					Messages.progress_CreateMachine, 3);
+
+			// 1. Get a free component name by appending some suffix.
+			subMonitor.subTask(Messages.progress_GetFreeComponentName);
+			String name = getFreeComponentName(prj, barename,
+					subMonitor.newChild(1));
+			IRodinFile machine = prj.getMachineFile(name);
+			Assert.isNotNull(machine, Messages.error_NullMachine);
+			Assert.isTrue(!machine.exists(),
+					Messages.bind(Messages.error_ExistingMachine, machine));
+
+			Instrumentation.beginWrite(trace);
+
+			// 2. Create the machine.
+			subMonitor.subTask(Messages.progress_CreateMachineFile);
+			machine.create(false, subMonitor.newChild(1));
+			Instrumentation.created(trace);
+			IMachineRoot root = (IMachineRoot) machine.getRoot();
+
+			// 3. Set default configuration.
+			subMonitor.subTask(Messages.progress_SetDefaultConfiguration);
+			Attributes.setConfiguration(trace, root,
+					IConfigurationElement.DEFAULT_CONFIGURATION,
+					subMonitor.newChild(1));
+			return root;
+		} finally {
+			Instrumentation.end(trace);
+		}
+	}
+
+	/**
+	 * Utility method to split the progress monitor of an operation. When the
+	 * monitor is a {@link BatchProgressMonitor}, the operation is only
+	 * counted by the batch and its steps are not reported.
+	 * 
+	 * @param monitor
+	 *            the progress monitor of the operation, or <code>null</code>.
+	 * @param taskName
+	 *            the name of the operation.
+	 * @param work
+	 *            the number of steps of the operation.
+	 * @return the monitor for the steps of the operation.
+	 * @throws org.eclipse.core.runtime.OperationCanceledException
+	 *             if the batch is cancelled.
+	 */
+	private static SubMonitor convert(IProgressMonitor monitor,
+			String taskName, int work) {
+		if (monitor instanceof BatchProgressMonitor) {
+			((BatchProgressMonitor) monitor).advance(1);
+			return SubMonitor.convert(null, taskName, work);
+		}
+		return SubMonitor.convert(monitor, taskName, work);
 	}
 
 	/**
@@ -328,25 +389,36 @@ public final class EventBUtils {
 			IProgressMonitor monitor) throws RodinDBException {
 		// Assert preconditions.
 		Assert.isNotNull(ctx, Messages.error_NullContext);
-		Assert.isTrue(ctx.exists(), Messages.bind(
-				Messages.error_NonExistingContext, ctx.getRodinFile()
-						.getBareName()));
-
-		// Split the progress monitor.
-		SubMonitor subMonitor = SubMonitor.convert(monitor,
-				Messages.progress_CreateExtendsContextClause, 2);
-
-		// 1. Create the extends clause.
-		subMonitor.subTask(Messages.progress_CreateExtendsContextElement);
-		IExtendsContext extendCtx = ctx.createChild(
-				IExtendsContext.ELEMENT_TYPE, nextSibling,
-				subMonitor.newChild(1));
-
-		// 2. Set the abstract context name.
-		subMonitor.subTask(Messages.progress_SetAbstractContextName);
-		extendCtx.setAbstractContextName(absCtxName, subMonitor.newChild(1));
-
-		return extendCtx;
+		OperationTrace trace = Instrumentation.begin(
+				Operation.CREATE_EXTENDS_CONTEXT_CLAUSE, ctx);
+		try {
+			Instrumentation.opened(trace, ctx);
+			Assert.isTrue(ctx.exists(), Messages.bind(
+					Messages.error_NonExistingContext, ctx.getRodinFile()
+							.getBareName()));
+
+			// Split the progress monitor.
+			SubMonitor subMonitor = convert(monitor,
+					Messages.progress_CreateExtendsContextClause, 2);
+
+			Instrumentation.beginWrite(trace);
+
+			// 1. Create the extends clause.
+			subMonitor.subTask(Messages.progress_CreateExtendsContextElement);
+			IExtendsContext extendCtx = ctx.createChild(
+					IExtendsContext.ELEMENT_TYPE, nextSibling,
+					subMonitor.newChild(1));
+			Instrumentation.created(trace);
+
+			// 2. Set the abstract context name.
+			subMonitor.subTask(Messages.progress_SetAbstractContextName);
+			Attributes.setAbstractContextName(trace, extendCtx, absCtxName,
+					subMonitor.newChild(1));
+
+			return extendCtx;
+		} finally {
+			Instrumentation.end(trace);
+		}
 	}
 
 	/**
@@ -373,24 +445,35 @@ public final class EventBUtils {
 			IProgressMonitor monitor) throws RodinDBException {
 		// Assert preconditions.
 		Assert.isNotNull(ctx, Messages.error_NullContext);
-		Assert.isTrue(ctx.exists(), Messages.bind(
-				Messages.error_NonExistingContext, ctx.getRodinFile()
-						.getBareName()));
-
-		// Split the progress monitor.
-		SubMonitor subMonitor = SubMonitor.convert(monitor,
-				Messages.progress_CreateCarrierSet, 2);
-
-		// 1. Create the carrier set.
-		subMonitor.subTask(Messages.progress_CreateCarrierSetElement);
-		ICarrierSet set = ctx.createChild(ICarrierSet.ELEMENT_TYPE,
-				nextSibling, subMonitor.newChild(1));
-
-		// 2. Set the identifier string.
-		subMonitor.subTask(Messages.progress_SetCarrierSetIdentifierString);
-		set.setIdentifierString(identifierString, subMonitor.newChild(1));
-
-		return set;
+		OperationTrace trace = Instrumentation.begin(
+				Operation.CREATE_CARRIER_SET, ctx);
+		try {
+			Instrumentation.opened(trace, ctx);
+			Assert.isTrue(ctx.exists(), Messages.bind(
+					Messages.error_NonExistingContext, ctx.getRodinFile()
+							.getBareName()));
+
+			// Split the progress monitor.
+			SubMonitor subMonitor = convert(monitor,
+					Messages.progress_CreateCarrierSet, 2);
+
+			Instrumentation.beginWrite(trace);
+
+			// 1. Create the carrier set.
+			subMonitor.subTask(Messages.progress_CreateCarrierSetElement);
+			ICarrierSet set = ctx.createChild(ICarrierSet.ELEMENT_TYPE,
+					nextSibling, subMonitor.newChild(1));
+			Instrumentation.created(trace);
+
+			// 2. Set the identifier string.
+			subMonitor.subTask(Messages.progress_SetCarrierSetIdentifierString);
+			Attributes.setIdentifierString(trace, set, identifierString,
+					subMonitor.newChild(1));
+
+			return set;
+		} finally {
+			Instrumentation.end(trace);
+		}
 	}
 
 	/**
@@ -417,24 +500,35 @@ public final class EventBUtils {
 			IProgressMonitor monitor) throws RodinDBException {
 		// Assert preconditions.
 		Assert.isNotNull(ctx, Messages.error_NullContext);
-		Assert.isTrue(ctx.exists(), Messages.bind(
-				Messages.error_NonExistingContext, ctx.getRodinFile()
-						.getBareName()));
-
-		// Split the progress monitor.
-		SubMonitor subMonitor = SubMonitor.convert(monitor,
-				Messages.progress_CreateConstant, 2);
-
-		// 1. Create the carrier set.
-		subMonitor.subTask(Messages.progress_CreateConstantElement);
-		IConstant cst = ctx.createChild(IConstant.ELEMENT_TYPE, nextSibling,
-				subMonitor.newChild(1));
-
-		// 2. Set the identifier string.
-		subMonitor.subTask(Messages.progress_SetConstantIdentifierString);
-		cst.setIdentifierString(identifierString, subMonitor.newChild(1));
-
-		return cst;
+		OperationTrace trace = Instrumentation.begin(Operation.CREATE_CONSTANT,
+				ctx);
+		try {
+			Instrumentation.opened(trace, ctx);
+			Assert.isTrue(ctx.exists(), Messages.bind(
+					Messages.error_NonExistingContext, ctx.getRodinFile()
+							.getBareName()));
+
+			// Split the progress monitor.
+			SubMonitor subMonitor = convert(monitor,
+					Messages.progress_CreateConstant, 2);
+
+			Instrumentation.beginWrite(trace);
+
+			// 1. Create the carrier set.
+			subMonitor.subTask(Messages.progress_CreateConstantElement);
+			IConstant cst = ctx.createChild(IConstant.ELEMENT_TYPE, nextSibling,
+					subMonitor.newChild(1));
+			Instrumentation.created(trace);
+
+			// 2. Set the identifier string.
+			subMonitor.subTask(Messages.progress_SetConstantIdentifierString);
+			Attributes.setIdentifierString(trace, cst, identifierString,
+					subMonitor.newChild(1));
+
+			return cst;
+		} finally {
+			Instrumentation.end(trace);
+		}
 	}
 
 	/**
@@ -466,32 +560,44 @@ public final class EventBUtils {
 			IProgressMonitor monitor) throws RodinDBException {
 		// Assert preconditions.
 		Assert.isNotNull(ctx, Messages.error_NullContext);
-		Assert.isTrue(ctx.exists(), Messages.bind(
-				Messages.error_NonExistingContext, ctx.getRodinFile()
-						.getBareName()));
-
-		// Split the progress monitor.
-		SubMonitor subMonitor = SubMonitor.convert(monitor,
-				Messages.progress_CreateAxiom, 4);
-
-		// 1. Create the element.
-		subMonitor.subTask(Messages.progress_CreateAxiomElement);
-		IAxiom axm = ctx.createChild(IAxiom.ELEMENT_TYPE, nextSibling,
-				subMonitor.newChild(1));
-
-		// 2. Set the label.
-		subMonitor.subTask(Messages.progress_SetAxiomLabel);
-		axm.setLabel(label, subMonitor.newChild(1));
-
-		// 3. Set predicate string.
-		subMonitor.subTask(Messages.progress_SetAxiomPredicateString);
-		axm.setPredicateString(predicate, subMonitor.newChild(1));
-
-		// 4. Set isTheorem attribute.
-		subMonitor.subTask(Messages.progress_SetAxiomIsTheorem);
-		axm.setTheorem(isTheorem, subMonitor.newChild(1));
-
-		return axm;
+		OperationTrace trace = Instrumentation.begin(Operation.CREATE_AXIOM,
+				ctx);
+		try {
+			Instrumentation.opened(trace, ctx);
+			Assert.isTrue(ctx.exists(), Messages.bind(
+					Messages.error_NonExistingContext, ctx.getRodinFile()
+							.getBareName()));
+
+			// Split the progress monitor.
+			SubMonitor subMonitor = convert(monitor,
+					Messages.progress_CreateAxiom, 4);
+
+			Instrumentation.beginWrite(trace);
+
+			// 1. Create the element.
+			subMonitor.subTask(Messages.progress_CreateAxiomElement);
+			IAxiom axm = ctx.createChild(IAxiom.ELEMENT_TYPE, nextSibling,
+					subMonitor.newChild(1));
+			Instrumentation.created(trace);
+
+			// 2. Set the label.
+			subMonitor.subTask(Messages.progress_SetAxiomLabel);
+			Attributes.setLabel(trace, axm, label, subMonitor.newChild(1));
+
+			// 3. Set predicate string.
+			subMonitor.subTask(Messages.progress_SetAxiomPredicateString);
+			Attributes.setPredicateString(trace, axm, predicate,
+					subMonitor.newChild(1));
+
+			// 4. Set isTheorem attribute.
+			subMonitor.subTask(Messages.progress_SetAxiomIsTheorem);
+			Attributes.setTheorem(trace, axm, isTheorem,
+					subMonitor.newChild(1));
+
+			return axm;
+		} finally {
+			Instrumentation.end(trace);
+		}
 	}
 
 	/**
@@ -519,26 +625,37 @@ public final class EventBUtils {
 			throws RodinDBException {
 		// Assert preconditions.
 		Assert.isNotNull(mch, Messages.error_NullMachine);
-		Assert.isTrue(mch.exists(), Messages.bind(
-				Messages.error_NonExistingMachine, mch.getRodinFile()
-						.getBareName()));
-
-		// Split the progress monitor.
-		SubMonitor subMonitor = SubMonitor.convert(monitor,
-				Messages.progress_CreateRefinesMachineClause, 2);
-
-		// 1. Create the element.
-		subMonitor.subTask(Messages.progress_CreateRefinesMachineElement);
-		IRefinesMachine refinesMch = mch.createChild(
-				IRefinesMachine.ELEMENT_TYPE, nextSibling,
-				subMonitor.newChild(1));
-
-		// 2. Set the abstract machine name.
-		subMonitor
-				.subTask(Messages.progress_SetRefinesMachineAbstractMachineName);
-		refinesMch.setAbstractMachineName(name, subMonitor.newChild(1));
-
-		return refinesMch;
+		OperationTrace trace = Instrumentation.begin(
+				Operation.CREATE_REFINES_MACHINE_CLAUSE, mch);
+		try {
+			Instrumentation.opened(trace, mch);
+			Assert.isTrue(mch.exists(), Messages.bind(
+					Messages.error_NonExistingMachine, mch.getRodinFile()
+							.getBareName()));
+
+			// Split the progress monitor.
+			SubMonitor subMonitor = convert(monitor,
+					Messages.progress_CreateRefinesMachineClause, 2);
+
+			Instrumentation.beginWrite(trace);
+
+			// 1. Create the element.
+			subMonitor.subTask(Messages.progress_CreateRefinesMachineElement);
+			IRefinesMachine refinesMch = mch.createChild(
+					IRefinesMachine.ELEMENT_TYPE, nextSibling,
+					subMonitor.newChild(1));
+			Instrumentation.created(trace);
+
+			// 2. Set the abstract machine name.
+			subMonitor.subTask(
+					Messages.progress_SetRefinesMachineAbstractMachineName);
+			Attributes.setAbstractMachineName(trace, refinesMch, name,
+					subMonitor.newChild(1));
+
+			return refinesMch;
+		} finally {
+			Instrumentation.end(trace);
+		}
 	}
 
 	/**
@@ -566,24 +683,35 @@ public final class EventBUtils {
 			throws RodinDBException {
 		// Assert preconditions.
 		Assert.isNotNull(mch, Messages.error_NullMachine);
-		Assert.isTrue(mch.exists(), Messages.bind(
-				Messages.error_NonExistingMachine, mch.getRodinFile()
-						.getBareName()));
-
-		// Split the progress monitor.
-		SubMonitor subMonitor = SubMonitor.convert(monitor,
-				Messages.progress_CreateSeesContextClause, 2);
-
-		// 1. Create the element.
-		subMonitor.subTask(Messages.progress_CreateSeesContextElement);
-		ISeesContext seesCtx = mch.createChild(ISeesContext.ELEMENT_TYPE,
-				nextSibling, subMonitor.newChild(1));
-
-		// 2. Set seen context name.
-		subMonitor.subTask(Messages.progress_SetSeenContextName);
-		seesCtx.setSeenContextName(name, subMonitor.newChild(1));
-
-		return seesCtx;
+		OperationTrace trace = Instrumentation.begin(
+				Operation.CREATE_SEES_CONTEXT_CLAUSE, mch);
+		try {
+			Instrumentation.opened(trace, mch);
+			Assert.isTrue(mch.exists(), Messages.bind(
+					Messages.error_NonExistingMachine, mch.getRodinFile()
+							.getBareName()));
+
+			// Split the progress monitor.
+			SubMonitor subMonitor = convert(monitor,
+					Messages.progress_CreateSeesContextClause, 2);
+
+			Instrumentation.beginWrite(trace);
+
+			// 1. Create the element.
+			subMonitor.subTask(Messages.progress_CreateSeesContextElement);
+			ISeesContext seesCtx = mch.createChild(ISeesContext.ELEMENT_TYPE,
+					nextSibling, subMonitor.newChild(1));
+			Instrumentation.created(trace);
+
+			// 2. Set seen context name.
+			subMonitor.subTask(Messages.progress_SetSeenContextName);
+			Attributes.setSeenContextName(trace, seesCtx, name,
+					subMonitor.newChild(1));
+
+			return seesCtx;
+		} finally {
+			Instrumentation.end(trace);
+		}
 	}
 
 	/**
@@ -611,24 +739,35 @@ public final class EventBUtils {
 			throws RodinDBException {
 		// Assert preconditions.
 		Assert.isNotNull(mch, Messages.error_NullMachine);
-		Assert.isTrue(mch.exists(), Messages.bind(
-				Messages.error_NonExistingMachine, mch.getRodinFile()
-						.getBareName()));
-
-		// Split the progress monitor.
-		SubMonitor subMonitor = SubMonitor.convert(monitor,
-				Messages.progress_CreateVariable, 2);
-
-		// 1. Create the element.
-		subMonitor.subTask(Messages.progress_CreateVariableElement);
-		IVariable var = mch.createChild(IVariable.ELEMENT_TYPE, nextSibling,
-				subMonitor.newChild(1));
-
-		// 2. Set the identifier string.
-		subMonitor.subTask(Messages.progress_SetVariableIdentifierString);
-		var.setIdentifierString(identifier, subMonitor.newChild(1));
-
-		return var;
+		OperationTrace trace = Instrumentation.begin(Operation.CREATE_VARIABLE,
+				mch);
+		try {
+			Instrumentation.opened(trace, mch);
+			Assert.isTrue(mch.exists(), Messages.bind(
+					Messages.error_NonExistingMachine, mch.getRodinFile()
+							.getBareName()));
+
+			// Split the progress monitor.
+			SubMonitor subMonitor = convert(monitor,
+					Messages.progress_CreateVariable, 2);
+
+			Instrumentation.beginWrite(trace);
+
+			// 1. Create the element.
+			subMonitor.subTask(Messages.progress_CreateVariableElement);
+			IVariable var = mch.createChild(IVariable.ELEMENT_TYPE, nextSibling,
+					subMonitor.newChild(1));
+			Instrumentation.created(trace);
+
+			// 2. Set the identifier string.
+			subMonitor.subTask(Messages.progress_SetVariableIdentifierString);
+			Attributes.setIdentifierString(trace, var, identifier,
+					subMonitor.newChild(1));
+
+			return var;
+		} finally {
+			Instrumentation.end(trace);
+		}
 	}
 
 	/**
@@ -661,32 +800,43 @@ public final class EventBUtils {
 			IProgressMonitor monitor) throws RodinDBException {
 		// Assert preconditions.
 		Assert.isNotNull(mch, Messages.error_NullMachine);
-		Assert.isTrue(mch.exists(), Messages.bind(
-				Messages.error_NonExistingMachine, mch.getRodinFile()
-						.getBareName()));
-
-		// Split the progress monitor.
-		SubMonitor subMonitor = SubMonitor.convert(monitor,
-				Messages.progress_CreateInvariant, 4);
-
-		// 1. Create the element.
-		subMonitor.subTask(Messages.progress_CreateInvariantElement);
-		IInvariant inv = mch.createChild(IInvariant.ELEMENT_TYPE, nextSibling,
-				subMonitor.newChild(1));
-
-		// 2. Set invariant label.
-		subMonitor.subTask(Messages.progress_SetInvariantLabel);
-		inv.setLabel(label, subMonitor.newChild(1));
-
-		// 3. Set invariant predicate string.
-		subMonitor.subTask(Messages.progress_SetInvariantPredicateString);
-		inv.setPredicateString(predicate, subMonitor.newChild(1));
-
-		// 4. Set invariant isTheorem attribute
-		subMonitor.subTask(Messages.progress_SetInvariantIsTheorem);
-		inv.setTheorem(thm, subMonitor.newChild(1));
-
-		return inv;
+		OperationTrace trace = Instrumentation.begin(Operation.CREATE_INVARIANT,
+				mch);
+		try {
+			Instrumentation.opened(trace, mch);
+			Assert.isTrue(mch.exists(), Messages.bind(
+					Messages.error_NonExistingMachine, mch.getRodinFile()
+							.getBareName()));
+
+			// Split the progress monitor.
+			SubMonitor subMonitor = convert(monitor,
+					Messages.progress_CreateInvariant, 4);
+
+			Instrumentation.beginWrite(trace);
+
+			// 1. Create the element.
+			subMonitor.subTask(Messages.progress_CreateInvariantElement);
+			IInvariant inv = mch.createChild(IInvariant.ELEMENT_TYPE,
+					nextSibling, subMonitor.newChild(1));
+			Instrumentation.created(trace);
+
+			// 2. Set invariant label.
+			subMonitor.subTask(Messages.progress_SetInvariantLabel);
+			Attributes.setLabel(trace, inv, label, subMonitor.newChild(1));
+
+			// 3. Set invariant predicate string.
+			subMonitor.subTask(Messages.progress_SetInvariantPredicateString);
+			Attributes.setPredicateString(trace, inv, predicate,
+					subMonitor.newChild(1));
+
+			// 4. Set invariant isTheorem attribute
+			subMonitor.subTask(Messages.progress_SetInvariantIsTheorem);
+			Attributes.setTheorem(trace, inv, thm, subMonitor.newChild(1));
+
+			return inv;
+		} finally {
+			Instrumentation.end(trace);
+		}
 	}
 
 	/**
@@ -719,32 +869,44 @@ public final class EventBUtils {
 			throws RodinDBException {
 		// Assert preconditions.
 		Assert.isNotNull(mch, Messages.error_NullMachine);
-		Assert.isTrue(mch.exists(), Messages.bind(
-				Messages.error_NonExistingMachine, mch.getRodinFile()
-						.getBareName()));
-
-		// Split the progress monitor.
-		SubMonitor subMonitor = SubMonitor.convert(monitor,
-				Messages.progress_CreateEvent, 4);
-
-		// 1. Create the element.
-		subMonitor.subTask(Messages.progress_CreateEventElement);
-		IEvent evt = mch.createChild(IEvent.ELEMENT_TYPE, nextSibling,
-				subMonitor.newChild(1));
-
-		// 2. Set event label.
-		subMonitor.subTask(Messages.progress_SetEventLabel);
-		evt.setLabel(label, subMonitor.newChild(1));
-
-		// 3. Set event convergence attribute.
-		subMonitor.subTask(Messages.progress_SetEventConvergence);
-		evt.setConvergence(convergence, subMonitor.newChild(1));
-
-		// 4. Set event extended attribute.
-		subMonitor.subTask(Messages.progress_SetEventExtended);
-		evt.setExtended(extended, subMonitor.newChild(1));
-
-		return evt;
+		OperationTrace trace = Instrumentation.begin(Operation.CREATE_EVENT,
+				mch);
+		try {
+			Instrumentation.opened(trace, mch);
+			Assert.isTrue(mch.exists(), Messages.bind(
+					Messages.error_NonExistingMachine, mch.getRodinFile()
+							.getBareName()));
+
+			// Split the progress monitor.
+			SubMonitor subMonitor = convert(monitor,
+					Messages.progress_CreateEvent, 4);
+
+			Instrumentation.beginWrite(trace);
+
+			// 1. Create the element.
+			subMonitor.subTask(Messages.progress_CreateEventElement);
+			IEvent evt = mch.createChild(IEvent.ELEMENT_TYPE, nextSibling,
+					subMonitor.newChild(1));
+			Instrumentation.created(trace);
+
+			// 2. Set event label.
+			subMonitor.subTask(Messages.progress_SetEventLabel);
+			Attributes.setLabel(trace, evt, label, subMonitor.newChild(1));
+
+			// 3. Set event convergence attribute.
+			subMonitor.subTask(Messages.progress_SetEventConvergence);
+			Attributes.setConvergence(trace, evt, convergence,
+					subMonitor.newChild(1));
+
+			// 4. Set event extended attribute.
+			subMonitor.subTask(Messages.progress_SetEventExtended);
+			Attributes.setExtended(trace, evt, extended,
+					subMonitor.newChild(1));
+
+			return evt;
+		} finally {
+			Instrumentation.end(trace);
+		}
 	}
 
 	/**
@@ -764,22 +926,34 @@ public final class EventBUtils {
 			IProgressMonitor monitor) throws RodinDBException {
 		// Assert preconditions.
 		Assert.isNotNull(evt, Messages.error_NullEvent);
-		Assert.isTrue(evt.exists(),
-				Messages.bind(Messages.error_NonExistingEvent, evt.getLabel()));
-
-		// Split the progress monitor.
-		SubMonitor subMonitor = SubMonitor.convert(monitor,
-				Messages.progress_CreateRefinesEventClause, 2);
-
-		// 1. Create the element.
-		subMonitor.subTask(Messages.progress_CreateRefinesEventElement);
-		IRefinesEvent refEvt = evt.createChild(IRefinesEvent.ELEMENT_TYPE,
-				nextSibling, subMonitor.newChild(1));
-
-		// 2. Set abstract event label.
-		subMonitor.subTask(Messages.progress_SetAbstractEventLabel);
-		refEvt.setAbstractEventLabel(absEvtLabel, subMonitor.newChild(1));
-		return refEvt;
+		OperationTrace trace = Instrumentation.begin(
+				Operation.CREATE_REFINES_EVENT_CLAUSE, evt);
+		try {
+			Instrumentation.opened(trace, evt);
+			Assert.isTrue(evt.exists(),
+					Messages.bind(Messages.error_NonExistingEvent,
+							Attributes.getLabel(trace, evt)));
+
+			// Split the progress monitor.
+			SubMonitor subMonitor = convert(monitor,
+					Messages.progress_CreateRefinesEventClause, 2);
+
+			Instrumentation.beginWrite(trace);
+
+			// 1. Create the element.
+			subMonitor.subTask(Messages.progress_CreateRefinesEventElement);
+			IRefinesEvent refEvt = evt.createChild(IRefinesEvent.ELEMENT_TYPE,
+					nextSibling, subMonitor.newChild(1));
+			Instrumentation.created(trace);
+
+			// 2. Set abstract event label.
+			subMonitor.subTask(Messages.progress_SetAbstractEventLabel);
+			Attributes.setAbstractEventLabel(trace, refEvt, absEvtLabel,
+					subMonitor.newChild(1));
+			return refEvt;
+		} finally {
+			Instrumentation.end(trace);
+		}
 	}
 
 	/**
@@ -807,23 +981,35 @@ public final class EventBUtils {
 			throws RodinDBException {
 		// Assert preconditions.
 		Assert.isNotNull(evt, Messages.error_NullEvent);
-		Assert.isTrue(evt.exists(),
-				Messages.bind(Messages.error_NonExistingEvent, evt.getLabel()));
-
-		// Split the progress monitor.
-		SubMonitor subMonitor = SubMonitor.convert(monitor,
-				Messages.progress_CreateParameter, 2);
-
-		// 1. Create the element.
-		subMonitor.subTask(Messages.progress_CreateParameterElement);
-		IParameter par = evt.createChild(IParameter.ELEMENT_TYPE, nextSibling,
-				subMonitor.newChild(1));
-
-		// 2. Set parameter identifier string.
-		subMonitor.subTask(Messages.progress_SetParameterIdentifierString);
-		par.setIdentifierString(identifier, subMonitor.newChild(1));
-
-		return par;
+		OperationTrace trace = Instrumentation.begin(Operation.CREATE_PARAMETER,
+				evt);
+		try {
+			Instrumentation.opened(trace, evt);
+			Assert.isTrue(evt.exists(),
+					Messages.bind(Messages.error_NonExistingEvent,
+							Attributes.getLabel(trace, evt)));
+
+			// Split the progress monitor.
+			SubMonitor subMonitor = convert(monitor,
+					Messages.progress_CreateParameter, 2);
+
+			Instrumentation.beginWrite(trace);
+
+			// 1. Create the element.
+			subMonitor.subTask(Messages.progress_CreateParameterElement);
+			IParameter par = evt.createChild(IParameter.ELEMENT_TYPE,
+					nextSibling, subMonitor.newChild(1));
+			Instrumentation.created(trace);
+
+			// 2. Set parameter identifier string.
+			subMonitor.subTask(Messages.progress_SetParameterIdentifierString);
+			Attributes.setIdentifierString(trace, par, identifier,
+					subMonitor.newChild(1));
+
+			return par;
+		} finally {
+			Instrumentation.end(trace);
+		}
 	}
 
 	/**
@@ -856,31 +1042,43 @@ public final class EventBUtils {
 			IProgressMonitor monitor) throws RodinDBException {
 		// Assert preconditions.
 		Assert.isNotNull(evt, Messages.error_NullEvent);
-		Assert.isTrue(evt.exists(),
-				Messages.bind(Messages.error_NonExistingEvent, evt.getLabel()));
-
-		// Split the progress monitor.
-		SubMonitor subMonitor = SubMonitor.convert(monitor,
-				Messages.progress_CreateGuard, 4);
-
-		// 1. Create the element.
-		subMonitor.subTask(Messages.progress_CreateGuardElement);
-		IGuard grd = evt.createChild(IGuard.ELEMENT_TYPE, null,
-				subMonitor.newChild(1));
-
-		// 2. Set guard label.
-		subMonitor.subTask(Messages.progress_SetGuardLabel);
-		grd.setLabel(label, subMonitor.newChild(1));
-
-		// 3. Set guard predicate string.
-		subMonitor.subTask(Messages.progress_SetGuardPredicateString);
-		grd.setPredicateString(predicate, subMonitor.newChild(1));
-
-		// 4. Set guard isTheorem attribute.
-		subMonitor.subTask(Messages.progress_SetGuardIsTheorem);
-		grd.setTheorem(thm, subMonitor.newChild(1));
-
-		return grd;
+		OperationTrace trace = Instrumentation.begin(Operation.CREATE_GUARD,
+				evt);
+		try {
+			Instrumentation.opened(trace, evt);
+			Assert.isTrue(evt.exists(),
+					Messages.bind(Messages.error_NonExistingEvent,
+							Attributes.getLabel(trace, evt)));
+
+			// Split the progress monitor.
+			SubMonitor subMonitor = convert(monitor,
+					Messages.progress_CreateGuard, 4);
+
+			Instrumentation.beginWrite(trace);
+
+			// 1. Create the element.
+			subMonitor.subTask(Messages.progress_CreateGuardElement);
+			IGuard grd = evt.createChild(IGuard.ELEMENT_TYPE, null,
+					subMonitor.newChild(1));
+			Instrumentation.created(trace);
+
+			// 2. Set guard label.
+			subMonitor.subTask(Messages.progress_SetGuardLabel);
+			Attributes.setLabel(trace, grd, label, subMonitor.newChild(1));
+
+			// 3. Set guard predicate string.
+			subMonitor.subTask(Messages.progress_SetGuardPredicateString);
+			Attributes.setPredicateString(trace, grd, predicate,
+					subMonitor.newChild(1));
+
+			// 4. Set guard isTheorem attribute.
+			subMonitor.subTask(Messages.progress_SetGuardIsTheorem);
+			Attributes.setTheorem(trace, grd, thm, subMonitor.newChild(1));
+
+			return grd;
+		} finally {
+			Instrumentation.end(trace);
+		}
 	}
 
 	/**
@@ -910,27 +1108,39 @@ public final class EventBUtils {
 			IProgressMonitor monitor) throws RodinDBException {
 		// Assert preconditions.
 		Assert.isNotNull(evt, Messages.error_NullEvent);
-		Assert.isTrue(evt.exists(),
-				Messages.bind(Messages.error_NonExistingEvent, evt.getLabel()));
-
-		// Split the progress monitor.
-		SubMonitor subMonitor = SubMonitor.convert(monitor,
-				Messages.progress_CreateWitness, 3);
-
-		// 1. Create the element.
-		subMonitor.subTask(Messages.progress_CreateWitnessElement);
-		IWitness wit = evt.createChild(IWitness.ELEMENT_TYPE, nextSibling,
-				subMonitor.newChild(1));
-
-		// 2. Set witness label.
-		subMonitor.subTask(Messages.progress_SetWitnessLabel);
-		wit.setLabel(label, subMonitor.newChild(1));
-
-		// 3. Set guard predicate string.
-		subMonitor.subTask(Messages.progress_SetWitnessPredicateString);
-		wit.setPredicateString(predicateString, subMonitor.newChild(1));
-
-		return wit;
+		OperationTrace trace = Instrumentation.begin(Operation.CREATE_WITNESS,
+				evt);
+		try {
+			Instrumentation.opened(trace, evt);
+			Assert.isTrue(evt.exists(),
+					Messages.bind(Messages.error_NonExistingEvent,
+							Attributes.getLabel(trace, evt)));
+
+			// Split the progress monitor.
+			SubMonitor subMonitor = convert(monitor,
+					Messages.progress_CreateWitness, 3);
+
+			Instrumentation.beginWrite(trace);
+
+			// 1. Create the element.
+			subMonitor.subTask(Messages.progress_CreateWitnessElement);
+			IWitness wit = evt.createChild(IWitness.ELEMENT_TYPE, nextSibling,
+					subMonitor.newChild(1));
+			Instrumentation.created(trace);
+
+			// 2. Set witness label.
+			subMonitor.subTask(Messages.progress_SetWitnessLabel);
+			Attributes.setLabel(trace, wit, label, subMonitor.newChild(1));
+
+			// 3. Set guard predicate string.
+			subMonitor.subTask(Messages.progress_SetWitnessPredicateString);
+			Attributes.setPredicateString(trace, wit, predicateString,
+					subMonitor.newChild(1));
+
+			return wit;
+		} finally {
+			Instrumentation.end(trace);
+		}
 	}
 
 	/**
@@ -960,27 +1170,39 @@ public final class EventBUtils {
 			IProgressMonitor monitor) throws RodinDBException {
 		// Assert preconditions.
 		Assert.isNotNull(evt, Messages.error_NullEvent);
-		Assert.isTrue(evt.exists(),
-				Messages.bind(Messages.error_NonExistingEvent, evt.getLabel()));
-
-		// Split the progress monitor.
-		SubMonitor subMonitor = SubMonitor.convert(monitor,
-				Messages.progress_CreateAction, 3);
-
-		// 1. Create the element.
-		subMonitor.subTask(Messages.progress_CreateActionElement);
-		IAction act = evt.createChild(IAction.ELEMENT_TYPE, nextSibling,
-				subMonitor.newChild(1));
-
-		// 2. Set action label.
-		subMonitor.subTask(Messages.progress_SetActionLabel);
-		act.setLabel(label, subMonitor.newChild(1));
-
-		// 3. Set action assignment string.
-		subMonitor.subTask(Messages.progress_SetActionAssignmentString);
-		act.setAssignmentString(assignment, subMonitor.newChild(1));
-
-		return act;
+		OperationTrace trace = Instrumentation.begin(Operation.CREATE_ACTION,
+				evt);
+		try {
+			Instrumentation.opened(trace, evt);
+			Assert.isTrue(evt.exists(),
+					Messages.bind(Messages.error_NonExistingEvent,
+							Attributes.getLabel(trace, evt)));
+
+			// Split the progress monitor.
+			SubMonitor subMonitor = convert(monitor,
+					Messages.progress_CreateAction, 3);
+
+			Instrumentation.beginWrite(trace);
+
+			// 1. Create the element.
+			subMonitor.subTask(Messages.progress_CreateActionElement);
+			IAction act = evt.createChild(IAction.ELEMENT_TYPE, nextSibling,
+					subMonitor.newChild(1));
+			Instrumentation.created(trace);
+
+			// 2. Set action label.
+			subMonitor.subTask(Messages.progress_SetActionLabel);
+			Attributes.setLabel(trace, act, label, subMonitor.newChild(1));
+
+			// 3. Set action assignment string.
+			subMonitor.subTask(Messages.progress_SetActionAssignmentString);
+			Attributes.setAssignmentString(trace, act, assignment,
+					subMonitor.newChild(1));
+
+			return act;
+		} finally {
+			Instrumentation.end(trace);
+		}
 	}
 
 	/**
@@ -1001,21 +1223,28 @@ public final class EventBUtils {
 			throws RodinDBException {
 		// Assert preconditions.
 		Assert.isNotNull(mch, Messages.error_NullMachine);
-		Assert.isTrue(mch.exists(), Messages.bind(
-				Messages.error_NonExistingMachine, mch.getRodinFile()
-						.getBareName()));
-
-		// Get the list of events and check their labels.
-		IEvent[] evts = mch.getEvents();
-		for (IEvent evt : evts) {
-			// Return the event if its label is the same as the input label.
-			if (evt.getLabel().equals(evtLabel))
-				return evt;
+		OperationTrace trace = Instrumentation.begin(Operation.GET_EVENT, mch);
+		try {
+			Instrumentation.opened(trace, mch);
+			Assert.isTrue(mch.exists(), Messages.bind(
+					Messages.error_NonExistingMachine, mch.getRodinFile()
+							.getBareName()));
+
+			// Get the list of events and check their labels.
+			IEvent[] evts = mch.getEvents();
+			for (IEvent evt : evts) {
+				Instrumentation.elementsRead(trace, 1);
+				// Return the event if its label is the same as the input label.
+				if (Attributes.getLabel(trace, evt).equals(evtLabel))
+					return evt;
+			}
+
+			// Return <code>null</code> in the case where no matching events are
+			// found.
+			return null;
+		} finally {
+			Instrumentation.end(trace);
 		}
-
-		// Return <code>null</code> in the case where no matching events are
-		// found.
-		return null;
 	}
 
 }
\ No newline at end of file
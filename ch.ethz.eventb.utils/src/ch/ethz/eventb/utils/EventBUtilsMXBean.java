@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.utils;
+
+import java.util.Map;
+
+/**
+ * <p>
+ * The management interface of the utilities, registered in the platform
+ * MBean server by {@link EventBManagement#register()} under the name
+ * {@link EventBManagement#OBJECT_NAME}. It exposes the metrics of the
+ * operations (see {@link EventBMetrics}), the tracing of the slow operations
+ * (see {@link EventBTracing}), and the caches maintained by the utilities.
+ * </p>
+ * <p>
+ * The metrics of the operations are given as maps from the operation names
+ * to values, containing only the operations called at least once. The
+ * latencies are in nanoseconds; the percentiles are upper bounds given by
+ * the latency histograms (see {@link OperationStatistics}). The caches are
+ * those in use at the time, e.g. the component roots cached by the content
+ * providers attached to viewers.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBManagement
+ * @since 0.2.5
+ */
+public interface EventBUtilsMXBean {
+
+	/**
+	 * Returns whether the metrics of the operations are recorded.
+	 * 
+	 * @return <code>true</code> if the metrics are recorded,
+	 *         <code>false</code> otherwise.
+	 * @see EventBMetrics#isEnabled()
+	 */
+	public boolean isMetricsEnabled();
+
+	/**
+	 * Enables or disables the recording of the metrics of the operations.
+	 * 
+	 * @param enabled
+	 *            <code>true</code> to record the metrics, <code>false</code>
+	 *            otherwise.
+	 * @see EventBMetrics#setEnabled(boolean)
+	 */
+	public void setMetricsEnabled(boolean enabled);
+
+	/**
+	 * Returns the duration above which the calls are logged.
+	 * 
+	 * @return a duration in milliseconds, or <code>-1</code> if the tracing
+	 *         is disabled.
+	 * @see EventBTracing#getSlowOperationThreshold()
+	 */
+	public long getSlowOperationThreshold();
+
+	/**
+	 * Sets the duration above which the calls are logged.
+	 * 
+	 * @param millis
+	 *            a duration in milliseconds, or a negative number to disable
+	 *            the tracing.
+	 * @see EventBTracing#setSlowOperationThreshold(long)
+	 */
+	public void setSlowOperationThreshold(long millis);
+
+	/**
+	 * Returns the number of calls of the operations.
+	 * 
+	 * @return a map from the operation names to their numbers of calls.
+	 */
+	public Map<String, Long> getOperationCounts();
+
+	/**
+	 * Returns the mean latencies of the operations.
+	 * 
+	 * @return a map from the operation names to their mean latencies.
+	 */
+	public Map<String, Double> getMeanLatencies();
+
+	/**
+	 * Returns the medians of the latencies of the operations.
+	 * 
+	 * @return a map from the operation names to their median latencies.
+	 */
+	public Map<String, Long> getMedianLatencies();
+
+	/**
+	 * Returns the 99th percentiles of the latencies of the operations.
+	 * 
+	 * @return a map from the operation names to their 99th percentiles.
+	 */
+	public Map<String, Long> getP99Latencies();
+
+	/**
+	 * Returns the maximum latencies of the operations.
+	 * 
+	 * @return a map from the operation names to their maximum latencies.
+	 */
+	public Map<String, Long> getMaxLatencies();
+
+	/**
+	 * Returns the mean numbers of accesses to the Rodin database per call of
+	 * the operations.
+	 * 
+	 * @return a map from the operation names to their mean numbers of
+	 *         accesses to the database.
+	 * @see OperationStatistics#getDatabaseOperationsPerCall()
+	 */
+	public Map<String, Double> getDatabaseOperationsPerCall();
+
+	/**
+	 * Returns a percentile of the latencies of an operation.
+	 * 
+	 * @param operation
+	 *            the name of an operation, i.e. a method name.
+	 * @param percentile
+	 *            a percentile between <code>0</code> and <code>100</code>.
+	 * @return the percentile in nanoseconds, or <code>-1</code> if there is
+	 *         no such operation.
+	 */
+	public long getLatencyPercentile(String operation, double percentile);
+
+	/**
+	 * Resets the metrics of all operations.
+	 * 
+	 * @see EventBMetrics#reset()
+	 */
+	public void resetMetrics();
+
+	/**
+	 * Returns the sizes of the caches.
+	 * 
+	 * @return a map from the cache names to their numbers of entries.
+	 */
+	public Map<String, Integer> getCacheSizes();
+
+	/**
+	 * Returns the hit rates of the caches.
+	 * 
+	 * @return a map from the cache names to the ratios of their lookups which
+	 *         found an entry, or <code>NaN</code> for the caches not looked
+	 *         up yet.
+	 */
+	public Map<String, Double> getCacheHitRates();
+
+	/**
+	 * Clears all caches. The caches are filled again as they are used.
+	 */
+	public void clearCaches();
+
+}
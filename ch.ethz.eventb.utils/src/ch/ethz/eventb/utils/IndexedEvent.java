@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.utils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.eventb.core.IConvergenceElement.Convergence;
+
+/**
+ * <p>
+ * An event read from an {@link EventBModelIndex}, i.e. a detached copy of
+ * the label, the attributes and the children of an event.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBModelIndex#getEvent(String, String)
+ * @since 0.2.5
+ */
+public final class IndexedEvent {
+
+	// The label of the event.
+	private final String label;
+
+	// The convergence of the event.
+	private final Convergence convergence;
+
+	// Whether the event is extended.
+	private final boolean extended;
+
+	// The identifiers of the parameters, in order.
+	private final List<String> parameters;
+
+	// Map from the labels of the guards to their predicates, in order.
+	private final Map<String, String> guards;
+
+	// Map from the labels of the theorems among the guards to their
+	// predicates, in order.
+	private final Map<String, String> theorems;
+
+	// Map from the labels of the actions to their assignments, in order.
+	private final Map<String, String> actions;
+
+	/**
+	 * Constructor: Create an event.
+	 */
+	IndexedEvent(String label, Convergence convergence, boolean extended,
+			List<String> parameters, Map<String, String> guards,
+			Map<String, String> theorems, Map<String, String> actions) {
+		this.label = label;
+		this.convergence = convergence;
+		this.extended = extended;
+		this.parameters = Collections.unmodifiableList(parameters);
+		this.guards = Collections.unmodifiableMap(guards);
+		this.theorems = Collections.unmodifiableMap(theorems);
+		this.actions = Collections.unmodifiableMap(actions);
+	}
+
+	/**
+	 * Returns the label of the event.
+	 * 
+	 * @return the label of the event.
+	 */
+	public String getLabel() {
+		return label;
+	}
+
+	/**
+	 * Returns the convergence of the event.
+	 * 
+	 * @return the convergence of the event.
+	 */
+	public Convergence getConvergence() {
+		return convergence;
+	}
+
+	/**
+	 * Returns whether the event is extended.
+	 * 
+	 * @return <code>true</code> if the event is extended, <code>false</code>
+	 *         otherwise.
+	 */
+	public boolean isExtended() {
+		return extended;
+	}
+
+	/**
+	 * Returns the identifier strings of the parameters of the event.
+	 * 
+	 * @return the unmodifiable list of the identifiers of the parameters, in
+	 *         order.
+	 */
+	public List<String> getParameters() {
+		return parameters;
+	}
+
+	/**
+	 * Returns the guards of the event.
+	 * 
+	 * @param isTheorem
+	 *            the flag to indicate either only guards or theorems are
+	 *            returned.
+	 * @return the unmodifiable map from the labels of the guards to their
+	 *         predicate strings, in order.
+	 */
+	public Map<String, String> getGuards(boolean isTheorem) {
+		return isTheorem ? theorems : guards;
+	}
+
+	/**
+	 * Returns the actions of the event.
+	 * 
+	 * @return the unmodifiable map from the labels of the actions to their
+	 *         assignment strings, in order.
+	 */
+	public Map<String, String> getActions() {
+		return actions;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return label + ":" + convergence + ":" + extended; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+}
@@ -0,0 +1,271 @@
+/*******************************************************************************
+ * Copyright (c) 2020 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ch.ethz.eventb.utils;
+
+import java.util.Locale;
+
+import ch.ethz.eventb.internal.utils.OperationCounters;
+
+/**
+ * <p>
+ * An immutable snapshot of the metrics of an operation, obtained from
+ * {@link EventBMetrics}. Besides the latencies and the number of elements
+ * created and read, the snapshot accounts for the accesses to the Rodin
+ * database made by the calls: the accesses to the information of elements
+ * (existence checks and enumerations of children), the attribute reads and
+ * writes, and the files loaded, i.e. not open when accessed (e.g. the
+ * unchecked files opened through the sources of checked elements). The
+ * latency histogram has exponential buckets:
+ * bucket <code>i</code> counts the calls whose latency is below
+ * {@link #getUpperBound(int)} (2<sup>i</sup>&#181;s) and at least the upper
+ * bound of bucket <code>i-1</code>; the last bucket is unbounded.
+ * </p>
+ *
+ * @author htson
+ * @version 0.1
+ * @see EventBMetrics
+ * @since 0.2.5
+ */
+public final class OperationStatistics {
+
+	// The name of the operation.
+	private final String operation;
+
+	// The number of calls.
+	private final long count;
+
+	// The total latency in nanoseconds.
+	private final long totalNanos;
+
+	// The maximum latency in nanoseconds.
+	private final long maxNanos;
+
+	// The number of elements created.
+	private final long elementsCreated;
+
+	// The number of elements read.
+	private final long elementsRead;
+
+	// The number of accesses to the information of elements.
+	private final long elementsOpened;
+
+	// The number of attribute reads.
+	private final long attributeReads;
+
+	// The number of attribute writes.
+	private final long attributeWrites;
+
+	// The number of files loaded.
+	private final long filesLoaded;
+
+	// The latency histogram.
+	private final long[] histogram;
+
+	/**
+	 * Constructor: Create a snapshot of the metrics of an operation.
+	 */
+	OperationStatistics(String operation, long count, long totalNanos,
+			long maxNanos, long elementsCreated, long elementsRead,
+			long elementsOpened, long attributeReads, long attributeWrites,
+			long filesLoaded, long[] histogram) {
+		this.operation = operation;
+		this.count = count;
+		this.totalNanos = totalNanos;
+		this.maxNanos = maxNanos;
+		this.elementsCreated = elementsCreated;
+		this.elementsRead = elementsRead;
+		this.elementsOpened = elementsOpened;
+		this.attributeReads = attributeReads;
+		this.attributeWrites = attributeWrites;
+		this.filesLoaded = filesLoaded;
+		this.histogram = histogram;
+	}
+
+	/**
+	 * Returns the name of the operation, i.e. the method name.
+	 * 
+	 * @return the name of the operation.
+	 */
+	public String getOperation() {
+		return operation;
+	}
+
+	/**
+	 * Returns the number of calls.
+	 * 
+	 * @return the number of calls.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the total latency of the calls.
+	 * 
+	 * @return the total latency in nanoseconds.
+	 */
+	public long getTotalNanos() {
+		return totalNanos;
+	}
+
+	/**
+	 * Returns the mean latency of the calls.
+	 * 
+	 * @return the mean latency in nanoseconds, or <code>0</code> if there is
+	 *         no call.
+	 */
+	public double getMeanNanos() {
+		return count == 0 ? 0 : (double) totalNanos / count;
+	}
+
+	/**
+	 * Returns the maximum latency of the calls.
+	 * 
+	 * @return the maximum latency in nanoseconds.
+	 */
+	public long getMaxNanos() {
+		return maxNanos;
+	}
+
+	/**
+	 * Returns an upper bound of a percentile of the latencies, given by the
+	 * histogram.
+	 * 
+	 * @param percentile
+	 *            a percentile between <code>0</code> and <code>100</code>.
+	 * @return the upper bound of the bucket containing the percentile, or the
+	 *         maximum latency if it is lower, in nanoseconds.
+	 */
+	public long getPercentileNanos(double percentile) {
+		long rank = (long) Math.ceil(count * percentile / 100);
+		long seen = 0;
+		for (int i = 0; i < histogram.length; i++) {
+			seen += histogram[i];
+			if (seen >= rank && seen > 0)
+				return Math.min(getUpperBound(i), maxNanos);
+		}
+		return maxNanos;
+	}
+
+	/**
+	 * Returns the number of elements created by the calls.
+	 * 
+	 * @return the number of elements created.
+	 */
+	public long getElementsCreated() {
+		return elementsCreated;
+	}
+
+	/**
+	 * Returns the number of elements read by the calls.
+	 * 
+	 * @return the number of elements read.
+	 */
+	public long getElementsRead() {
+		return elementsRead;
+	}
+
+	/**
+	 * Returns the number of accesses to the information of elements by the
+	 * calls.
+	 * 
+	 * @return the number of elements opened.
+	 */
+	public long getElementsOpened() {
+		return elementsOpened;
+	}
+
+	/**
+	 * Returns the number of attribute reads by the calls.
+	 * 
+	 * @return the number of attribute reads.
+	 */
+	public long getAttributeReads() {
+		return attributeReads;
+	}
+
+	/**
+	 * Returns the number of attribute writes by the calls.
+	 * 
+	 * @return the number of attribute writes.
+	 */
+	public long getAttributeWrites() {
+		return attributeWrites;
+	}
+
+	/**
+	 * Returns the number of files loaded by the calls.
+	 * 
+	 * @return the number of files loaded.
+	 */
+	public long getFilesLoaded() {
+		return filesLoaded;
+	}
+
+	/**
+	 * Returns the mean number of database operations per call, i.e. element
+	 * accesses, attribute reads and writes, and file loads.
+	 * 
+	 * @return the mean number of database operations, or <code>0</code> if
+	 *         there was no call.
+	 */
+	public double getDatabaseOperationsPerCall() {
+		if (count == 0)
+			return 0;
+		long operations = elementsOpened + attributeReads + attributeWrites
+				+ filesLoaded;
+		return (double) operations / count;
+	}
+
+	/**
+	 * Returns the latency histogram.
+	 * 
+	 * @return a copy of the number of calls in each bucket.
+	 */
+	public long[] getHistogram() {
+		return histogram.clone();
+	}
+
+	/**
+	 * Returns the (exclusive) upper bound of a bucket of the latency
+	 * histogram.
+	 * 
+	 * @param bucket
+	 *            the index of a bucket.
+	 * @return the upper bound in nanoseconds, or {@link Long#MAX_VALUE} for
+	 *         the last bucket.
+	 */
+	public static long getUpperBound(int bucket) {
+		return OperationCounters.getUpperBound(bucket);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT,
+				"%s: count=%d mean=%.0fns p50<=%dns p99<=%dns max=%dns" //$NON-NLS-1$
+						+ " created=%d read=%d opened=%d attributeReads=%d" //$NON-NLS-1$
+						+ " attributeWrites=%d filesLoaded=%d", operation, //$NON-NLS-1$
+				count, getMeanNanos(), getPercentileNanos(50),
+				getPercentileNanos(99), maxNanos, elementsCreated,
+				elementsRead, elementsOpened, attributeReads,
+				attributeWrites, filesLoaded);
+	}
+
+}
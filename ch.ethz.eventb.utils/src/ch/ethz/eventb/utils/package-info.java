@@ -22,6 +22,35 @@
  * 
  * <li>{@link ch.ethz.eventb.utils.EventBUtils}:
  * Utility for manipulating Event-B statically un-checked elements.</li>
+ * 
+ * <li>{@link ch.ethz.eventb.utils.BatchProgressMonitor}:
+ * Aggregated progress reporting for bulk operations.</li>
+ * 
+ * <li>{@link ch.ethz.eventb.utils.EventBMetrics}:
+ * Optional metrics of the operations of the utilities, reported as
+ * {@link ch.ethz.eventb.utils.OperationStatistics}.</li>
+ * 
+ * <li>{@link ch.ethz.eventb.utils.EventBTracing}:
+ * Optional logging of the slow operations of the utilities.</li>
+ * 
+ * <li>{@link ch.ethz.eventb.utils.EventBManagement}:
+ * Registration of the JMX management interface of the utilities,
+ * {@link ch.ethz.eventb.utils.EventBUtilsMXBean}.</li>
+ * 
+ * <li>{@link ch.ethz.eventb.utils.EventBSnapshot}:
+ * Compact binary snapshots of the machines and contexts of projects.</li>
+ * 
+ * <li>{@link ch.ethz.eventb.utils.EventBModelIndex}:
+ * Memory-mapped read-only indexes of projects, returning
+ * {@link ch.ethz.eventb.utils.IndexedEvent}s.</li>
+ * 
+ * <li>{@link ch.ethz.eventb.utils.EventBJsonExport}:
+ * Streaming export of the machines and contexts of projects as
+ * newline-delimited JSON.</li>
+ * 
+ * <li>{@link ch.ethz.eventb.utils.EventBTextImport}:
+ * Streaming import of machines and contexts written in a plain-text
+ * notation.</li>
  * </ul>
  * </p>
  *